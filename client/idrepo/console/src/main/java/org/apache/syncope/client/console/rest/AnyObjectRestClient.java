@@ -73,6 +73,6 @@ public class AnyObjectRestClient extends AbstractAnyRestClient<AnyObjectTO> {
 
         return getService(AnyObjectService.class).search(
                 new AnyQuery.Builder().realm(realm).fiql(fiql).page(page).size(size).
-                        orderBy(toOrderBy(sort)).details(false).build()).getResult();
+                        orderBy(toOrderBy(sort)).details(false).count(false).build()).getResult();
     }
 }
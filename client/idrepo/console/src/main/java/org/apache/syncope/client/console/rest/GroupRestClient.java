@@ -78,7 +78,7 @@ public class GroupRestClient extends AbstractAnyRestClient<GroupTO> {
 
         return getService(GroupService.class).
                 search(new AnyQuery.Builder().realm(realm).fiql(fiql).page(page).size(size).
-                        orderBy(toOrderBy(sort)).details(false).build()).getResult();
+                        orderBy(toOrderBy(sort)).details(false).count(false).build()).getResult();
     }
 
     public static void provisionMembers(final String key, final ProvisionAction actionType) {
@@ -83,7 +83,7 @@ public class UserRestClient extends AbstractAnyRestClient<UserTO> {
 
         return getService(UserService.class).
                 search(new AnyQuery.Builder().realm(realm).fiql(fiql).page(page).size(size).
-                        orderBy(toOrderBy(sort)).details(false).build()).getResult();
+                        orderBy(toOrderBy(sort)).details(false).count(false).build()).getResult();
     }
 
     public ProvisioningResult<UserTO> mustChangePassword(final String etag, final boolean value, final String key) {
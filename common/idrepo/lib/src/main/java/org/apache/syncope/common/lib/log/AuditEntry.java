@@ -38,6 +38,8 @@ public class AuditEntry extends BaseBean {
 
     private static final long serialVersionUID = 1215115961911228005L;
 
+    private String key;
+
     private String who;
 
     private Date date;
@@ -52,6 +54,15 @@ public class AuditEntry extends BaseBean {
 
     private String throwable;
 
+    @Schema(accessMode = Schema.AccessMode.READ_ONLY)
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(final String key) {
+        this.key = key;
+    }
+
     @Schema(accessMode = Schema.AccessMode.READ_ONLY)
     public String getWho() {
         return who;
@@ -122,6 +133,7 @@ public class AuditEntry extends BaseBean {
     public int hashCode() {
         return new HashCodeBuilder().
                 appendSuper(super.hashCode()).
+                append(key).
                 append(who).
                 append(date).
                 append(logger).
@@ -146,6 +158,7 @@ public class AuditEntry extends BaseBean {
         final AuditEntry other = (AuditEntry) obj;
         return new EqualsBuilder().
                 appendSuper(super.equals(obj)).
+                append(key, other.key).
                 append(who, other.who).
                 append(date, other.date).
                 append(logger, other.logger).
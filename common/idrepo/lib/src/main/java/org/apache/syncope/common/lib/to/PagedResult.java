@@ -42,6 +42,8 @@ public class PagedResult<T extends BaseBean> implements Serializable {
 
     private URI next;
 
+    private String nextCursor;
+
     private final List<T> result = new ArrayList<>();
 
     private int page;
@@ -66,6 +68,14 @@ public class PagedResult<T extends BaseBean> implements Serializable {
         this.next = next;
     }
 
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(final String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
     @XmlElementWrapper(name = "result")
     @XmlElement(name = "item")
     @JsonProperty("result")
@@ -103,6 +113,7 @@ public class PagedResult<T extends BaseBean> implements Serializable {
         return new HashCodeBuilder().
                 append(prev).
                 append(next).
+                append(nextCursor).
                 append(result).
                 append(page).
                 append(size).
@@ -126,6 +137,7 @@ public class PagedResult<T extends BaseBean> implements Serializable {
         return new EqualsBuilder().
                 append(prev, other.prev).
                 append(next, other.next).
+                append(nextCursor, other.nextCursor).
                 append(result, other.result).
                 append(page, other.page).
                 append(size, other.size).
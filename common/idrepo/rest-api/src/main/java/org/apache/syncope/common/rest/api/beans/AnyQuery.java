@@ -34,6 +34,11 @@ public class AnyQuery extends AbstractQuery {
 
     private static final long serialVersionUID = -6736562952418964707L;
 
+    /**
+     * Cursor value to provide for getting the first results when sweeping via cursor.
+     */
+    public static final String FIRST_CURSOR = "*";
+
     public static class Builder extends AbstractQuery.Builder<AnyQuery, Builder> {
 
         @Override
@@ -56,6 +61,18 @@ public class AnyQuery extends AbstractQuery {
 
             return this;
         }
+
+        public Builder cursor(final String cursor) {
+            getInstance().setCursor(cursor);
+
+            return this;
+        }
+
+        public Builder count(final boolean count) {
+            getInstance().setCount(count);
+
+            return this;
+        }
     }
 
     private String realm;
@@ -64,6 +81,10 @@ public class AnyQuery extends AbstractQuery {
 
     private String fiql;
 
+    private String cursor;
+
+    private Boolean count;
+
     @Parameter(name = JAXRSService.PARAM_REALM, description = "realms define a hierarchical security domain tree, "
             + "primarily meant for containing Users, Groups and Any Objects", schema =
             @Schema(implementation = String.class, defaultValue = SyncopeConstants.ROOT_REALM, externalDocs =
@@ -108,6 +129,33 @@ public class AnyQuery extends AbstractQuery {
         this.fiql = fiql;
     }
 
+    @Parameter(name = JAXRSService.PARAM_CURSOR, description = "opaque continuation token: when provided, page and "
+            + "orderby are ignored, results are returned by key and the token for the following results is reported "
+            + "by the response; use '" + FIRST_CURSOR + "' to get the first results", schema =
+            @Schema(implementation = String.class, example = FIRST_CURSOR))
+    public String getCursor() {
+        return cursor;
+    }
+
+    @QueryParam(JAXRSService.PARAM_CURSOR)
+    public void setCursor(final String cursor) {
+        this.cursor = cursor;
+    }
+
+    @Parameter(name = JAXRSService.PARAM_COUNT, description = "whether all matching entities shall be counted; "
+            + "when false, the reported total count is only a lower bound, exceeding the number of entities up to the "
+            + "requested page if and only if further results are available", schema =
+            @Schema(implementation = Boolean.class))
+    public Boolean getCount() {
+        return Optional.ofNullable(count).orElse(Boolean.TRUE);
+    }
+
+    @QueryParam(JAXRSService.PARAM_COUNT)
+    @DefaultValue("true")
+    public void setCount(final Boolean count) {
+        this.count = count;
+    }
+
     @Override
     public boolean equals(final Object obj) {
         if (this == obj) {
@@ -125,6 +173,8 @@ public class AnyQuery extends AbstractQuery {
                 append(realm, other.realm).
                 append(details, other.details).
                 append(fiql, other.fiql).
+                append(cursor, other.cursor).
+                append(count, other.count).
                 build();
     }
 
@@ -135,6 +185,8 @@ public class AnyQuery extends AbstractQuery {
                 append(realm).
                 append(details).
                 append(fiql).
+                append(cursor).
+                append(count).
                 build();
     }
 }
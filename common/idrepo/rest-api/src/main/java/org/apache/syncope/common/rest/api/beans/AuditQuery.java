@@ -22,6 +22,7 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Schema;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import javax.validation.constraints.NotNull;
 import javax.ws.rs.QueryParam;
@@ -73,6 +74,21 @@ public class AuditQuery extends AbstractQuery {
             getInstance().setResult(result);
             return this;
         }
+
+        public Builder before(final Date before) {
+            getInstance().setBefore(before);
+            return this;
+        }
+
+        public Builder after(final Date after) {
+            getInstance().setAfter(after);
+            return this;
+        }
+
+        public Builder lastKey(final String lastKey) {
+            getInstance().setLastKey(lastKey);
+            return this;
+        }
     }
 
     private String entityKey;
@@ -87,6 +103,12 @@ public class AuditQuery extends AbstractQuery {
 
     private AuditElements.Result result;
 
+    private Date before;
+
+    private Date after;
+
+    private String lastKey;
+
     @Parameter(name = JAXRSService.PARAM_ENTITY_KEY, description = "audit entity key to match", schema =
             @Schema(implementation = String.class, example = "50592942-73ec-44c4-a377-e859524245e4"))
     public String getEntityKey() {
@@ -156,4 +178,52 @@ public class AuditQuery extends AbstractQuery {
             this.events.addAll(events);
         }
     }
+
+    @Parameter(name = "before", description = "only match audit entries logged before this date",
+            schema = @Schema(implementation = Date.class))
+    public Date getBefore() {
+        if (before != null) {
+            return new Date(before.getTime());
+        }
+        return null;
+    }
+
+    @QueryParam("before")
+    public void setBefore(final Date before) {
+        if (before != null) {
+            this.before = new Date(before.getTime());
+        } else {
+            this.before = null;
+        }
+    }
+
+    @Parameter(name = "after", description = "only match audit entries logged after this date",
+            schema = @Schema(implementation = Date.class))
+    public Date getAfter() {
+        if (after != null) {
+            return new Date(after.getTime());
+        }
+        return null;
+    }
+
+    @QueryParam("after")
+    public void setAfter(final Date after) {
+        if (after != null) {
+            this.after = new Date(after.getTime());
+        } else {
+            this.after = null;
+        }
+    }
+
+    @Parameter(name = "lastKey", description = "key of the last audit entry previously returned; when set, keyset "
+            + "pagination is performed, ordering by descending date: page and orderBy are ignored",
+            schema = @Schema(implementation = String.class))
+    public String getLastKey() {
+        return lastKey;
+    }
+
+    @QueryParam("lastKey")
+    public void setLastKey(final String lastKey) {
+        this.lastKey = lastKey;
+    }
 }
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.keymaster.client.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Decorates a {@link ConfParamOps} instance by keeping, for each domain, a snapshot of all configuration parameters,
+ * so that lookups do not reach the keymaster.
+ * Snapshots are loaded upon first lookup and dropped whenever configuration parameters are changed via this
+ * instance, via {@link #invalidate(java.lang.String)} - when the underlying implementation is able to watch changes
+ * made by other clients - or when older than the configured maximum age.
+ * Closing this instance closes the underlying implementation as well, when {@link AutoCloseable}.
+ */
+public class CachingConfParamOps implements ConfParamOps, AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CachingConfParamOps.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final class Snapshot {
+
+        private final Map<String, Object> values;
+
+        private final long loaded = System.currentTimeMillis();
+
+        private Snapshot(final Map<String, Object> values) {
+            this.values = Collections.unmodifiableMap(new TreeMap<>(values));
+        }
+    }
+
+    private final ConfParamOps delegate;
+
+    private final long maxAge;
+
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate actual implementation
+     * @param maxAge maximum age (in seconds) of each snapshot, -1 to keep snapshots until invalidated
+     */
+    public CachingConfParamOps(final ConfParamOps delegate, final long maxAge) {
+        this.delegate = delegate;
+        this.maxAge = maxAge;
+    }
+
+    private boolean isExpired(final Snapshot snapshot) {
+        return snapshot == null || (maxAge >= 0 && System.currentTimeMillis() - snapshot.loaded > maxAge * 1000L);
+    }
+
+    private Snapshot snapshot(final String domain) {
+        Snapshot snapshot = snapshots.get(domain);
+        if (isExpired(snapshot)) {
+            // invalidations occurring while loading are applied once done, so no stale snapshot is kept
+            snapshot = snapshots.compute(domain, (k, current) -> isExpired(current)
+                    ? new Snapshot(delegate.list(domain))
+                    : current);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Drops the snapshot of the given domain, which will be loaded again upon next lookup.
+     *
+     * @param domain domain, or null for all domains
+     */
+    public void invalidate(final String domain) {
+        if (domain == null) {
+            snapshots.clear();
+        } else {
+            snapshots.remove(domain);
+        }
+    }
+
+    @Override
+    public Map<String, Object> list(final String domain) {
+        return new TreeMap<>(snapshot(domain).values);
+    }
+
+    @Override
+    public <T> T get(final String domain, final String key, final T defaultValue, final Class<T> reference) {
+        Object value = snapshot(domain).values.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+
+        try {
+            return Optional.ofNullable(MAPPER.convertValue(value, reference)).orElse(defaultValue);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Could not convert {} to {}", value, reference.getName(), e);
+            return defaultValue;
+        }
+    }
+
+    @Override
+    public <T> void set(final String domain, final String key, final T value) {
+        try {
+            delegate.set(domain, key, value);
+        } finally {
+            invalidate(domain);
+        }
+    }
+
+    @Override
+    public void remove(final String domain, final String key) {
+        try {
+            delegate.remove(domain, key);
+        } finally {
+            invalidate(domain);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+}
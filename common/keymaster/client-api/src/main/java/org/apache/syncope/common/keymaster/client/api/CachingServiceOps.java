@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.keymaster.client.api;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.syncope.common.keymaster.client.api.model.NetworkService;
+
+/**
+ * Decorates a {@link ServiceOps} instance by keeping, for each service type, the list of registered instances,
+ * so that lookups do not reach the keymaster; {@link #get(NetworkService.Type)} selects instances in round-robin
+ * fashion, to spread load among all registered instances.
+ * Lists are loaded upon first lookup and dropped whenever services are registered or unregistered via this
+ * instance, via {@link #invalidate(NetworkService.Type)} - when the underlying implementation is able to watch
+ * registrations made by other clients - or when older than the configured maximum age.
+ * Closing this instance closes the underlying implementation as well, when {@link AutoCloseable}.
+ */
+public class CachingServiceOps implements ServiceOps, AutoCloseable {
+
+    private static final class Instances {
+
+        private final List<NetworkService> services;
+
+        private final long loaded = System.currentTimeMillis();
+
+        private final AtomicInteger next = new AtomicInteger();
+
+        private Instances(final List<NetworkService> services) {
+            this.services = List.copyOf(services);
+        }
+    }
+
+    private final ServiceOps delegate;
+
+    private final long maxAge;
+
+    private final Map<NetworkService.Type, Instances> instances = new ConcurrentHashMap<>();
+
+    /**
+     * @param delegate actual implementation
+     * @param maxAge maximum age (in seconds) of each list, -1 to keep lists until invalidated
+     */
+    public CachingServiceOps(final ServiceOps delegate, final long maxAge) {
+        this.delegate = delegate;
+        this.maxAge = maxAge;
+    }
+
+    private boolean isExpired(final Instances current) {
+        return current == null || (maxAge >= 0 && System.currentTimeMillis() - current.loaded > maxAge * 1000L);
+    }
+
+    private Instances instances(final NetworkService.Type serviceType) {
+        Instances current = instances.get(serviceType);
+        if (isExpired(current)) {
+            // invalidations occurring while loading are applied once done, so no stale list is kept
+            current = instances.compute(serviceType, (k, c) -> isExpired(c)
+                    ? new Instances(delegate.list(serviceType))
+                    : c);
+        }
+        return current;
+    }
+
+    /**
+     * Drops the list of instances for the given service type, which will be loaded again upon next lookup.
+     *
+     * @param serviceType service type, or null for all service types
+     */
+    public void invalidate(final NetworkService.Type serviceType) {
+        if (serviceType == null) {
+            instances.clear();
+        } else {
+            instances.remove(serviceType);
+        }
+    }
+
+    @Override
+    public void register(final NetworkService service) {
+        try {
+            delegate.register(service);
+        } finally {
+            invalidate(service.getType());
+        }
+    }
+
+    @Override
+    public void unregister(final NetworkService service) {
+        try {
+            delegate.unregister(service);
+        } finally {
+            invalidate(service.getType());
+        }
+    }
+
+    @Override
+    public List<NetworkService> list(final NetworkService.Type serviceType) {
+        return new ArrayList<>(instances(serviceType).services);
+    }
+
+    @Override
+    public NetworkService get(final NetworkService.Type serviceType) {
+        Instances current = instances(serviceType);
+        if (current.services.isEmpty()) {
+            throw new KeymasterException("No registered services for type " + serviceType);
+        }
+
+        return current.services.get(Math.floorMod(current.next.getAndIncrement(), current.services.size()));
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (delegate instanceof AutoCloseable) {
+            ((AutoCloseable) delegate).close();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.keymaster.client.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingConfParamOpsTest {
+
+    private static final String DOMAIN = "Master";
+
+    private static class InMemoryConfParamOps implements ConfParamOps, AutoCloseable {
+
+        private final Map<String, Map<String, Object>> params = new ConcurrentHashMap<>();
+
+        private final AtomicInteger lists = new AtomicInteger();
+
+        private boolean closed;
+
+        @Override
+        public Map<String, Object> list(final String domain) {
+            lists.incrementAndGet();
+            return new TreeMap<>(params.computeIfAbsent(domain, k -> new ConcurrentHashMap<>()));
+        }
+
+        @Override
+        public <T> T get(final String domain, final String key, final T defaultValue, final Class<T> reference) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> void set(final String domain, final String key, final T value) {
+            params.computeIfAbsent(domain, k -> new ConcurrentHashMap<>()).put(key, value);
+        }
+
+        @Override
+        public void remove(final String domain, final String key) {
+            params.computeIfAbsent(domain, k -> new ConcurrentHashMap<>()).remove(key);
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private InMemoryConfParamOps delegate;
+
+    private CachingConfParamOps confParamOps;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = new InMemoryConfParamOps();
+        delegate.set(DOMAIN, "password.cipher.algorithm", "SSHA256");
+        delegate.set(DOMAIN, "jwt.lifetime.minutes", 120);
+        delegate.set(DOMAIN, "authentication.attributes", List.of("username", "email"));
+
+        confParamOps = new CachingConfParamOps(delegate, -1);
+    }
+
+    @Test
+    public void get() {
+        assertEquals("SSHA256", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+        assertEquals(120L, confParamOps.get(DOMAIN, "jwt.lifetime.minutes", null, Long.class));
+        assertEquals(List.of("username", "email"),
+                List.of(confParamOps.get(DOMAIN, "authentication.attributes", null, String[].class)));
+        assertEquals(5, confParamOps.get(DOMAIN, "missing", 5, Integer.class));
+        assertEquals(5, confParamOps.get(DOMAIN, "password.cipher.algorithm", 5, Integer.class));
+
+        assertEquals(1, delegate.lists.get());
+    }
+
+    @Test
+    public void setAndRemove() {
+        assertEquals(3, confParamOps.list(DOMAIN).size());
+
+        confParamOps.set(DOMAIN, "token.length", 256);
+        assertEquals(256, confParamOps.get(DOMAIN, "token.length", null, Integer.class));
+
+        confParamOps.remove(DOMAIN, "token.length");
+        assertNull(confParamOps.get(DOMAIN, "token.length", null, Integer.class));
+
+        assertEquals(3, delegate.lists.get());
+    }
+
+    @Test
+    public void invalidate() {
+        assertEquals("SSHA256", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+
+        // changed by some other client
+        delegate.set(DOMAIN, "password.cipher.algorithm", "BCRYPT");
+        assertEquals("SSHA256", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+
+        confParamOps.invalidate(DOMAIN);
+        assertEquals("BCRYPT", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+
+        delegate.set(DOMAIN, "password.cipher.algorithm", "SHA1");
+        confParamOps.invalidate(null);
+        assertEquals("SHA1", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+    }
+
+    @Test
+    public void maxAge() {
+        confParamOps = new CachingConfParamOps(delegate, 0);
+
+        assertEquals("SSHA256", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+        delegate.set(DOMAIN, "password.cipher.algorithm", "BCRYPT");
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        assertEquals("BCRYPT", confParamOps.get(DOMAIN, "password.cipher.algorithm", null, String.class));
+    }
+
+    @Test
+    public void close() throws Exception {
+        confParamOps.close();
+        assertTrue(delegate.closed);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.common.keymaster.client.api;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.syncope.common.keymaster.client.api.model.NetworkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class CachingServiceOpsTest {
+
+    private static class InMemoryServiceOps implements ServiceOps, AutoCloseable {
+
+        private final List<NetworkService> services = new CopyOnWriteArrayList<>();
+
+        private final AtomicInteger lists = new AtomicInteger();
+
+        private boolean closed;
+
+        @Override
+        public void register(final NetworkService service) {
+            services.remove(service);
+            services.add(service);
+        }
+
+        @Override
+        public void unregister(final NetworkService service) {
+            services.remove(service);
+        }
+
+        @Override
+        public List<NetworkService> list(final NetworkService.Type serviceType) {
+            lists.incrementAndGet();
+            return services.stream().filter(s -> s.getType() == serviceType).collect(Collectors.toList());
+        }
+
+        @Override
+        public NetworkService get(final NetworkService.Type serviceType) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+
+    private static NetworkService core(final String address) {
+        NetworkService service = new NetworkService();
+        service.setType(NetworkService.Type.CORE);
+        service.setAddress(address);
+        return service;
+    }
+
+    private InMemoryServiceOps delegate;
+
+    private CachingServiceOps serviceOps;
+
+    @BeforeEach
+    public void setUp() {
+        delegate = new InMemoryServiceOps();
+        serviceOps = new CachingServiceOps(delegate, -1);
+    }
+
+    @Test
+    public void roundRobin() {
+        NetworkService core1 = core("http://core1:9080/syncope/rest");
+        NetworkService core2 = core("http://core2:9080/syncope/rest");
+        NetworkService core3 = core("http://core3:9080/syncope/rest");
+        serviceOps.register(core1);
+        serviceOps.register(core2);
+        serviceOps.register(core3);
+
+        List<NetworkService> selected = IntStream.range(0, 6).
+                mapToObj(i -> serviceOps.get(NetworkService.Type.CORE)).collect(Collectors.toList());
+        assertEquals(Set.of(core1, core2, core3), Set.copyOf(selected.subList(0, 3)));
+        assertEquals(selected.subList(0, 3), selected.subList(3, 6));
+
+        assertEquals(1, delegate.lists.get());
+    }
+
+    @Test
+    public void registerAndUnregister() {
+        assertThrows(KeymasterException.class, () -> serviceOps.get(NetworkService.Type.CORE));
+
+        NetworkService core1 = core("http://core1:9080/syncope/rest");
+        serviceOps.register(core1);
+        assertEquals(core1, serviceOps.get(NetworkService.Type.CORE));
+        assertEquals(List.of(core1), serviceOps.list(NetworkService.Type.CORE));
+        assertTrue(serviceOps.list(NetworkService.Type.SRA).isEmpty());
+
+        serviceOps.unregister(core1);
+        assertTrue(serviceOps.list(NetworkService.Type.CORE).isEmpty());
+        assertThrows(KeymasterException.class, () -> serviceOps.get(NetworkService.Type.CORE));
+    }
+
+    @Test
+    public void invalidate() {
+        NetworkService core1 = core("http://core1:9080/syncope/rest");
+        serviceOps.register(core1);
+        assertEquals(List.of(core1), serviceOps.list(NetworkService.Type.CORE));
+
+        // registered by some other client
+        NetworkService core2 = core("http://core2:9080/syncope/rest");
+        delegate.register(core2);
+        assertEquals(List.of(core1), serviceOps.list(NetworkService.Type.CORE));
+
+        serviceOps.invalidate(NetworkService.Type.CORE);
+        assertEquals(List.of(core1, core2), serviceOps.list(NetworkService.Type.CORE));
+    }
+
+    @Test
+    public void close() throws Exception {
+        serviceOps.close();
+        assertTrue(delegate.closed);
+    }
+}
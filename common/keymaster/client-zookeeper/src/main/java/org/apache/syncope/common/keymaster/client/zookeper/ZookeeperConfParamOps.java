@@ -22,7 +22,10 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.function.Consumer;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
 import org.apache.syncope.common.keymaster.client.api.KeymasterException;
 import org.apache.zookeeper.KeeperException;
@@ -33,7 +36,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 /**
  * Implements {@link ConfParamOps} via Apache Curator / Zookeeper.
  */
-public class ZookeeperConfParamOps implements ConfParamOps {
+public class ZookeeperConfParamOps implements ConfParamOps, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ConfParamOps.class);
 
@@ -44,10 +47,72 @@ public class ZookeeperConfParamOps implements ConfParamOps {
     @Autowired
     private CuratorFramework client;
 
+    private TreeCache watcher;
+
+    public ZookeeperConfParamOps() {
+        // default constructor, client to be injected
+    }
+
+    public ZookeeperConfParamOps(final CuratorFramework client) {
+        this.client = client;
+    }
+
     private static String buildConfPath(final String... parts) {
         return CONF_PATH + '/' + String.join("/", parts);
     }
 
+    /**
+     * Watches for configuration parameters being created, updated or removed by any client.
+     *
+     * @param listener invoked with the domain where changes occurred, or with null when changes might have been
+     * missed, due to connection loss
+     * @throws Exception if the watch could not be established
+     */
+    public synchronized void watch(final Consumer<String> listener) throws Exception {
+        if (client.checkExists().forPath(CONF_PATH) == null) {
+            client.create().creatingParentContainersIfNeeded().forPath(CONF_PATH);
+        }
+
+        close();
+        watcher = new TreeCache(client, CONF_PATH);
+        watcher.getListenable().addListener((cf, event) -> {
+            switch (event.getType()) {
+                case NODE_ADDED:
+                case NODE_UPDATED:
+                case NODE_REMOVED:
+                    String domain = StringUtils.substringBefore(
+                            StringUtils.substringAfter(event.getData().getPath(), CONF_PATH + '/'), "/");
+                    if (StringUtils.isNotBlank(domain)) {
+                        LOG.debug("Configuration parameters changed for domain {}", domain);
+                        listener.accept(domain);
+                    }
+                    break;
+
+                case CONNECTION_SUSPENDED:
+                case CONNECTION_LOST:
+                case CONNECTION_RECONNECTED:
+                    LOG.debug("Connection event {}, all configuration parameters might have changed", event.getType());
+                    listener.accept(null);
+                    break;
+
+                default:
+                    LOG.debug("Event {} received with data {}", event.getType(), event.getData());
+            }
+        });
+        watcher.start();
+    }
+
+    /**
+     * Stops watching for changes, if {@link #watch(java.util.function.Consumer)} was invoked.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
     @Override
     public Map<String, Object> list(final String domain) {
         try {
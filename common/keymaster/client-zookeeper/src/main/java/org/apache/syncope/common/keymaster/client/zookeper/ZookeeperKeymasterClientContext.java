@@ -27,6 +27,8 @@ import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.api.ACLProvider;
 import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.syncope.common.keymaster.client.api.CachingConfParamOps;
+import org.apache.syncope.common.keymaster.client.api.CachingServiceOps;
 import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
 import org.apache.syncope.common.keymaster.client.api.DomainOps;
 import org.apache.syncope.common.keymaster.client.api.ServiceOps;
@@ -59,6 +61,12 @@ public class ZookeeperKeymasterClientContext {
     @Value("${keymaster.maxRetries:3}")
     private Integer maxRetries;
 
+    @Value("${keymaster.confParamCache.maxAge:-1}")
+    private long confParamCacheMaxAge;
+
+    @Value("${keymaster.serviceCache.maxAge:-1}")
+    private long serviceCacheMaxAge;
+
     @ConditionalOnExpression("#{'${keymaster.address}' "
             + "matches '^((\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})|[a-z\\.]+):[0-9]+$'}")
     @Bean
@@ -110,16 +118,23 @@ public class ZookeeperKeymasterClientContext {
     @ConditionalOnExpression("#{'${keymaster.address}' "
             + "matches '^((\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})|[a-z\\.]+):[0-9]+$'}")
     @Bean
-    public ConfParamOps selfConfParamOps() {
-        return new ZookeeperConfParamOps();
+    public ConfParamOps selfConfParamOps(final CuratorFramework client) throws Exception {
+        ZookeeperConfParamOps confParamOps = new ZookeeperConfParamOps(client);
+        CachingConfParamOps cachingConfParamOps = new CachingConfParamOps(confParamOps, confParamCacheMaxAge);
+        confParamOps.watch(cachingConfParamOps::invalidate);
+        return cachingConfParamOps;
     }
 
     @ConditionalOnExpression("#{'${keymaster.address}' "
             + "matches '^((\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})|[a-z\\.]+):[0-9]+$'}")
     @Bean
-    public ServiceOps serviceOps() {
-        return new ZookeeperServiceDiscoveryOps();
-        //return new ZookeeperServiceOps();
+    public ServiceOps serviceOps(final CuratorFramework client) throws Exception {
+        ZookeeperServiceDiscoveryOps serviceOps = new ZookeeperServiceDiscoveryOps(client);
+        //ZookeeperServiceOps serviceOps = new ZookeeperServiceOps();
+        serviceOps.afterPropertiesSet();
+        CachingServiceOps cachingServiceOps = new CachingServiceOps(serviceOps, serviceCacheMaxAge);
+        serviceOps.watch(cachingServiceOps::invalidate);
+        return cachingServiceOps;
     }
 
     @ConditionalOnExpression("#{'${keymaster.address}' "
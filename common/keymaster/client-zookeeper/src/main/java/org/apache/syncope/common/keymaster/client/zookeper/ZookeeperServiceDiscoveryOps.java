@@ -21,8 +21,12 @@ package org.apache.syncope.common.keymaster.client.zookeper;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.EnumUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.cache.TreeCache;
 import org.apache.curator.x.discovery.ServiceDiscovery;
 import org.apache.curator.x.discovery.ServiceDiscoveryBuilder;
 import org.apache.curator.x.discovery.ServiceInstance;
@@ -38,7 +42,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 /**
  * Implements {@link ServiceOps} via Apache Curator / Zookeeper via Curator's {@link ServiceDiscovery}.
  */
-public class ZookeeperServiceDiscoveryOps implements ServiceOps, InitializingBean {
+public class ZookeeperServiceDiscoveryOps implements ServiceOps, InitializingBean, AutoCloseable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ServiceOps.class);
 
@@ -51,6 +55,16 @@ public class ZookeeperServiceDiscoveryOps implements ServiceOps, InitializingBea
 
     private ServiceDiscovery<Void> discovery;
 
+    private TreeCache watcher;
+
+    public ZookeeperServiceDiscoveryOps() {
+        // default constructor, client to be injected
+    }
+
+    public ZookeeperServiceDiscoveryOps(final CuratorFramework client) {
+        this.client = client;
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         discovery = ServiceDiscoveryBuilder.builder(Void.class).
@@ -60,6 +74,58 @@ public class ZookeeperServiceDiscoveryOps implements ServiceOps, InitializingBea
         discovery.start();
     }
 
+    /**
+     * Watches for services being registered or unregistered by any client.
+     *
+     * @param listener invoked with the type of services which changed, or with null when changes might have been
+     * missed, due to connection loss
+     * @throws Exception if the watch could not be established
+     */
+    public synchronized void watch(final Consumer<NetworkService.Type> listener) throws Exception {
+        if (client.checkExists().forPath(SERVICE_PATH) == null) {
+            client.create().creatingParentContainersIfNeeded().forPath(SERVICE_PATH);
+        }
+
+        close();
+        watcher = new TreeCache(client, SERVICE_PATH);
+        watcher.getListenable().addListener((cf, event) -> {
+            switch (event.getType()) {
+                case NODE_ADDED:
+                case NODE_UPDATED:
+                case NODE_REMOVED:
+                    NetworkService.Type type = EnumUtils.getEnum(NetworkService.Type.class, StringUtils.substringBefore(
+                            StringUtils.substringAfter(event.getData().getPath(), SERVICE_PATH + '/'), "/"));
+                    if (type != null) {
+                        LOG.debug("Registered services changed for type {}", type);
+                        listener.accept(type);
+                    }
+                    break;
+
+                case CONNECTION_SUSPENDED:
+                case CONNECTION_LOST:
+                case CONNECTION_RECONNECTED:
+                    LOG.debug("Connection event {}, all registered services might have changed", event.getType());
+                    listener.accept(null);
+                    break;
+
+                default:
+                    LOG.debug("Event {} received with data {}", event.getType(), event.getData());
+            }
+        });
+        watcher.start();
+    }
+
+    /**
+     * Stops watching for changes, if {@link #watch(java.util.function.Consumer)} was invoked.
+     */
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+    }
+
     private ServiceProvider<Void> getProvider(final NetworkService.Type type) {
         return providers.computeIfAbsent(type, t -> {
             try {
@@ -430,10 +430,21 @@ public class ReconciliationLogic extends AbstractTransactionalLogic<EntityTO> {
         SearchCond effectiveCond = searchCond == null ? anyUtils.dao().getAllMatchingCond() : searchCond;
 
         List<Any<?>> matching;
-        if (spec.getIgnorePaging()) {
+        if (spec.getIgnorePaging() && orderBy.isEmpty()) {
+            // no explicit ordering requested: sweep by key, which does not get slower while moving forward
             matching = new ArrayList<>();
 
-            int count = searchDAO.count(adminRealms, searchCond, anyType.getKind());
+            List<Any<?>> chunk = List.of();
+            do {
+                chunk = searchDAO.search(adminRealms, effectiveCond,
+                        chunk.isEmpty() ? null : chunk.get(chunk.size() - 1).getKey(),
+                        AnyDAO.DEFAULT_PAGE_SIZE, anyType.getKind());
+                matching.addAll(chunk);
+            } while (chunk.size() == AnyDAO.DEFAULT_PAGE_SIZE);
+        } else if (spec.getIgnorePaging()) {
+            matching = new ArrayList<>();
+
+            int count = searchDAO.count(adminRealms, effectiveCond, anyType.getKind());
             int pages = (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
 
             for (int p = 1; p <= pages; p++) {
@@ -36,6 +36,7 @@ import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
 import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
+import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.provisioning.java.utils.TemplateUtils;
 import org.apache.syncope.core.spring.security.DelegatedAdministrationException;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
@@ -44,6 +45,7 @@ import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.provisioning.api.LogicActions;
@@ -256,12 +258,57 @@ public abstract class AbstractAnyLogic<TO extends AnyTO, C extends AnyCR, U exte
         return effectiveRealms.stream().anyMatch(new RealmUtils.DynRealmsPredicate());
     }
 
+    /**
+     * Searches for the given page of entities matching the given condition.
+     * When {@code count} is false, no count query is issued and one more entity than requested is fetched instead:
+     * the total reported is then a lower bound, exceeding the number of entities up to the requested page if and only
+     * if further results are available.
+     *
+     * @param searchDAO search DAO
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCond search condition
+     * @param page page to return, start from 1
+     * @param size number of entities per page
+     * @param orderBy ordering clauses
+     * @param count whether all matching entities shall be counted
+     * @param kind any type kind
+     * @param <A> any
+     * @return total (exact or lower bound) and matching entities in the requested page
+     */
+    protected static <A extends Any<?>> Pair<Integer, List<A>> doSearch(
+            final AnySearchDAO searchDAO,
+            final Set<String> adminRealms,
+            final SearchCond searchCond,
+            final int page,
+            final int size,
+            final List<OrderByClause> orderBy,
+            final boolean count,
+            final AnyTypeKind kind) {
+
+        if (count) {
+            int total = searchDAO.count(adminRealms, searchCond, kind);
+            List<A> matching = searchDAO.search(adminRealms, searchCond, page, size, orderBy, kind);
+            return Pair.of(total, matching);
+        }
+
+        List<A> matching = searchDAO.searchLookAhead(adminRealms, searchCond, page, size, orderBy, kind);
+        int total = (size < 0 ? 0 : size * (page <= 0 ? 0 : page - 1)) + matching.size();
+        return Pair.of(total, size >= 0 && matching.size() > size ? matching.subList(0, size) : matching);
+    }
+
     public abstract TO read(String key);
 
     public abstract Pair<Integer, List<TO>> search(
             SearchCond searchCond,
             int page, int size, List<OrderByClause> orderBy,
             String realm,
+            boolean details,
+            boolean count);
+
+    public abstract List<TO> search(
+            SearchCond searchCond,
+            String afterKey, int size,
+            String realm,
             boolean details);
 
     public abstract ProvisioningResult<TO> update(U updateReq, boolean nullPriorityAsync);
@@ -80,7 +80,8 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectCR, A
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final boolean count) {
 
         if (searchCond.hasAnyTypeCond() == null) {
             throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
@@ -90,15 +91,36 @@ public class AnyObjectLogic extends AbstractAnyLogic<AnyObjectTO, AnyObjectCR, A
                 AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
                 realm);
 
-        int count = searchDAO.count(adminRealms, searchCond, AnyTypeKind.ANY_OBJECT);
+        Pair<Integer, List<AnyObject>> matching = doSearch(
+                searchDAO, adminRealms, searchCond, page, size, orderBy, count, AnyTypeKind.ANY_OBJECT);
+        List<AnyObjectTO> result = matching.getRight().stream().
+                map(anyObject -> binder.getAnyObjectTO(anyObject, details)).
+                collect(Collectors.toList());
+
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<AnyObjectTO> search(
+            final SearchCond searchCond,
+            final String afterKey, final int size,
+            final String realm,
+            final boolean details) {
+
+        if (searchCond.hasAnyTypeCond() == null) {
+            throw new UnsupportedOperationException("Need to specify " + AnyType.class.getSimpleName());
+        }
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(AnyEntitlement.SEARCH.getFor(searchCond.hasAnyTypeCond())),
+                realm);
 
         List<AnyObject> matching = searchDAO.search(
-                adminRealms, searchCond, page, size, orderBy, AnyTypeKind.ANY_OBJECT);
-        List<AnyObjectTO> result = matching.stream().
+                adminRealms, searchCond, afterKey, size, AnyTypeKind.ANY_OBJECT);
+        return matching.stream().
                 map(anyObject -> binder.getAnyObjectTO(anyObject, details)).
                 collect(Collectors.toList());
-
-        return Pair.of(count, result);
     }
 
     public ProvisioningResult<AnyObjectTO> create(final AnyObjectCR createReq, final boolean nullPriorityAsync) {
@@ -155,22 +155,41 @@ public class GroupLogic extends AbstractAnyLogic<GroupTO, GroupCR, GroupUR> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final boolean count) {
 
         Set<String> adminRealms = RealmUtils.getEffective(
                 AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.GROUP_SEARCH), realm);
 
         SearchCond effectiveCond = searchCond == null ? groupDAO.getAllMatchingCond() : searchCond;
 
-        int count = searchDAO.count(adminRealms, effectiveCond, AnyTypeKind.GROUP);
-
-        List<Group> matching = searchDAO.search(
-                adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.GROUP);
-        List<GroupTO> result = matching.stream().
+        Pair<Integer, List<Group>> matching = doSearch(
+                searchDAO, adminRealms, effectiveCond, page, size, orderBy, count, AnyTypeKind.GROUP);
+        List<GroupTO> result = matching.getRight().stream().
                 map(group -> binder.getGroupTO(group, details)).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.GROUP_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public List<GroupTO> search(
+            final SearchCond searchCond,
+            final String afterKey, final int size,
+            final String realm,
+            final boolean details) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.GROUP_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? groupDAO.getAllMatchingCond() : searchCond;
+
+        List<Group> matching = searchDAO.search(adminRealms, effectiveCond, afterKey, size, AnyTypeKind.GROUP);
+        return matching.stream().
+                map(group -> binder.getGroupTO(group, details)).
+                collect(Collectors.toList());
     }
 
     @PreAuthorize("hasRole('" + IdRepoEntitlement.GROUP_CREATE + "')")
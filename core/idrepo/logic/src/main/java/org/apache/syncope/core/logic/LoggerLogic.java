@@ -22,6 +22,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -407,11 +408,16 @@ public class LoggerLogic extends AbstractTransactionalLogic<EntityTO> {
             final String subcategory,
             final List<String> events,
             final AuditElements.Result result,
+            final Date before,
+            final Date after,
+            final String lastKey,
             final List<OrderByClause> orderByClauses) {
 
-        int count = loggerDAO.countAuditEntries(entityKey);
+        int count = loggerDAO.countAuditEntries(
+                entityKey, type, category, subcategory, events, result, before, after);
         List<AuditEntry> matching = loggerDAO.findAuditEntries(
-                entityKey, page, size, type, category, subcategory, events, result, orderByClauses);
+                entityKey, page, size, type, category, subcategory, events, result, before, after, lastKey,
+                orderByClauses);
         return Pair.of(count, matching);
     }
 
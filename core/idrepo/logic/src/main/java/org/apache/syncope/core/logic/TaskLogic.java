@@ -64,6 +64,7 @@ import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.apache.syncope.core.provisioning.java.job.TaskJob;
 import org.apache.syncope.core.provisioning.java.propagation.DefaultPropagationReporter;
+import org.apache.syncope.core.provisioning.java.propagation.PropagationTaskCoalescer;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.quartz.JobDataMap;
 import org.quartz.JobKey;
@@ -98,6 +99,9 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
     @Autowired
     private PropagationTaskExecutor taskExecutor;
 
+    @Autowired
+    private PropagationTaskCoalescer coalescer;
+
     @Autowired
     private NotificationJobDelegate notificationJobDelegate;
 
@@ -250,6 +254,7 @@ public class TaskLogic extends AbstractExecutableLogic<TaskTO> {
                 taskInfo.setAnyType(taskTO.getAnyType());
                 taskInfo.setEntityKey(taskTO.getEntityKey());
 
+                coalescer.flush(taskInfo);
                 TaskExec propExec = taskExecutor.execute(taskInfo, new DefaultPropagationReporter(), executor);
                 result = binder.getExecTO(propExec);
                 break;
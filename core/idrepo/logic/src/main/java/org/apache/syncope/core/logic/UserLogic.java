@@ -108,21 +108,41 @@ public class UserLogic extends AbstractAnyLogic<UserTO, UserCR, UserUR> {
             final SearchCond searchCond,
             final int page, final int size, final List<OrderByClause> orderBy,
             final String realm,
-            final boolean details) {
+            final boolean details,
+            final boolean count) {
 
         Set<String> adminRealms = RealmUtils.getEffective(
                 AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.USER_SEARCH), realm);
 
         SearchCond effectiveCond = searchCond == null ? userDAO.getAllMatchingCond() : searchCond;
 
-        int count = searchDAO.count(adminRealms, effectiveCond, AnyTypeKind.USER);
-
-        List<User> matching = searchDAO.search(adminRealms, effectiveCond, page, size, orderBy, AnyTypeKind.USER);
-        List<UserTO> result = matching.stream().
+        Pair<Integer, List<User>> matching = doSearch(
+                searchDAO, adminRealms, effectiveCond, page, size, orderBy, count, AnyTypeKind.USER);
+        List<UserTO> result = matching.getRight().stream().
                 map(user -> binder.returnUserTO(binder.getUserTO(user, details))).
                 collect(Collectors.toList());
 
-        return Pair.of(count, result);
+        return Pair.of(matching.getLeft(), result);
+    }
+
+    @PreAuthorize("hasRole('" + IdRepoEntitlement.USER_SEARCH + "')")
+    @Transactional(readOnly = true)
+    @Override
+    public List<UserTO> search(
+            final SearchCond searchCond,
+            final String afterKey, final int size,
+            final String realm,
+            final boolean details) {
+
+        Set<String> adminRealms = RealmUtils.getEffective(
+                AuthContextUtils.getAuthorizations().get(IdRepoEntitlement.USER_SEARCH), realm);
+
+        SearchCond effectiveCond = searchCond == null ? userDAO.getAllMatchingCond() : searchCond;
+
+        List<User> matching = searchDAO.search(adminRealms, effectiveCond, afterKey, size, AnyTypeKind.USER);
+        return matching.stream().
+                map(user -> binder.returnUserTO(binder.getUserTO(user, details))).
+                collect(Collectors.toList());
     }
 
     @PreAuthorize("isAnonymous() or hasRole('" + IdRepoEntitlement.ANONYMOUS + "')")
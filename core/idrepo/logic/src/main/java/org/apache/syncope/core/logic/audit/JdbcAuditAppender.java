@@ -18,54 +18,33 @@
  */
 package org.apache.syncope.core.logic.audit;
 
-import java.sql.Connection;
-import java.sql.SQLException;
 import java.sql.Timestamp;
-import javax.sql.DataSource;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.core.Appender;
+import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.LoggerContext;
-import org.apache.logging.log4j.core.appender.db.ColumnMapping;
-import org.apache.logging.log4j.core.appender.db.jdbc.AbstractConnectionSource;
-import org.apache.logging.log4j.core.appender.db.jdbc.JdbcAppender;
-import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.Property;
 import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jdbc.datasource.DataSourceUtils;
 
+/**
+ * Audit appender storing audit entries in {@link LoggerDAO#AUDIT_TABLE} via {@link JdbcAuditWriter}, hence
+ * asynchronously and in batches.
+ */
 public class JdbcAuditAppender extends DefaultAuditAppender {
 
     @Autowired
-    protected DomainHolder domainHolder;
+    protected JdbcAuditWriter jdbcAuditWriter;
 
     @Override
     protected void initTargetAppender() {
         LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
 
-        ColumnMapping[] columnMappings = {
-            ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("EVENT_DATE").setType(Timestamp.class).build(),
-            ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("LOGGER_LEVEL").setPattern("%level").build(),
-            ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("LOGGER").setPattern("%logger").build(),
-            ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).
-            setName(LoggerDAO.AUDIT_MESSAGE_COLUMN).setPattern("%message").build(),
-            ColumnMapping.newBuilder().
-            setConfiguration(ctx.getConfiguration()).setName("THROWABLE").setPattern("%ex{full}").build()
-        };
-
         Appender appender = ctx.getConfiguration().getAppender("audit_for_" + domain);
         if (appender == null) {
-            appender = JdbcAppender.newBuilder().
-                    setName("audit_for_" + domain).
-                    setIgnoreExceptions(false).
-                    setConnectionSource(new DataSourceConnectionSource(domain, domainHolder.getDomains().get(domain))).
-                    setBufferSize(0).
-                    setTableName(LoggerDAO.AUDIT_TABLE).
-                    setColumnMappings(columnMappings).
-                    build();
+            appender = new JdbcAuditWriterAppender("audit_for_" + domain, domain, jdbcAuditWriter);
             appender.start();
             ctx.getConfiguration().addAppender(appender);
         }
@@ -78,25 +57,34 @@ public class JdbcAuditAppender extends DefaultAuditAppender {
         return null;
     }
 
-    protected static class DataSourceConnectionSource extends AbstractConnectionSource {
+    protected static class JdbcAuditWriterAppender extends AbstractAppender {
 
-        private final String description;
+        private final String domain;
 
-        private final DataSource dataSource;
+        private final JdbcAuditWriter writer;
 
-        DataSourceConnectionSource(final String domain, final DataSource dataSource) {
-            this.description = "dataSource{ domain=" + domain + ", value=" + dataSource + " }";
-            this.dataSource = dataSource;
+        JdbcAuditWriterAppender(final String name, final String domain, final JdbcAuditWriter writer) {
+            super(name, null, null, false, Property.EMPTY_ARRAY);
+            this.domain = domain;
+            this.writer = writer;
         }
 
         @Override
-        public Connection getConnection() throws SQLException {
-            return DataSourceUtils.getConnection(dataSource);
-        }
+        public void append(final LogEvent event) {
+            Object[] values = new Object[JdbcAuditWriter.COLUMNS.size()];
+            values[0] = new Timestamp(event.getTimeMillis());
+            values[1] = event.getLevel().name();
+            values[2] = event.getLoggerName();
+            values[3] = event.getMessage().getFormattedMessage();
+            values[4] = event.getThrown() == null ? null : ExceptionUtils2.getFullStackTrace(event.getThrown());
+            // audit event dimensions are made available by AuditManager as logging context entries
+            for (int i = 0; i < LoggerDAO.AUDIT_EVENT_COLUMNS.size(); i++) {
+                values[5 + i] = event.getContextData().getValue(LoggerDAO.AUDIT_EVENT_COLUMNS.get(i));
+            }
 
-        @Override
-        public String toString() {
-            return this.description;
+            if (!writer.offer(domain, values)) {
+                error("Audit entry dropped for domain " + domain);
+            }
         }
     }
 }
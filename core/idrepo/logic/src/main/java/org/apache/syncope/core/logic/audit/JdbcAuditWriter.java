@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.logic.audit;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.persistence.api.DomainHolder;
+import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes audit entries to {@link LoggerDAO#AUDIT_TABLE}, asynchronously: entries are put on a bounded buffer, shared
+ * by all domains, and drained by a single writer thread, issuing one JDBC batch insert per domain as soon as either
+ * the configured flush size is reached or the configured flush interval elapses.
+ * When the buffer stays full for longer than the configured offer timeout, entries are dropped and counted.
+ */
+@Component
+@ManagedResource(description = "Audit JDBC writer")
+public class JdbcAuditWriter implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcAuditWriter.class);
+
+    /**
+     * Columns of {@link LoggerDAO#AUDIT_TABLE}, in the order expected for values of each entry.
+     */
+    public static final List<String> COLUMNS = Stream.concat(
+            Stream.of(
+                    LoggerDAO.AUDIT_DATE_COLUMN, "LOGGER_LEVEL", "LOGGER", LoggerDAO.AUDIT_MESSAGE_COLUMN, "THROWABLE"),
+            LoggerDAO.AUDIT_EVENT_COLUMNS.stream()).
+            collect(Collectors.toUnmodifiableList());
+
+    private static final String INSERT = "INSERT INTO " + LoggerDAO.AUDIT_TABLE
+            + " (" + String.join(", ", COLUMNS) + ")"
+            + " VALUES (" + COLUMNS.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+
+    @Value("${audit.writer.bufferSize:10000}")
+    private int bufferSize;
+
+    @Value("${audit.writer.flushSize:100}")
+    private int flushSize;
+
+    @Value("${audit.writer.flushInterval:1000}")
+    private long flushInterval;
+
+    @Value("${audit.writer.offerTimeout:100}")
+    private long offerTimeout;
+
+    @Autowired
+    private DomainHolder domainHolder;
+
+    private BlockingQueue<Pair<String, Object[]>> buffer;
+
+    private Thread writer;
+
+    private volatile boolean running;
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        buffer = new ArrayBlockingQueue<>(bufferSize);
+        running = true;
+
+        writer = new CustomizableThreadFactory("AuditWriter-").newThread(this::write);
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues the given audit entry for writing.
+     *
+     * @param domain domain
+     * @param values values for {@link #COLUMNS}
+     * @return whether the entry was queued, false if it was dropped
+     */
+    public boolean offer(final String domain, final Object[] values) {
+        boolean queued = false;
+        if (running) {
+            try {
+                queued = buffer.offer(Pair.of(domain, values), offerTimeout, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!queued) {
+            dropped.incrementAndGet();
+        }
+        return queued;
+    }
+
+    private void write() {
+        List<Pair<String, Object[]>> batch = new ArrayList<>(flushSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                Pair<String, Object[]> first = buffer.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+
+                    long deadline = System.currentTimeMillis() + flushInterval;
+                    while (batch.size() < flushSize && running) {
+                        buffer.drainTo(batch, flushSize - batch.size());
+
+                        long remaining = deadline - System.currentTimeMillis();
+                        if (batch.size() >= flushSize || remaining <= 0) {
+                            break;
+                        }
+                        Pair<String, Object[]> next = buffer.poll(remaining, TimeUnit.MILLISECONDS);
+                        if (next != null) {
+                            batch.add(next);
+                        }
+                    }
+                    buffer.drainTo(batch, flushSize - batch.size());
+
+                    flush(batch);
+                    batch.clear();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            }
+        }
+    }
+
+    private void flush(final List<Pair<String, Object[]>> batch) {
+        Map<String, List<Object[]>> byDomain = new LinkedHashMap<>();
+        batch.forEach(item -> byDomain.computeIfAbsent(item.getLeft(), k -> new ArrayList<>()).add(item.getRight()));
+
+        byDomain.forEach((domain, entries) -> {
+            try {
+                DataSource dataSource = domainHolder.getDomains().get(domain);
+                if (dataSource == null) {
+                    throw new IllegalArgumentException("Unknown domain: " + domain);
+                }
+
+                new JdbcTemplate(dataSource).batchUpdate(INSERT, entries);
+                written.addAndGet(entries.size());
+            } catch (RuntimeException e) {
+                LOG.error("While writing {} audit entries for domain {}", entries.size(), domain, e);
+                failed.addAndGet(entries.size());
+            }
+        });
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        if (writer.isAlive()) {
+            LOG.warn("{} audit entries not written", buffer.size());
+            writer.interrupt();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of audit entries waiting to be written")
+    public int getQueueDepth() {
+        return buffer.size();
+    }
+
+    @ManagedAttribute(description = "Maximum number of audit entries waiting to be written")
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @ManagedAttribute(description = "Number of audit entries written")
+    public long getWritten() {
+        return written.get();
+    }
+
+    @ManagedAttribute(description = "Number of audit entries dropped because the buffer was full")
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    @ManagedAttribute(description = "Number of audit entries not written because of errors")
+    public long getFailed() {
+        return failed.get();
+    }
+}
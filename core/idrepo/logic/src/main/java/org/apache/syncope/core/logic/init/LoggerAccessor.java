@@ -95,4 +95,21 @@ public class LoggerAccessor {
 
         ctx.updateLoggers();
     }
+
+    /**
+     * Fills, batch by batch, the audit event dimension columns for entries logged before such columns were available;
+     * each batch is processed in its own transaction.
+     *
+     * @param size batch size
+     * @return number of audit entries processed
+     */
+    public int backfillAuditEntries(final int size) {
+        int total = 0;
+        int processed;
+        do {
+            processed = loggerDAO.backfillAuditEntries(size);
+            total += processed;
+        } while (processed > 0);
+        return total;
+    }
 }
@@ -38,15 +38,20 @@ import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.apache.syncope.core.persistence.api.ImplementationLookup;
 import org.apache.syncope.core.persistence.api.SyncopeCoreLoader;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 public class LoggerLoader implements SyncopeCoreLoader {
 
+    private static final Logger LOG = LoggerFactory.getLogger(LoggerLoader.class);
+
     @Autowired
     private LoggerAccessor loggerAccessor;
 
@@ -56,6 +61,12 @@ public class LoggerLoader implements SyncopeCoreLoader {
     @Value("${enable.jdbcAuditAppender:true}")
     private boolean enableJdbcAuditAppender;
 
+    @Value("${audit.backfill.enabled:false}")
+    private boolean auditBackfillEnabled;
+
+    @Value("${audit.backfill.size:1000}")
+    private int auditBackfillSize;
+
     private final Map<String, MemoryAppender> memoryAppenders = new HashMap<>();
 
     @Override
@@ -103,6 +114,21 @@ public class LoggerLoader implements SyncopeCoreLoader {
             return null;
         });
 
+        if (auditBackfillEnabled) {
+            // legacy audit tables can be huge: backfill in background, not to delay startup
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("AuditBackfill-" + domain + "-");
+            threadFactory.setDaemon(true);
+            threadFactory.newThread(() -> {
+                try {
+                    int backfilled = AuthContextUtils.callAsAdmin(
+                            domain, () -> loggerAccessor.backfillAuditEntries(auditBackfillSize));
+                    LOG.info("[{}] Backfilled {} audit entries", domain, backfilled);
+                } catch (Exception e) {
+                    LOG.error("[{}] While backfilling audit entries", domain, e);
+                }
+            }).start();
+        }
+
         ctx.updateLoggers();
     }
 
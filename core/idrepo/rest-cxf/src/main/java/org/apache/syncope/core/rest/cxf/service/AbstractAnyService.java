@@ -129,13 +129,28 @@ public abstract class AbstractAnyService<TO extends AnyTO, CR extends AnyCR, UR
                 ? null
                 : getSearchCond(anyQuery.getFiql(), realm);
 
+        if (StringUtils.isNotBlank(anyQuery.getCursor())) {
+            List<TO> result = getAnyLogic().search(
+                    searchCond,
+                    decodeCursor(anyQuery.getCursor()),
+                    anyQuery.getSize(),
+                    isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
+                    anyQuery.getDetails());
+
+            return buildCursorPagedResult(
+                    result,
+                    result.isEmpty() ? null : result.get(result.size() - 1).getKey(),
+                    anyQuery.getSize());
+        }
+
         Pair<Integer, List<TO>> result = getAnyLogic().search(
                 searchCond,
                 anyQuery.getPage(),
                 anyQuery.getSize(),
                 getOrderByClauses(anyQuery.getOrderBy()),
                 isAssignableCond ? SyncopeConstants.ROOT_REALM : realm,
-                anyQuery.getDetails());
+                anyQuery.getDetails(),
+                anyQuery.getCount());
 
         return buildPagedResult(result.getRight(), anyQuery.getPage(), anyQuery.getSize(), result.getLeft());
     }
@@ -18,7 +18,9 @@
  */
 package org.apache.syncope.core.rest.cxf.service;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.EntityTag;
@@ -39,6 +41,7 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.to.PagedResult;
 import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.common.rest.api.beans.AnyQuery;
 import org.apache.syncope.common.rest.api.service.JAXRSService;
 import org.apache.syncope.common.rest.api.Preference;
 import org.apache.syncope.common.rest.api.RESTHeaders;
@@ -244,4 +247,59 @@ abstract class AbstractServiceImpl implements JAXRSService {
         return result;
     }
 
+    /**
+     * Decodes the key carried by a cursor, as generated by {@link #buildCursorPagedResult(List, String, int)}.
+     *
+     * @param cursor cursor value, as received from client
+     * @return the key carried by the given cursor, or null if the first results are requested
+     */
+    protected String decodeCursor(final String cursor) {
+        if (AnyQuery.FIRST_CURSOR.equals(cursor)) {
+            return null;
+        }
+
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            SyncopeClientException sce = SyncopeClientException.build(ClientExceptionType.InvalidSearchExpression);
+            sce.getElements().add("Invalid cursor: " + cursor);
+            throw sce;
+        }
+    }
+
+    /**
+     * Builds a paged result out of a list of items returned by a cursor-based search.
+     *
+     * @param <T> result type
+     * @param list items
+     * @param lastKey key of the last item in the list
+     * @param size requested size
+     * @return paged result, bearing the cursor for getting the following results, if any
+     */
+    protected <T extends BaseBean> PagedResult<T> buildCursorPagedResult(
+            final List<T> list, final String lastKey, final int size) {
+
+        PagedResult<T> result = new PagedResult<>();
+        result.getResult().addAll(list);
+
+        result.setPage(1);
+        result.setSize(result.getResult().size());
+        result.setTotalCount(-1);
+
+        if (result.getSize() == size && lastKey != null) {
+            result.setNextCursor(Base64.getUrlEncoder().withoutPadding().
+                    encodeToString(lastKey.getBytes(StandardCharsets.UTF_8)));
+
+            UriBuilder builder = uriInfo.getAbsolutePathBuilder();
+            MultivaluedMap<String, String> queryParams = uriInfo.getQueryParameters();
+            queryParams.forEach((key, value) -> builder.queryParam(key, value.toArray()));
+
+            result.setNext(builder.
+                    replaceQueryParam(PARAM_CURSOR, result.getNextCursor()).
+                    replaceQueryParam(PARAM_SIZE, size).
+                    build());
+        }
+
+        return result;
+    }
 }
@@ -138,6 +138,9 @@ public class LoggerServiceImpl extends AbstractServiceImpl implements LoggerServ
                 auditQuery.getSubcategory(),
                 auditQuery.getEvents(),
                 auditQuery.getResult(),
+                auditQuery.getBefore(),
+                auditQuery.getAfter(),
+                auditQuery.getLastKey(),
                 getOrderByClauses(auditQuery.getOrderBy()));
 
         return buildPagedResult(result.getRight(), auditQuery.getPage(), auditQuery.getSize(), result.getLeft());
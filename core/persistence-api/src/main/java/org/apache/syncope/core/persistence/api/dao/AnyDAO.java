@@ -22,6 +22,7 @@ import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DerSchema;
@@ -93,6 +94,13 @@ public interface AnyDAO<A extends Any<?>> extends DAO<A> {
      */
     List<String> findAllKeys(int page, int itemsPerPage);
 
+    /**
+     * Find all any objects' keys, sorted by key; keys are fetched in chunks while the returned stream is consumed.
+     *
+     * @return lazily fetched keys of all any objects
+     */
+    Stream<String> streamAllKeys();
+
     <S extends Schema> AllowedSchemas<S> findAllowedSchemas(A any, Class<S> reference);
 
     A save(A any);
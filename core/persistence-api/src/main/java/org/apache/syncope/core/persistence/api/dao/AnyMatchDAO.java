@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.function.Predicate;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 
@@ -32,4 +33,15 @@ public interface AnyMatchDAO extends DAO<Any<?>> {
      * @return true if any matches cond
      */
     <T extends Any<?>> boolean matches(T any, SearchCond cond);
+
+    /**
+     * Compiles the given search condition into a predicate equivalent to {@link #matches(Any, SearchCond)}, with
+     * plain schemas and fields resolved, and condition values parsed, only once: meant for conditions evaluated
+     * against several anys.
+     *
+     * @param cond to be compiled
+     * @param <T> any
+     * @return predicate telling whether any matches cond
+     */
+    <T extends Any<?>> Predicate<T> compile(SearchCond cond);
 }
@@ -20,6 +20,7 @@ package org.apache.syncope.core.persistence.api.dao;
 
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
@@ -65,4 +66,51 @@ public interface AnySearchDAO extends DAO<Any<?>> {
     <T extends Any<?>> List<T> search(
             Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
             List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Same as {@link #search(Set, SearchCond, int, int, List, AnyTypeKind)}, but also fetching the first result of
+     * the following page, if any: callers can then tell whether further results are available without counting
+     * all matching any objects.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param page position of the first result, start from 1
+     * @param itemsPerPage number of results per page
+     * @param orderBy list of ordering clauses
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition (in the given page), followed by the
+     * first one of the next page, if available
+     */
+    <T extends Any<?>> List<T> searchLookAhead(
+            Set<String> adminRealms, SearchCond searchCondition, int page, int itemsPerPage,
+            List<OrderByClause> orderBy, AnyTypeKind kind);
+
+    /**
+     * Keyset (seek) variant of {@link #search(Set, SearchCond, int, int, List, AnyTypeKind)}: results are sorted by
+     * key and only those following the given key are returned; unlike page-based pagination, the cost of each
+     * invocation does not grow while moving forward through all matching any objects.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param afterKey key of the last any object returned by the previous invocation, null to start from the first
+     * @param itemsPerPage maximum number of results
+     * @param kind any object
+     * @param <T> any
+     * @return the list of any objects matching the given search condition, whose key follows the given one
+     */
+    <T extends Any<?>> List<T> search(
+            Set<String> adminRealms, SearchCond searchCondition, String afterKey, int itemsPerPage, AnyTypeKind kind);
+
+    /**
+     * Returns the keys of any objects matching the given search condition, sorted by key; no entity is loaded and
+     * keys are fetched in chunks while the returned stream is consumed, so that result sets of any size can be
+     * processed with constant memory.
+     *
+     * @param adminRealms realms for which the caller owns the proper entitlement(s)
+     * @param searchCondition the search condition
+     * @param kind any object
+     * @return lazily fetched keys of any objects matching the given search condition
+     */
+    Stream<String> streamKeys(Set<String> adminRealms, SearchCond searchCondition, AnyTypeKind kind);
 }
@@ -18,6 +18,7 @@
  */
 package org.apache.syncope.core.persistence.api.dao;
 
+import java.util.Date;
 import java.util.List;
 import org.apache.syncope.common.lib.log.AuditEntry;
 import org.apache.syncope.common.lib.types.AuditElements;
@@ -31,6 +32,37 @@ public interface LoggerDAO extends DAO<Logger> {
 
     String AUDIT_MESSAGE_COLUMN = "MESSAGE";
 
+    String AUDIT_DATE_COLUMN = "EVENT_DATE";
+
+    String AUDIT_ID_COLUMN = "EVENT_ID";
+
+    String AUDIT_WHO_COLUMN = "WHO";
+
+    String AUDIT_TYPE_COLUMN = "EVENT_TYPE";
+
+    String AUDIT_CATEGORY_COLUMN = "EVENT_CATEGORY";
+
+    String AUDIT_SUBCATEGORY_COLUMN = "EVENT_SUBCATEGORY";
+
+    String AUDIT_EVENT_COLUMN = "EVENT_NAME";
+
+    String AUDIT_RESULT_COLUMN = "EVENT_RESULT";
+
+    String AUDIT_ENTITY_KEY_COLUMN = "ENTITY_KEY";
+
+    /**
+     * Columns holding the audit entry key and event dimensions, filled from the homonymous logging context entries.
+     */
+    List<String> AUDIT_EVENT_COLUMNS = List.of(
+            AUDIT_ID_COLUMN,
+            AUDIT_WHO_COLUMN,
+            AUDIT_TYPE_COLUMN,
+            AUDIT_CATEGORY_COLUMN,
+            AUDIT_SUBCATEGORY_COLUMN,
+            AUDIT_EVENT_COLUMN,
+            AUDIT_RESULT_COLUMN,
+            AUDIT_ENTITY_KEY_COLUMN);
+
     Logger find(String key);
 
     List<Logger> findAll(LoggerType type);
@@ -41,6 +73,26 @@ public interface LoggerDAO extends DAO<Logger> {
 
     void delete(Logger logger);
 
+    /**
+     * Finds the audit entries matching the given criteria.
+     * When {@code lastKey} is provided, keyset pagination is performed instead of {@code page} and
+     * {@code orderByClauses}: entries logged before the one with given key are returned, ordered by descending
+     * {@link #AUDIT_DATE_COLUMN} and {@link #AUDIT_ID_COLUMN}.
+     *
+     * @param entityKey entity key
+     * @param page page
+     * @param size items per page
+     * @param type event type, optional
+     * @param category event category, optional
+     * @param subcategory event subcategory, optional
+     * @param events events, optional
+     * @param result event result, optional
+     * @param before only return entries logged before this date, optional
+     * @param after only return entries logged after this date, optional
+     * @param lastKey key of the last entry returned by the previous page, optional
+     * @param orderByClauses ordering clauses
+     * @return matching audit entries
+     */
     List<AuditEntry> findAuditEntries(
             String entityKey,
             int page,
@@ -50,7 +102,27 @@ public interface LoggerDAO extends DAO<Logger> {
             String subcategory,
             List<String> events,
             AuditElements.Result result,
+            Date before,
+            Date after,
+            String lastKey,
             List<OrderByClause> orderByClauses);
 
-    int countAuditEntries(String entityKey);
+    int countAuditEntries(
+            String entityKey,
+            AuditElements.EventCategoryType type,
+            String category,
+            String subcategory,
+            List<String> events,
+            AuditElements.Result result,
+            Date before,
+            Date after);
+
+    /**
+     * Fills the audit event dimension columns for entries logged before such columns were available, by parsing
+     * their messages; invoke repeatedly until no more entries are reported as processed.
+     *
+     * @param size maximum number of entries to process
+     * @return number of entries processed
+     */
+    int backfillAuditEntries(int size);
 }
@@ -21,6 +21,7 @@ package org.apache.syncope.core.persistence.jpa.dao;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
@@ -33,28 +34,31 @@ import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 import org.apache.syncope.core.persistence.api.entity.JSONPlainAttr;
+import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
 
 public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
 
     @Override
     protected String buildAdminRealmsFilter(
-            final Set<String> realmKeys,
+            final Set<String> realmPaths,
             final SearchSupport svs,
             final List<Object> parameters) {
 
         StringBuilder adminRealmsFilter = new StringBuilder("u.any_id IN (").
                 append("SELECT any_id FROM ").append(svs.field().name).
-                append(" WHERE realm_id IN (SELECT id AS realm_id FROM Realm");
+                append(" WHERE realm_id IN (SELECT id AS realm_id FROM ").append(JPARealm.TABLE);
 
         boolean firstRealm = true;
-        for (String realmKey : realmKeys) {
+        for (String realmPath : realmPaths) {
             if (firstRealm) {
                 adminRealmsFilter.append(" WHERE");
                 firstRealm = false;
             } else {
                 adminRealmsFilter.append(" OR");
             }
-            adminRealmsFilter.append(" id=?").append(setParameter(parameters, realmKey));
+            adminRealmsFilter.append(" fullPath=?").append(setParameter(parameters, realmPath)).
+                    append(" OR fullPath LIKE ?").append(setParameter(parameters,
+                    StringUtils.appendIfMissing(realmPath, "/") + '%'));
         }
 
         adminRealmsFilter.append("))");
@@ -206,18 +210,20 @@ public class MyJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             return EMPTY_QUERY;
         }
 
-        // normalize NULL / NOT NULL checks
+        // normalize NULL / NOT NULL checks, leaving the given condition untouched as it might be shared, e.g. by
+        // DynMembershipCondCache
+        AttrCond.Type type = cond.getType();
         if (not) {
-            if (cond.getType() == AttrCond.Type.ISNULL) {
-                cond.setType(AttrCond.Type.ISNOTNULL);
-            } else if (cond.getType() == AttrCond.Type.ISNOTNULL) {
-                cond.setType(AttrCond.Type.ISNULL);
+            if (type == AttrCond.Type.ISNULL) {
+                type = AttrCond.Type.ISNOTNULL;
+            } else if (type == AttrCond.Type.ISNOTNULL) {
+                type = AttrCond.Type.ISNULL;
             }
         }
 
         StringBuilder query =
                 new StringBuilder("SELECT DISTINCT any_id FROM ").append(svs.field().name).append(" WHERE ");
-        switch (cond.getType()) {
+        switch (type) {
             case ISNOTNULL:
                 query.append("JSON_SEARCH(plainAttrs, 'one', '").
                         append(checked.getLeft().getKey()).
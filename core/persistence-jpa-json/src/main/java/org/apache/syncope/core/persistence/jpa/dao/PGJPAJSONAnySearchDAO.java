@@ -183,18 +183,20 @@ public class PGJPAJSONAnySearchDAO extends AbstractJPAJSONAnySearchDAO {
             return EMPTY_QUERY;
         }
 
-        // normalize NULL / NOT NULL checks
+        // normalize NULL / NOT NULL checks, leaving the given condition untouched as it might be shared, e.g. by
+        // DynMembershipCondCache
+        AttrCond.Type type = cond.getType();
         if (not) {
-            if (cond.getType() == AttrCond.Type.ISNULL) {
-                cond.setType(AttrCond.Type.ISNOTNULL);
-            } else if (cond.getType() == AttrCond.Type.ISNOTNULL) {
-                cond.setType(AttrCond.Type.ISNULL);
+            if (type == AttrCond.Type.ISNULL) {
+                type = AttrCond.Type.ISNOTNULL;
+            } else if (type == AttrCond.Type.ISNOTNULL) {
+                type = AttrCond.Type.ISNULL;
             }
         }
 
         StringBuilder query =
                 new StringBuilder("SELECT DISTINCT any_id FROM ").append(svs.field().name).append(" WHERE ");
-        switch (cond.getType()) {
+        switch (type) {
             case ISNOTNULL:
                 query.append("plainAttrs @> '[{\"schema\":\"").
                         append(checked.getLeft().getKey()).
@@ -20,5 +20,28 @@ CREATE TABLE IF NOT EXISTS SYNCOPEAUDIT (
   LOGGER_LEVEL VARCHAR(255) NOT NULL,
   LOGGER VARCHAR(255) NOT NULL,
   MESSAGE JSON NOT NULL,
-  THROWABLE TEXT
+  THROWABLE TEXT,
+  EVENT_ID VARCHAR(36),
+  WHO VARCHAR(255),
+  EVENT_TYPE VARCHAR(255),
+  EVENT_CATEGORY VARCHAR(255),
+  EVENT_SUBCATEGORY VARCHAR(255),
+  EVENT_NAME VARCHAR(255),
+  EVENT_RESULT VARCHAR(255),
+  ENTITY_KEY VARCHAR(255)
 ) ENGINE=InnoDB;
+
+-- upgrade from previous table definition: fails, and is ignored, if columns are already defined
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN EVENT_ID VARCHAR(36);
+ALTER TABLE SYNCOPEAUDIT
+  ADD COLUMN WHO VARCHAR(255),
+  ADD COLUMN EVENT_TYPE VARCHAR(255),
+  ADD COLUMN EVENT_CATEGORY VARCHAR(255),
+  ADD COLUMN EVENT_SUBCATEGORY VARCHAR(255),
+  ADD COLUMN EVENT_NAME VARCHAR(255),
+  ADD COLUMN EVENT_RESULT VARCHAR(255),
+  ADD COLUMN ENTITY_KEY VARCHAR(255);
+
+CREATE INDEX SYNCOPEAUDIT_ENTITY_IDX ON SYNCOPEAUDIT(ENTITY_KEY, EVENT_DATE, EVENT_ID);
+CREATE INDEX SYNCOPEAUDIT_DATE_IDX ON SYNCOPEAUDIT(EVENT_DATE, EVENT_ID);
+CREATE INDEX SYNCOPEAUDIT_ID_IDX ON SYNCOPEAUDIT(EVENT_ID);
@@ -20,13 +20,19 @@ package org.apache.syncope.core.persistence.jpa.content;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.stream.Collectors;
 import javax.annotation.Resource;
 import javax.sql.DataSource;
 import javax.xml.XMLConstants;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.content.ContentLoader;
 import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -83,6 +89,12 @@ public class XMLContentLoader implements ContentLoader {
 
         if (existingData) {
             LOG.info("[{}] Data found in the database, leaving untouched", domain);
+
+            try {
+                backfillRealmFullPaths(domain, datasource);
+            } catch (DataAccessException e) {
+                LOG.error("[{}] While backfilling realm full paths", domain, e);
+            }
         } else {
             LOG.info("[{}] Empty database found, loading default content", domain);
 
@@ -106,6 +118,55 @@ public class XMLContentLoader implements ContentLoader {
         }
     }
 
+    private static String fullPath(
+            final String realm,
+            final Map<String, Map<String, Object>> realms,
+            final Map<String, String> fullPaths) {
+
+        String fullPath = fullPaths.get(realm);
+        if (fullPath == null) {
+            Map<String, Object> row = realms.get(realm);
+            String parent = (String) row.get("parent_id");
+            fullPath = parent == null
+                    ? SyncopeConstants.ROOT_REALM
+                    : StringUtils.appendIfMissing(fullPath(parent, realms, fullPaths), "/") + row.get("name");
+            fullPaths.put(realm, fullPath);
+        }
+        return fullPath;
+    }
+
+    /**
+     * Sets the full path of realms created before such column was available, as when upgrading from previous
+     * versions.
+     */
+    private void backfillRealmFullPaths(final String domain, final DataSource dataSource) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Map<String, Map<String, Object>> realms = jdbcTemplate.queryForList(
+                "SELECT id, name, parent_id, fullPath FROM " + JPARealm.TABLE).stream().
+                collect(Collectors.toMap(row -> (String) row.get("id"), row -> row));
+
+        Map<String, String> fullPaths = new HashMap<>();
+        realms.forEach((realm, row) -> {
+            if (row.get("fullPath") != null) {
+                fullPaths.put(realm, (String) row.get("fullPath"));
+            }
+        });
+        List<String> missing = realms.keySet().stream().
+                filter(realm -> !fullPaths.containsKey(realm)).
+                collect(Collectors.toList());
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> updates = missing.stream().
+                map(realm -> new Object[] { fullPath(realm, realms, fullPaths), realm }).
+                collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("UPDATE " + JPARealm.TABLE + " SET fullPath=? WHERE id=?", updates);
+
+        LOG.info("[{}] Backfilled full path of {} realms", domain, updates.size());
+    }
+
     private void loadDefaultContent(
             final String domain, final InputStream contentXML, final DataSource dataSource)
             throws IOException, ParserConfigurationException, SAXException {
@@ -29,6 +29,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
 import javax.persistence.TypedQuery;
@@ -132,6 +134,23 @@ public abstract class AbstractAnyDAO<A extends Any<?>> extends AbstractDAO<A> im
         return result;
     }
 
+    @SuppressWarnings("unchecked")
+    protected Stream<String> streamAllKeys(final String table) {
+        return KeysetSpliterator.stream((afterKey, itemsPerPage) -> {
+            Query query = entityManager().createNativeQuery("SELECT id FROM " + table
+                    + (afterKey == null ? "" : " WHERE id > ?") + " ORDER BY id", String.class);
+            if (afterKey != null) {
+                query.setParameter(1, afterKey);
+            }
+            query.setMaxResults(itemsPerPage);
+
+            return ((List<Object>) query.getResultList()).stream().map(resultKey -> resultKey instanceof Object[]
+                    ? (String) ((Object[]) resultKey)[0]
+                    : ((String) resultKey)).
+                    collect(Collectors.toList());
+        }, AnyDAO.DEFAULT_PAGE_SIZE);
+    }
+
     protected Date findLastChange(final String key, final String table) {
         Query query = entityManager().createNativeQuery(
                 "SELECT creationDate, lastChangeDate FROM " + table + " WHERE id=?");
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.validation.ValidationException;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
@@ -34,6 +35,7 @@ import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
+import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
@@ -62,6 +64,7 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.jpa.entity.JPAPlainSchema;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 
 public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implements AnySearchDAO {
 
@@ -95,6 +98,9 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
     @Autowired
     protected AnyUtilsFactory anyUtilsFactory;
 
+    @Value("${any.search.fetchSize:" + AnyDAO.DEFAULT_PAGE_SIZE + "}")
+    protected int fetchSize = AnyDAO.DEFAULT_PAGE_SIZE;
+
     protected static SearchCond buildEffectiveCond(final SearchCond cond, final Set<String> dynRealmKeys) {
         List<SearchCond> effectiveConds = dynRealmKeys.stream().map(dynRealmKey -> {
             DynRealmCond dynRealmCond = new DynRealmCond();
@@ -139,11 +145,25 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
     protected abstract <T extends Any<?>> List<T> doSearch(
             Set<String> adminRealms,
             SearchCond searchCondition,
-            int page,
-            int itemsPerPage,
+            int firstResult,
+            int maxResults,
             List<OrderByClause> orderBy,
             AnyTypeKind kind);
 
+    protected abstract <T extends Any<?>> List<T> doSearch(
+            Set<String> adminRealms,
+            SearchCond searchCondition,
+            String afterKey,
+            int itemsPerPage,
+            AnyTypeKind kind);
+
+    protected abstract List<String> doSearchKeys(
+            Set<String> adminRealms,
+            SearchCond searchCondition,
+            String afterKey,
+            int itemsPerPage,
+            AnyTypeKind kind);
+
     protected Pair<PlainSchema, PlainAttrValue> check(final AttrCond cond, final AnyTypeKind kind) {
         AnyUtils anyUtils = anyUtilsFactory.getInstance(kind);
 
@@ -297,11 +317,15 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
         return memberKey;
     }
 
-    @SuppressWarnings("unchecked")
-    protected <T extends Any<?>> List<T> buildResult(final List<Object> raw, final AnyTypeKind kind) {
-        List<String> keys = raw.stream().
+    protected static List<String> toKeys(final List<?> raw) {
+        return raw.stream().
                 map(key -> key instanceof Object[] ? (String) ((Object[]) key)[0] : ((String) key)).
                 collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    protected <T extends Any<?>> List<T> buildResult(final List<?> raw, final AnyTypeKind kind) {
+        List<String> keys = toKeys(raw);
 
         // sort anys according to keys' sorting, as their ordering is same as raw, e.g. the actual sql query results
         List<Any<?>> anys = anyUtilsFactory.getInstance(kind).dao().findByKeys(keys).stream().
@@ -322,6 +346,31 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
+        return doSearch(adminRealms, cond, page, itemsPerPage, itemsPerPage, orderBy, kind);
+    }
+
+    @Override
+    public <T extends Any<?>> List<T> searchLookAhead(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int page,
+            final int itemsPerPage,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        return doSearch(
+                adminRealms, cond, page, itemsPerPage, itemsPerPage < 0 ? -1 : itemsPerPage + 1, orderBy, kind);
+    }
+
+    private <T extends Any<?>> List<T> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final int page,
+            final int itemsPerPage,
+            final int maxResults,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
         if (adminRealms == null || adminRealms.isEmpty()) {
             LOG.error("No realms provided");
             return List.of();
@@ -345,6 +394,49 @@ public abstract class AbstractAnySearchDAO extends AbstractDAO<Any<?>> implement
                     collect(Collectors.toList());
         }
 
-        return doSearch(adminRealms, cond, page, itemsPerPage, effectiveOrderBy, kind);
+        // page starts from 1, while first result starts from 0
+        int firstResult = itemsPerPage < 0 ? 0 : itemsPerPage * (page <= 0 ? 0 : page - 1);
+
+        return doSearch(adminRealms, cond, firstResult, maxResults, effectiveOrderBy, kind);
+    }
+
+    @Override
+    public <T extends Any<?>> List<T> search(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        if (adminRealms == null || adminRealms.isEmpty()) {
+            LOG.error("No realms provided");
+            return List.of();
+        }
+
+        LOG.debug("Search condition:\n{}", cond);
+        if (cond == null || !cond.isValid()) {
+            LOG.error("Invalid search condition:\n{}", cond);
+            return List.of();
+        }
+
+        return doSearch(adminRealms, cond, afterKey, itemsPerPage, kind);
+    }
+
+    @Override
+    public Stream<String> streamKeys(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
+        if (adminRealms == null || adminRealms.isEmpty()) {
+            LOG.error("No realms provided");
+            return Stream.empty();
+        }
+
+        LOG.debug("Search condition:\n{}", cond);
+        if (cond == null || !cond.isValid()) {
+            LOG.error("Invalid search condition:\n{}", cond);
+            return Stream.empty();
+        }
+
+        return KeysetSpliterator.stream(
+                (afterKey, itemsPerPage) -> doSearchKeys(adminRealms, cond, afterKey, itemsPerPage, kind),
+                fetchSize);
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the native SQL queries generated by {@link JPAAnySearchDAO}, so that searches repeatedly issued with
+ * conditions of the same shape do not need to parse ordering clauses and build the query string again.
+ * Queries are keyed by the shape of the search condition, including the definitions of the plain schemas involved as
+ * read when searching, while values are bound as parameters at every search: hence, changes made to plain schemas on
+ * other nodes just cause new entries to be cached. The whole cache is anyway cleared as soon as any plain schema is
+ * created, updated or deleted on this node, to release the entries which cannot be hit any more.
+ */
+@Component
+@ManagedResource(description = "Any search query cache")
+public class AnySearchQueryCache {
+
+    @Value("${any.search.queryCache.size:1000}")
+    private int maxSize = 1000;
+
+    private final Map<String, String> queries = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = -4137632520316402532L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the cached query for the given key, if any.
+     *
+     * @param key cache key
+     * @return query string, or null if not found
+     */
+    public String get(final String key) {
+        String query = queries.get(key);
+        if (query == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return query;
+    }
+
+    /**
+     * Caches the given query.
+     *
+     * @param key cache key
+     * @param query query string
+     */
+    public void put(final String key, final String query) {
+        if (maxSize > 0) {
+            queries.put(key, query);
+        }
+    }
+
+    /**
+     * Removes all cached queries; when invoked within a transaction, cached queries are removed again once that
+     * completes, as the ones built meanwhile by concurrent searches might not reflect the changes being made.
+     */
+    public void invalidate() {
+        queries.clear();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    queries.clear();
+                }
+            });
+        }
+    }
+
+    @ManagedOperation(description = "Removes all cached queries")
+    public void clear() {
+        queries.clear();
+    }
+
+    @ManagedAttribute(description = "Number of cached queries")
+    public int getSize() {
+        return queries.size();
+    }
+
+    @ManagedAttribute(description = "Number of lookups finding the requested query")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of lookups not finding the requested query")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Ratio of lookups finding the requested query")
+    public double getHitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
+import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the {@link SearchCond} instances built from the FIQL conditions of dynamic memberships, so that they are not
+ * parsed again at every user, group or any object save, together with the matchers compiled from them via
+ * {@link AnyMatchDAO#compile(SearchCond)}, which resolve plain schemas and fields, and parse condition values, only
+ * once.
+ * Cached entries are bound to the dynamic membership key and rebuilt as soon as the FIQL condition (or any other
+ * input used to build the condition, as the owning group's realm) changes; cached conditions are also indexed by
+ * {@link DynMembershipDependencyIndex}.
+ * The cache is bounded in number of entries and only kept on the local node; since compiled matchers depend on plain
+ * schema definitions, the whole cache is cleared as soon as any plain schema is created, updated or deleted on this
+ * node.
+ */
+@Component
+@ManagedResource(description = "Dynamic membership condition cache")
+public class DynMembershipCondCache {
+
+    private static final class Entry {
+
+        private final String source;
+
+        private final SearchCond cond;
+
+        private volatile Predicate<Any<?>> matcher;
+
+        Entry(final String source, final SearchCond cond) {
+            this.source = source;
+            this.cond = cond;
+        }
+    }
+
+    @Value("${dynMembership.condCache.size:10000}")
+    private int maxSize = 10000;
+
+    private final Map<String, Entry> entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = -2193373284436580361L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    @Autowired
+    private SearchCondVisitor searchCondVisitor;
+
+    @Autowired
+    private AnyMatchDAO anyMatchDAO;
+
+    @Autowired
+    private DynMembershipDependencyIndex dependencyIndex;
+
+    private Entry entry(
+            final DynMembership<?> memb,
+            final String discriminator,
+            final Function<SearchCond, SearchCond> builder) {
+
+        String source = memb.getFIQLCond() + '|' + discriminator;
+
+        Entry entry = memb.getKey() == null ? null : entries.get(memb.getKey());
+        if (entry == null || !source.equals(entry.source)) {
+            entry = new Entry(
+                    source, builder.apply(SearchCondConverter.convert(searchCondVisitor, memb.getFIQLCond())));
+            if (memb.getKey() != null) {
+                if (maxSize > 0) {
+                    entries.put(memb.getKey(), entry);
+                }
+                dependencyIndex.index(memb.getKey(), entry.cond);
+            }
+        }
+
+        return entry;
+    }
+
+    /**
+     * Returns the condition for the given dynamic membership.
+     *
+     * @param memb dynamic membership
+     * @param discriminator any additional input (other than the FIQL condition) used by the builder
+     * @param builder builds the actual condition from the parsed FIQL condition
+     * @return condition for the given dynamic membership
+     */
+    public SearchCond get(
+            final DynMembership<?> memb,
+            final String discriminator,
+            final Function<SearchCond, SearchCond> builder) {
+
+        return entry(memb, discriminator, builder).cond;
+    }
+
+    /**
+     * Returns the condition for the given dynamic membership.
+     *
+     * @param memb dynamic membership
+     * @return condition for the given dynamic membership
+     */
+    public SearchCond get(final DynMembership<?> memb) {
+        return get(memb, null, Function.identity());
+    }
+
+    /**
+     * Returns the matcher compiled from the condition for the given dynamic membership.
+     *
+     * @param memb dynamic membership
+     * @param discriminator any additional input (other than the FIQL condition) used by the builder
+     * @param builder builds the actual condition from the parsed FIQL condition
+     * @return matcher for the given dynamic membership
+     */
+    public Predicate<Any<?>> matcher(
+            final DynMembership<?> memb,
+            final String discriminator,
+            final Function<SearchCond, SearchCond> builder) {
+
+        Entry entry = entry(memb, discriminator, builder);
+        Predicate<Any<?>> matcher = entry.matcher;
+        if (matcher == null) {
+            matcher = anyMatchDAO.compile(entry.cond);
+            entry.matcher = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * Returns the matcher compiled from the condition for the given dynamic membership.
+     *
+     * @param memb dynamic membership
+     * @return matcher for the given dynamic membership
+     */
+    public Predicate<Any<?>> matcher(final DynMembership<?> memb) {
+        return matcher(memb, null, Function.identity());
+    }
+
+    /**
+     * Removes the cached entry for the given dynamic membership, if present.
+     *
+     * @param memb dynamic membership
+     */
+    public void evict(final DynMembership<?> memb) {
+        if (memb != null && memb.getKey() != null) {
+            entries.remove(memb.getKey());
+            dependencyIndex.remove(memb.getKey());
+        }
+    }
+
+    @ManagedOperation(description = "Removes all cached conditions and matchers")
+    public void clear() {
+        entries.clear();
+    }
+
+    @ManagedAttribute(description = "Number of cached conditions")
+    public int getSize() {
+        return entries.size();
+    }
+}
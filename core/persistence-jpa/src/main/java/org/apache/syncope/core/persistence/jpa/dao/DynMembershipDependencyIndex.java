@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.beans.PropertyDescriptor;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
+import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
+import org.apache.syncope.core.persistence.api.dao.search.RelationshipTypeCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Indexes the conditions of dynamic memberships by the plain schemas and fields they read, so that saving users,
+ * groups or any objects only requires to evaluate the conditions reading some value which actually changed.
+ * For this purpose, the values read by indexed conditions are recorded, for each saved any and dynamic membership
+ * table, once the transaction refreshing its dynamic memberships is committed; conditions are instead always evaluated
+ * when no values were recorded or any condition was changed meanwhile, as well as when reading data not owned by the
+ * any itself (as memberships, roles, resources or related any objects).
+ * Recorded values are bounded in number and only kept on the local node: saves on other nodes can only cause further
+ * evaluations here, since they are found as changed values.
+ */
+@Component
+@ManagedResource(description = "Dynamic membership dependency index")
+public class DynMembershipDependencyIndex {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DynMembershipDependencyIndex.class);
+
+    private static final String PLAIN_PREFIX = "plain:";
+
+    private static final String FIELD_PREFIX = "field:";
+
+    private static final String REALM = "realm";
+
+    private static final String RELATIONSHIPS = "relationships";
+
+    private static final class Snapshot {
+
+        private final long generation;
+
+        private final Map<String, String> values;
+
+        Snapshot(final long generation, final Map<String, String> values) {
+            this.generation = generation;
+            this.values = values;
+        }
+    }
+
+    @Value("${dynMembership.dependencyIndex.size:10000}")
+    private int maxSize = 10000;
+
+    /**
+     * Dynamic membership keys, by dependency.
+     */
+    private final Map<String, Set<String>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * Dependencies, by dynamic membership key; empty for conditions not depending on any value of the any.
+     */
+    private final Map<String, Set<String>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Indexed conditions, by dynamic membership key.
+     */
+    private final Map<String, SearchCond> conds = new ConcurrentHashMap<>();
+
+    /**
+     * Keys of dynamic memberships whose condition reads data not owned by the any.
+     */
+    private final Set<String> unindexable = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Snapshot> snapshots = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 6406385016233117296L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Snapshot> eldest) {
+            return size() > maxSize;
+        }
+    });
+
+    private final AtomicLong skipped = new AtomicLong();
+
+    private final AtomicLong evaluated = new AtomicLong();
+
+    /**
+     * Collects the dependencies of the given condition.
+     *
+     * @param cond condition
+     * @param deps where dependencies are added
+     * @return false if the given condition reads data not owned by the any, true otherwise
+     */
+    protected static boolean collect(final SearchCond cond, final Set<String> deps) {
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                if (cond.getLeaf(AnyTypeCond.class).isPresent()) {
+                    return true;
+                }
+                if (cond.getLeaf(AnyCond.class).isPresent()) {
+                    deps.add(FIELD_PREFIX + cond.getLeaf(AnyCond.class).get().getSchema());
+                    return true;
+                }
+                if (cond.getLeaf(AttrCond.class).isPresent()) {
+                    deps.add(PLAIN_PREFIX + cond.getLeaf(AttrCond.class).get().getSchema());
+                    return true;
+                }
+                if (cond.getLeaf(AssignableCond.class).isPresent()) {
+                    deps.add(REALM);
+                    return true;
+                }
+                if (cond.getLeaf(RelationshipTypeCond.class).isPresent()) {
+                    deps.add(RELATIONSHIPS);
+                    return true;
+                }
+                return false;
+
+            case AND:
+            case OR:
+                return collect(cond.getLeft(), deps) && collect(cond.getRight(), deps);
+
+            default:
+                return false;
+        }
+    }
+
+    protected static String value(final Any<?> any, final String dependency) {
+        if (dependency.startsWith(PLAIN_PREFIX)) {
+            return any.getPlainAttr(dependency.substring(PLAIN_PREFIX.length())).
+                    map(attr -> attr.getValuesAsStrings().toString()).orElse(null);
+        }
+
+        if (dependency.startsWith(FIELD_PREFIX)) {
+            String field = dependency.substring(FIELD_PREFIX.length());
+            PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(any.getClass(), "key".equals(field) ? "id" : field);
+            if (pd == null || pd.getReadMethod() == null) {
+                return null;
+            }
+            try {
+                Object value = pd.getReadMethod().invoke(any);
+                return value instanceof Entity ? ((Entity) value).getKey() : Objects.toString(value, null);
+            } catch (Exception e) {
+                LOG.error("While accessing {}.{}", any, field, e);
+                // never matches any recorded value
+                return String.valueOf(System.nanoTime());
+            }
+        }
+
+        if (REALM.equals(dependency)) {
+            return any.getRealm() == null ? null : any.getRealm().getFullPath();
+        }
+
+        if (RELATIONSHIPS.equals(dependency) && any instanceof GroupableRelatable) {
+            return ((GroupableRelatable<?, ?, ?, ?, ?>) any).getRelationships().stream().
+                    map(rel -> rel.getType().getKey() + '|' + rel.getRightEnd().getKey()).
+                    sorted().collect(Collectors.joining(","));
+        }
+
+        return null;
+    }
+
+    private void unindex(final String membKey) {
+        Set<String> deps = dependencies.remove(membKey);
+        if (deps != null) {
+            deps.forEach(dep -> dependents.computeIfPresent(dep, (key, membs) -> {
+                membs.remove(membKey);
+                return membs.isEmpty() ? null : membs;
+            }));
+        }
+        conds.remove(membKey);
+        unindexable.remove(membKey);
+    }
+
+    /**
+     * Indexes the given condition for the given dynamic membership, replacing any condition previously indexed;
+     * re-indexing the same condition, as after its eviction from {@link DynMembershipCondCache}, has no effect.
+     *
+     * @param membKey dynamic membership key
+     * @param cond condition
+     */
+    public void index(final String membKey, final SearchCond cond) {
+        Set<String> deps = new HashSet<>();
+        boolean indexable = collect(cond, deps);
+
+        synchronized (dependencies) {
+            if (cond.equals(conds.get(membKey))) {
+                return;
+            }
+
+            if (dependencies.containsKey(membKey)) {
+                generation.incrementAndGet();
+                unindex(membKey);
+            }
+
+            if (indexable) {
+                deps.forEach(dep -> dependents.computeIfAbsent(dep, key -> ConcurrentHashMap.newKeySet()).
+                        add(membKey));
+            } else {
+                unindexable.add(membKey);
+            }
+            dependencies.put(membKey, deps);
+            conds.put(membKey, cond);
+        }
+    }
+
+    /**
+     * Removes the given dynamic membership from the index.
+     *
+     * @param membKey dynamic membership key
+     */
+    public void remove(final String membKey) {
+        synchronized (dependencies) {
+            generation.incrementAndGet();
+            unindex(membKey);
+        }
+    }
+
+    /**
+     * Tells which dynamic memberships stored in the given table need to be evaluated for the given any, by comparing
+     * the values currently read by indexed conditions to the ones recorded when the same any was last saved; the
+     * current values are recorded once the ongoing transaction is committed.
+     * To be invoked once the conditions of all dynamic memberships to evaluate were indexed.
+     *
+     * @param table dynamic membership table
+     * @param any any being saved
+     * @return predicate telling whether the condition of the dynamic membership with given key is to be evaluated
+     */
+    public Predicate<String> affected(final String table, final Any<?> any) {
+        Set<String> indexed;
+        long current;
+        synchronized (dependencies) {
+            indexed = new HashSet<>(dependencies.keySet());
+            current = generation.get();
+        }
+
+        Map<String, String> values = new HashMap<>();
+        dependents.keySet().forEach(dep -> values.put(dep, value(any, dep)));
+
+        String key = AuthContextUtils.getDomain() + '|' + table + '|' + any.getKey();
+        Snapshot snapshot = snapshots.get(key);
+
+        if (maxSize > 0 && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+                @Override
+                public void afterCompletion(final int status) {
+                    if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                        snapshots.put(key, new Snapshot(current, values));
+                    } else {
+                        snapshots.remove(key);
+                    }
+                }
+            });
+        }
+
+        if (snapshot == null || snapshot.generation != current) {
+            return membKey -> {
+                evaluated.incrementAndGet();
+                return true;
+            };
+        }
+
+        Set<String> affected = new HashSet<>();
+        values.forEach((dep, value) -> {
+            if (!snapshot.values.containsKey(dep) || !Objects.equals(snapshot.values.get(dep), value)) {
+                affected.addAll(dependents.getOrDefault(dep, Set.of()));
+            }
+        });
+        return membKey -> {
+            boolean result = !indexed.contains(membKey) || unindexable.contains(membKey) || affected.contains(membKey);
+            (result ? evaluated : skipped).incrementAndGet();
+            return result;
+        };
+    }
+
+    @ManagedOperation(description = "Removes all recorded values")
+    public void clear() {
+        snapshots.clear();
+    }
+
+    @ManagedAttribute(description = "Number of anys with recorded values")
+    public int getSize() {
+        return snapshots.size();
+    }
+
+    @ManagedAttribute(description = "Number of dynamic membership conditions evaluated upon save")
+    public long getEvaluated() {
+        return evaluated.get();
+    }
+
+    @ManagedAttribute(description = "Number of dynamic membership conditions skipped upon save")
+    public long getSkipped() {
+        return skipped.get();
+    }
+}
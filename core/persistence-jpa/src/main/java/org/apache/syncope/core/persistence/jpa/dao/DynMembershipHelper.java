@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceException;
+import javax.persistence.Query;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.openjpa.persistence.OpenJPAPersistence;
+
+/**
+ * Reads and writes dynamic membership tables in bulk: rows are inserted via JDBC batches and removed via
+ * {@code IN} clauses, {@link #CHUNK_SIZE} rows at a time.
+ */
+final class DynMembershipHelper {
+
+    /**
+     * Maximum number of rows written per statement; below the limit of items in {@code IN} clauses (1000) set by
+     * some DBMSes.
+     */
+    static final int CHUNK_SIZE = 500;
+
+    /**
+     * Reads the keys returned by the given native query, selecting a single column.
+     *
+     * @param query native query
+     * @return keys returned by the given query, in order
+     */
+    static List<String> keys(final Query query) {
+        List<String> result = new ArrayList<>();
+        query.getResultList().forEach(key -> result.add(key instanceof Object[]
+                ? (String) ((Object[]) key)[0]
+                : (String) key));
+        return result;
+    }
+
+    private static String placeholders(final int size) {
+        return StringUtils.repeat("?", ",", size);
+    }
+
+    /**
+     * Reads, with a single statement, the keys of all members of the given owner (group, role or dynamic realm).
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param ownerColumn column referencing the owner in table
+     * @param ownerKey owner key
+     * @return keys of the members of the given owner
+     */
+    static Set<String> findMembers(
+            final EntityManager entityManager, final String table, final String ownerColumn, final String ownerKey) {
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT any_id FROM " + table + " WHERE " + ownerColumn + "=?");
+        query.setParameter(1, ownerKey);
+        return new HashSet<>(keys(query));
+    }
+
+    /**
+     * Consumes the given keys of entities matching some dynamic membership condition: keys not found among the given
+     * current members, nor already joined, are passed to the given callback {@link #CHUNK_SIZE} at a time; the others
+     * are removed from the current members, which are eventually left with the keys of members leaving.
+     *
+     * @param matching keys of matching entities, as lazily fetched by
+     * {@link org.apache.syncope.core.persistence.api.dao.AnySearchDAO#streamKeys}
+     * @param members keys of current members
+     * @param joined keys of members joining, possibly already collected from other conditions of the same owner
+     * @param onJoining callback receiving keys of members joining
+     */
+    static void refresh(
+            final Stream<String> matching,
+            final Set<String> members,
+            final Set<String> joined,
+            final Consumer<List<String>> onJoining) {
+
+        List<String> joining = new ArrayList<>();
+        try (matching) {
+            matching.filter(key -> !members.remove(key) && joined.add(key)).forEach(key -> {
+                joining.add(key);
+                if (joining.size() == CHUNK_SIZE) {
+                    onJoining.accept(joining);
+                    joining.clear();
+                }
+            });
+        }
+        if (!joining.isEmpty()) {
+            onJoining.accept(joining);
+        }
+    }
+
+    /**
+     * Reads which of the given keys are found in the given table, {@link #CHUNK_SIZE} at a time.
+     *
+     * @param entityManager entity manager
+     * @param table entity table
+     * @param keys keys to look for
+     * @return keys found in the given table
+     */
+    static Set<String> findExisting(final EntityManager entityManager, final String table, final Set<String> keys) {
+        Set<String> result = new HashSet<>();
+
+        List<String> list = new ArrayList<>(keys);
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            List<String> chunk = list.subList(from, Math.min(from + CHUNK_SIZE, list.size()));
+
+            Query query = entityManager.createNativeQuery("SELECT id FROM " + table + " WHERE id IN ("
+                    + placeholders(chunk.size()) + ')');
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i + 1, chunk.get(i));
+            }
+            result.addAll(keys(query));
+        }
+
+        return result;
+    }
+
+    /**
+     * Inserts the given rows via JDBC batches, after flushing pending changes.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param rows rows to insert, each with values for all columns of table, in order
+     */
+    static void insert(final EntityManager entityManager, final String table, final List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        entityManager.flush();
+
+        String sql = "INSERT INTO " + table + " VALUES("
+                + placeholders(rows.get(0).length) + ')';
+        try (Connection conn = (Connection) OpenJPAPersistence.cast(entityManager).getConnection();
+                PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            int batched = 0;
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    stmt.setObject(i + 1, row[i]);
+                }
+                stmt.addBatch();
+
+                if (++batched % CHUNK_SIZE == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            if (batched % CHUNK_SIZE != 0) {
+                stmt.executeBatch();
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("While inserting into " + table, e);
+        }
+    }
+
+    /**
+     * Removes the dynamic memberships of the given members for the given owner, {@link #CHUNK_SIZE} at a time.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param ownerColumn column referencing the owner in table
+     * @param ownerKey owner key
+     * @param anyKeys keys of the members to remove
+     */
+    static void deleteMembers(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String ownerKey,
+            final Collection<String> anyKeys) {
+
+        List<String> keys = new ArrayList<>(anyKeys);
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size()));
+
+            Query delete = entityManager.createNativeQuery(
+                    "DELETE FROM " + table + " WHERE " + ownerColumn + "=? AND any_id IN ("
+                    + placeholders(chunk.size()) + ')');
+            delete.setParameter(1, ownerKey);
+            for (int i = 0; i < chunk.size(); i++) {
+                delete.setParameter(i + 2, chunk.get(i));
+            }
+            delete.executeUpdate();
+        }
+    }
+
+    /**
+     * Reads, with a single statement, the owners (groups, roles or dynamic realms) of all dynamic memberships
+     * currently stored for the given any.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param ownerColumn column referencing the owner in table
+     * @param anyKey any key
+     * @return keys of the owners of all dynamic memberships for the given any
+     */
+    static Set<String> findOwners(
+            final EntityManager entityManager, final String table, final String ownerColumn, final String anyKey) {
+
+        Query query = entityManager.createNativeQuery(
+                "SELECT " + ownerColumn + " FROM " + table + " WHERE any_id=?");
+        query.setParameter(1, anyKey);
+        return new HashSet<>(keys(query));
+    }
+
+    /**
+     * Removes the dynamic memberships of the given any for the given owners, {@link #CHUNK_SIZE} at a time.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param ownerColumn column referencing the owner in table
+     * @param anyKey any key
+     * @param ownerKeys keys of the owners (groups, roles or dynamic realms) to remove dynamic memberships for
+     */
+    static void deleteOwners(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String anyKey,
+            final Collection<String> ownerKeys) {
+
+        List<String> keys = new ArrayList<>(ownerKeys);
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            List<String> chunk = keys.subList(from, Math.min(from + CHUNK_SIZE, keys.size()));
+
+            Query delete = entityManager.createNativeQuery(
+                    "DELETE FROM " + table + " WHERE any_id=? AND " + ownerColumn + " IN ("
+                    + placeholders(chunk.size()) + ')');
+            delete.setParameter(1, anyKey);
+            for (int i = 0; i < chunk.size(); i++) {
+                delete.setParameter(i + 2, chunk.get(i));
+            }
+            delete.executeUpdate();
+        }
+    }
+
+    /**
+     * Aligns the dynamic memberships stored for the given any to the given matching outcomes: rows for owners now
+     * matching are inserted in a single batch, rows for owners no longer matching are removed in a single statement.
+     *
+     * @param entityManager entity manager
+     * @param table dynamic membership table
+     * @param ownerColumn column referencing the owner in table
+     * @param anyKey any key
+     * @param existing keys of the owners of all dynamic memberships currently stored for the given any
+     * @param matching whether the given any matches, by owner key
+     * @param row builds the row to insert for the given owner key
+     * @return keys of the owners whose dynamic membership changed
+     */
+    static Set<String> refreshOwners(
+            final EntityManager entityManager,
+            final String table,
+            final String ownerColumn,
+            final String anyKey,
+            final Set<String> existing,
+            final Map<String, Boolean> matching,
+            final Function<String, Object[]> row) {
+
+        Set<String> changed = new HashSet<>();
+        List<Object[]> toAdd = new ArrayList<>();
+        List<String> toRemove = new ArrayList<>();
+        matching.forEach((owner, matches) -> {
+            if (matches && !existing.contains(owner)) {
+                changed.add(owner);
+                toAdd.add(row.apply(owner));
+            } else if (!matches && existing.contains(owner)) {
+                changed.add(owner);
+                toRemove.add(owner);
+            }
+        });
+
+        insert(entityManager, table, toAdd);
+        deleteOwners(entityManager, table, ownerColumn, anyKey, toRemove);
+
+        return changed;
+    }
+
+    private DynMembershipHelper() {
+        // private constructor for static utility class
+    }
+}
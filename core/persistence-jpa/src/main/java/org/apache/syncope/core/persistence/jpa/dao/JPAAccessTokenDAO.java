@@ -28,6 +28,10 @@ import org.apache.syncope.core.persistence.api.dao.AccessTokenDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.AccessToken;
 import org.apache.syncope.core.persistence.jpa.entity.JPAAccessToken;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.ReflectionUtils;
@@ -35,6 +39,9 @@ import org.springframework.util.ReflectionUtils;
 @Repository
 public class JPAAccessTokenDAO extends AbstractDAO<AccessToken> implements AccessTokenDAO {
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Transactional(readOnly = true)
     @Override
     public AccessToken find(final String key) {
@@ -112,7 +119,12 @@ public class JPAAccessTokenDAO extends AbstractDAO<AccessToken> implements Acces
     @Transactional(rollbackFor = Throwable.class)
     @Override
     public AccessToken save(final AccessToken accessToken) {
-        return entityManager().merge(accessToken);
+        AccessToken merged = entityManager().merge(accessToken);
+
+        publisher.publishEvent(new EntityChangedEvent(
+                this, AccessToken.class, merged.getKey(), AuthContextUtils.getDomain()));
+
+        return merged;
     }
 
     @Transactional(rollbackFor = Throwable.class)
@@ -129,6 +141,9 @@ public class JPAAccessTokenDAO extends AbstractDAO<AccessToken> implements Acces
     @Override
     public void delete(final AccessToken accessToken) {
         entityManager().remove(accessToken);
+
+        publisher.publishEvent(new EntityChangedEvent(
+                this, AccessToken.class, accessToken.getKey(), AuthContextUtils.getDomain()));
     }
 
     @Override
@@ -24,7 +24,10 @@ import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import javax.persistence.Entity;
 import javax.validation.ValidationException;
@@ -32,6 +35,7 @@ import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
@@ -52,7 +56,6 @@ import org.apache.syncope.core.persistence.api.dao.search.ResourceCond;
 import org.apache.syncope.core.persistence.api.dao.search.RoleCond;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
-import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.GroupableRelatable;
 import org.apache.syncope.core.persistence.api.entity.PlainAttr;
@@ -234,11 +237,17 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
         return not ? !found : found;
     }
 
+    private static boolean isSameOrDescendant(final String fullPath, final String base) {
+        return fullPath.equals(base) || fullPath.startsWith(StringUtils.appendIfMissing(base, "/"));
+    }
+
     private boolean matches(final Any<?> any, final AssignableCond cond, final boolean not) {
         Realm realm = realmDAO.findByFullPath(cond.getRealmFullPath());
-        boolean found = Optional.ofNullable(realm)
-            .filter(realm1 -> (cond.isFromGroup() ? realmDAO.findDescendants(realm1) : realmDAO.findAncestors(realm1)).
-            stream().anyMatch(item -> item.equals(any.getRealm()))).isPresent();
+        boolean found = Optional.ofNullable(realm).
+                filter(item -> cond.isFromGroup()
+                ? isSameOrDescendant(any.getRealm().getFullPath(), item.getFullPath())
+                : isSameOrDescendant(item.getFullPath(), any.getRealm().getFullPath())).
+                isPresent();
         return not ? !found : found;
     }
 
@@ -279,12 +288,42 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
         return not ? !found : found;
     }
 
+    /**
+     * Builds the pattern matching the expression of the given LIKE / ILIKE condition.
+     *
+     * @param cond LIKE / ILIKE condition
+     * @return pattern matching the expression of the given condition, or null for other condition types
+     */
+    private static Pattern likePattern(final AttrCond cond) {
+        if (cond.getType() != AttrCond.Type.LIKE && cond.getType() != AttrCond.Type.ILIKE) {
+            return null;
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (char c : cond.getExpression().toLowerCase().toCharArray()) {
+            if (c == '%') {
+                output.append(".*");
+            } else if (Character.isLetter(c)) {
+                output.append('[').
+                        append(c).
+                        append(Character.toUpperCase(c)).
+                        append(']');
+            } else {
+                output.append(c);
+            }
+        }
+        return cond.getType() == AttrCond.Type.LIKE
+                ? Pattern.compile(output.toString())
+                : Pattern.compile(output.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private static boolean matches(
             final List<? extends PlainAttrValue> anyAttrValues,
             final PlainAttrValue attrValue,
-            final PlainSchema schema,
-            final AttrCond cond) {
+            final AttrSchemaType schemaType,
+            final AttrCond cond,
+            final Pattern likePattern) {
 
         return anyAttrValues.stream().anyMatch(item -> {
             switch (cond.getType()) {
@@ -292,7 +331,7 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
                     return attrValue.getValue().equals(item.getValue());
 
                 case IEQ:
-                    if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
+                    if (schemaType == AttrSchemaType.String || schemaType == AttrSchemaType.Enum) {
                         return attrValue.getStringValue().equalsIgnoreCase(item.getStringValue());
                     } else {
                         LOG.error("IEQ is only compatible with string or enum schemas");
@@ -301,24 +340,8 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
 
                 case LIKE:
                 case ILIKE:
-                    if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
-                        StringBuilder output = new StringBuilder();
-                        for (char c : cond.getExpression().toLowerCase().toCharArray()) {
-                            if (c == '%') {
-                                output.append(".*");
-                            } else if (Character.isLetter(c)) {
-                                output.append('[').
-                                        append(c).
-                                        append(Character.toUpperCase(c)).
-                                        append(']');
-                            } else {
-                                output.append(c);
-                            }
-                        }
-                        return (cond.getType() == AttrCond.Type.LIKE
-                                ? Pattern.compile(output.toString())
-                                : Pattern.compile(output.toString(), Pattern.CASE_INSENSITIVE)).
-                                matcher(item.getStringValue()).matches();
+                    if (schemaType == AttrSchemaType.String || schemaType == AttrSchemaType.Enum) {
+                        return likePattern.matcher(item.getStringValue()).matches();
                     } else {
                         LOG.error("LIKE is only compatible with string or enum schemas");
                         return false;
@@ -342,12 +365,38 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
         });
     }
 
-    private boolean matches(final Any<?> any, final AttrCond cond, final boolean not) {
-        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
-        if (schema == null) {
-            LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
-            return false;
+    /**
+     * Parses the expression of the given condition according to the given schema.
+     *
+     * @param any any providing the value implementation
+     * @param schema schema
+     * @param cond condition
+     * @return parsed expression, or null if the expression is not valid for the given schema
+     */
+    private PlainAttrValue attrValue(final Any<?> any, final PlainSchema schema, final AttrCond cond) {
+        PlainAttrValue attrValue = anyUtilsFactory.getInstance(any).newPlainAttrValue();
+        try {
+            if (cond.getType() != AttrCond.Type.LIKE
+                    && cond.getType() != AttrCond.Type.ILIKE
+                    && cond.getType() != AttrCond.Type.ISNULL
+                    && cond.getType() != AttrCond.Type.ISNOTNULL) {
+
+                ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
+            }
+        } catch (ValidationException e) {
+            LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
+            return null;
         }
+        return attrValue;
+    }
+
+    private static boolean matches(
+            final Any<?> any,
+            final AttrCond cond,
+            final AttrSchemaType schemaType,
+            final PlainAttrValue attrValue,
+            final Pattern likePattern,
+            final boolean not) {
 
         @SuppressWarnings("unchecked")
         Optional<PlainAttr<?>> attr = (Optional<PlainAttr<?>>) any.getPlainAttr(cond.getSchema());
@@ -363,43 +412,119 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
                 break;
 
             default:
-                PlainAttrValue attrValue = anyUtilsFactory.getInstance(any).newPlainAttrValue();
-                try {
-                    if (cond.getType() != AttrCond.Type.LIKE
-                            && cond.getType() != AttrCond.Type.ILIKE
-                            && cond.getType() != AttrCond.Type.ISNULL
-                            && cond.getType() != AttrCond.Type.ISNOTNULL) {
-
-                        ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
-                    }
-                } catch (ValidationException e) {
-                    LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
-                    return false;
-                }
-
-                found = attr.isPresent() && matches(attr.get().getValues(), attrValue, schema, cond);
+                found = attr.isPresent()
+                        && matches(attr.get().getValues(), attrValue, schemaType, cond, likePattern);
         }
         return not ? !found : found;
     }
 
-    private boolean matches(final Any<?> any, final AnyCond cond, final boolean not) {
-        // Keeps track of difference between entity's getKey() and JPA @Id fields
-        if ("key".equals(cond.getSchema())) {
-            cond.setSchema("id");
+    private boolean matches(final Any<?> any, final AttrCond cond, final boolean not) {
+        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
+        if (schema == null) {
+            LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
+            return false;
         }
 
-        PropertyDescriptor pd;
-        Object anyAttrValue;
-        try {
-            pd = BeanUtils.getPropertyDescriptor(any.getClass(), cond.getSchema());
-            if (pd == null) {
-                LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
-                return false;
+        PlainAttrValue attrValue = attrValue(any, schema, cond);
+        if (attrValue == null) {
+            return false;
+        }
+
+        return matches(any, cond, schema.getType(), attrValue, likePattern(cond), not);
+    }
+
+    /**
+     * Field read by an {@link AnyCond}, resolved for a given any class.
+     */
+    private static final class AnyField {
+
+        private final PropertyDescriptor pd;
+
+        private final AttrSchemaType schemaType;
+
+        private final PlainAttrValue attrValue;
+
+        private final Pattern likePattern;
+
+        AnyField(
+                final PropertyDescriptor pd,
+                final AttrSchemaType schemaType,
+                final PlainAttrValue attrValue,
+                final Pattern likePattern) {
+
+            this.pd = pd;
+            this.schemaType = schemaType;
+            this.attrValue = attrValue;
+            this.likePattern = likePattern;
+        }
+    }
+
+    /**
+     * Resolves the field read by the given condition for the class of the given any.
+     *
+     * @param any any
+     * @param cond condition
+     * @return resolved field, or null if not found or if the condition's expression is not valid for it
+     */
+    private AnyField resolve(final Any<?> any, final AnyCond cond) {
+        // Keeps track of difference between entity's getKey() and JPA @Id fields;
+        // the given condition is not altered, as it might be shared among invocations
+        String field = "key".equals(cond.getSchema()) ? "id" : cond.getSchema();
+
+        PropertyDescriptor pd = BeanUtils.getPropertyDescriptor(any.getClass(), field);
+        if (pd == null) {
+            LOG.warn("Ignoring invalid schema '{}'", field);
+            return null;
+        }
+
+        PlainSchema schema = new JPAPlainSchema();
+        schema.setKey(pd.getName());
+        for (AttrSchemaType attrSchemaType : AttrSchemaType.values()) {
+            if (pd.getPropertyType().isAssignableFrom(attrSchemaType.getType())) {
+                schema.setType(attrSchemaType);
+            }
+        }
+
+        // Deal with any Integer fields logically mapping to boolean values
+        boolean foundBooleanMin = false;
+        boolean foundBooleanMax = false;
+        if (Integer.class.equals(pd.getPropertyType())) {
+            for (Annotation annotation : pd.getPropertyType().getAnnotations()) {
+                if (Min.class.equals(annotation.annotationType())) {
+                    foundBooleanMin = ((Min) annotation).value() == 0;
+                } else if (Max.class.equals(annotation.annotationType())) {
+                    foundBooleanMax = ((Max) annotation).value() == 1;
+                }
             }
+        }
+        if (foundBooleanMin && foundBooleanMax) {
+            schema.setType(AttrSchemaType.Boolean);
+        }
+
+        // Deal with any fields representing relationships to other entities
+        if (pd.getPropertyType().getAnnotation(Entity.class) != null) {
+            Method relMethod = null;
+            try {
+                relMethod = ClassUtils.getPublicMethod(pd.getPropertyType(), "getKey", new Class<?>[0]);
+            } catch (Exception e) {
+                LOG.error("Could not find {}#getKey", pd.getPropertyType(), e);
+            }
+
+            if (relMethod != null && String.class.isAssignableFrom(relMethod.getReturnType())) {
+                schema.setType(AttrSchemaType.String);
+            }
+        }
+
+        PlainAttrValue attrValue = attrValue(any, schema, cond);
+        return attrValue == null ? null : new AnyField(pd, schema.getType(), attrValue, likePattern(cond));
+    }
 
-            anyAttrValue = pd.getReadMethod().invoke(any);
+    private boolean matches(final Any<?> any, final AnyCond cond, final AnyField field, final boolean not) {
+        Object anyAttrValue;
+        try {
+            anyAttrValue = field.pd.getReadMethod().invoke(any);
         } catch (Exception e) {
-            LOG.error("While accessing {}.{}", any, cond.getSchema(), e);
+            LOG.error("While accessing {}.{}", any, field.pd.getName(), e);
             return false;
         }
 
@@ -414,63 +539,8 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
                 break;
 
             default:
-                PlainSchema schema = new JPAPlainSchema();
-                schema.setKey(pd.getName());
-                for (AttrSchemaType attrSchemaType : AttrSchemaType.values()) {
-                    if (pd.getPropertyType().isAssignableFrom(attrSchemaType.getType())) {
-                        schema.setType(attrSchemaType);
-                    }
-                }
-
-                // Deal with any Integer fields logically mapping to boolean values
-                boolean foundBooleanMin = false;
-                boolean foundBooleanMax = false;
-                if (Integer.class.equals(pd.getPropertyType())) {
-                    for (Annotation annotation : pd.getPropertyType().getAnnotations()) {
-                        if (Min.class.equals(annotation.annotationType())) {
-                            foundBooleanMin = ((Min) annotation).value() == 0;
-                        } else if (Max.class.equals(annotation.annotationType())) {
-                            foundBooleanMax = ((Max) annotation).value() == 1;
-                        }
-                    }
-                }
-                if (foundBooleanMin && foundBooleanMax) {
-                    schema.setType(AttrSchemaType.Boolean);
-                }
-
-                // Deal with any fields representing relationships to other entities
-                if (pd.getPropertyType().getAnnotation(Entity.class) != null) {
-                    Method relMethod = null;
-                    try {
-                        relMethod = ClassUtils.getPublicMethod(pd.getPropertyType(), "getKey", new Class<?>[0]);
-                    } catch (Exception e) {
-                        LOG.error("Could not find {}#getKey", pd.getPropertyType(), e);
-                    }
-
-                    if (relMethod != null && String.class.isAssignableFrom(relMethod.getReturnType())) {
-                        cond.setSchema(cond.getSchema() + "_id");
-                        schema.setType(AttrSchemaType.String);
-                    }
-                }
-
-                AnyUtils anyUtils = anyUtilsFactory.getInstance(any);
-
-                PlainAttrValue attrValue = anyUtils.newPlainAttrValue();
-                if (cond.getType() != AttrCond.Type.LIKE
-                        && cond.getType() != AttrCond.Type.ILIKE
-                        && cond.getType() != AttrCond.Type.ISNULL
-                        && cond.getType() != AttrCond.Type.ISNOTNULL) {
-
-                    try {
-                        ((JPAPlainSchema) schema).validator().validate(cond.getExpression(), attrValue);
-                    } catch (ValidationException e) {
-                        LOG.error("Could not validate expression '" + cond.getExpression() + '\'', e);
-                        return false;
-                    }
-                }
-
                 List<PlainAttrValue> anyAttrValues = new ArrayList<>();
-                anyAttrValues.add(anyUtils.newPlainAttrValue());
+                anyAttrValues.add(anyUtilsFactory.getInstance(any).newPlainAttrValue());
                 if (anyAttrValue instanceof String) {
                     anyAttrValues.get(0).setStringValue((String) anyAttrValue);
                 } else if (anyAttrValue instanceof Long) {
@@ -485,8 +555,76 @@ public class JPAAnyMatchDAO extends AbstractDAO<Any<?>> implements AnyMatchDAO {
                     anyAttrValues.get(0).setBinaryValue((byte[]) anyAttrValue);
                 }
 
-                found = matches(anyAttrValues, attrValue, schema, cond);
+                found = matches(anyAttrValues, field.attrValue, field.schemaType, cond, field.likePattern);
         }
         return not ? !found : found;
     }
+
+    private boolean matches(final Any<?> any, final AnyCond cond, final boolean not) {
+        AnyField field = resolve(any, cond);
+        return field != null && matches(any, cond, field, not);
+    }
+
+    /**
+     * Compiles the given plain attribute condition, by resolving its schema and parsing its expression only once.
+     */
+    private <T extends Any<?>> Predicate<T> compile(final AttrCond cond, final boolean not) {
+        PlainSchema schema = plainSchemaDAO.find(cond.getSchema());
+        if (schema == null) {
+            LOG.warn("Ignoring invalid schema '{}'", cond.getSchema());
+            return any -> false;
+        }
+        AttrSchemaType schemaType = schema.getType();
+        Pattern likePattern = likePattern(cond);
+
+        // expressions are parsed with the value implementation of the first any evaluated
+        Map<Class<?>, Optional<PlainAttrValue>> attrValues = new ConcurrentHashMap<>();
+        return any -> attrValues.computeIfAbsent(
+                any.getClass(), anyClass -> Optional.ofNullable(attrValue(any, schema, cond))).
+                map(attrValue -> matches(any, cond, schemaType, attrValue, likePattern, not)).
+                orElse(false);
+    }
+
+    /**
+     * Compiles the given field condition, by resolving the field only once per any class.
+     */
+    private <T extends Any<?>> Predicate<T> compile(final AnyCond cond, final boolean not) {
+        Map<Class<?>, Optional<AnyField>> fields = new ConcurrentHashMap<>();
+        return any -> fields.computeIfAbsent(any.getClass(), anyClass -> Optional.ofNullable(resolve(any, cond))).
+                map(field -> matches(any, cond, field, not)).
+                orElse(false);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public <T extends Any<?>> Predicate<T> compile(final SearchCond cond) {
+        boolean not = cond.getType() == SearchCond.Type.NOT_LEAF;
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
+                if (anyCond.isPresent()) {
+                    return compile(anyCond.get(), not);
+                }
+
+                Optional<AttrCond> attrCond = cond.getLeaf(AttrCond.class);
+                if (attrCond.isPresent()) {
+                    return compile(attrCond.get(), not);
+                }
+
+                // other conditions read data from further entities, which cannot be resolved in advance
+                return any -> matches(any, cond);
+
+            case AND:
+                Predicate<T> andLeft = compile(cond.getLeft());
+                return andLeft.and(compile(cond.getRight()));
+
+            case OR:
+                Predicate<T> orLeft = compile(cond.getLeft());
+                return orLeft.or(compile(cond.getRight()));
+
+            default:
+                return any -> false;
+        }
+    }
 }
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TemporalType;
@@ -32,9 +33,11 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeClientException;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AttrSchemaType;
 import org.apache.syncope.common.lib.types.ClientExceptionType;
+import org.apache.syncope.core.persistence.api.dao.search.AbstractSearchCond;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
 import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
 import org.apache.syncope.core.persistence.api.dao.search.AnyTypeCond;
@@ -52,11 +55,13 @@ import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
 import org.apache.syncope.core.persistence.api.entity.DynRealm;
-import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.PlainAttrValue;
 import org.apache.syncope.core.persistence.api.entity.PlainSchema;
 import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
 import org.apache.syncope.core.provisioning.api.utils.RealmUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * Search engine implementation for users, groups and any objects, based on self-updating SQL views.
@@ -65,16 +70,31 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
 
     protected static final String EMPTY_QUERY = "SELECT any_id FROM user_search WHERE 1=2";
 
+    @Autowired
+    protected AnySearchQueryCache queryCache;
+
+    /**
+     * Builds the administrative realms filter as a constant-size predicate on the (indexed) realm full path, instead
+     * of enumerating the keys of all descendant realms.
+     *
+     * @param realmPaths full paths of the realms whose subtrees are to be included
+     * @param svs search support
+     * @param parameters query parameters
+     * @return filter to be appended to the search query
+     */
     protected String buildAdminRealmsFilter(
-            final Set<String> realmKeys,
+            final Set<String> realmPaths,
             final SearchSupport svs,
             final List<Object> parameters) {
 
-        List<String> realmKeyArgs = realmKeys.stream().
-                map(realmKey -> "?" + setParameter(parameters, realmKey)).
+        List<String> realmPathArgs = realmPaths.stream().
+                map(realmPath -> "fullPath=?" + setParameter(parameters, realmPath)
+                + " OR fullPath LIKE ?" + setParameter(parameters,
+                        StringUtils.appendIfMissing(realmPath, "/") + '%')).
                 collect(Collectors.toList());
         return "u.any_id IN (SELECT any_id FROM " + svs.field().name
-                + " WHERE realm_id IN (" + StringUtils.join(realmKeyArgs, ", ") + "))";
+                + " WHERE realm_id IN (SELECT id FROM " + JPARealm.TABLE
+                + " WHERE " + StringUtils.join(realmPathArgs, " OR ") + "))";
     }
 
     private Pair<String, Set<String>> getAdminRealmsFilter(
@@ -82,7 +102,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             final SearchSupport svs,
             final List<Object> parameters) {
 
-        Set<String> realmKeys = new HashSet<>();
+        Set<String> realmPaths = new HashSet<>();
         Set<String> dynRealmKeys = new HashSet<>();
         RealmUtils.normalize(adminRealms).forEach(realmPath -> {
             if (realmPath.startsWith("/")) {
@@ -92,8 +112,7 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
                     noRealm.getElements().add("Invalid realm specified: " + realmPath);
                     throw noRealm;
                 } else {
-                    realmKeys.addAll(realmDAO.findDescendants(realm).stream().
-                            map(Entity::getKey).collect(Collectors.toSet()));
+                    realmPaths.add(realm.getFullPath());
                 }
             } else {
                 DynRealm dynRealm = dynRealmDAO.find(realmPath);
@@ -105,17 +124,280 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             }
         });
         if (!dynRealmKeys.isEmpty()) {
-            realmKeys.addAll(realmDAO.findAll().stream().
-                    map(Entity::getKey).collect(Collectors.toSet()));
+            realmPaths.clear();
+            realmPaths.add(SyncopeConstants.ROOT_REALM);
         }
 
-        return Pair.of(buildAdminRealmsFilter(realmKeys, svs, parameters), dynRealmKeys);
+        return Pair.of(buildAdminRealmsFilter(realmPaths, svs, parameters), dynRealmKeys);
     }
 
     SearchSupport buildSearchSupport(final AnyTypeKind kind) {
         return new SearchViewSupport(kind);
     }
 
+    /**
+     * Tells whether the query generated for the given condition only depends on the condition itself and on the
+     * plain schemas' definitions, e.g. no entity is to be looked up by name, hence it can be cached.
+     *
+     * @param cond search condition
+     * @return whether the query generated for the given condition can be cached
+     */
+    protected boolean isCacheable(final SearchCond cond) {
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                return cond.getLeaf(AttrCond.class).isPresent()
+                        || cond.getLeaf(AnyTypeCond.class).isPresent()
+                        || cond.getLeaf(RelationshipTypeCond.class).isPresent()
+                        || cond.getLeaf(RoleCond.class).isPresent()
+                        || cond.getLeaf(PrivilegeCond.class).isPresent()
+                        || cond.getLeaf(DynRealmCond.class).isPresent()
+                        || cond.getLeaf(ResourceCond.class).isPresent()
+                        || cond.getLeaf(MembershipCond.class).
+                                filter(leaf -> SyncopeConstants.UUID_PATTERN.matcher(leaf.getGroup()).matches()).
+                                isPresent()
+                        || cond.getLeaf(RelationshipCond.class).
+                                filter(leaf -> SyncopeConstants.UUID_PATTERN.matcher(leaf.getAnyObject()).matches()).
+                                isPresent()
+                        || cond.getLeaf(MemberCond.class).
+                                filter(leaf -> SyncopeConstants.UUID_PATTERN.matcher(leaf.getMember()).matches()).
+                                isPresent();
+
+            case AND:
+            case OR:
+                return isCacheable(cond.getLeft()) && isCacheable(cond.getRight());
+
+            default:
+                return false;
+        }
+    }
+
+    private static void appendCacheKey(final StringBuilder key, final PlainSchema schema) {
+        key.append(schema.getKey()).
+                append('/').append(schema.getType()).
+                append('/').append(schema.isUniqueConstraint()).
+                append('/').append(schema.isMultivalue());
+    }
+
+    private static void appendCacheKey(final StringBuilder key, final Object value, final List<Object> values) {
+        key.append('?');
+        values.add(value);
+    }
+
+    /**
+     * Appends to the given values the ones to bind for the given plain schema or field condition, in the same order
+     * as {@code fillAttrQuery}.
+     */
+    private static void appendCacheKey(
+            final StringBuilder key,
+            final PlainSchema schema,
+            final PlainAttrValue attrValue,
+            final AttrCond cond,
+            final List<Object> values) {
+
+        appendCacheKey(key, schema);
+        key.append(':').append(cond.getType());
+        switch (cond.getType()) {
+            case ISNULL:
+            case ISNOTNULL:
+                break;
+
+            case ILIKE:
+            case LIKE:
+                if (schema.getType() == AttrSchemaType.String || schema.getType() == AttrSchemaType.Enum) {
+                    appendCacheKey(key, cond.getExpression(), values);
+                }
+                break;
+
+            default:
+                appendCacheKey(key, attrValue.getValue(), values);
+        }
+    }
+
+    /**
+     * Appends the shape of the given condition - leaf types, plain schema definitions, fields and operators - to the
+     * given key, and the values to bind to the given list, in the same order as the query generated for the given
+     * condition.
+     *
+     * @param key cache key
+     * @param cond search condition
+     * @param svs search support
+     * @param values values to bind
+     * @return false if the query for the given condition depends on the values of its leaves, e.g. when these are not
+     * valid for the related schemas
+     */
+    private boolean appendCacheKey(
+            final StringBuilder key,
+            final SearchCond cond,
+            final SearchSupport svs,
+            final List<Object> values) {
+
+        key.append(cond.getType()).append('(');
+        switch (cond.getType()) {
+            case LEAF:
+            case NOT_LEAF:
+                Optional<AnyCond> anyCond = cond.getLeaf(AnyCond.class);
+                Optional<AttrCond> attrCond = cond.getLeaf(AttrCond.class);
+                if (anyCond.isPresent()) {
+                    Triple<PlainSchema, PlainAttrValue, AnyCond> checked;
+                    try {
+                        checked = check(anyCond.get(), svs.anyTypeKind);
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                    key.append(AnyCond.class.getSimpleName()).append(':');
+                    appendCacheKey(key, checked.getLeft(), checked.getMiddle(), checked.getRight(), values);
+                } else if (attrCond.isPresent()) {
+                    Pair<PlainSchema, PlainAttrValue> checked;
+                    try {
+                        checked = check(attrCond.get(), svs.anyTypeKind);
+                    } catch (IllegalArgumentException e) {
+                        return false;
+                    }
+                    key.append(AttrCond.class.getSimpleName()).append(':');
+                    appendCacheKey(key, checked.getLeft(), checked.getRight(), attrCond.get(), values);
+                } else {
+                    cond.getLeaf(AbstractSearchCond.class).
+                            ifPresent(leaf -> key.append(leaf.getClass().getSimpleName()));
+
+                    cond.getLeaf(AnyTypeCond.class).
+                            filter(leaf -> AnyTypeKind.ANY_OBJECT == svs.anyTypeKind).
+                            ifPresent(leaf -> appendCacheKey(key, leaf.getAnyTypeKey(), values));
+
+                    cond.getLeaf(RelationshipTypeCond.class).
+                            filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                            ifPresent(leaf -> {
+                                appendCacheKey(key, leaf.getRelationshipTypeKey(), values);
+                                appendCacheKey(key, leaf.getRelationshipTypeKey(), values);
+                            });
+
+                    cond.getLeaf(RelationshipCond.class).
+                            filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                            ifPresent(leaf -> appendCacheKey(key, leaf.getAnyObject(), values));
+
+                    cond.getLeaf(MembershipCond.class).
+                            filter(leaf -> AnyTypeKind.GROUP != svs.anyTypeKind).
+                            ifPresent(leaf -> {
+                                appendCacheKey(key, leaf.getGroup(), values);
+                                appendCacheKey(key, leaf.getGroup(), values);
+                            });
+
+                    cond.getLeaf(MemberCond.class).
+                            filter(leaf -> AnyTypeKind.GROUP == svs.anyTypeKind).
+                            ifPresent(leaf -> {
+                                appendCacheKey(key, leaf.getMember(), values);
+                                appendCacheKey(key, leaf.getMember(), values);
+                            });
+
+                    cond.getLeaf(RoleCond.class).
+                            filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
+                            ifPresent(leaf -> {
+                                appendCacheKey(key, leaf.getRole(), values);
+                                appendCacheKey(key, leaf.getRole(), values);
+                            });
+
+                    cond.getLeaf(PrivilegeCond.class).
+                            filter(leaf -> AnyTypeKind.USER == svs.anyTypeKind).
+                            ifPresent(leaf -> {
+                                appendCacheKey(key, leaf.getPrivilege(), values);
+                                appendCacheKey(key, leaf.getPrivilege(), values);
+                            });
+
+                    cond.getLeaf(DynRealmCond.class).
+                            ifPresent(leaf -> appendCacheKey(key, leaf.getDynRealm(), values));
+
+                    cond.getLeaf(ResourceCond.class).ifPresent(leaf -> {
+                        appendCacheKey(key, leaf.getResourceKey(), values);
+                        if (svs.anyTypeKind == AnyTypeKind.USER || svs.anyTypeKind == AnyTypeKind.ANY_OBJECT) {
+                            appendCacheKey(key, leaf.getResourceKey(), values);
+                        }
+                    });
+                }
+                break;
+
+            case AND:
+            case OR:
+                if (!appendCacheKey(key, cond.getLeft(), svs, values)) {
+                    return false;
+                }
+                key.append(',');
+                if (!appendCacheKey(key, cond.getRight(), svs, values)) {
+                    return false;
+                }
+                break;
+
+            default:
+        }
+        key.append(')');
+
+        return true;
+    }
+
+    /**
+     * Returns the query for the given condition from cache, if available, or builds it otherwise.
+     * In both cases, the values to bind are appended to the given parameters.
+     * Queries are cached by the shape of the given condition and ordering clauses, including the current definitions
+     * of the plain schemas involved, while the values of the condition's leaves are bound as parameters: a query is
+     * only cached once the values bound this way are verified to be the same as the ones appended when building it.
+     *
+     * @param type query type, as count or search
+     * @param effectiveCond search condition, including dynamic realms
+     * @param orderBy ordering clauses
+     * @param svs search support
+     * @param parameters query parameters, already including the ones required by the administrative realms filter
+     * @param builder builds the query, appending the values to bind to the given parameters
+     * @return query string
+     */
+    protected String getQuery(
+            final String type,
+            final SearchCond effectiveCond,
+            final List<OrderByClause> orderBy,
+            final SearchSupport svs,
+            final List<Object> parameters,
+            final Supplier<String> builder) {
+
+        if (!isCacheable(effectiveCond)) {
+            return builder.get();
+        }
+
+        // the admin realms filter comes first in the query, hence the number of its parameters is part of the key
+        StringBuilder key = new StringBuilder(AuthContextUtils.getDomain()).
+                append('|').append(svs.anyTypeKind).
+                append('|').append(type).
+                append('|').append(parameters.size()).
+                append('|');
+        AnyUtils anyUtils = anyUtilsFactory.getInstance(svs.anyTypeKind);
+        orderBy.forEach(clause -> {
+            key.append(clause.getField()).append(' ').append(clause.getDirection()).append(':');
+            if (anyUtils.getField(clause.getField()) == null) {
+                Optional.ofNullable(schemaDAO.find(clause.getField())).ifPresent(schema -> appendCacheKey(key, schema));
+            }
+            key.append(',');
+        });
+        key.append('|');
+
+        List<Object> values = new ArrayList<>();
+        if (!appendCacheKey(key, effectiveCond, svs, values)) {
+            return builder.get();
+        }
+
+        String cached = queryCache.get(key.toString());
+        if (cached != null) {
+            parameters.addAll(values);
+            return cached;
+        }
+
+        int offset = parameters.size();
+        String query = builder.get();
+        if (values.equals(parameters.subList(offset, parameters.size()))) {
+            queryCache.put(key.toString(), query);
+        } else {
+            LOG.debug("Not caching query for {}: bound values {} differ from {}",
+                    effectiveCond, values, parameters.subList(offset, parameters.size()));
+        }
+        return query;
+    }
+
     @Override
     protected int doCount(final Set<String> adminRealms, final SearchCond cond, final AnyTypeKind kind) {
         List<Object> parameters = new ArrayList<>();
@@ -123,34 +405,77 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         SearchSupport svs = buildSearchSupport(kind);
 
         Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
+        SearchCond effectiveCond = buildEffectiveCond(cond, filter.getRight());
 
-        // 1. get the query string from the search condition
-        Pair<StringBuilder, Set<String>> queryInfo =
-                getQuery(buildEffectiveCond(cond, filter.getRight()), parameters, svs);
+        String queryString = getQuery("count", effectiveCond, List.of(), svs, parameters, () -> {
+            // 1. get the query string from the search condition
+            StringBuilder countQueryString = getQuery(effectiveCond, parameters, svs).getLeft();
 
-        StringBuilder queryString = queryInfo.getLeft();
+            // 2. take into account administrative realms
+            countQueryString.insert(0, "SELECT u.any_id FROM (");
+            countQueryString.append(") u WHERE ").append(filter.getLeft());
 
-        // 2. take into account administrative realms
-        queryString.insert(0, "SELECT u.any_id FROM (");
-        queryString.append(") u WHERE ").append(filter.getLeft());
+            // 3. prepare the COUNT query
+            countQueryString.insert(0, "SELECT COUNT(any_id) FROM (");
+            countQueryString.append(") count_any_id");
 
-        // 3. prepare the COUNT query
-        queryString.insert(0, "SELECT COUNT(any_id) FROM (");
-        queryString.append(") count_any_id");
+            return countQueryString.toString();
+        });
 
-        Query countQuery = entityManager().createNativeQuery(queryString.toString());
+        Query countQuery = entityManager().createNativeQuery(queryString);
         fillWithParameters(countQuery, parameters);
 
         return ((Number) countQuery.getSingleResult()).intValue();
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     protected <T extends Any<?>> List<T> doSearch(
             final Set<String> adminRealms,
             final SearchCond cond,
-            final int page,
+            final int firstResult,
+            final int maxResults,
+            final List<OrderByClause> orderBy,
+            final AnyTypeKind kind) {
+
+        return buildResult(doSearch(adminRealms, cond, null, firstResult, maxResults, orderBy, kind), kind);
+    }
+
+    private static List<OrderByClause> keyOrderBy() {
+        OrderByClause keyClause = new OrderByClause();
+        keyClause.setField("key");
+        keyClause.setDirection(OrderByClause.Direction.ASC);
+        return List.of(keyClause);
+    }
+
+    @Override
+    protected <T extends Any<?>> List<T> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        return buildResult(doSearch(adminRealms, cond, afterKey, 0, itemsPerPage, keyOrderBy(), kind), kind);
+    }
+
+    @Override
+    protected List<String> doSearchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
             final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        return toKeys(doSearch(adminRealms, cond, afterKey, 0, itemsPerPage, keyOrderBy(), kind));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int firstResult,
+            final int maxResults,
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
@@ -160,45 +485,57 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
             SearchSupport svs = buildSearchSupport(kind);
 
             Pair<String, Set<String>> filter = getAdminRealmsFilter(adminRealms, svs, parameters);
+            SearchCond effectiveCond = buildEffectiveCond(cond, filter.getRight());
 
-            // 1. get the query string from the search condition
-            Pair<StringBuilder, Set<String>> queryInfo =
-                    getQuery(buildEffectiveCond(cond, filter.getRight()), parameters, svs);
+            String queryString = getQuery(
+                    afterKey == null ? "search" : "searchAfter", effectiveCond, orderBy, svs, parameters, () -> {
 
-            StringBuilder queryString = queryInfo.getLeft();
+                // 1. get the query string from the search condition
+                Pair<StringBuilder, Set<String>> queryInfo = getQuery(effectiveCond, parameters, svs);
 
-            LOG.debug("Query: {}, parameters: {}", queryString, parameters);
+                StringBuilder searchQueryString = queryInfo.getLeft();
 
-            // 2. take into account realms and ordering
-            OrderBySupport obs = parseOrderBy(svs, orderBy);
-            if (queryString.charAt(0) == '(') {
-                queryString.insert(0, buildSelect(obs));
-                queryString.append(buildWhere(svs, queryInfo.getRight(), obs));
-            } else {
-                queryString.insert(0, buildSelect(obs).append('('));
-                queryString.append(')').append(buildWhere(svs, queryInfo.getRight(), obs));
+                LOG.debug("Query: {}, parameters: {}", searchQueryString, parameters);
+
+                // 2. take into account realms and ordering
+                OrderBySupport obs = parseOrderBy(svs, orderBy);
+                if (searchQueryString.charAt(0) == '(') {
+                    searchQueryString.insert(0, buildSelect(obs));
+                    searchQueryString.append(buildWhere(svs, queryInfo.getRight(), obs));
+                } else {
+                    searchQueryString.insert(0, buildSelect(obs).append('('));
+                    searchQueryString.append(')').append(buildWhere(svs, queryInfo.getRight(), obs));
+                }
+                searchQueryString.append(filter.getLeft());
+                // seek past the last key returned, rather than skipping rows: the value is bound below, as it is
+                // not to be cached along with the query
+                if (afterKey != null) {
+                    searchQueryString.append(" AND u.any_id > ?").append(parameters.size() + 1);
+                }
+                searchQueryString.append(buildOrderBy(obs));
+
+                return searchQueryString.toString();
+            });
+            if (afterKey != null) {
+                setParameter(parameters, afterKey);
             }
-            queryString.
-                    append(filter.getLeft()).
-                    append(buildOrderBy(obs));
 
             LOG.debug("Query with auth and order by statements: {}, parameters: {}", queryString, parameters);
 
             // 3. prepare the search query
-            Query query = entityManager().createNativeQuery(queryString.toString());
+            Query query = entityManager().createNativeQuery(queryString);
 
-            // 4. page starts from 1, while setFirtResult() starts from 0
-            query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
+            // 4. set the requested window
+            query.setFirstResult(firstResult);
 
-            if (itemsPerPage >= 0) {
-                query.setMaxResults(itemsPerPage);
+            if (maxResults >= 0) {
+                query.setMaxResults(maxResults);
             }
 
             // 5. populate the search query with parameter values
             fillWithParameters(query, parameters);
 
-            // 6. Prepare the result (avoiding duplicates)
-            return buildResult(query.getResultList(), kind);
+            return query.getResultList();
         } catch (SyncopeClientException e) {
             throw e;
         } catch (Exception e) {
@@ -821,9 +1158,10 @@ public class JPAAnySearchDAO extends AbstractAnySearchDAO {
         StringBuilder query = new StringBuilder("SELECT DISTINCT any_id FROM ").
                 append(svs.field().name).append(" WHERE (");
         if (cond.isFromGroup()) {
-            realmDAO.findDescendants(realm).forEach(current -> query.append("realm_id=?")
-                    .append(setParameter(parameters, current.getKey())).append(" OR "));
-            query.setLength(query.length() - 4);
+            query.append("realm_id IN (SELECT id FROM ").append(JPARealm.TABLE).
+                    append(" WHERE fullPath=?").append(setParameter(parameters, realm.getFullPath())).
+                    append(" OR fullPath LIKE ?").append(setParameter(parameters,
+                    StringUtils.appendIfMissing(realm.getFullPath(), "/") + '%')).append(')');
         } else {
             for (Realm current = realm; current.getParent() != null; current = current.getParent()) {
                 query.append("realm_id=?").append(setParameter(parameters, current.getKey())).append(" OR ");
@@ -18,27 +18,35 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.DynRealmDAO;
 import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.DynRealm;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
+import org.apache.syncope.core.persistence.api.entity.DynRealmMembership;
 import org.apache.syncope.core.persistence.jpa.entity.JPADynRealm;
+import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAnyObject;
+import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
+import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
-import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
-import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
-import org.apache.syncope.core.persistence.api.dao.GroupDAO;
-import org.apache.syncope.core.persistence.api.dao.UserDAO;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 
 @Repository
 public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO {
@@ -48,23 +56,14 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     @Autowired
     private ApplicationEventPublisher publisher;
 
-    @Autowired
-    private UserDAO userDAO;
-
-    @Autowired
-    private GroupDAO groupDAO;
-
-    @Autowired
-    private AnyObjectDAO anyObjectDAO;
-
     @Autowired
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private AnyMatchDAO anyMatchDAO;
+    private DynMembershipCondCache dynMembershipCondCache;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private DynMembershipDependencyIndex dependencyIndex;
 
     @Override
     public DynRealm find(final String key) {
@@ -83,17 +82,9 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
         return entityManager().merge(dynRealm);
     }
 
-    @SuppressWarnings("unchecked")
-    private List<String> clearDynMembers(final DynRealm dynRealm) {
-        Query find = entityManager().createNativeQuery(
-                "SELECT any_id FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=?");
-        find.setParameter(1, dynRealm.getKey());
-
-        List<String> cleared = new ArrayList<>();
-        find.getResultList().stream().map(key -> key instanceof Object[]
-                ? (String) ((Object[]) key)[0]
-                : ((String) key)).
-                forEach(key -> cleared.add((String) key));
+    private Set<String> clearDynMembers(final DynRealm dynRealm) {
+        Set<String> cleared = DynMembershipHelper.findMembers(
+                entityManager(), DYNMEMB_TABLE, "dynRealm_id", dynRealm.getKey());
 
         Query delete = entityManager().createNativeQuery("DELETE FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=?");
         delete.setParameter(1, dynRealm.getKey());
@@ -102,42 +93,51 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
         return cleared;
     }
 
-    private void notifyDynMembershipRemoval(final List<String> anyKeys) {
-        anyKeys.forEach(key -> {
-            Any<?> any = userDAO.find(key);
-            if (any == null) {
-                any = groupDAO.find(key);
-            }
-            if (any == null) {
-                any = anyObjectDAO.find(key);
-            }
-            if (any != null) {
-                publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, any, AuthContextUtils.getDomain()));
+    private void notifyDynMembershipChange(final AnyTypeKind kind, final Collection<String> anyKeys) {
+        anyKeys.forEach(key -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, kind, key, AuthContextUtils.getDomain())));
+    }
+
+    private void notifyDynMembershipRemoval(final Set<String> anyKeys) {
+        // members of dynamic realms can be of any type: look for each in the relevant table
+        Set<String> remaining = new HashSet<>(anyKeys);
+        for (Pair<AnyTypeKind, String> table : List.of(
+                Pair.of(AnyTypeKind.USER, JPAUser.TABLE),
+                Pair.of(AnyTypeKind.GROUP, JPAGroup.TABLE),
+                Pair.of(AnyTypeKind.ANY_OBJECT, JPAAnyObject.TABLE))) {
+
+            if (!remaining.isEmpty()) {
+                Set<String> found = DynMembershipHelper.findExisting(entityManager(), table.getRight(), remaining);
+                notifyDynMembershipChange(table.getLeft(), found);
+                remaining.removeAll(found);
             }
-        });
+        }
     }
 
     @Override
     public DynRealm saveAndRefreshDynMemberships(final DynRealm dynRealm) {
         DynRealm merged = save(dynRealm);
 
-        // refresh dynamic memberships
-        List<String> cleared = clearDynMembers(merged);
-
-        merged.getDynMemberships().stream().map(memb -> searchDAO.search(
-                SearchCondConverter.convert(searchCondVisitor, memb.getFIQLCond()), memb.getAnyType().getKind())).
-                forEach(matching -> matching.forEach(any -> {
-
-            Query insert = entityManager().createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-            insert.setParameter(1, any.getKey());
-            insert.setParameter(2, merged.getKey());
-            insert.executeUpdate();
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, any, AuthContextUtils.getDomain()));
-            cleared.remove(any.getKey());
-        }));
-
-        notifyDynMembershipRemoval(cleared);
+        // refresh dynamic memberships: only keys of matching entities are read, and only rows for members actually
+        // joining or leaving are touched and notified
+        Set<String> members = DynMembershipHelper.findMembers(
+                entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey());
+        Set<String> joined = new HashSet<>();
+        merged.getDynMemberships().forEach(memb -> DynMembershipHelper.refresh(
+                searchDAO.streamKeys(
+                        SyncopeConstants.FULL_ADMIN_REALMS,
+                        dynMembershipCondCache.get(memb),
+                        memb.getAnyType().getKind()),
+                members,
+                joined,
+                joining -> {
+                    DynMembershipHelper.insert(entityManager(), DYNMEMB_TABLE, joining.stream().
+                            map(key -> new Object[] { key, merged.getKey() }).collect(Collectors.toList()));
+                    notifyDynMembershipChange(memb.getAnyType().getKind(), joining);
+                }));
+
+        DynMembershipHelper.deleteMembers(entityManager(), DYNMEMB_TABLE, "dynRealm_id", merged.getKey(), members);
+        notifyDynMembershipRemoval(members);
 
         return merged;
     }
@@ -150,6 +150,7 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
         }
 
         notifyDynMembershipRemoval(clearDynMembers(dynRealm));
+        dynRealm.getDynMemberships().forEach(dynMembershipCondCache::evict);
 
         entityManager().remove(dynRealm);
     }
@@ -157,29 +158,25 @@ public class JPADynRealmDAO extends AbstractDAO<DynRealm> implements DynRealmDAO
     @Transactional
     @Override
     public void refreshDynMemberships(final Any<?> any) {
+        Set<String> existing = DynMembershipHelper.findOwners(
+                entityManager(), DYNMEMB_TABLE, "dynRealm_id", any.getKey());
+
+        Map<DynRealm, DynRealmMembership> membs = new LinkedHashMap<>();
+        Map<DynRealm, Predicate<Any<?>>> matchers = new HashMap<>();
         findAll().forEach(dynRealm -> dynRealm.getDynMembership(any.getType()).ifPresent(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    any, SearchCondConverter.convert(searchCondVisitor, memb.getFIQLCond()));
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT dynRealm_id FROM " + DYNMEMB_TABLE + " WHERE any_id=?");
-            find.setParameter(1, any.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-
-            if (matches && !existing) {
-                Query insert = entityManager().
-                        createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, any.getKey());
-                insert.setParameter(2, dynRealm.getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + DYNMEMB_TABLE + " WHERE dynRealm_id=? AND any_id=?");
-                delete.setParameter(1, dynRealm.getKey());
-                delete.setParameter(2, any.getKey());
-                delete.executeUpdate();
-            }
+            membs.put(dynRealm, memb);
+            matchers.put(dynRealm, dynMembershipCondCache.matcher(memb));
         }));
+        Predicate<String> affected = dependencyIndex.affected(DYNMEMB_TABLE, any);
+
+        Map<String, Boolean> matching = new HashMap<>();
+        membs.forEach((dynRealm, memb) -> matching.put(dynRealm.getKey(), affected.test(memb.getKey())
+                ? matchers.get(dynRealm).test(any)
+                : existing.contains(dynRealm.getKey())));
+
+        DynMembershipHelper.refreshOwners(
+                entityManager(), DYNMEMB_TABLE, "dynRealm_id", any.getKey(), existing, matching,
+                dynRealmKey -> new Object[] { any.getKey(), dynRealmKey });
     }
 
     @Override
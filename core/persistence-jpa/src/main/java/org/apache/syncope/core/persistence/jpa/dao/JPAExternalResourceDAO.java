@@ -33,6 +33,7 @@ import org.apache.syncope.core.persistence.api.dao.PolicyDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.dao.ShadowObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.VirSchemaDAO;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
@@ -66,6 +67,9 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
     @Autowired
     private TaskDAO taskDAO;
 
+    @Autowired
+    private ShadowObjectDAO shadowObjectDAO;
+
     @Autowired
     private AnyObjectDAO anyObjectDAO;
 
@@ -233,6 +237,7 @@ public class JPAExternalResourceDAO extends AbstractDAO<ExternalResource> implem
         taskDAO.deleteAll(resource, TaskType.PROPAGATION);
         taskDAO.deleteAll(resource, TaskType.PULL);
         taskDAO.deleteAll(resource, TaskType.PUSH);
+        shadowObjectDAO.deleteAll(resource.getKey());
 
         realmDAO.findByResource(resource).
                 forEach(realm -> realm.getResources().remove(resource));
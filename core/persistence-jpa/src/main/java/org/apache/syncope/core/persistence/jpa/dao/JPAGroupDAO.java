@@ -20,21 +20,23 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.persistence.NoResultException;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.IdRepoEntitlement;
-import org.apache.syncope.core.persistence.api.dao.AnyDAO;
-import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
@@ -42,9 +44,11 @@ import org.apache.syncope.core.persistence.api.dao.PlainAttrDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AssignableCond;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyType;
 import org.apache.syncope.core.persistence.api.entity.AnyTypeClass;
 import org.apache.syncope.core.persistence.api.entity.AnyUtils;
+import org.apache.syncope.core.persistence.api.entity.DynMembership;
 import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Realm;
 import org.apache.syncope.core.persistence.api.entity.anyobject.ADynGroupMembership;
@@ -55,8 +59,6 @@ import org.apache.syncope.core.persistence.api.entity.group.TypeExtension;
 import org.apache.syncope.core.persistence.api.entity.user.UDynGroupMembership;
 import org.apache.syncope.core.persistence.api.entity.user.UMembership;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAADynGroupMembership;
 import org.apache.syncope.core.persistence.jpa.entity.anyobject.JPAAMembership;
 import org.apache.syncope.core.persistence.jpa.entity.group.JPAGroup;
@@ -77,9 +79,6 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
     public static final String ADYNMEMB_TABLE = "ADynGroupMembers";
 
-    @Autowired
-    private AnyMatchDAO anyMatchDAO;
-
     @Autowired
     private PlainAttrDAO plainAttrDAO;
 
@@ -93,7 +92,10 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private DynMembershipCondCache dynMembershipCondCache;
+
+    @Autowired
+    private DynMembershipDependencyIndex dependencyIndex;
 
     @Override
     protected AnyUtils init() {
@@ -236,14 +238,47 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return findAllKeys(JPAGroup.TABLE, page, itemsPerPage);
     }
 
-    private SearchCond buildDynMembershipCond(final String baseCondFIQL, final Realm groupRealm) {
-        AssignableCond cond = new AssignableCond();
-        cond.setRealmFullPath(groupRealm.getFullPath());
-        cond.setFromGroup(true);
+    @Override
+    public Stream<String> streamAllKeys() {
+        return streamAllKeys(JPAGroup.TABLE);
+    }
+
+    private static Function<SearchCond, SearchCond> dynMembershipCondBuilder(final Realm groupRealm) {
+        return baseCond -> {
+            AssignableCond cond = new AssignableCond();
+            cond.setRealmFullPath(groupRealm.getFullPath());
+            cond.setFromGroup(true);
+
+            return SearchCond.getAnd(SearchCond.getLeaf(cond), baseCond);
+        };
+    }
+
+    private SearchCond buildDynMembershipCond(final DynMembership<?> memb, final Realm groupRealm) {
+        return dynMembershipCondCache.get(memb, groupRealm.getFullPath(), dynMembershipCondBuilder(groupRealm));
+    }
+
+    private Predicate<Any<?>> buildDynMembershipMatcher(final DynMembership<?> memb, final Realm groupRealm) {
+        return dynMembershipCondCache.matcher(memb, groupRealm.getFullPath(), dynMembershipCondBuilder(groupRealm));
+    }
+
+    private void addDynMembers(
+            final String table,
+            final AnyTypeKind kind,
+            final Collection<String> anyKeys,
+            final Function<String, Object[]> row) {
 
-        return SearchCond.getAnd(
-                SearchCond.getLeaf(cond),
-                SearchCondConverter.convert(searchCondVisitor, baseCondFIQL));
+        DynMembershipHelper.insert(
+                entityManager(), table, anyKeys.stream().map(row).collect(Collectors.toList()));
+        anyKeys.forEach(key -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, kind, key, AuthContextUtils.getDomain())));
+    }
+
+    private void removeDynMembers(
+            final String table, final Group group, final AnyTypeKind kind, final Set<String> anyKeys) {
+
+        DynMembershipHelper.deleteMembers(entityManager(), table, "group_id", group.getKey(), anyKeys);
+        anyKeys.forEach(key -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, kind, key, AuthContextUtils.getDomain())));
     }
 
     @Override
@@ -251,57 +286,36 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         Group merged = save(group);
         publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, merged, AuthContextUtils.getDomain()));
 
-        // refresh dynamic memberships
-        clearUDynMembers(merged);
+        // refresh dynamic memberships: only keys of matching entities are read, and only rows for members actually
+        // joining or leaving are touched and notified
+        Set<String> uDynMembers = DynMembershipHelper.findMembers(
+                entityManager(), UDYNMEMB_TABLE, "group_id", merged.getKey());
         if (merged.getUDynMembership() != null) {
-            SearchCond cond = buildDynMembershipCond(merged.getUDynMembership().getFIQLCond(), merged.getRealm());
-            int count = searchDAO.count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.USER);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<User> matching = searchDAO.search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        AnyTypeKind.USER);
-
-                matching.forEach(user -> {
-                    Query insert = entityManager().createNativeQuery("INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                    insert.setParameter(1, user.getKey());
-                    insert.setParameter(2, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, user, AuthContextUtils.getDomain()));
-                });
-            }
+            DynMembershipHelper.refresh(
+                    searchDAO.streamKeys(
+                            Set.of(merged.getRealm().getFullPath()),
+                            buildDynMembershipCond(merged.getUDynMembership(), merged.getRealm()),
+                            AnyTypeKind.USER),
+                    uDynMembers,
+                    new HashSet<>(),
+                    joining -> addDynMembers(UDYNMEMB_TABLE, AnyTypeKind.USER, joining,
+                            key -> new Object[] { key, merged.getKey() }));
         }
-        clearADynMembers(merged);
-        merged.getADynMemberships().forEach(memb -> {
-            SearchCond cond = buildDynMembershipCond(memb.getFIQLCond(), merged.getRealm());
-            int count = searchDAO.count(
-                    Collections.<String>singleton(merged.getRealm().getFullPath()), cond, AnyTypeKind.ANY_OBJECT);
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                List<AnyObject> matching = searchDAO.search(
-                        Collections.<String>singleton(merged.getRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        AnyTypeKind.ANY_OBJECT);
-
-                matching.forEach(anyObject -> {
-                    Query insert = entityManager().createNativeQuery(
-                            "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                    insert.setParameter(1, anyObject.getType().getKey());
-                    insert.setParameter(2, anyObject.getKey());
-                    insert.setParameter(3, merged.getKey());
-                    insert.executeUpdate();
-
-                    publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, anyObject, AuthContextUtils.getDomain()));
-                });
-            }
-        });
+        removeDynMembers(UDYNMEMB_TABLE, merged, AnyTypeKind.USER, uDynMembers);
+
+        Set<String> aDynMembers = DynMembershipHelper.findMembers(
+                entityManager(), ADYNMEMB_TABLE, "group_id", merged.getKey());
+        Set<String> aDynJoined = new HashSet<>();
+        merged.getADynMemberships().forEach(memb -> DynMembershipHelper.refresh(
+                searchDAO.streamKeys(
+                        Set.of(merged.getRealm().getFullPath()),
+                        buildDynMembershipCond(memb, merged.getRealm()),
+                        AnyTypeKind.ANY_OBJECT),
+                aDynMembers,
+                aDynJoined,
+                joining -> addDynMembers(ADYNMEMB_TABLE, AnyTypeKind.ANY_OBJECT, joining,
+                        key -> new Object[] { memb.getAnyType().getKey(), key, merged.getKey() })));
+        removeDynMembers(ADYNMEMB_TABLE, merged, AnyTypeKind.ANY_OBJECT, aDynMembers);
 
         dynRealmDAO.refreshDynMemberships(merged);
 
@@ -345,6 +359,8 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
 
         clearUDynMembers(group);
         clearADynMembers(group);
+        dynMembershipCondCache.evict(group.getUDynMembership());
+        group.getADynMemberships().forEach(dynMembershipCondCache::evict);
 
         entityManager().remove(group);
         publisher.publishEvent(new AnyDeletedEvent(
@@ -362,7 +378,6 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<String> findADynMembers(final Group group) {
         List<String> result = new ArrayList<>();
 
@@ -372,11 +387,9 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
             query.setParameter(1, group.getKey());
             query.setParameter(2, memb.getAnyType().getKey());
 
-            query.getResultList().stream().map(key -> key instanceof Object[]
-                    ? (String) ((Object[]) key)[0]
-                    : ((String) key)).
-                    filter(anyObject -> !result.contains((String) anyObject)).
-                    forEach(anyObject -> result.add((String) anyObject));
+            DynMembershipHelper.keys(query).stream().
+                    filter(anyObject -> !result.contains(anyObject)).
+                    forEach(result::add);
         });
 
         return result;
@@ -437,51 +450,53 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
         return query.getResultList();
     }
 
+    /**
+     * Evaluates the given dynamic memberships for the given any, skipping the ones whose condition does not read any
+     * value changed since the any was last saved, then aligns the stored dynamic memberships accordingly.
+     */
+    private <M extends DynMembership<?>> Pair<Set<String>, Set<String>> refreshDynMemberships(
+            final String table,
+            final Any<?> any,
+            final List<M> membs,
+            final Function<M, Group> group,
+            final Function<String, Object[]> row) {
+
+        Set<String> existing = DynMembershipHelper.findOwners(entityManager(), table, "group_id", any.getKey());
+
+        Map<M, Predicate<Any<?>>> matchers = new LinkedHashMap<>();
+        membs.forEach(memb -> matchers.put(memb, buildDynMembershipMatcher(memb, group.apply(memb).getRealm())));
+        Predicate<String> affected = dependencyIndex.affected(table, any);
+
+        Map<String, Group> groups = new HashMap<>();
+        Map<String, Boolean> matching = new HashMap<>();
+        matchers.forEach((memb, matcher) -> {
+            Group owner = group.apply(memb);
+            groups.put(owner.getKey(), owner);
+            matching.put(owner.getKey(), affected.test(memb.getKey())
+                    ? matcher.test(any)
+                    : existing.contains(owner.getKey()));
+        });
+
+        Set<String> changed = DynMembershipHelper.refreshOwners(
+                entityManager(), table, "group_id", any.getKey(), existing, matching, row);
+        changed.forEach(key -> publisher.publishEvent(
+                new AnyCreatedUpdatedEvent<>(this, groups.get(key), AuthContextUtils.getDomain())));
+
+        return Pair.of(
+                matching.keySet().stream().filter(existing::contains).collect(Collectors.toSet()),
+                matching.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).
+                        collect(Collectors.toSet()));
+    }
+
     @Transactional
     @Override
     public Pair<Set<String>, Set<String>> refreshDynMemberships(final AnyObject anyObject) {
-        Query query = entityManager().createNativeQuery(
-                "SELECT group_id FROM " + JPAGroupDAO.ADYNMEMB_TABLE + " WHERE any_id=?");
-        query.setParameter(1, anyObject.getKey());
-
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithADynMemberships(anyObject.getType()).forEach(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    anyObject,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()));
-            if (matches) {
-                after.add(memb.getGroup().getKey());
-            }
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT any_id FROM " + ADYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            find.setParameter(1, memb.getGroup().getKey());
-            find.setParameter(2, anyObject.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-            if (existing) {
-                before.add(memb.getGroup().getKey());
-            }
-
-            if (matches && !existing) {
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + ADYNMEMB_TABLE + " VALUES(?, ?, ?)");
-                insert.setParameter(1, anyObject.getType().getKey());
-                insert.setParameter(2, anyObject.getKey());
-                insert.setParameter(3, memb.getGroup().getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + ADYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-                delete.setParameter(1, memb.getGroup().getKey());
-                delete.setParameter(2, anyObject.getKey());
-                delete.executeUpdate();
-            }
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain()));
-        });
-
-        return Pair.of(before, after);
+        return refreshDynMemberships(
+                ADYNMEMB_TABLE,
+                anyObject,
+                findWithADynMemberships(anyObject.getType()),
+                ADynGroupMembership::getGroup,
+                groupKey -> new Object[] { anyObject.getType().getKey(), anyObject.getKey(), groupKey });
     }
 
     @Override
@@ -503,7 +518,6 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<String> findUDynMembers(final Group group) {
         if (group.getUDynMembership() == null) {
             return List.of();
@@ -513,12 +527,7 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
                 "SELECT any_id FROM " + UDYNMEMB_TABLE + " WHERE group_id=?");
         query.setParameter(1, group.getKey());
 
-        List<String> result = new ArrayList<>();
-        query.getResultList().stream().map(key -> key instanceof Object[]
-                ? (String) ((Object[]) key)[0]
-                : ((String) key)).
-                forEach(user -> result.add((String) user));
-        return result;
+        return DynMembershipHelper.keys(query);
     }
 
     @Override
@@ -539,47 +548,12 @@ public class JPAGroupDAO extends AbstractAnyDAO<Group> implements GroupDAO {
     @Transactional
     @Override
     public Pair<Set<String>, Set<String>> refreshDynMemberships(final User user) {
-        Query query = entityManager().createNativeQuery(
-                "SELECT group_id FROM " + JPAGroupDAO.UDYNMEMB_TABLE + " WHERE any_id=?");
-        query.setParameter(1, user.getKey());
-
-        Set<String> before = new HashSet<>();
-        Set<String> after = new HashSet<>();
-        findWithUDynMemberships().forEach(memb -> {
-            boolean matches = anyMatchDAO.matches(
-                    user,
-                    buildDynMembershipCond(memb.getFIQLCond(), memb.getGroup().getRealm()));
-            if (matches) {
-                after.add(memb.getGroup().getKey());
-            }
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT any_id FROM " + UDYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-            find.setParameter(1, memb.getGroup().getKey());
-            find.setParameter(2, user.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-            if (existing) {
-                before.add(memb.getGroup().getKey());
-            }
-
-            if (matches && !existing) {
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + UDYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, memb.getGroup().getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + UDYNMEMB_TABLE + " WHERE group_id=? AND any_id=?");
-                delete.setParameter(1, memb.getGroup().getKey());
-                delete.setParameter(2, user.getKey());
-                delete.executeUpdate();
-            }
-
-            publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, memb.getGroup(), AuthContextUtils.getDomain()));
-        });
-
-        return Pair.of(before, after);
+        return refreshDynMemberships(
+                UDYNMEMB_TABLE,
+                user,
+                findWithUDynMemberships(),
+                UDynGroupMembership::getGroup,
+                groupKey -> new Object[] { user.getKey(), groupKey });
     }
 
     @Override
@@ -18,8 +18,12 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import java.sql.Clob;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
@@ -34,69 +38,101 @@ import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.Logger;
 import org.apache.syncope.core.persistence.jpa.entity.JPALogger;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.SecureRandomUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.transaction.annotation.Transactional;
 
 public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
 
-    protected static class MessageCriteriaBuilder {
+    protected static class AuditCriteriaBuilder {
 
         protected final StringBuilder query = new StringBuilder();
 
-        protected MessageCriteriaBuilder entityKey(final String entityKey) {
-            query.append(' ').append(AUDIT_MESSAGE_COLUMN).
-                    append(" LIKE '%key%").append(entityKey).append("%'");
-            return this;
-        }
+        protected final List<Object> parameters = new ArrayList<>();
 
-        public MessageCriteriaBuilder type(final AuditElements.EventCategoryType type) {
-            if (type != null) {
-                query.append(" AND ").append(AUDIT_MESSAGE_COLUMN).
-                        append(" LIKE '%\"type\":\"").append(type.name()).append("\"%'");
+        protected AuditCriteriaBuilder and(final String clause) {
+            if (query.length() > 0) {
+                query.append(" AND ");
             }
+            query.append(clause);
             return this;
         }
 
-        public MessageCriteriaBuilder category(final String category) {
-            if (StringUtils.isNotBlank(category)) {
-                query.append(" AND ").append(AUDIT_MESSAGE_COLUMN).
-                        append(" LIKE '%\"category\":\"").append(category).append("\"%'");
-            }
-            return this;
+        protected String parameter(final Object value) {
+            parameters.add(value);
+            return "?" + parameters.size();
         }
 
-        public MessageCriteriaBuilder subcategory(final String subcategory) {
-            if (StringUtils.isNotBlank(subcategory)) {
-                query.append(" AND ").append(AUDIT_MESSAGE_COLUMN).
-                        append(" LIKE '%\"subcategory\":\"").append(subcategory).append("\"%'");
-            }
-            return this;
+        protected AuditCriteriaBuilder and(final String column, final String operator, final Object value) {
+            return and(column + operator + parameter(value));
         }
 
-        public MessageCriteriaBuilder events(final List<String> events) {
-            if (!events.isEmpty()) {
-                query.append(" AND ( ").
-                        append(events.stream().
-                                map(event -> AUDIT_MESSAGE_COLUMN + " LIKE '%\"event\":\"" + event + "\"%'").
-                                collect(Collectors.joining(" OR "))).
-                        append(" )");
-            }
-            return this;
+        protected AuditCriteriaBuilder entityKey(final String entityKey) {
+            return and(AUDIT_ENTITY_KEY_COLUMN, "=", entityKey);
         }
 
-        public MessageCriteriaBuilder result(final AuditElements.Result result) {
-            if (result != null) {
-                query.append(" AND ").append(AUDIT_MESSAGE_COLUMN).
-                        append(" LIKE '%\"result\":\"").append(result.name()).append("\"%' ");
-            }
-            return this;
+        public AuditCriteriaBuilder type(final AuditElements.EventCategoryType type) {
+            return type == null ? this : and(AUDIT_TYPE_COLUMN, "=", type.name());
+        }
+
+        public AuditCriteriaBuilder category(final String category) {
+            return StringUtils.isBlank(category) ? this : and(AUDIT_CATEGORY_COLUMN, "=", category);
+        }
+
+        public AuditCriteriaBuilder subcategory(final String subcategory) {
+            return StringUtils.isBlank(subcategory) ? this : and(AUDIT_SUBCATEGORY_COLUMN, "=", subcategory);
+        }
+
+        public AuditCriteriaBuilder events(final List<String> events) {
+            return events == null || events.isEmpty()
+                    ? this
+                    : and(AUDIT_EVENT_COLUMN + " IN ("
+                            + events.stream().map(this::parameter).collect(Collectors.joining(",")) + ')');
+        }
+
+        public AuditCriteriaBuilder result(final AuditElements.Result result) {
+            return result == null ? this : and(AUDIT_RESULT_COLUMN, "=", result.name());
+        }
+
+        public AuditCriteriaBuilder before(final Date before) {
+            return before == null ? this : and(AUDIT_DATE_COLUMN, "<", new Timestamp(before.getTime()));
+        }
+
+        public AuditCriteriaBuilder after(final Date after) {
+            return after == null ? this : and(AUDIT_DATE_COLUMN, ">", new Timestamp(after.getTime()));
+        }
+
+        /**
+         * Matches entries preceding the given one in descending ({@link #AUDIT_DATE_COLUMN},
+         * {@link #AUDIT_ID_COLUMN}) order; the standalone condition on date allows the DBMS to use the date index
+         * and to prune date-partitioned tables.
+         *
+         * @param date date of the last entry returned
+         * @param key key of the last entry returned
+         * @return this
+         */
+        public AuditCriteriaBuilder lastEntry(final Object date, final String key) {
+            return and(AUDIT_DATE_COLUMN, "<=", date).
+                    and('(' + AUDIT_DATE_COLUMN + '<' + parameter(date)
+                            + " OR " + AUDIT_ID_COLUMN + '<' + parameter(key) + ')');
         }
 
         public String build() {
             return query.toString();
         }
+
+        public List<Object> getParameters() {
+            return parameters;
+        }
     }
 
+    @Autowired
+    protected ApplicationEventPublisher publisher;
+
     @Override
     public Logger find(final String key) {
         return entityManager().find(JPALogger.class, key);
@@ -116,12 +152,25 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
         if (LoggerType.AUDIT == logger.getType() && LoggerLevel.OFF != logger.getLevel()) {
             logger.setLevel(LoggerLevel.DEBUG);
         }
-        return entityManager().merge(logger);
+        Logger merged = entityManager().merge(logger);
+
+        publishIfAudit(merged);
+
+        return merged;
     }
 
     @Override
     public void delete(final Logger logger) {
         entityManager().remove(logger);
+
+        publishIfAudit(logger);
+    }
+
+    protected void publishIfAudit(final Logger logger) {
+        if (LoggerType.AUDIT == logger.getType()) {
+            publisher.publishEvent(new EntityChangedEvent(
+                    this, Logger.class, logger.getKey(), AuthContextUtils.getDomain()));
+        }
     }
 
     @Override
@@ -134,15 +183,50 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
         delete(logger);
     }
 
-    protected MessageCriteriaBuilder messageCriteriaBuilder(final String entityKey) {
-        return new MessageCriteriaBuilder().entityKey(entityKey);
+    protected AuditCriteriaBuilder auditCriteriaBuilder(
+            final String entityKey,
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final List<String> events,
+            final AuditElements.Result result,
+            final Date before,
+            final Date after) {
+
+        return new AuditCriteriaBuilder().
+                entityKey(entityKey).
+                type(type).
+                category(category).
+                subcategory(subcategory).
+                result(result).
+                events(events).
+                before(before).
+                after(after);
+    }
+
+    protected static void setParameters(final Query query, final AuditCriteriaBuilder criteria) {
+        for (int i = 0; i < criteria.getParameters().size(); i++) {
+            query.setParameter(i + 1, criteria.getParameters().get(i));
+        }
     }
 
     @Override
-    public int countAuditEntries(final String entityKey) {
-        String queryString = "SELECT COUNT(0) FROM " + AUDIT_TABLE
-                + " WHERE " + messageCriteriaBuilder(entityKey).build();
-        Query countQuery = entityManager().createNativeQuery(queryString);
+    public int countAuditEntries(
+            final String entityKey,
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final List<String> events,
+            final AuditElements.Result result,
+            final Date before,
+            final Date after) {
+
+        AuditCriteriaBuilder criteria = auditCriteriaBuilder(
+                entityKey, type, category, subcategory, events, result, before, after);
+
+        Query countQuery = entityManager().createNativeQuery(
+                "SELECT COUNT(0) FROM " + AUDIT_TABLE + " WHERE " + criteria.build());
+        setParameters(countQuery, criteria);
 
         return ((Number) countQuery.getSingleResult()).intValue();
     }
@@ -151,6 +235,19 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
         return AUDIT_MESSAGE_COLUMN;
     }
 
+    protected String toString(final Object value) {
+        if (value instanceof Clob) {
+            Clob clob = (Clob) value;
+            try {
+                return clob.getSubString(1, (int) clob.length());
+            } catch (SQLException e) {
+                LOG.error("Unexpected error reading Audit Entry", e);
+                return null;
+            }
+        }
+        return value == null ? null : value.toString();
+    }
+
     @Transactional(readOnly = true)
     @Override
     public List<AuditEntry> findAuditEntries(
@@ -162,45 +259,154 @@ public class JPALoggerDAO extends AbstractDAO<Logger> implements LoggerDAO {
             final String subcategory,
             final List<String> events,
             final AuditElements.Result result,
+            final Date before,
+            final Date after,
+            final String lastKey,
             final List<OrderByClause> orderByClauses) {
 
-        String queryString = "SELECT " + select()
-                + " FROM " + AUDIT_TABLE
-                + " WHERE " + messageCriteriaBuilder(entityKey).
-                        type(type).
-                        category(category).
-                        subcategory(subcategory).
-                        result(result).
-                        events(events).
-                        build();
-        if (!orderByClauses.isEmpty()) {
-            queryString += " ORDER BY " + orderByClauses.stream().
-                    map(orderBy -> orderBy.getField() + ' ' + orderBy.getDirection().name()).
+        AuditCriteriaBuilder criteria = auditCriteriaBuilder(
+                entityKey, type, category, subcategory, events, result, before, after);
+
+        String orderBy;
+        if (lastKey == null) {
+            orderBy = orderByClauses.stream().
+                    map(clause -> clause.getField() + ' ' + clause.getDirection().name()).
                     collect(Collectors.joining(","));
+        } else {
+            Query lastQuery = entityManager().createNativeQuery("SELECT " + AUDIT_DATE_COLUMN
+                    + " FROM " + AUDIT_TABLE
+                    + " WHERE " + AUDIT_ID_COLUMN + "=?1");
+            lastQuery.setParameter(1, lastKey);
+            @SuppressWarnings("unchecked")
+            List<Object> lastDate = lastQuery.getResultList();
+            if (lastDate.isEmpty()) {
+                return List.of();
+            }
+
+            criteria.lastEntry(lastDate.get(0), lastKey);
+            orderBy = AUDIT_DATE_COLUMN + " DESC," + AUDIT_ID_COLUMN + " DESC";
+        }
+
+        String queryString = "SELECT " + select() + ',' + AUDIT_ID_COLUMN
+                + " FROM " + AUDIT_TABLE
+                + " WHERE " + criteria.build();
+        if (!orderBy.isEmpty()) {
+            queryString += " ORDER BY " + orderBy;
         }
 
         Query query = entityManager().createNativeQuery(queryString);
-        query.setFirstResult(itemsPerPage * (page <= 0 ? 0 : page - 1));
+        setParameters(query, criteria);
+        query.setFirstResult(lastKey == null ? itemsPerPage * (page <= 0 ? 0 : page - 1) : 0);
         if (itemsPerPage >= 0) {
             query.setMaxResults(itemsPerPage);
         }
 
         @SuppressWarnings("unchecked")
-        List<Object> entries = query.getResultList();
+        List<Object[]> entries = query.getResultList();
         return entries.stream().map(row -> {
-            String value;
-            if (row instanceof Clob) {
-                Clob clob = (Clob) row;
-                try {
-                    value = clob.getSubString(1, (int) clob.length());
-                } catch (SQLException e) {
-                    LOG.error("Unexpected error reading Audit Entry for entity key {}", entityKey, e);
-                    return null;
-                }
-            } else {
-                value = row.toString();
+            String value = toString(row[0]);
+            if (value == null) {
+                return null;
+            }
+
+            AuditEntry entry = POJOHelper.deserialize(value, AuditEntry.class);
+            if (entry != null) {
+                entry.setKey(toString(row[1]));
             }
-            return POJOHelper.deserialize(value, AuditEntry.class);
+            return entry;
         }).filter(Objects::nonNull).collect(Collectors.toList());
     }
+
+    /**
+     * Finds the key of the entity affected by the audited event, among the serialized objects provided: the first
+     * entity key found, otherwise the first string.
+     *
+     * @param serialized serialized input objects, output and before object
+     * @return entity key, or null if not found
+     */
+    protected static String getEntityKey(final List<String> serialized) {
+        List<JsonNode> nodes = serialized.stream().filter(Objects::nonNull).
+                map(value -> POJOHelper.deserialize(value, JsonNode.class)).
+                filter(Objects::nonNull).
+                collect(Collectors.toList());
+
+        return nodes.stream().filter(JsonNode::isObject).map(node -> {
+            if (node.hasNonNull("entityKey")) {
+                return node.get("entityKey").asText();
+            }
+            if (node.path("entity").hasNonNull("key")) {
+                return node.get("entity").get("key").asText();
+            }
+            return node.hasNonNull("key") ? node.get("key").asText() : null;
+        }).filter(Objects::nonNull).findFirst().orElseGet(() -> nodes.stream().
+                filter(JsonNode::isTextual).map(JsonNode::asText).findFirst().orElse(null));
+    }
+
+    @Transactional
+    @Override
+    public int backfillAuditEntries(final int size) {
+        // entries logged before the dimension columns were available cannot be addressed individually, as there is
+        // no key: those sharing date and logger are then deleted and inserted back
+        Query groupQuery = entityManager().createNativeQuery("SELECT DISTINCT " + AUDIT_DATE_COLUMN + ",LOGGER"
+                + " FROM " + AUDIT_TABLE
+                + " WHERE " + AUDIT_ID_COLUMN + " IS NULL");
+        groupQuery.setMaxResults(size);
+        @SuppressWarnings("unchecked")
+        List<Object[]> groups = groupQuery.getResultList();
+
+        int processed = 0;
+        for (Object[] group : groups) {
+            Query query = entityManager().createNativeQuery("SELECT LOGGER_LEVEL," + select() + ",THROWABLE"
+                    + " FROM " + AUDIT_TABLE
+                    + " WHERE " + AUDIT_ID_COLUMN + " IS NULL AND " + AUDIT_DATE_COLUMN + "=?1 AND LOGGER=?2");
+            query.setParameter(1, group[0]);
+            query.setParameter(2, group[1]);
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = query.getResultList();
+
+            Query delete = entityManager().createNativeQuery("DELETE FROM " + AUDIT_TABLE
+                    + " WHERE " + AUDIT_ID_COLUMN + " IS NULL AND " + AUDIT_DATE_COLUMN + "=?1 AND LOGGER=?2");
+            delete.setParameter(1, group[0]);
+            delete.setParameter(2, group[1]);
+            delete.executeUpdate();
+
+            for (Object[] row : rows) {
+                String message = toString(row[1]);
+                AuditEntry entry = POJOHelper.deserialize(message, AuditEntry.class);
+
+                Query insert = entityManager().createNativeQuery("INSERT INTO " + AUDIT_TABLE
+                        + '(' + AUDIT_DATE_COLUMN + ",LOGGER_LEVEL,LOGGER," + AUDIT_MESSAGE_COLUMN + ",THROWABLE,"
+                        + String.join(",", AUDIT_EVENT_COLUMNS) + ") "
+                        + "VALUES (?1,?2,?3,?4,?5,?6,?7,?8,?9,?10,?11,?12,?13)");
+                insert.setParameter(1, group[0]);
+                insert.setParameter(2, row[0]);
+                insert.setParameter(3, group[1]);
+                insert.setParameter(4, message);
+                insert.setParameter(5, toString(row[2]));
+                insert.setParameter(6, SecureRandomUtils.generateRandomUUID().toString());
+                if (entry == null || entry.getLogger() == null) {
+                    for (int i = 7; i <= 13; i++) {
+                        insert.setParameter(i, null);
+                    }
+                } else {
+                    List<String> serialized = new ArrayList<>(entry.getInputs());
+                    serialized.add(entry.getOutput());
+                    serialized.add(entry.getBefore());
+
+                    insert.setParameter(7, entry.getWho());
+                    insert.setParameter(8, entry.getLogger().getType().name());
+                    insert.setParameter(9, entry.getLogger().getCategory());
+                    insert.setParameter(10, entry.getLogger().getSubcategory());
+                    insert.setParameter(11, entry.getLogger().getEvent());
+                    insert.setParameter(12, entry.getLogger().getResult().name());
+                    insert.setParameter(13, getEntityKey(serialized));
+                }
+                insert.executeUpdate();
+
+                processed++;
+            }
+        }
+
+        return processed;
+    }
 }
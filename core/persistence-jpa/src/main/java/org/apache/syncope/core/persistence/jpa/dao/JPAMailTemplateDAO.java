@@ -23,11 +23,18 @@ import javax.persistence.TypedQuery;
 import org.apache.syncope.core.persistence.api.dao.MailTemplateDAO;
 import org.apache.syncope.core.persistence.api.entity.MailTemplate;
 import org.apache.syncope.core.persistence.jpa.entity.JPAMailTemplate;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public class JPAMailTemplateDAO extends AbstractDAO<MailTemplate> implements MailTemplateDAO {
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Override
     public MailTemplate find(final String key) {
         return entityManager().find(JPAMailTemplate.class, key);
@@ -42,7 +49,12 @@ public class JPAMailTemplateDAO extends AbstractDAO<MailTemplate> implements Mai
 
     @Override
     public MailTemplate save(final MailTemplate template) {
-        return entityManager().merge(template);
+        MailTemplate merged = entityManager().merge(template);
+
+        publisher.publishEvent(new EntityChangedEvent(
+                this, MailTemplate.class, merged.getKey(), AuthContextUtils.getDomain()));
+
+        return merged;
     }
 
     @Override
@@ -53,5 +65,7 @@ public class JPAMailTemplateDAO extends AbstractDAO<MailTemplate> implements Mai
         }
 
         entityManager().remove(template);
+
+        publisher.publishEvent(new EntityChangedEvent(this, MailTemplate.class, key, AuthContextUtils.getDomain()));
     }
 }
@@ -52,6 +52,12 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
     @Lazy
     private ExternalResourceDAO resourceDAO;
 
+    @Autowired
+    private AnySearchQueryCache anySearchQueryCache;
+
+    @Autowired
+    private DynMembershipCondCache dynMembershipCondCache;
+
     @Override
     public PlainSchema find(final String key) {
         return entityManager().find(JPAPlainSchema.class, key);
@@ -122,6 +128,8 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
 
     @Override
     public PlainSchema save(final PlainSchema schema) {
+        anySearchQueryCache.invalidate();
+        dynMembershipCondCache.clear();
         return entityManager().merge(schema);
     }
 
@@ -139,6 +147,9 @@ public class JPAPlainSchemaDAO extends AbstractDAO<PlainSchema> implements Plain
             return;
         }
 
+        anySearchQueryCache.invalidate();
+        dynMembershipCondCache.clear();
+
         schema.getLabels().forEach(label -> label.setSchema(null));
 
         deleteAttrs(schema);
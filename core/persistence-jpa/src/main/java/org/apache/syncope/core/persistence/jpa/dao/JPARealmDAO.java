@@ -20,8 +20,11 @@ package org.apache.syncope.core.persistence.jpa.dao;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 import javax.persistence.NoResultException;
 import javax.persistence.TypedQuery;
 import org.apache.commons.lang3.StringUtils;
@@ -32,12 +35,14 @@ import org.apache.syncope.core.persistence.api.dao.RoleDAO;
 import org.apache.syncope.core.persistence.api.entity.Implementation;
 import org.apache.syncope.core.persistence.api.entity.policy.AccountPolicy;
 import org.apache.syncope.core.persistence.api.entity.Realm;
-import org.apache.syncope.core.persistence.api.entity.policy.PasswordPolicy;
 import org.apache.syncope.core.persistence.api.entity.policy.Policy;
 import org.apache.syncope.core.persistence.api.entity.policy.ProvisioningPolicy;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.jpa.entity.JPARealm;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,10 +50,19 @@ import org.springframework.transaction.annotation.Transactional;
 @Repository
 public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
 
+    /**
+     * Sorting by full path length guarantees that any realm comes after its parent.
+     */
+    protected static final Comparator<Realm> HIERARCHY_ORDER =
+            Comparator.<Realm>comparingInt(realm -> realm.getFullPath().length()).thenComparing(Realm::getFullPath);
+
     @Autowired
     @Lazy
     private RoleDAO roleDAO;
 
+    @Autowired
+    private ApplicationEventPublisher publisher;
+
     @Override
     public Realm getRoot() {
         TypedQuery<Realm> query = entityManager().createQuery(
@@ -81,36 +95,16 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
             throw new MalformedPathException(fullPath);
         }
 
-        Realm root = getRoot();
-        if (root == null) {
-            return null;
-        }
+        TypedQuery<Realm> query = entityManager().createQuery(
+                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e WHERE e.fullPath=:fullPath", Realm.class);
+        query.setParameter("fullPath", fullPath);
 
-        Realm current = root;
-        for (final String pathElement : fullPath.substring(1).split("/")) {
-            Optional<Realm> first = findChildren(current).stream().
-                    filter(realm -> pathElement.equals(realm.getName())).findFirst();
-            if (first.isPresent()) {
-                current = first.get();
-            } else {
-                return null;
-            }
+        Realm result = null;
+        try {
+            result = query.getSingleResult();
+        } catch (NoResultException e) {
+            LOG.debug("Realm with fullPath {} not found", fullPath, e);
         }
-        return current;
-    }
-
-    private <T extends Policy> List<Realm> findSamePolicyChildren(final Realm realm, final T policy) {
-        List<Realm> result = new ArrayList<>();
-
-        findChildren(realm).stream().
-                filter(child -> (policy instanceof AccountPolicy
-                && child.getAccountPolicy() == null || policy.equals(child.getAccountPolicy()))
-                || (policy instanceof PasswordPolicy
-                && child.getPasswordPolicy() == null || policy.equals(child.getPasswordPolicy()))).
-                forEach(child -> {
-                    result.add(child);
-                    result.addAll(findSamePolicyChildren(child, policy));
-                });
 
         return result;
     }
@@ -153,13 +147,21 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
                 + (policy instanceof AccountPolicy ? "accountPolicy" : "passwordPolicy") + "=:policy", Realm.class);
         query.setParameter("policy", policy);
 
-        List<Realm> result = new ArrayList<>();
-        query.getResultList().stream().map(realm -> {
+        // realms using the given policy, either directly or inherited from the nearest ancestor defining one;
+        // descendants come parents-first, so each realm's parent is processed before the realm itself
+        Set<Realm> result = new LinkedHashSet<>();
+        query.getResultList().forEach(realm -> {
             result.add(realm);
-            return realm;
-        }).forEachOrdered(realm -> result.addAll(findSamePolicyChildren(realm, policy)));
-
-        return result;
+            findDescendants(realm).stream().
+                    filter(descendant -> result.contains(descendant.getParent())).
+                    filter(descendant -> {
+                        Policy own = policy instanceof AccountPolicy
+                                ? descendant.getAccountPolicy() : descendant.getPasswordPolicy();
+                        return own == null || policy.equals(own);
+                    }).
+                    forEachOrdered(result::add);
+        });
+        return new ArrayList<>(result);
     }
 
     @Override
@@ -196,30 +198,49 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
         return query.getResultList();
     }
 
-    private void findDescendants(final List<Realm> result, final Realm realm) {
-        result.add(realm);
-        List<Realm> children = findChildren(realm);
-        if (children != null) {
-            children.forEach(child -> findDescendants(result, child));
-        }
-    }
-
+    /**
+     * Descendants are looked up via the full path prefix, with a single query.
+     *
+     * @param realm base realm
+     * @return the given realm and all its descendants
+     */
     @Override
     public List<Realm> findDescendants(final Realm realm) {
-        List<Realm> result = new ArrayList<>();
-        findDescendants(result, realm);
-        return result;
+        TypedQuery<Realm> query = entityManager().createQuery(
+                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e "
+                + "WHERE e.fullPath=:fullPath OR e.fullPath LIKE :descendants", Realm.class);
+        query.setParameter("fullPath", realm.getFullPath());
+        query.setParameter("descendants", StringUtils.appendIfMissing(realm.getFullPath(), "/") + '%');
+
+        return query.getResultList().stream().sorted(HIERARCHY_ORDER).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
     @Override
     public List<Realm> findAll() {
-        return findDescendants(getRoot());
+        TypedQuery<Realm> query = entityManager().createQuery(
+                "SELECT e FROM " + JPARealm.class.getSimpleName() + " e", Realm.class);
+
+        return query.getResultList().stream().sorted(HIERARCHY_ORDER).collect(Collectors.toList());
     }
 
     @Override
     public Realm save(final Realm realm) {
-        return entityManager().merge(realm);
+        String fullPathBefore = realm.getFullPath();
+        String fullPathAfter = ((JPARealm) realm).buildFullPath();
+        ((JPARealm) realm).setFullPath(fullPathAfter);
+
+        Realm merged = entityManager().merge(realm);
+
+        publisher.publishEvent(new EntityChangedEvent(
+                this, Realm.class, merged.getKey(), AuthContextUtils.getDomain()));
+
+        // realm was renamed or moved: keep the full path of all descendants aligned
+        if (!fullPathAfter.equals(fullPathBefore)) {
+            findChildren(merged).forEach(this::save);
+        }
+
+        return merged;
     }
 
     @Override
@@ -230,6 +251,9 @@ public class JPARealmDAO extends AbstractDAO<Realm> implements RealmDAO {
             toBeDeleted.setParent(null);
 
             entityManager().remove(toBeDeleted);
+
+            publisher.publishEvent(new EntityChangedEvent(
+                    this, Realm.class, toBeDeleted.getKey(), AuthContextUtils.getDomain()));
         });
     }
 
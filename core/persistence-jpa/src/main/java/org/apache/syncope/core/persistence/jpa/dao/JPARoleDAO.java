@@ -18,23 +18,29 @@
  */
 package org.apache.syncope.core.persistence.jpa.dao;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import javax.persistence.Query;
 import javax.persistence.TypedQuery;
+import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
-import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
-import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.api.dao.RoleDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.entity.Privilege;
 import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.Role;
 import org.apache.syncope.core.persistence.api.entity.user.User;
-import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.persistence.jpa.entity.JPARole;
 import org.apache.syncope.core.persistence.jpa.entity.user.JPAUser;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationEventPublisher;
@@ -46,9 +52,6 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     public static final String DYNMEMB_TABLE = "DynRoleMembers";
 
-    @Autowired
-    private AnyMatchDAO anyMatchDAO;
-
     @Autowired
     private ApplicationEventPublisher publisher;
 
@@ -56,7 +59,10 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
     private AnySearchDAO searchDAO;
 
     @Autowired
-    private SearchCondVisitor searchCondVisitor;
+    private DynMembershipCondCache dynMembershipCondCache;
+
+    @Autowired
+    private DynMembershipDependencyIndex dependencyIndex;
 
     @Override
     public int count() {
@@ -96,7 +102,11 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
 
     @Override
     public Role save(final Role role) {
-        return entityManager().merge(role);
+        Role merged = entityManager().merge(role);
+
+        publisher.publishEvent(new EntityChangedEvent(this, Role.class, merged.getKey(), AuthContextUtils.getDomain()));
+
+        return merged;
     }
 
     @Override
@@ -106,18 +116,19 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         // refresh dynamic memberships
         clearDynMembers(merged);
         if (merged.getDynMembership() != null) {
-            List<User> matching = searchDAO.search(
-                    SearchCondConverter.convert(searchCondVisitor, merged.getDynMembership().getFIQLCond()),
-                    AnyTypeKind.USER);
-
-            matching.forEach((user) -> {
-                Query insert = entityManager().createNativeQuery("INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, merged.getKey());
-                insert.executeUpdate();
-
-                publisher.publishEvent(new AnyCreatedUpdatedEvent<>(this, user, AuthContextUtils.getDomain()));
-            });
+            DynMembershipHelper.refresh(
+                    searchDAO.streamKeys(
+                            SyncopeConstants.FULL_ADMIN_REALMS,
+                            dynMembershipCondCache.get(merged.getDynMembership()),
+                            AnyTypeKind.USER),
+                    new HashSet<>(),
+                    new HashSet<>(),
+                    joining -> {
+                        DynMembershipHelper.insert(entityManager(), DYNMEMB_TABLE, joining.stream().
+                                map(key -> new Object[] { key, merged.getKey() }).collect(Collectors.toList()));
+                        joining.forEach(key -> publisher.publishEvent(new AnyCreatedUpdatedEvent<>(
+                                this, AnyTypeKind.USER, key, AuthContextUtils.getDomain())));
+                    });
         }
 
         return merged;
@@ -135,8 +146,11 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         });
 
         clearDynMembers(role);
+        dynMembershipCondCache.evict(role.getDynMembership());
 
         entityManager().remove(role);
+
+        publisher.publishEvent(new EntityChangedEvent(this, Role.class, role.getKey(), AuthContextUtils.getDomain()));
     }
 
     @Override
@@ -150,7 +164,6 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public List<String> findDynMembers(final Role role) {
         if (role.getDynMembership() == null) {
             return List.of();
@@ -159,12 +172,7 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
         Query query = entityManager().createNativeQuery("SELECT any_id FROM " + DYNMEMB_TABLE + " WHERE role_id=?");
         query.setParameter(1, role.getKey());
 
-        List<String> result = new ArrayList<>();
-        query.getResultList().stream().map(key -> key instanceof Object[]
-                ? (String) ((Object[]) key)[0]
-                : ((String) key)).
-                forEach(user -> result.add((String) user));
-        return result;
+        return DynMembershipHelper.keys(query);
     }
 
     @Override
@@ -177,33 +185,21 @@ public class JPARoleDAO extends AbstractDAO<Role> implements RoleDAO {
     @Transactional
     @Override
     public void refreshDynMemberships(final User user) {
-        Query query = entityManager().createNativeQuery(
-                "SELECT role_id FROM " + DYNMEMB_TABLE + " WHERE any_id=?");
-        query.setParameter(1, user.getKey());
-
-        findAll().stream().filter(role -> role.getDynMembership() != null).forEach(role -> {
-            boolean matches = anyMatchDAO.matches(
-                    user, SearchCondConverter.convert(searchCondVisitor, role.getDynMembership().getFIQLCond()));
-
-            Query find = entityManager().createNativeQuery(
-                    "SELECT any_id FROM " + DYNMEMB_TABLE + " WHERE role_id=?");
-            find.setParameter(1, role.getKey());
-            boolean existing = !find.getResultList().isEmpty();
-
-            if (matches && !existing) {
-                Query insert = entityManager().createNativeQuery(
-                        "INSERT INTO " + DYNMEMB_TABLE + " VALUES(?, ?)");
-                insert.setParameter(1, user.getKey());
-                insert.setParameter(2, role.getKey());
-                insert.executeUpdate();
-            } else if (!matches && existing) {
-                Query delete = entityManager().createNativeQuery(
-                        "DELETE FROM " + DYNMEMB_TABLE + " WHERE role_id=? AND any_id=?");
-                delete.setParameter(1, role.getKey());
-                delete.setParameter(2, user.getKey());
-                delete.executeUpdate();
-            }
-        });
+        Set<String> existing = DynMembershipHelper.findOwners(entityManager(), DYNMEMB_TABLE, "role_id", user.getKey());
+
+        Map<Role, Predicate<Any<?>>> matchers = new LinkedHashMap<>();
+        findAll().stream().filter(role -> role.getDynMembership() != null).
+                forEach(role -> matchers.put(role, dynMembershipCondCache.matcher(role.getDynMembership())));
+        Predicate<String> affected = dependencyIndex.affected(DYNMEMB_TABLE, user);
+
+        Map<String, Boolean> matching = new HashMap<>();
+        matchers.forEach((role, matcher) -> matching.put(role.getKey(), affected.test(role.getDynMembership().getKey())
+                ? matcher.test(user)
+                : existing.contains(role.getKey())));
+
+        DynMembershipHelper.refreshOwners(
+                entityManager(), DYNMEMB_TABLE, "role_id", user.getKey(), existing, matching,
+                roleKey -> new Object[] { user.getKey(), roleKey });
     }
 
     @Override
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.List;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import org.apache.syncope.core.persistence.api.dao.ShadowObjectDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ShadowObject;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAShadowObject;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public class JPAShadowObjectDAO extends AbstractDAO<ShadowObject> implements ShadowObjectDAO {
+
+    @Transactional(readOnly = true)
+    @Override
+    public ShadowObject find(final String resource, final String objectClass, final String connObjectKey) {
+        TypedQuery<ShadowObject> query = entityManager().createQuery(
+                "SELECT e FROM " + JPAShadowObject.class.getSimpleName() + " e "
+                + "WHERE e.resource=:resource AND e.objectClass=:objectClass AND e.connObjectKey=:connObjectKey",
+                ShadowObject.class);
+        query.setParameter("resource", resource);
+        query.setParameter("objectClass", objectClass);
+        query.setParameter("connObjectKey", connObjectKey);
+
+        List<ShadowObject> result = query.getResultList();
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    @Override
+    public ShadowObject save(final ShadowObject shadowObject) {
+        return entityManager().merge(shadowObject);
+    }
+
+    @Override
+    public void delete(final String resource, final String objectClass, final String connObjectKey) {
+        ShadowObject shadowObject = find(resource, objectClass, connObjectKey);
+        if (shadowObject != null) {
+            entityManager().remove(shadowObject);
+        }
+    }
+
+    @Override
+    public int deleteAll(final String resource) {
+        Query query = entityManager().createQuery(
+                "DELETE FROM " + JPAShadowObject.class.getSimpleName() + " e WHERE e.resource=:resource");
+        query.setParameter("resource", resource);
+        return query.executeUpdate();
+    }
+}
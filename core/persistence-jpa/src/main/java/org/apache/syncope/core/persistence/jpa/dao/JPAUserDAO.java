@@ -29,6 +29,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Resource;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceException;
@@ -261,6 +262,11 @@ public class JPAUserDAO extends AbstractAnyDAO<User> implements UserDAO {
         return findAllKeys(JPAUser.TABLE, page, itemsPerPage);
     }
 
+    @Override
+    public Stream<String> streamAllKeys() {
+        return streamAllKeys(JPAUser.TABLE);
+    }
+
     protected List<AccountPolicy> getAccountPolicies(final User user) {
         List<AccountPolicy> policies = new ArrayList<>();
 
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.dao;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily fetches keys in chunks, sorted by key: each chunk is requested only once the previous one was consumed,
+ * starting after its last key; hence, at most one chunk of keys is held in memory at any time.
+ */
+final class KeysetSpliterator extends Spliterators.AbstractSpliterator<String> {
+
+    /**
+     * @param fetcher returns at most the given number of keys, sorted and following the given key (null for first)
+     * @param fetchSize number of keys to fetch at once
+     * @return lazy stream of keys
+     */
+    static Stream<String> stream(final BiFunction<String, Integer, List<String>> fetcher, final int fetchSize) {
+        return StreamSupport.stream(new KeysetSpliterator(fetcher, fetchSize), false);
+    }
+
+    private final BiFunction<String, Integer, List<String>> fetcher;
+
+    private final int fetchSize;
+
+    private Iterator<String> chunk;
+
+    private String lastKey;
+
+    private boolean exhausted;
+
+    private KeysetSpliterator(final BiFunction<String, Integer, List<String>> fetcher, final int fetchSize) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+        this.fetcher = fetcher;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super String> action) {
+        if ((chunk == null || !chunk.hasNext()) && !exhausted) {
+            List<String> keys = fetcher.apply(lastKey, fetchSize);
+            exhausted = keys.size() < fetchSize;
+            chunk = keys.iterator();
+        }
+
+        if (chunk.hasNext()) {
+            lastKey = chunk.next();
+            action.accept(lastKey);
+            return true;
+        }
+
+        return false;
+    }
+}
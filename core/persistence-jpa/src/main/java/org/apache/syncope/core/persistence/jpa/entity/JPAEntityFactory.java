@@ -128,6 +128,8 @@ import org.apache.syncope.core.persistence.api.entity.SchemaLabel;
 import org.apache.syncope.core.persistence.api.entity.resource.OrgUnitItem;
 import org.apache.syncope.core.persistence.jpa.entity.policy.JPAPullCorrelationRuleEntity;
 import org.apache.syncope.core.persistence.jpa.entity.resource.JPAOrgUnitItem;
+import org.apache.syncope.core.persistence.api.entity.resource.ShadowObject;
+import org.apache.syncope.core.persistence.jpa.entity.resource.JPAShadowObject;
 import org.apache.syncope.core.persistence.api.entity.policy.PullCorrelationRuleEntity;
 import org.apache.syncope.core.persistence.api.entity.policy.PushCorrelationRuleEntity;
 import org.apache.syncope.core.persistence.api.entity.user.LAPlainAttr;
@@ -293,6 +295,8 @@ public class JPAEntityFactory implements EntityFactory {
             result = (E) new JPABatch();
         } else if (reference.equals(GatewayRoute.class)) {
             result = (E) new JPAGatewayRoute();
+        } else if (reference.equals(ShadowObject.class)) {
+            result = (E) new JPAShadowObject();
         } else {
             throw new IllegalArgumentException("Could not find a JPA implementation of " + reference.getName());
         }
@@ -24,6 +24,7 @@ import java.util.Optional;
 import java.util.stream.Collectors;
 import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
@@ -66,6 +67,10 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
     @ManyToOne
     private JPARealm parent;
 
+    @Size(min = 1)
+    @Column(unique = true)
+    private String fullPath;
+
     @ManyToOne(fetch = FetchType.EAGER)
     private JPAPasswordPolicy passwordPolicy;
 
@@ -106,11 +111,23 @@ public class JPARealm extends AbstractGeneratedKeyEntity implements Realm {
 
     @Override
     public String getFullPath() {
+        // not set yet for realms never saved, or saved before the full path was stored
+        return fullPath == null ? buildFullPath() : fullPath;
+    }
+
+    /**
+     * @return full path computed from the parent's full path and the name of this realm
+     */
+    public String buildFullPath() {
         return getParent() == null
                 ? SyncopeConstants.ROOT_REALM
                 : StringUtils.appendIfMissing(getParent().getFullPath(), "/") + getName();
     }
 
+    public void setFullPath(final String fullPath) {
+        this.fullPath = fullPath;
+    }
+
     @Override
     public AccountPolicy getAccountPolicy() {
         return accountPolicy == null && getParent() != null ? getParent().getAccountPolicy() : accountPolicy;
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.entity.resource;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.persistence.Entity;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+import javax.validation.constraints.NotNull;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.persistence.api.entity.resource.ShadowObject;
+import org.apache.syncope.core.persistence.jpa.entity.AbstractGeneratedKeyEntity;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.identityconnectors.framework.common.objects.Attribute;
+
+@Entity
+@Table(name = JPAShadowObject.TABLE, uniqueConstraints =
+        @UniqueConstraint(columnNames = { "resource", "objectClass", "connObjectKey" }))
+public class JPAShadowObject extends AbstractGeneratedKeyEntity implements ShadowObject {
+
+    private static final long serialVersionUID = 3476236406829311282L;
+
+    public static final String TABLE = "ShadowObject";
+
+    @NotNull
+    private String resource;
+
+    @NotNull
+    private String objectClass;
+
+    @NotNull
+    private String connObjectKey;
+
+    private String uid;
+
+    @Lob
+    private String attributes;
+
+    @NotNull
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date lastUpdate;
+
+    @Override
+    public String getResource() {
+        return resource;
+    }
+
+    @Override
+    public void setResource(final String resource) {
+        this.resource = resource;
+    }
+
+    @Override
+    public String getObjectClass() {
+        return objectClass;
+    }
+
+    @Override
+    public void setObjectClass(final String objectClass) {
+        this.objectClass = objectClass;
+    }
+
+    @Override
+    public String getConnObjectKey() {
+        return connObjectKey;
+    }
+
+    @Override
+    public void setConnObjectKey(final String connObjectKey) {
+        this.connObjectKey = connObjectKey;
+    }
+
+    @Override
+    public String getUid() {
+        return uid;
+    }
+
+    @Override
+    public void setUid(final String uid) {
+        this.uid = uid;
+    }
+
+    @Override
+    public Set<Attribute> getAttributes() {
+        Set<Attribute> result = new HashSet<>();
+        if (StringUtils.isNotBlank(this.attributes)) {
+            result.addAll(List.of(POJOHelper.deserialize(this.attributes, Attribute[].class)));
+        }
+
+        return result;
+    }
+
+    @Override
+    public void setAttributes(final Set<Attribute> attributes) {
+        this.attributes = POJOHelper.serialize(attributes);
+    }
+
+    @Override
+    public Date getLastUpdate() {
+        return Optional.ofNullable(lastUpdate).map(date -> new Date(date.getTime())).orElse(null);
+    }
+
+    @Override
+    public void setLastUpdate(final Date lastUpdate) {
+        this.lastUpdate = Optional.ofNullable(lastUpdate).map(date -> new Date(date.getTime())).orElse(null);
+    }
+}
@@ -20,5 +20,27 @@ CREATE TABLE IF NOT EXISTS SYNCOPEAUDIT (
   LOGGER_LEVEL VARCHAR(255) NOT NULL,
   LOGGER VARCHAR(255) NOT NULL,
   MESSAGE TEXT NOT NULL,
-  THROWABLE TEXT
+  THROWABLE TEXT,
+  EVENT_ID VARCHAR(36),
+  WHO VARCHAR(255),
+  EVENT_TYPE VARCHAR(255),
+  EVENT_CATEGORY VARCHAR(255),
+  EVENT_SUBCATEGORY VARCHAR(255),
+  EVENT_NAME VARCHAR(255),
+  EVENT_RESULT VARCHAR(255),
+  ENTITY_KEY VARCHAR(255)
 );
+
+-- upgrade from previous table definition
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_ID VARCHAR(36);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS WHO VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_TYPE VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_CATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_SUBCATEGORY VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_NAME VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS EVENT_RESULT VARCHAR(255);
+ALTER TABLE SYNCOPEAUDIT ADD COLUMN IF NOT EXISTS ENTITY_KEY VARCHAR(255);
+
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_ENTITY_IDX ON SYNCOPEAUDIT(ENTITY_KEY, EVENT_DATE, EVENT_ID);
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_DATE_IDX ON SYNCOPEAUDIT(EVENT_DATE, EVENT_ID);
+CREATE INDEX IF NOT EXISTS SYNCOPEAUDIT_ID_IDX ON SYNCOPEAUDIT(EVENT_ID);
@@ -18,10 +18,13 @@
  */
 package org.apache.syncope.core.persistence.jpa.inner;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.List;
+import java.util.function.Predicate;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
@@ -128,4 +131,67 @@ public class AnyMatchTest extends AbstractTest {
         attrCond.setType(AttrCond.Type.ISNOTNULL);
         assertTrue(anyMatcher.matches(group, SearchCond.getLeaf(attrCond)));
     }
+
+    @Test
+    public void compile() {
+        AnyCond username = new AnyCond(AttrCond.Type.EQ);
+        username.setSchema("username");
+        username.setExpression("rossini");
+
+        AnyCond usernameLike = new AnyCond(AttrCond.Type.ILIKE);
+        usernameLike.setSchema("username");
+        usernameLike.setExpression("V%");
+
+        AttrCond surname = new AttrCond(AttrCond.Type.EQ);
+        surname.setSchema("surname");
+        surname.setExpression("Rossini");
+
+        AttrCond fullnameLike = new AttrCond(AttrCond.Type.LIKE);
+        fullnameLike.setSchema("fullname");
+        fullnameLike.setExpression("%i%");
+
+        AttrCond loginDate = new AttrCond(AttrCond.Type.ISNULL);
+        loginDate.setSchema("loginDate");
+
+        AttrCond invalid = new AttrCond(AttrCond.Type.EQ);
+        invalid.setSchema("loginDate");
+        invalid.setExpression("not a date");
+
+        AttrCond missing = new AttrCond(AttrCond.Type.ISNULL);
+        missing.setSchema("missing");
+
+        MembershipCond membership = new MembershipCond();
+        membership.setGroup("root");
+
+        List<SearchCond> conds = List.of(
+                SearchCond.getLeaf(username),
+                SearchCond.getNotLeaf(username),
+                SearchCond.getLeaf(usernameLike),
+                SearchCond.getLeaf(surname),
+                SearchCond.getNotLeaf(fullnameLike),
+                SearchCond.getLeaf(loginDate),
+                SearchCond.getLeaf(invalid),
+                SearchCond.getNotLeaf(missing),
+                SearchCond.getAnd(SearchCond.getLeaf(fullnameLike), SearchCond.getLeaf(membership)),
+                SearchCond.getOr(SearchCond.getLeaf(username), SearchCond.getNotLeaf(membership)));
+
+        List<User> users = userDAO.findAll(1, 100);
+        conds.forEach(cond -> {
+            Predicate<User> compiled = anyMatcher.compile(cond);
+            users.forEach(user -> assertEquals(anyMatcher.matches(user, cond), compiled.test(user), cond::toString));
+        });
+
+        User user = userDAO.find("1417acbe-cbf6-4277-9372-e75e04f97000");
+        assertTrue(anyMatcher.<User>compile(SearchCond.getLeaf(username)).test(user));
+        assertTrue(anyMatcher.<User>compile(SearchCond.getLeaf(surname)).test(user));
+        assertFalse(anyMatcher.<User>compile(SearchCond.getLeaf(invalid)).test(user));
+
+        Group group = groupDAO.find("37d15e4c-cdc1-460b-a591-8505c8133806");
+        AnyCond name = new AnyCond(AttrCond.Type.EQ);
+        name.setSchema("name");
+        name.setExpression("root");
+        Predicate<Group> compiled = anyMatcher.compile(SearchCond.getLeaf(name));
+        assertTrue(compiled.test(group));
+        assertFalse(compiled.test(groupDAO.findByName("citizen")));
+    }
 }
@@ -31,9 +31,11 @@ import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
+import org.apache.syncope.core.persistence.api.dao.PlainSchemaDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
 import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
 import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
 import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
@@ -53,6 +55,7 @@ import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.AnySearchQueryCache;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
@@ -60,6 +63,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional("Master")
 public class AnySearchTest extends AbstractTest {
 
+    @Autowired
+    private UserDAO userDAO;
+
     @Autowired
     private AnyObjectDAO anyObjectDAO;
 
@@ -75,6 +81,12 @@ public class AnySearchTest extends AbstractTest {
     @Autowired
     private RealmDAO realmDAO;
 
+    @Autowired
+    private PlainSchemaDAO plainSchemaDAO;
+
+    @Autowired
+    private AnySearchQueryCache queryCache;
+
     @Test
     public void searchWithLikeCondition() {
         AttrCond fullnameLeafCond = new AttrCond(AttrCond.Type.LIKE);
@@ -216,6 +228,105 @@ public class AnySearchTest extends AbstractTest {
         assertTrue(users.isEmpty());
     }
 
+    @Test
+    public void searchAfterKey() {
+        SearchCond cond = userDAO.getAllMatchingCond();
+        int count = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
+
+        List<String> keys = new ArrayList<>();
+        List<User> users = List.of();
+        do {
+            users = searchDAO.search(SyncopeConstants.FULL_ADMIN_REALMS,
+                    cond, users.isEmpty() ? null : users.get(users.size() - 1).getKey(), 2,
+                    AnyTypeKind.USER);
+            assertTrue(users.size() <= 2);
+            users.forEach(user -> keys.add(user.getKey()));
+        } while (users.size() == 2);
+
+        assertEquals(count, keys.size());
+        assertEquals(keys.stream().sorted().collect(Collectors.toList()), keys);
+    }
+
+    @Test
+    public void searchLookAhead() {
+        SearchCond cond = userDAO.getAllMatchingCond();
+        int count = searchDAO.count(SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER);
+        assertTrue(count > 2);
+
+        List<User> page = searchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 2, 2, List.of(), AnyTypeKind.USER);
+        List<User> lookAhead = searchDAO.searchLookAhead(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 2, 2, List.of(), AnyTypeKind.USER);
+        assertEquals(page, lookAhead.subList(0, page.size()));
+        assertEquals(Math.min(3, count - 2), lookAhead.size());
+
+        lookAhead = searchDAO.searchLookAhead(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, 1, count, List.of(), AnyTypeKind.USER);
+        assertEquals(count, lookAhead.size());
+    }
+
+    @Test
+    public void queryCache() {
+        AttrCond fullnameLeafCond = new AttrCond(AttrCond.Type.LIKE);
+        fullnameLeafCond.setSchema("fullname");
+        fullnameLeafCond.setExpression("%o%");
+        SearchCond cond = SearchCond.getLeaf(fullnameLeafCond);
+
+        queryCache.clear();
+        long hits = queryCache.getHits();
+
+        List<User> users = searchDAO.search(cond, AnyTypeKind.USER);
+        assertFalse(users.isEmpty());
+        assertEquals(hits, queryCache.getHits());
+        assertEquals(1, queryCache.getSize());
+
+        assertEquals(users, searchDAO.search(cond, AnyTypeKind.USER));
+        assertEquals(hits + 1, queryCache.getHits());
+
+        // same shape, different value: the cached query is reused, with the new value bound
+        AttrCond otherLeafCond = new AttrCond(AttrCond.Type.LIKE);
+        otherLeafCond.setSchema("fullname");
+        otherLeafCond.setExpression("Giuseppe%");
+        List<User> others = searchDAO.search(SearchCond.getLeaf(otherLeafCond), AnyTypeKind.USER);
+        assertEquals(1, others.size());
+        assertEquals("verdi", others.get(0).getUsername());
+        assertEquals(hits + 2, queryCache.getHits());
+        assertEquals(1, queryCache.getSize());
+
+        // values not valid for the schema are not bound to the cached query
+        AttrCond loginDateLeafCond = new AttrCond(AttrCond.Type.EQ);
+        loginDateLeafCond.setSchema("loginDate");
+        loginDateLeafCond.setExpression("2009-05-26");
+        assertEquals(1, searchDAO.search(SearchCond.getLeaf(loginDateLeafCond), AnyTypeKind.USER).size());
+        assertEquals(2, queryCache.getSize());
+        loginDateLeafCond.setExpression("not a date");
+        assertTrue(searchDAO.search(SearchCond.getLeaf(loginDateLeafCond), AnyTypeKind.USER).isEmpty());
+        assertEquals(hits + 2, queryCache.getHits());
+
+        // cache is cleared as soon as any schema is updated
+        plainSchemaDAO.save(plainSchemaDAO.find("fullname"));
+        assertEquals(0, queryCache.getSize());
+
+        assertEquals(users, searchDAO.search(cond, AnyTypeKind.USER));
+        assertEquals(hits + 2, queryCache.getHits());
+    }
+
+    @Test
+    public void streamKeys() {
+        SearchCond cond = userDAO.getAllMatchingCond();
+
+        List<String> expected = searchDAO.search(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, null, -1, AnyTypeKind.USER).stream().
+                map(Entity::getKey).collect(Collectors.toList());
+        assertFalse(expected.isEmpty());
+
+        List<String> keys = searchDAO.streamKeys(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.USER).collect(Collectors.toList());
+        assertEquals(expected, keys);
+
+        assertEquals(expected, userDAO.streamAllKeys().collect(Collectors.toList()));
+    }
+
     @Test
     public void searchByGroup() {
         MembershipCond groupCond = new MembershipCond();
@@ -19,19 +19,31 @@
 package org.apache.syncope.core.persistence.jpa.inner;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.List;
+import java.util.function.Predicate;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.core.persistence.api.dao.AnyTypeDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
+import org.apache.syncope.core.persistence.api.dao.UserDAO;
+import org.apache.syncope.core.persistence.api.dao.search.AnyCond;
+import org.apache.syncope.core.persistence.api.dao.search.AttrCond;
+import org.apache.syncope.core.persistence.api.dao.search.MembershipCond;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.persistence.jpa.dao.DynMembershipDependencyIndex;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Transactional("Master")
 public class GroupTest extends AbstractTest {
@@ -45,6 +57,28 @@ public class GroupTest extends AbstractTest {
     @Autowired
     private AnyTypeDAO anyTypeDAO;
 
+    @Autowired
+    private UserDAO userDAO;
+
+    @Autowired
+    private DynMembershipDependencyIndex dependencyIndex;
+
+    private static SearchCond attrCond(final AttrCond cond, final String schema, final String expression) {
+        cond.setType(AttrCond.Type.EQ);
+        cond.setSchema(schema);
+        cond.setExpression(expression);
+        return SearchCond.getLeaf(cond);
+    }
+
+    /**
+     * Simulates the commit of the ongoing transaction, for the dependency index to record the values read.
+     */
+    private static void commit() {
+        TransactionSynchronizationManager.getSynchronizations().stream().
+                filter(sync -> sync.getClass().getName().startsWith(DynMembershipDependencyIndex.class.getName())).
+                forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
     @Test
     public void findAll() {
         List<Group> groups = groupDAO.findAll(1, 100);
@@ -87,4 +121,53 @@ public class GroupTest extends AbstractTest {
         Group actual = groupDAO.find("8fb2d51e-c605-4e80-a72b-13ffecf1aa9a");
         assertNull(actual);
     }
+
+    @Test
+    public void dynMembershipDependencyIndex() {
+        User user = userDAO.findByUsername("rossini");
+        assertNotNull(user);
+
+        MembershipCond membershipCond = new MembershipCond();
+        membershipCond.setGroup("root");
+
+        dependencyIndex.index("byFirstname", attrCond(new AttrCond(), "firstname", "Gioacchino"));
+        dependencyIndex.index("byUsername", attrCond(new AnyCond(), "username", "rossini"));
+        dependencyIndex.index("byMembership", SearchCond.getLeaf(membershipCond));
+        try {
+            // no values recorded yet: all conditions are evaluated
+            Predicate<String> affected = dependencyIndex.affected("TestDynMembers", user);
+            assertTrue(affected.test("byFirstname"));
+            assertTrue(affected.test("byUsername"));
+            assertTrue(affected.test("byMembership"));
+            commit();
+
+            // nothing changed: only conditions reading data not owned by the user, or not indexed, are evaluated
+            affected = dependencyIndex.affected("TestDynMembers", user);
+            assertFalse(affected.test("byFirstname"));
+            assertFalse(affected.test("byUsername"));
+            assertTrue(affected.test("byMembership"));
+            assertTrue(affected.test("notIndexed"));
+            commit();
+
+            // values are recorded by table
+            assertTrue(dependencyIndex.affected("OtherDynMembers", user).test("byUsername"));
+
+            // username changed: only conditions reading username are evaluated
+            user.setUsername("rossini2");
+            affected = dependencyIndex.affected("TestDynMembers", user);
+            assertFalse(affected.test("byFirstname"));
+            assertTrue(affected.test("byUsername"));
+            commit();
+
+            // condition changed: all conditions are evaluated
+            dependencyIndex.index("byFirstname", attrCond(new AttrCond(), "surname", "Rossini"));
+            affected = dependencyIndex.affected("TestDynMembers", user);
+            assertTrue(affected.test("byFirstname"));
+            assertTrue(affected.test("byUsername"));
+        } finally {
+            dependencyIndex.remove("byFirstname");
+            dependencyIndex.remove("byUsername");
+            dependencyIndex.remove("byMembership");
+        }
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.persistence.Query;
+import org.apache.syncope.common.lib.log.AuditEntry;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class LoggerTest extends AbstractTest {
+
+    private static final String ENTITY_KEY = "1417acbe-cbf6-4277-9372-e75e04f97000";
+
+    @Autowired
+    private LoggerDAO loggerDAO;
+
+    private static AuditEntry entry(final Date date, final String event, final AuditElements.Result result) {
+        AuditEntry entry = new AuditEntry();
+        entry.setWho("admin");
+        entry.setDate(date);
+        entry.setLogger(new AuditLoggerName(AuditElements.EventCategoryType.LOGIC, "UserLogic", null, event, result));
+        return entry;
+    }
+
+    private void audit(
+            final String key, final Date date, final String event, final AuditElements.Result result) {
+
+        Query query = entityManager().createNativeQuery("INSERT INTO " + LoggerDAO.AUDIT_TABLE
+                + "(EVENT_DATE, LOGGER_LEVEL, LOGGER, MESSAGE, EVENT_ID, WHO, EVENT_TYPE, EVENT_CATEGORY, "
+                + "EVENT_SUBCATEGORY, EVENT_NAME, EVENT_RESULT, ENTITY_KEY) VALUES (?1, 'DEBUG', "
+                + "'syncope.audit.Master', ?2, ?3, 'admin', 'LOGIC', 'UserLogic', '', ?4, ?5, ?6)");
+        query.setParameter(1, new Timestamp(date.getTime()));
+        query.setParameter(2, POJOHelper.serialize(entry(date, event, result)));
+        query.setParameter(3, key);
+        query.setParameter(4, event);
+        query.setParameter(5, result.name());
+        query.setParameter(6, ENTITY_KEY);
+        query.executeUpdate();
+    }
+
+    @Test
+    public void findAuditEntries() {
+        long now = System.currentTimeMillis();
+        audit("k1", new Date(now - 3000), "create", AuditElements.Result.SUCCESS);
+        audit("k2", new Date(now - 2000), "update", AuditElements.Result.SUCCESS);
+        audit("k3", new Date(now - 2000), "update", AuditElements.Result.FAILURE);
+        audit("k4", new Date(now - 1000), "delete", AuditElements.Result.SUCCESS);
+
+        assertEquals(4, loggerDAO.countAuditEntries(ENTITY_KEY, null, null, null, List.of(), null, null, null));
+        assertEquals(0, loggerDAO.countAuditEntries(
+                "unexisting", null, null, null, List.of(), null, null, null));
+        assertEquals(2, loggerDAO.countAuditEntries(
+                ENTITY_KEY, AuditElements.EventCategoryType.LOGIC, "UserLogic", null, List.of("update"), null,
+                null, null));
+        assertEquals(1, loggerDAO.countAuditEntries(
+                ENTITY_KEY, null, null, null, List.of("create", "update"), AuditElements.Result.FAILURE,
+                null, null));
+
+        List<OrderByClause> orderBy = List.of(new OrderByClause());
+        orderBy.get(0).setField(LoggerDAO.AUDIT_DATE_COLUMN);
+        orderBy.get(0).setDirection(OrderByClause.Direction.ASC);
+
+        List<AuditEntry> entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 2, null, null, null, List.of(), null, null, null, null, orderBy);
+        assertEquals(2, entries.size());
+        assertEquals("k1", entries.get(0).getKey());
+        assertEquals("update", entries.get(1).getLogger().getEvent());
+
+        // keyset pagination, with entries sharing the same date across pages
+        entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 2, null, null, null, List.of(), null, null, null, "k4", orderBy);
+        assertEquals(List.of("k3", "k2"), entries.stream().map(AuditEntry::getKey).collect(Collectors.toList()));
+
+        entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 2, null, null, null, List.of(), null, null, null, "k3", orderBy);
+        assertEquals(List.of("k2", "k1"), entries.stream().map(AuditEntry::getKey).collect(Collectors.toList()));
+
+        entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 2, null, null, null, List.of(), null, null, null, "k1", orderBy);
+        assertTrue(entries.isEmpty());
+
+        // time range
+        entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 10, null, null, null, List.of(), null, new Date(now - 1500), new Date(now - 2500),
+                null, orderBy);
+        assertEquals(2, entries.size());
+        assertTrue(entries.stream().allMatch(entry -> "update".equals(entry.getLogger().getEvent())));
+    }
+
+    @Test
+    public void backfillAuditEntries() {
+        Date date = new Date();
+        AuditEntry entry = entry(date, "update", AuditElements.Result.SUCCESS);
+        entry.getInputs().add(POJOHelper.serialize(Map.of("key", ENTITY_KEY, "username", "rossini")));
+
+        // as logged before the audit event dimension columns were available: twice, with the same date
+        for (int i = 0; i < 2; i++) {
+            Query query = entityManager().createNativeQuery("INSERT INTO " + LoggerDAO.AUDIT_TABLE
+                    + "(EVENT_DATE, LOGGER_LEVEL, LOGGER, MESSAGE) VALUES (?1, 'DEBUG', 'syncope.audit.Master', ?2)");
+            query.setParameter(1, new Timestamp(date.getTime()));
+            query.setParameter(2, POJOHelper.serialize(entry));
+            query.executeUpdate();
+        }
+        assertEquals(0, loggerDAO.countAuditEntries(ENTITY_KEY, null, null, null, List.of(), null, null, null));
+
+        assertEquals(2, loggerDAO.backfillAuditEntries(10));
+        assertEquals(0, loggerDAO.backfillAuditEntries(10));
+
+        List<AuditEntry> entries = loggerDAO.findAuditEntries(
+                ENTITY_KEY, 1, 10, AuditElements.EventCategoryType.LOGIC, "UserLogic", null, List.of("update"),
+                AuditElements.Result.SUCCESS, null, null, null, List.of());
+        assertEquals(2, entries.size());
+        assertEquals(2, entries.stream().map(AuditEntry::getKey).filter(Objects::nonNull).distinct().count());
+    }
+}
@@ -26,6 +26,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.List;
 import org.apache.syncope.common.lib.SyncopeConstants;
 import org.apache.syncope.common.lib.types.EntityViolationType;
@@ -93,6 +94,18 @@ public class RealmTest extends AbstractTest {
         assertTrue(children.isEmpty());
     }
 
+    @Test
+    public void findDescendants() {
+        List<Realm> descendants = realmDAO.findDescendants(realmDAO.findByFullPath("/even"));
+        assertEquals(2, descendants.size());
+        assertEquals("/even", descendants.get(0).getFullPath());
+        assertEquals("/even/two", descendants.get(1).getFullPath());
+
+        assertEquals(
+                new ArrayList<>(realmDAO.findAll()),
+                new ArrayList<>(realmDAO.findDescendants(realmDAO.getRoot())));
+    }
+
     @Test
     public void findAll() {
         List<Realm> list = realmDAO.findAll();
@@ -101,6 +114,30 @@ public class RealmTest extends AbstractTest {
         list.forEach(Assertions::assertNotNull);
     }
 
+    @Test
+    public void findByPolicy() {
+        Realm inheriting = entityFactory.newEntity(Realm.class);
+        inheriting.setName("inheriting");
+        inheriting.setParent(realmDAO.findByFullPath("/even"));
+        inheriting = realmDAO.save(inheriting);
+
+        Realm overriding = entityFactory.newEntity(Realm.class);
+        overriding.setName("overriding");
+        overriding.setParent(realmDAO.findByFullPath("/even/two"));
+        overriding = realmDAO.save(overriding);
+
+        List<Realm> realms = realmDAO.findByPolicy(policyDAO.find("986d1236-3ac5-4a19-810c-5ab21d79cba1"));
+        assertTrue(realms.contains(realmDAO.getRoot()));
+        assertTrue(realms.contains(realmDAO.findByFullPath("/odd")));
+        assertTrue(realms.contains(realmDAO.findByFullPath("/even")));
+        assertTrue(realms.contains(inheriting));
+        assertFalse(realms.contains(realmDAO.findByFullPath("/even/two")));
+        assertFalse(realms.contains(overriding));
+
+        realms = realmDAO.findByPolicy(policyDAO.find("ce93fcda-dc3a-4369-a7b0-a6108c261c85"));
+        assertEquals(List.of(realmDAO.findByFullPath("/even/two"), overriding), realms);
+    }
+
     @Test
     public void save() {
         Realm realm = entityFactory.newEntity(Realm.class);
@@ -124,6 +161,33 @@ public class RealmTest extends AbstractTest {
         assertEquals("986d1236-3ac5-4a19-810c-5ab21d79cba1", actual.getPasswordPolicy().getKey());
     }
 
+    @Test
+    public void rename() {
+        Realm realm = realmDAO.findByFullPath("/even");
+        realm.setName("renamed");
+
+        Realm actual = realmDAO.save(realm);
+        assertEquals("/renamed", actual.getFullPath());
+
+        Realm child = realmDAO.findByFullPath("/renamed/two");
+        assertNotNull(child);
+        assertEquals("0679e069-7355-4b20-bd11-a5a0a5453c7c", child.getKey());
+        assertNull(realmDAO.findByFullPath("/even/two"));
+    }
+
+    @Test
+    public void fullPathBeforeSave() {
+        Realm realm = entityFactory.newEntity(Realm.class);
+        realm.setName("transient");
+        realm.setParent(realmDAO.findByFullPath("/even/two"));
+        assertEquals("/even/two/transient", realm.getFullPath());
+
+        Realm actual = realmDAO.save(realm);
+        entityManager().flush();
+        assertEquals("/even/two/transient", actual.getFullPath());
+        assertEquals(actual, realmDAO.findByFullPath("/even/two/transient"));
+    }
+
     @Test
     public void saveInvalidName() {
         Realm realm = entityFactory.newEntity(Realm.class);
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.persistence.jpa.inner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import org.apache.syncope.core.persistence.api.dao.ShadowObjectDAO;
+import org.apache.syncope.core.persistence.api.entity.resource.ShadowObject;
+import org.apache.syncope.core.persistence.jpa.AbstractTest;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class ShadowObjectTest extends AbstractTest {
+
+    @Autowired
+    private ShadowObjectDAO shadowObjectDAO;
+
+    private ShadowObject shadowObject(final String resource, final String connObjectKey) {
+        ShadowObject shadowObject = entityFactory.newEntity(ShadowObject.class);
+        shadowObject.setResource(resource);
+        shadowObject.setObjectClass(ObjectClass.ACCOUNT_NAME);
+        shadowObject.setConnObjectKey(connObjectKey);
+        shadowObject.setUid(connObjectKey);
+        shadowObject.setAttributes(Set.of(
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.build("email", List.of("rossini@syncope.org", "gioacchino@syncope.org"))));
+        shadowObject.setLastUpdate(new Date());
+        return shadowObject;
+    }
+
+    @Test
+    public void saveAndFind() {
+        ShadowObject shadowObject = shadowObjectDAO.save(shadowObject("resource-testdb", "rossini"));
+        assertNotNull(shadowObject.getKey());
+
+        entityManager().flush();
+
+        ShadowObject actual = shadowObjectDAO.find("resource-testdb", ObjectClass.ACCOUNT_NAME, "rossini");
+        assertNotNull(actual);
+        assertEquals("rossini", actual.getUid());
+        assertNotNull(actual.getLastUpdate());
+
+        Set<Attribute> attributes = actual.getAttributes();
+        assertEquals(2, attributes.size());
+        assertTrue(attributes.contains(AttributeBuilder.build("surname", "Rossini")));
+        assertTrue(attributes.contains(
+                AttributeBuilder.build("email", List.of("rossini@syncope.org", "gioacchino@syncope.org"))));
+
+        assertNull(shadowObjectDAO.find("resource-testdb", ObjectClass.GROUP_NAME, "rossini"));
+        assertNull(shadowObjectDAO.find("resource-csv", ObjectClass.ACCOUNT_NAME, "rossini"));
+    }
+
+    @Test
+    public void delete() {
+        shadowObjectDAO.save(shadowObject("resource-testdb", "rossini"));
+        shadowObjectDAO.save(shadowObject("resource-testdb", "verdi"));
+        shadowObjectDAO.save(shadowObject("resource-csv", "rossini"));
+
+        entityManager().flush();
+
+        shadowObjectDAO.delete("resource-testdb", ObjectClass.ACCOUNT_NAME, "rossini");
+        entityManager().flush();
+        assertNull(shadowObjectDAO.find("resource-testdb", ObjectClass.ACCOUNT_NAME, "rossini"));
+        assertNotNull(shadowObjectDAO.find("resource-testdb", ObjectClass.ACCOUNT_NAME, "verdi"));
+
+        assertEquals(1, shadowObjectDAO.deleteAll("resource-testdb"));
+        entityManager().clear();
+        assertNull(shadowObjectDAO.find("resource-testdb", ObjectClass.ACCOUNT_NAME, "verdi"));
+        assertNotNull(shadowObjectDAO.find("resource-csv", ObjectClass.ACCOUNT_NAME, "rossini"));
+    }
+}
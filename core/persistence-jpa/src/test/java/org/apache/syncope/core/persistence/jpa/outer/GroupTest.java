@@ -267,6 +267,34 @@ public class GroupTest extends AbstractTest {
         assertTrue(dynGroupMemberships.isEmpty());
     }
 
+    @Test
+    public void udynMembershipRefresh() {
+        Group group = entityFactory.newEntity(Group.class);
+        group.setRealm(realmDAO.getRoot());
+        group.setName("refresh");
+
+        UDynGroupMembership dynMembership = entityFactory.newEntity(UDynGroupMembership.class);
+        dynMembership.setFIQLCond("cool==true");
+        dynMembership.setGroup(group);
+        group.setUDynMembership(dynMembership);
+
+        Group actual = groupDAO.saveAndRefreshDynMemberships(group);
+        entityManager().flush();
+        assertEquals(List.of("c9b2dec2-00a7-4855-97c0-d854842b4b24"), groupDAO.findUDynMembers(actual));
+
+        // change condition: previous member is removed, new ones are added
+        actual.getUDynMembership().setFIQLCond("username==rossini");
+        actual = groupDAO.saveAndRefreshDynMemberships(actual);
+        entityManager().flush();
+        assertEquals(List.of("1417acbe-cbf6-4277-9372-e75e04f97000"), groupDAO.findUDynMembers(actual));
+
+        // drop dynamic membership: all members are removed
+        actual.setUDynMembership(null);
+        actual = groupDAO.saveAndRefreshDynMemberships(actual);
+        entityManager().flush();
+        assertTrue(findDynGroups(userDAO.findByUsername("rossini")).isEmpty());
+    }
+
     /**
      * Static copy of {@link org.apache.syncope.core.persistence.jpa.dao.JPAAnyObjectDAO} method with same signature:
      * required for avoiding creating of a new transaction - good for general use case but bad for the way how
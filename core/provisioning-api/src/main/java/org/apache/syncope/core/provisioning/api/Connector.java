@@ -26,6 +26,7 @@ import org.apache.syncope.core.persistence.api.dao.search.OrderByClause;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
 import org.apache.syncope.core.provisioning.api.pushpull.ReconFilterBuilder;
 import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeDelta;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ObjectClassInfo;
@@ -88,6 +89,37 @@ public interface Connector {
             OperationOptions options,
             AtomicReference<Boolean> propagationAttempted);
 
+    /**
+     * Whether the underlying connector bundle is able to apply attribute changes, via
+     * {@link #updateDelta(ObjectClass, Uid, Set, OperationOptions, AtomicReference)}.
+     *
+     * @return whether attribute changes can be applied
+     */
+    default boolean isUpdateDeltaSupported() {
+        return false;
+    }
+
+    /**
+     * Update user / group on a connector instance, by only sending the given attribute changes, e.g. values to add
+     * or remove rather than the full set of values for multivalued attributes.
+     *
+     * @param objectClass ConnId's object class
+     * @param uid user to be updated
+     * @param modifications attribute changes
+     * @param options ConnId's OperationOptions
+     * @param propagationAttempted if update is actually performed (based on connector instance's capabilities)
+     * @return Uid for updated object
+     */
+    default Uid updateDelta(
+            ObjectClass objectClass,
+            Uid uid,
+            Set<AttributeDelta> modifications,
+            OperationOptions options,
+            AtomicReference<Boolean> propagationAttempted) {
+
+        throw new UnsupportedOperationException("Attribute changes are not supported");
+    }
+
     /**
      * Delete user / group on a connector instance.
      *
@@ -18,7 +18,10 @@
  */
 package org.apache.syncope.core.provisioning.api.event;
 
+import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.springframework.context.ApplicationEvent;
 
 public class AnyCreatedUpdatedEvent<A extends Any<?>> extends ApplicationEvent {
@@ -27,18 +30,57 @@ public class AnyCreatedUpdatedEvent<A extends Any<?>> extends ApplicationEvent {
 
     private final A any;
 
+    private final AnyTypeKind anyTypeKind;
+
+    private final String anyKey;
+
     private final String domain;
 
     public AnyCreatedUpdatedEvent(final Object source, final A any, final String domain) {
         super(source);
         this.any = any;
+        this.anyTypeKind = any instanceof User
+                ? AnyTypeKind.USER
+                : any instanceof Group
+                        ? AnyTypeKind.GROUP
+                        : AnyTypeKind.ANY_OBJECT;
+        this.anyKey = any.getKey();
         this.domain = domain;
     }
 
+    /**
+     * Notifies that the given any was updated, without loading it: {@link #getAny()} will return {@code null}.
+     *
+     * @param source the object on which the event initially occurred
+     * @param anyTypeKind any type kind
+     * @param anyKey any key
+     * @param domain domain
+     */
+    public AnyCreatedUpdatedEvent(
+            final Object source, final AnyTypeKind anyTypeKind, final String anyKey, final String domain) {
+
+        super(source);
+        this.any = null;
+        this.anyTypeKind = anyTypeKind;
+        this.anyKey = anyKey;
+        this.domain = domain;
+    }
+
+    /**
+     * @return the any created or updated, or {@code null} if the event was published by key
+     */
     public A getAny() {
         return any;
     }
 
+    public AnyTypeKind getAnyTypeKind() {
+        return anyTypeKind;
+    }
+
+    public String getAnyKey() {
+        return anyKey;
+    }
+
     public String getDomain() {
         return domain;
     }
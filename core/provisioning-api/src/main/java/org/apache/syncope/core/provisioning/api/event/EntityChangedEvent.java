@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.api.event;
+
+import org.apache.syncope.core.persistence.api.entity.Entity;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when an entity, whose content is kept in memory by some component, is created, updated or deleted.
+ */
+public class EntityChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 3594071806468306452L;
+
+    private final Class<? extends Entity> reference;
+
+    private final String key;
+
+    private final String domain;
+
+    public EntityChangedEvent(
+            final Object source,
+            final Class<? extends Entity> reference,
+            final String key,
+            final String domain) {
+
+        super(source);
+        this.reference = reference;
+        this.key = key;
+        this.domain = domain;
+    }
+
+    public Class<? extends Entity> getReference() {
+        return reference;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getDomain() {
+        return domain;
+    }
+}
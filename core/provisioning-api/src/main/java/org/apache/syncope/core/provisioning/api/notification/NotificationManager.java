@@ -62,6 +62,14 @@ public interface NotificationManager {
      */
     void createTasks(AfterHandlingEvent event);
 
+    /**
+     * Create notification tasks according to the provided events, all together: the recipients of each notification
+     * are resolved once for all the given events, and created tasks are stored within the same transaction.
+     *
+     * @param events Spring events raised during Logic processing
+     */
+    void createTasks(List<AfterHandlingEvent> events);
+
     /**
      * Create notification tasks for each notification matching provided conditions.
      *
@@ -52,6 +52,19 @@ public interface PropagationTaskExecutor {
      */
     TaskExec execute(PropagationTaskInfo taskInfo, PropagationReporter reporter, String executor);
 
+    /**
+     * Reports the given task as not attempted, without contacting the related external resource, and returns the
+     * generated {@link TaskExec}.
+     *
+     * @param taskInfo not attempted
+     * @param rejectReason why the given task was not attempted
+     * @param reporter to report propagation execution status
+     * @param executor the executor of this task
+     * @return the generated TaskExec
+     */
+    TaskExec rejected(
+            PropagationTaskInfo taskInfo, String rejectReason, PropagationReporter reporter, String executor);
+
     /**
      * Execute the given collection of tasks.
      * The process is interrupted as soon as the result of the communication with a resource with non-null priority is
@@ -44,6 +44,11 @@ public class PropagationTaskInfo extends PropagationTaskTO {
      */
     private Optional<ConnectorObject> beforeObj;
 
+    /**
+     * Whether this task was stored before execution, only to be kept until executed.
+     */
+    private boolean pending;
+
     public PropagationTaskInfo(final ExternalResource externalResource) {
         super();
         this.externalResource = externalResource;
@@ -79,6 +84,14 @@ public class PropagationTaskInfo extends PropagationTaskTO {
         this.beforeObj = beforeObj;
     }
 
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void setPending(final boolean pending) {
+        this.pending = pending;
+    }
+
     @Override
     public int hashCode() {
         return new HashCodeBuilder().
@@ -21,8 +21,12 @@ package org.apache.syncope.core.provisioning.api.serialization;
 import com.fasterxml.jackson.core.Version;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
+import org.apache.syncope.common.lib.request.PasswordPatch;
+import org.apache.syncope.common.lib.request.UserCR;
+import org.apache.syncope.common.lib.to.UserTO;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.SyncToken;
@@ -38,6 +42,23 @@ public final class POJOHelper {
 
     private static final ObjectMapper MAPPER;
 
+    private static final ObjectMapper MASKING_MAPPER;
+
+    private abstract static class UserMaskingMixIn {
+
+        @JsonSerialize(using = MaskingSerializer.class)
+        abstract String getPassword();
+
+        @JsonSerialize(using = MaskingSerializer.class)
+        abstract String getSecurityAnswer();
+    }
+
+    private abstract static class PasswordPatchMaskingMixIn {
+
+        @JsonSerialize(using = MaskingSerializer.class)
+        abstract Object getValue();
+    }
+
     static {
         SimpleModule pojoModule = new SimpleModule("POJOModule", new Version(1, 0, 0, null, null, null));
         pojoModule.addSerializer(GuardedString.class, new GuardedStringSerializer());
@@ -50,6 +71,11 @@ public final class POJOHelper {
         MAPPER = new ObjectMapper();
         MAPPER.registerModule(pojoModule);
         MAPPER.registerModule(new AfterburnerModule());
+
+        MASKING_MAPPER = MAPPER.copy();
+        MASKING_MAPPER.addMixIn(UserTO.class, UserMaskingMixIn.class);
+        MASKING_MAPPER.addMixIn(UserCR.class, UserMaskingMixIn.class);
+        MASKING_MAPPER.addMixIn(PasswordPatch.class, PasswordPatchMaskingMixIn.class);
     }
 
     public static String serialize(final Object object) {
@@ -64,6 +90,25 @@ public final class POJOHelper {
         return result;
     }
 
+    /**
+     * Serializes the given object as {@link #serialize(java.lang.Object)} does, but replacing passwords and security
+     * answers found anywhere in the object graph with a fixed mask; no copy of the given object is made.
+     *
+     * @param object object to serialize
+     * @return JSON representation of the given object, with sensitive values masked
+     */
+    public static String serializeMasked(final Object object) {
+        String result = null;
+
+        try {
+            result = MASKING_MAPPER.writeValueAsString(object);
+        } catch (Exception e) {
+            LOG.error("During serialization", e);
+        }
+
+        return result;
+    }
+
     public static <T extends Object> T deserialize(final String serialized, final Class<T> reference) {
         T result = null;
 
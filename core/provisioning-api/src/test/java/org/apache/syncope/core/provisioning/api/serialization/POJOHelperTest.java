@@ -19,9 +19,16 @@
 package org.apache.syncope.core.provisioning.api.serialization;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import org.apache.syncope.common.lib.request.PasswordPatch;
+import org.apache.syncope.common.lib.request.UserCR;
+import org.apache.syncope.common.lib.request.UserUR;
+import org.apache.syncope.common.lib.to.ProvisioningResult;
+import org.apache.syncope.common.lib.to.UserTO;
 import org.apache.syncope.core.provisioning.api.AbstractTest;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -48,4 +55,39 @@ public class POJOHelperTest extends AbstractTest {
 
         assertNull(POJOHelper.deserialize(serialized, reference));
     }
+
+    @Test
+    public void serializeMasked() {
+        UserCR userCR = new UserCR.Builder("/", "username").password("password123").securityAnswer("answer").build();
+        String serialized = POJOHelper.serializeMasked(userCR);
+        assertFalse(serialized.contains("password123"));
+        assertFalse(serialized.contains("answer\""));
+        assertTrue(serialized.contains(MaskingSerializer.MASKED_VALUE));
+        assertEquals("password123", userCR.getPassword());
+
+        UserCR deserialized = POJOHelper.deserialize(serialized, UserCR.class);
+        assertEquals(MaskingSerializer.MASKED_VALUE, deserialized.getPassword());
+        assertEquals(MaskingSerializer.MASKED_VALUE, deserialized.getSecurityAnswer());
+
+        UserUR userUR = new UserUR.Builder("key").
+                password(new PasswordPatch.Builder().value("password123").build()).build();
+        serialized = POJOHelper.serializeMasked(userUR);
+        assertFalse(serialized.contains("password123"));
+        assertEquals("password123", userUR.getPassword().getValue());
+
+        // nested and null values
+        UserTO userTO = new UserTO();
+        userTO.setUsername("username");
+        userTO.setPassword("password123");
+        ProvisioningResult<UserTO> result = new ProvisioningResult<>();
+        result.setEntity(userTO);
+        serialized = POJOHelper.serializeMasked(result);
+        assertFalse(serialized.contains("password123"));
+        assertTrue(serialized.contains("username"));
+
+        userTO.setPassword(null);
+        assertNull(POJOHelper.deserialize(POJOHelper.serializeMasked(userTO), UserTO.class).getPassword());
+
+        assertTrue(POJOHelper.serialize(userCR).contains("password123"));
+    }
 }
@@ -23,6 +23,7 @@ import java.util.concurrent.Future;
 import org.identityconnectors.common.security.GuardedString;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeDelta;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ObjectClassInfo;
@@ -78,6 +79,17 @@ public class AsyncConnectorFacade {
         return new AsyncResult<>(connector.update(objectClass, uid, attrs, options));
     }
 
+    @Async
+    public Future<Set<AttributeDelta>> updateDelta(
+            final ConnectorFacade connector,
+            final ObjectClass objectClass,
+            final Uid uid,
+            final Set<AttributeDelta> modifications,
+            final OperationOptions options) {
+
+        return new AsyncResult<>(connector.updateDelta(objectClass, uid, modifications, options));
+    }
+
     @Async
     public Future<Uid> delete(
             final ConnectorFacade connector,
@@ -96,8 +108,17 @@ public class AsyncConnectorFacade {
         return new AsyncResult<>(connector.getLatestSyncToken(objectClass));
     }
 
-    @Async
-    public Future<ConnectorObject> getObject(
+    /**
+     * Reads the connector object matching the given connector object key, if any.
+     *
+     * @param connector connector facade
+     * @param objectClass ConnId's object class
+     * @param connObjectKey connector object key
+     * @param ignoreCaseMatch whether to match ignoring case
+     * @param options ConnId's OperationOptions
+     * @return connector object, or null if not found
+     */
+    public static ConnectorObject findObject(
             final ConnectorFacade connector,
             final ObjectClass objectClass,
             final Attribute connObjectKey,
@@ -123,11 +144,16 @@ public class AsyncConnectorFacade {
         },
                 options);
 
-        return new AsyncResult<>(objects[0]);
+        return objects[0];
     }
 
-    @Async
-    public Future<Set<ObjectClassInfo>> getObjectClassInfo(final ConnectorFacade connector) {
+    /**
+     * Reads the object classes defined by the connector schema.
+     *
+     * @param connector connector facade
+     * @return object classes, or empty set if schema could not be read
+     */
+    public static Set<ObjectClassInfo> readObjectClassInfo(final ConnectorFacade connector) {
         Set<ObjectClassInfo> result = Set.of();
 
         try {
@@ -137,7 +163,23 @@ public class AsyncConnectorFacade {
             LOG.debug("While reading schema on connector {}", connector, e);
         }
 
-        return new AsyncResult<>(result);
+        return result;
+    }
+
+    @Async
+    public Future<ConnectorObject> getObject(
+            final ConnectorFacade connector,
+            final ObjectClass objectClass,
+            final Attribute connObjectKey,
+            final boolean ignoreCaseMatch,
+            final OperationOptions options) {
+
+        return new AsyncResult<>(findObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options));
+    }
+
+    @Async
+    public Future<Set<ObjectClassInfo>> getObjectClassInfo(final ConnectorFacade connector) {
+        return new AsyncResult<>(readObjectClassInfo(connector));
     }
 
     @Async
@@ -22,9 +22,11 @@ import java.io.File;
 import java.net.URI;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 import org.apache.syncope.common.lib.types.ConnectorCapability;
 import org.apache.syncope.core.persistence.api.entity.ConnInstance;
 import org.apache.syncope.core.provisioning.api.ConnIdBundleManager;
@@ -40,7 +42,10 @@ import org.identityconnectors.framework.api.ConfigurationProperties;
 import org.identityconnectors.framework.api.ConnectorFacade;
 import org.identityconnectors.framework.api.ConnectorFacadeFactory;
 import org.identityconnectors.framework.api.ConnectorInfo;
+import org.identityconnectors.framework.api.operations.UpdateDeltaApiOp;
 import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeDelta;
+import org.identityconnectors.framework.common.objects.AttributeDeltaUtil;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.identityconnectors.framework.common.objects.ObjectClassInfo;
@@ -78,6 +83,9 @@ public class ConnectorFacadeProxy implements Connector {
     @Autowired
     private AsyncConnectorFacade asyncFacade;
 
+    @Autowired
+    private DirectConnectorExecutor directExecutor;
+
     /**
      * Use the passed connector instance to build a ConnectorFacade that will be used to make all wrapped calls.
      *
@@ -127,26 +135,56 @@ public class ConnectorFacadeProxy implements Connector {
         connector.validate();
     }
 
-    @Override
-    public Uid authenticate(final String username, final String password, final OperationOptions options) {
-        Uid result = null;
-
-        if (connInstance.getCapabilities().contains(ConnectorCapability.AUTHENTICATE)) {
-            Future<Uid> future = asyncFacade.authenticate(
-                    connector, username, new GuardedString(password.toCharArray()), options);
+    /**
+     * Executes the given connector request, waiting at most for the configured request timeout: in the calling thread
+     * if {@link DirectConnectorExecutor} is enabled, via {@link AsyncConnectorFacade} otherwise.
+     *
+     * @param <T> result type
+     * @param async request via {@link AsyncConnectorFacade}
+     * @param direct request for execution in the calling thread
+     * @return request result
+     */
+    private <T> T execute(final Supplier<Future<T>> async, final Callable<T> direct) {
+        if (directExecutor.isEnabled()) {
             try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
+                return directExecutor.execute(direct, connInstance.getConnRequestTimeout());
+            } catch (TimeoutException e) {
+                throw e;
             } catch (Exception e) {
                 LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
+                if (e instanceof RuntimeException) {
+                    throw (RuntimeException) e;
                 } else {
-                    throw new RuntimeException(e.getCause());
+                    throw new RuntimeException(e);
                 }
             }
+        }
+
+        Future<T> future = async.get();
+        try {
+            return future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
+        } catch (java.util.concurrent.TimeoutException e) {
+            future.cancel(true);
+            throw new TimeoutException("Request timeout");
+        } catch (Exception e) {
+            LOG.error("Connector request execution failure", e);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public Uid authenticate(final String username, final String password, final OperationOptions options) {
+        Uid result = null;
+
+        if (connInstance.getCapabilities().contains(ConnectorCapability.AUTHENTICATE)) {
+            GuardedString guardedPassword = new GuardedString(password.toCharArray());
+            result = execute(
+                    () -> asyncFacade.authenticate(connector, username, guardedPassword, options),
+                    () -> connector.authenticate(ObjectClass.ACCOUNT, username, guardedPassword, options));
         } else {
             LOG.info("Authenticate was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -167,20 +205,9 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.CREATE)) {
             propagationAttempted.set(true);
 
-            Future<Uid> future = asyncFacade.create(connector, objectClass, attrs, options);
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new RuntimeException(e.getCause());
-                }
-            }
+            result = execute(
+                    () -> asyncFacade.create(connector, objectClass, attrs, options),
+                    () -> connector.create(objectClass, attrs, options));
         } else {
             LOG.info("Create was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
@@ -202,21 +229,46 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.UPDATE)) {
             propagationAttempted.set(true);
 
-            Future<Uid> future = asyncFacade.update(connector, objectClass, uid, attrs, options);
+            result = execute(
+                    () -> asyncFacade.update(connector, objectClass, uid, attrs, options),
+                    () -> connector.update(objectClass, uid, attrs, options));
+        } else {
+            LOG.info("Update for {} was attempted, although the "
+                    + "connector only has these capabilities: {}. No action.",
+                    uid.getUidValue(), connInstance.getCapabilities());
+        }
 
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new RuntimeException(e.getCause());
-                }
-            }
+        return result;
+    }
+
+    @Override
+    public boolean isUpdateDeltaSupported() {
+        return connector.getSupportedOperations().contains(UpdateDeltaApiOp.class);
+    }
+
+    @Override
+    public Uid updateDelta(
+            final ObjectClass objectClass,
+            final Uid uid,
+            final Set<AttributeDelta> modifications,
+            final OperationOptions options,
+            final AtomicReference<Boolean> propagationAttempted) {
+
+        Uid result = null;
+
+        if (connInstance.getCapabilities().contains(ConnectorCapability.UPDATE)) {
+            propagationAttempted.set(true);
+
+            Set<AttributeDelta> sideEffects = execute(
+                    () -> asyncFacade.updateDelta(connector, objectClass, uid, modifications, options),
+                    () -> connector.updateDelta(objectClass, uid, modifications, options));
+
+            // Uid might have been changed as side effect
+            result = sideEffects == null
+                    ? uid
+                    : sideEffects.stream().filter(delta -> delta.is(Uid.NAME)).findFirst().
+                            map(delta -> new Uid(AttributeDeltaUtil.getAsStringValue(delta))).
+                            orElse(uid);
         } else {
             LOG.info("Update for {} was attempted, although the "
                     + "connector only has these capabilities: {}. No action.",
@@ -236,21 +288,12 @@ public class ConnectorFacadeProxy implements Connector {
         if (connInstance.getCapabilities().contains(ConnectorCapability.DELETE)) {
             propagationAttempted.set(true);
 
-            Future<Uid> future = asyncFacade.delete(connector, objectClass, uid, options);
-
-            try {
-                future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new RuntimeException(e.getCause());
-                }
-            }
+            execute(
+                    () -> asyncFacade.delete(connector, objectClass, uid, options),
+                    () -> {
+                        connector.delete(objectClass, uid, options);
+                        return uid;
+                    });
         } else {
             LOG.info("Delete for {} was attempted, although the connector only has these capabilities: {}. No action.",
                     uid.getUidValue(), connInstance.getCapabilities());
@@ -275,21 +318,9 @@ public class ConnectorFacadeProxy implements Connector {
         SyncToken result = null;
 
         if (connInstance.getCapabilities().contains(ConnectorCapability.SYNC)) {
-            Future<SyncToken> future = asyncFacade.getLatestSyncToken(connector, objectClass);
-
-            try {
-                result = future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-            } catch (java.util.concurrent.TimeoutException e) {
-                future.cancel(true);
-                throw new TimeoutException("Request timeout");
-            } catch (Exception e) {
-                LOG.error("Connector request execution failure", e);
-                if (e.getCause() instanceof RuntimeException) {
-                    throw (RuntimeException) e.getCause();
-                } else {
-                    throw new RuntimeException(e.getCause());
-                }
-            }
+            result = execute(
+                    () -> asyncFacade.getLatestSyncToken(connector, objectClass),
+                    () -> connector.getLatestSyncToken(objectClass));
         } else {
             LOG.info("getLatestSyncToken was attempted, although the "
                     + "connector only has these capabilities: {}. No action.", connInstance.getCapabilities());
@@ -321,56 +352,29 @@ public class ConnectorFacadeProxy implements Connector {
 
     @Override
     public Set<ObjectClassInfo> getObjectClassInfo() {
-        Future<Set<ObjectClassInfo>> future = asyncFacade.getObjectClassInfo(connector);
-        try {
-            return future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new RuntimeException(e.getCause());
-            }
-        }
+        return execute(
+                () -> asyncFacade.getObjectClassInfo(connector),
+                () -> AsyncConnectorFacade.readObjectClassInfo(connector));
     }
 
     @Override
     public void validate() {
-        Future<String> future = asyncFacade.test(connector);
-        try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new RuntimeException(e.getCause());
-            }
-        }
+        execute(
+                () -> asyncFacade.test(connector),
+                () -> {
+                    connector.test();
+                    return "OK";
+                });
     }
 
     @Override
     public void test() {
-        Future<String> future = asyncFacade.test(connector);
-        try {
-            future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new RuntimeException(e.getCause());
-            }
-        }
+        execute(
+                () -> asyncFacade.test(connector),
+                () -> {
+                    connector.test();
+                    return "OK";
+                });
     }
 
     @Override
@@ -380,28 +384,15 @@ public class ConnectorFacadeProxy implements Connector {
             final boolean ignoreCaseMatch,
             final OperationOptions options) {
 
-        Future<ConnectorObject> future = null;
-
-        if (connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
-            future = asyncFacade.getObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options);
-        } else {
+        if (!connInstance.getCapabilities().contains(ConnectorCapability.SEARCH)) {
             LOG.info("Search was attempted, although the connector only has these capabilities: {}. No action.",
                     connInstance.getCapabilities());
+            return null;
         }
 
-        try {
-            return future == null ? null : future.get(connInstance.getConnRequestTimeout(), TimeUnit.SECONDS);
-        } catch (java.util.concurrent.TimeoutException e) {
-            future.cancel(true);
-            throw new TimeoutException("Request timeout");
-        } catch (Exception e) {
-            LOG.error("Connector request execution failure", e);
-            if (e.getCause() instanceof RuntimeException) {
-                throw (RuntimeException) e.getCause();
-            } else {
-                throw new RuntimeException(e.getCause());
-            }
-        }
+        return execute(
+                () -> asyncFacade.getObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options),
+                () -> AsyncConnectorFacade.findObject(connector, objectClass, connObjectKey, ignoreCaseMatch, options));
     }
 
     @Override
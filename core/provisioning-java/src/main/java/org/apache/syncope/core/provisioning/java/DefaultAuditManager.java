@@ -18,26 +18,35 @@
  */
 package org.apache.syncope.core.provisioning.java;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
-import org.apache.commons.lang3.SerializationUtils;
 import org.apache.syncope.common.lib.log.AuditEntry;
-import org.apache.syncope.common.lib.request.UserCR;
-import org.apache.syncope.common.lib.request.UserUR;
-import org.apache.syncope.common.lib.to.UserTO;
+import org.apache.syncope.common.lib.request.AnyUR;
+import org.apache.syncope.common.lib.to.EntityTO;
+import org.apache.syncope.common.lib.to.PropagationTaskTO;
+import org.apache.syncope.common.lib.to.ProvisioningReport;
+import org.apache.syncope.common.lib.to.ProvisioningResult;
 import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
-import org.apache.syncope.common.lib.types.LoggerLevel;
 import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
 import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
 import org.apache.syncope.core.provisioning.api.utils.ExceptionUtils2;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.apache.syncope.core.spring.security.SecureRandomUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -45,39 +54,48 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional(readOnly = true)
 public class DefaultAuditManager implements AuditManager {
 
-    private static final String MASKED_VALUE = "<MASKED>";
-
-    private static Object maskSensitive(final Object object) {
-        Object masked;
-
-        if (object instanceof UserTO) {
-            masked = SerializationUtils.clone((UserTO) object);
-            if (((UserTO) masked).getPassword() != null) {
-                ((UserTO) masked).setPassword(MASKED_VALUE);
-            }
-            if (((UserTO) masked).getSecurityAnswer() != null) {
-                ((UserTO) masked).setSecurityAnswer(MASKED_VALUE);
-            }
-        } else if (object instanceof UserCR) {
-            masked = SerializationUtils.clone((UserCR) object);
-            if (((UserCR) masked).getPassword() != null) {
-                ((UserCR) masked).setPassword(MASKED_VALUE);
-            }
-            if (((UserCR) masked).getSecurityAnswer() != null) {
-                ((UserCR) masked).setSecurityAnswer(MASKED_VALUE);
-            }
-        } else if (object instanceof UserUR && ((UserUR) object).getPassword() != null) {
-            masked = SerializationUtils.clone((UserUR) object);
-            ((UserUR) masked).getPassword().setValue(MASKED_VALUE);
-        } else {
-            masked = object;
+    /**
+     * Finds the key of the entity affected by the audited event: the first key found among input objects, output
+     * and before object, otherwise the first string provided as input.
+     *
+     * @param before object available before the event
+     * @param output object produced by the event
+     * @param input objects provided to the event
+     * @return entity key, or null if not found
+     */
+    protected static String getEntityKey(final Object before, final Object output, final Object... input) {
+        List<Object> candidates = new ArrayList<>();
+        if (input != null) {
+            candidates.addAll(Arrays.asList(input));
         }
-
-        return masked;
+        candidates.add(output);
+        candidates.add(before);
+
+        return candidates.stream().map(candidate -> {
+            String key = null;
+            if (candidate instanceof PropagationTaskTO) {
+                key = ((PropagationTaskTO) candidate).getEntityKey();
+            } else if (candidate instanceof ProvisioningResult) {
+                key = Optional.ofNullable(((ProvisioningResult<?>) candidate).getEntity()).
+                        map(EntityTO::getKey).orElse(null);
+            } else if (candidate instanceof ProvisioningReport) {
+                key = ((ProvisioningReport) candidate).getKey();
+            } else if (candidate instanceof EntityTO) {
+                key = ((EntityTO) candidate).getKey();
+            } else if (candidate instanceof AnyUR) {
+                key = ((AnyUR) candidate).getKey();
+            } else if (candidate instanceof Entity) {
+                key = ((Entity) candidate).getKey();
+            }
+            return key;
+        }).filter(Objects::nonNull).findFirst().orElseGet(() -> input == null
+                ? null
+                : Arrays.stream(input).filter(String.class::isInstance).map(String.class::cast).
+                        findFirst().orElse(null));
     }
 
     @Autowired
-    private LoggerDAO loggerDAO;
+    private EventRoutingTable eventRoutingTable;
 
     @Override
     public boolean auditRequested(
@@ -87,25 +105,7 @@ public class DefaultAuditManager implements AuditManager {
             final String subcategory,
             final String event) {
 
-        AuditEntry auditEntry = new AuditEntry();
-        auditEntry.setWho(who);
-        auditEntry.setLogger(new AuditLoggerName(type, category, subcategory, event, Result.SUCCESS));
-        auditEntry.setDate(new Date());
-
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        boolean auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        if (auditRequested) {
-            return true;
-        }
-
-        auditEntry.setLogger(new AuditLoggerName(type, category, subcategory, event, Result.FAILURE));
-
-        syncopeLogger = loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        auditRequested = syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG;
-
-        return auditRequested;
+        return eventRoutingTable.isAudited(type, category, subcategory, event);
     }
 
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
@@ -142,37 +142,51 @@ public class DefaultAuditManager implements AuditManager {
         }
 
         AuditEntry auditEntry = new AuditEntry();
+        auditEntry.setKey(SecureRandomUtils.generateRandomUUID().toString());
         auditEntry.setWho(who);
         auditEntry.setLogger(new AuditLoggerName(type, category, subcategory, event, condition));
         auditEntry.setDate(new Date());
-        auditEntry.setBefore(POJOHelper.serialize((maskSensitive(before))));
+        auditEntry.setBefore(POJOHelper.serializeMasked(before));
         if (throwable == null) {
-            auditEntry.setOutput(POJOHelper.serialize((maskSensitive(output))));
+            auditEntry.setOutput(POJOHelper.serializeMasked(output));
         } else {
             auditEntry.setOutput(throwable.getMessage());
             auditEntry.setThrowable(ExceptionUtils2.getFullStackTrace(throwable));
         }
         if (input != null) {
             auditEntry.getInputs().addAll(Arrays.stream(input).
-                    map(DefaultAuditManager::maskSensitive).map(POJOHelper::serialize).
+                    map(POJOHelper::serializeMasked).
                     collect(Collectors.toList()));
         }
 
-        org.apache.syncope.core.persistence.api.entity.Logger syncopeLogger =
-                loggerDAO.find(auditEntry.getLogger().toLoggerName());
-        if (syncopeLogger != null && syncopeLogger.getLevel() == LoggerLevel.DEBUG) {
+        if (eventRoutingTable.isAudited(type, category, subcategory, event, auditEntry.getLogger().getResult())) {
             Logger logger = LoggerFactory.getLogger(
                     AuditLoggerName.getAuditLoggerName(AuthContextUtils.getDomain()));
-            Logger eventLogger = LoggerFactory.getLogger(
-                    AuditLoggerName.getAuditEventLoggerName(AuthContextUtils.getDomain(), syncopeLogger.getKey()));
+            Logger eventLogger = LoggerFactory.getLogger(AuditLoggerName.getAuditEventLoggerName(
+                    AuthContextUtils.getDomain(), auditEntry.getLogger().toLoggerName()));
             String serializedAuditEntry = POJOHelper.serialize(auditEntry);
 
-            if (throwable == null) {
-                logger.debug(serializedAuditEntry);
-                eventLogger.debug(serializedAuditEntry);
-            } else {
-                logger.debug(serializedAuditEntry, throwable);
-                eventLogger.debug(serializedAuditEntry, throwable);
+            Map<String, String> context = new HashMap<>();
+            context.put(LoggerDAO.AUDIT_ID_COLUMN, auditEntry.getKey());
+            context.put(LoggerDAO.AUDIT_WHO_COLUMN, who);
+            context.put(LoggerDAO.AUDIT_TYPE_COLUMN, auditEntry.getLogger().getType().name());
+            context.put(LoggerDAO.AUDIT_CATEGORY_COLUMN, category);
+            context.put(LoggerDAO.AUDIT_SUBCATEGORY_COLUMN, subcategory);
+            context.put(LoggerDAO.AUDIT_EVENT_COLUMN, event);
+            context.put(LoggerDAO.AUDIT_RESULT_COLUMN, auditEntry.getLogger().getResult().name());
+            context.put(LoggerDAO.AUDIT_ENTITY_KEY_COLUMN, getEntityKey(before, output, input));
+            context.values().removeIf(Objects::isNull);
+            context.forEach(MDC::put);
+            try {
+                if (throwable == null) {
+                    logger.debug(serializedAuditEntry);
+                    eventLogger.debug(serializedAuditEntry);
+                } else {
+                    logger.debug(serializedAuditEntry, throwable);
+                    eventLogger.debug(serializedAuditEntry, throwable);
+                }
+            } finally {
+                context.keySet().forEach(MDC::remove);
             }
         }
     }
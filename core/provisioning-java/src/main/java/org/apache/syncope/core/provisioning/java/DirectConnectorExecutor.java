@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Executes connector requests in the calling thread, rather than handing them over to {@link AsyncConnectorFacade}:
+ * the request timeout is enforced by a single watchdog thread, interrupting the calling thread once the deadline
+ * expires.
+ * Unlike with {@link AsyncConnectorFacade}, the calling thread is only released if the connector bundle responds to
+ * interruption: hence this mode is not enabled by default.
+ */
+@Component
+public class DirectConnectorExecutor implements InitializingBean, DisposableBean {
+
+    private static final class Deadline {
+
+        private final Thread caller;
+
+        private boolean done;
+
+        private boolean expired;
+
+        private boolean raised;
+
+        Deadline(final Thread caller) {
+            this.caller = caller;
+        }
+
+        synchronized void expire() {
+            if (!done) {
+                expired = true;
+                // an interruption already pending, as requested by Quartz, is left to the caller
+                raised = !caller.isInterrupted();
+                if (raised) {
+                    caller.interrupt();
+                }
+            }
+        }
+
+        /**
+         * Marks the request as completed, clearing the interruption caused by expiration, if any; any other
+         * interruption still pending is preserved.
+         *
+         * @return whether the deadline expired
+         */
+        synchronized boolean complete() {
+            done = true;
+            if (raised) {
+                Thread.interrupted();
+                raised = false;
+            }
+            return expired;
+        }
+    }
+
+    @Value("${provisioning.connector.directExecution:false}")
+    private boolean enabled;
+
+    private ScheduledExecutorService watchdog;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (enabled) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ConnectorRequestWatchdog-");
+            threadFactory.setDaemon(true);
+            watchdog = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Executes the given connector request in the calling thread.
+     *
+     * @param <T> result type
+     * @param request connector request
+     * @param timeout request timeout, in seconds
+     * @return request result
+     * @throws TimeoutException if the request failed after timeout expiration
+     * @throws Exception if the request failed
+     */
+    public <T> T execute(final Callable<T> request, final long timeout) throws Exception {
+        Deadline deadline = new Deadline(Thread.currentThread());
+        ScheduledFuture<?> watch = watchdog.schedule(deadline::expire, timeout, TimeUnit.SECONDS);
+
+        T result;
+        try {
+            result = request.call();
+        } catch (Exception e) {
+            if (deadline.complete()) {
+                throw new TimeoutException("Request timeout");
+            }
+            throw e;
+        } finally {
+            watch.cancel(false);
+        }
+
+        // the request completed anyway: do not leave the calling thread interrupted
+        deadline.complete();
+        return result;
+    }
+
+    @Override
+    public void destroy() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+    }
+}
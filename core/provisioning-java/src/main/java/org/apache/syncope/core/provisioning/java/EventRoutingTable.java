@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.log.EventCategory;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.common.lib.types.AuditElements.EventCategoryType;
+import org.apache.syncope.common.lib.types.AuditElements.Result;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.common.lib.types.LoggerLevel;
+import org.apache.syncope.common.lib.types.LoggerType;
+import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
+import org.apache.syncope.core.persistence.api.entity.Logger;
+import org.apache.syncope.core.persistence.api.entity.Notification;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Tells, for each domain, which events are to be notified and / or audited, according to the active notifications
+ * and to the audit loggers set to {@link LoggerLevel#DEBUG}.
+ * The routing table of each domain is built upon first lookup and then kept until any notification or audit logger
+ * is changed in that domain, once the related transaction is completed; since changes might also be made by other
+ * nodes of clustered deployments, the routing table is anyway rebuilt when older than {@code eventRouting.maxAge}
+ * seconds (60 by default; set to zero or less to only rebuild upon local changes).
+ */
+@Component
+public class EventRoutingTable {
+
+    private static final org.slf4j.Logger LOG = LoggerFactory.getLogger(EventRoutingTable.class);
+
+    private static final int NOTIFY = 1;
+
+    private static final int AUDIT = 2;
+
+    private static int audit(final Result result) {
+        return AUDIT << (1 + result.ordinal());
+    }
+
+    private static final class Routes {
+
+        private final Map<EventCategoryType, Map<String, Map<String, Map<String, Integer>>>> flags =
+                new EnumMap<>(EventCategoryType.class);
+
+        private final long built = System.currentTimeMillis();
+
+        private void add(final String event, final int flag) {
+            Pair<EventCategory, Result> parsed;
+            try {
+                parsed = AuditLoggerName.parseEventCategory(event);
+            } catch (RuntimeException e) {
+                LOG.debug("Ignoring invalid event {}", event, e);
+                return;
+            }
+            if (parsed.getRight() == null) {
+                return;
+            }
+
+            EventCategory category = parsed.getLeft();
+            String name = category.getEvents().isEmpty() ? null : category.getEvents().get(0);
+            // only consider events which can be matched by the same string built at runtime
+            if (!event.equals(AuditLoggerName.buildEvent(
+                    category.getType(), category.getCategory(), category.getSubcategory(), name, parsed.getRight()))) {
+
+                LOG.debug("Ignoring event {}", event);
+                return;
+            }
+
+            // audit flags are also kept for each result
+            int routed = flag == AUDIT ? AUDIT | audit(parsed.getRight()) : flag;
+            flags.computeIfAbsent(category.getType(), k -> new HashMap<>()).
+                    computeIfAbsent(normalize(category.getCategory()), k -> new HashMap<>()).
+                    computeIfAbsent(normalize(category.getSubcategory()), k -> new HashMap<>()).
+                    merge(normalize(name), routed, (f1, f2) -> f1 | f2);
+        }
+
+        private int get(
+                final EventCategoryType type,
+                final String category,
+                final String subcategory,
+                final String event) {
+
+            Map<String, Map<String, Map<String, Integer>>> byCategory = type == null ? null : flags.get(type);
+            if (byCategory == null) {
+                return 0;
+            }
+            Map<String, Map<String, Integer>> bySubcategory = byCategory.get(normalize(category));
+            if (bySubcategory == null) {
+                return 0;
+            }
+            Map<String, Integer> byEvent = bySubcategory.get(normalize(subcategory));
+            if (byEvent == null) {
+                return 0;
+            }
+            Integer flag = byEvent.get(normalize(event));
+            return flag == null ? 0 : flag;
+        }
+    }
+
+    private static String normalize(final String value) {
+        return StringUtils.isBlank(value) ? StringUtils.EMPTY : value;
+    }
+
+    @Value("${eventRouting.maxAge:60}")
+    private long maxAge = 60;
+
+    @Autowired
+    private NotificationDAO notificationDAO;
+
+    @Autowired
+    private LoggerDAO loggerDAO;
+
+    private final Map<String, Routes> routes = new ConcurrentHashMap<>();
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private Routes build() {
+        Routes built = new Routes();
+
+        notificationDAO.findAll().stream().filter(Notification::isActive).
+                forEach(notification -> notification.getEvents().forEach(event -> built.add(event, NOTIFY)));
+
+        String prefix = LoggerType.AUDIT.getPrefix() + '.';
+        loggerDAO.findAll(LoggerType.AUDIT).stream().
+                filter(logger -> logger.getLevel() == LoggerLevel.DEBUG && logger.getKey().startsWith(prefix)).
+                forEach(logger -> built.add(logger.getKey().substring(prefix.length()), AUDIT));
+
+        return built;
+    }
+
+    private int get(
+            final EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final String event) {
+
+        String domain = AuthContextUtils.getDomain();
+
+        Routes current = routes.get(domain);
+        if (current == null || (maxAge > 0 && System.currentTimeMillis() - current.built > maxAge * 1000)) {
+            long gen = generation.get();
+            current = build();
+            // do not keep what was built while changes were being made
+            if (generation.get() == gen) {
+                routes.put(domain, current);
+            }
+        }
+
+        return current.get(type, category, subcategory, event);
+    }
+
+    public boolean isNotified(
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final String event) {
+
+        return (get(type, category, subcategory, event) & NOTIFY) != 0;
+    }
+
+    public boolean isAudited(
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final String event) {
+
+        return (get(
+                Optional.ofNullable(type).orElse(EventCategoryType.CUSTOM), category, subcategory, event) & AUDIT) != 0;
+    }
+
+    /**
+     * Tells whether the given event is audited for the given result, i.e. if the matching audit logger is set to
+     * {@link LoggerLevel#DEBUG}.
+     *
+     * @param type event category type
+     * @param category event category
+     * @param subcategory event subcategory
+     * @param event event
+     * @param result event result
+     * @return whether the given event is audited for the given result
+     */
+    public boolean isAudited(
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final String event,
+            final Result result) {
+
+        return (get(Optional.ofNullable(type).orElse(EventCategoryType.CUSTOM), category, subcategory, event)
+                & audit(result)) != 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final EntityChangedEvent event) {
+        if (Notification.class.equals(event.getReference()) || Logger.class.equals(event.getReference())) {
+            generation.incrementAndGet();
+            routes.remove(event.getDomain());
+        }
+    }
+}
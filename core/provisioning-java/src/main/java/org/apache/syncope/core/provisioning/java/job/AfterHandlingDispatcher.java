@@ -0,0 +1,235 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.core.provisioning.api.AuditManager;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
+import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.quartz.SchedulerException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Asynchronous handling of notification / audit events, in-process: events are put on a bounded queue, drained in
+ * batches by a fixed set of worker threads, creating the notification tasks of each batch together; as with
+ * {@link AfterHandlingJob}, events are handled outside the transaction where they were generated.
+ * When durability is requested via {@code afterHandling.durable} - in which case no worker thread is started, or when
+ * the queue stays full for too long, events are scheduled instead via {@link AfterHandlingJob}, hence persisted by the
+ * Quartz job store until handled; events still queued on shutdown are scheduled as well. Should the Quartz scheduler be
+ * no longer available, events are handled in the calling thread.
+ */
+@Component
+public class AfterHandlingDispatcher implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AfterHandlingDispatcher.class);
+
+    @Value("${afterHandling.durable:false}")
+    private boolean durable;
+
+    @Value("${afterHandling.workers:2}")
+    private int workers;
+
+    @Value("${afterHandling.queueCapacity:10000}")
+    private int queueCapacity;
+
+    @Value("${afterHandling.batchSize:100}")
+    private int batchSize;
+
+    @Value("${afterHandling.offerTimeout:1000}")
+    private long offerTimeout;
+
+    @Autowired
+    private NotificationManager notificationManager;
+
+    @Autowired
+    private AuditManager auditManager;
+
+    @Autowired
+    private SchedulerFactoryBean scheduler;
+
+    private BlockingQueue<Pair<String, AfterHandlingEvent>> queue;
+
+    private ExecutorService executor;
+
+    private volatile boolean running;
+
+    @Override
+    public void afterPropertiesSet() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        if (durable) {
+            return;
+        }
+
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("AfterHandling-"));
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+    }
+
+    /**
+     * Queues the given event for asynchronous handling, in the current domain.
+     *
+     * @param event notification / audit event
+     */
+    public void dispatch(final AfterHandlingEvent event) {
+        if (running) {
+            try {
+                if (queue.offer(Pair.of(AuthContextUtils.getDomain(), event), offerTimeout, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+                LOG.warn("Queue full, scheduling {}", event);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        schedule(AuthContextUtils.getDomain(), event);
+    }
+
+    /**
+     * Schedules the given event via {@link AfterHandlingJob} or, if the Quartz scheduler is shut down, handles it in
+     * the calling thread.
+     *
+     * @param domain domain
+     * @param event notification / audit event
+     */
+    protected void schedule(final String domain, final AfterHandlingEvent event) {
+        boolean shutdown;
+        try {
+            shutdown = scheduler.getScheduler().isShutdown();
+        } catch (SchedulerException e) {
+            LOG.error("Could not check scheduler status", e);
+            shutdown = true;
+        }
+
+        if (shutdown) {
+            LOG.warn("Scheduler is shut down, handling {} in the calling thread", event);
+            handle(List.of(Pair.of(domain, event)));
+        } else {
+            AuthContextUtils.callAsAdmin(domain, () -> {
+                Map<String, Object> jobMap = new HashMap<>();
+                jobMap.put(AfterHandlingEvent.JOBMAP_KEY, event);
+                AfterHandlingJob.schedule(scheduler, jobMap);
+                return null;
+            });
+        }
+    }
+
+    private void work() {
+        List<Pair<String, AfterHandlingEvent>> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Pair<String, AfterHandlingEvent> first = queue.poll(1, TimeUnit.SECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+
+                    handle(batch);
+                    batch.clear();
+                }
+            } catch (RuntimeException e) {
+                LOG.error("While handling notification / audit events {}", batch, e);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void handle(final List<Pair<String, AfterHandlingEvent>> batch) {
+        Map<String, List<AfterHandlingEvent>> byDomain = new LinkedHashMap<>();
+        batch.forEach(item -> byDomain.computeIfAbsent(item.getLeft(), k -> new ArrayList<>()).add(item.getRight()));
+
+        byDomain.forEach((domain, events) -> AuthContextUtils.callAsAdmin(domain, () -> {
+            try {
+                notificationManager.createTasks(events);
+            } catch (RuntimeException e) {
+                LOG.error("While creating notification tasks for {} events, trying one by one", events.size(), e);
+
+                events.forEach(event -> {
+                    try {
+                        notificationManager.createTasks(event);
+                    } catch (RuntimeException re) {
+                        LOG.error("While handling notification event {}", event, re);
+                    }
+                });
+            }
+
+            events.forEach(event -> {
+                try {
+                    auditManager.audit(event);
+                } catch (RuntimeException e) {
+                    LOG.error("While handling audit event {}", event, e);
+                }
+            });
+            return null;
+        }));
+    }
+
+    private void scheduleQueued() {
+        List<Pair<String, AfterHandlingEvent>> queued = new ArrayList<>();
+        queue.drainTo(queued);
+        if (!queued.isEmpty()) {
+            LOG.info("Scheduling {} notification / audit events still queued", queued.size());
+            queued.forEach(item -> schedule(item.getLeft(), item.getRight()));
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+
+        running = false;
+        executor.shutdown();
+
+        // workers complete the batches being handled, anything else still queued is scheduled...
+        scheduleQueued();
+
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            LOG.warn("Notification / audit events being handled were not completed");
+            executor.shutdownNow();
+        }
+
+        // ...including events queued meanwhile by dispatch() invocations already underway
+        scheduleQueued();
+    }
+}
@@ -44,6 +44,8 @@ import org.springframework.scheduling.quartz.SchedulerFactoryBean;
  * Quartz job for asynchronous handling of notification / audit events.
  * Instead of direct synchronous invocation - which occurs in the same transaction where the event is generated, the
  * execution of the scheduled code happens in a new transaction.
+ * Events are generally handled via {@link AfterHandlingDispatcher}, which only resorts to this job when durability is
+ * required.
  */
 public class AfterHandlingJob extends AbstractInterruptableJob {
 
@@ -93,6 +95,9 @@ public class AfterHandlingJob extends AbstractInterruptableJob {
                     });
         } catch (RuntimeException e) {
             throw new JobExecutionException("While handling notification / audit events", e);
+        } finally {
+            // this job instance was registered as singleton by schedule(), and will not run again
+            ApplicationContextProvider.getBeanFactory().destroySingleton(context.getJobDetail().getKey().getName());
         }
     }
 }
@@ -19,15 +19,23 @@
 package org.apache.syncope.core.provisioning.java.job.notification;
 
 import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.mail.Session;
 import javax.mail.internet.MimeMessage;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.LogOutputStream;
 import org.apache.syncope.common.lib.PropertyUtils;
 import org.apache.syncope.common.lib.types.AuditElements;
@@ -48,6 +56,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -74,6 +84,9 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
     @Autowired
     private NotificationManager notificationManager;
 
+    @Value("${notificationJob.batchSize:100}")
+    private int batchSize = 100;
+
     private final AtomicReference<String> status = new AtomicReference<>();
 
     private boolean interrupt;
@@ -128,124 +141,173 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
     @Transactional
     @Override
     public TaskExec executeSingle(final NotificationTask task, final String executor) {
-        TaskExec execution = entityFactory.newEntity(TaskExec.class);
-        execution.setTask(task);
-        execution.setStart(new Date());
-        execution.setExecutor(executor);
-        boolean retryPossible = true;
-
-        if (StringUtils.isBlank(task.getSubject()) || task.getRecipients().isEmpty()
-                || StringUtils.isBlank(task.getHtmlBody()) || StringUtils.isBlank(task.getTextBody())) {
-
-            String message = "Could not fetch all required information for sending e-mails:\n"
-                    + task.getRecipients() + '\n'
-                    + task.getSender() + '\n'
-                    + task.getSubject() + '\n'
-                    + task.getHtmlBody() + '\n'
-                    + task.getTextBody();
-            LOG.error(message);
-
-            execution.setStatus(NotificationJob.Status.NOT_SENT.name());
-            retryPossible = false;
-
-            if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
-                execution.setMessage(message);
-            }
-        } else {
-            if (LOG.isDebugEnabled()) {
-                LOG.debug("About to send e-mails:\n"
+        return executeBatch(List.of(task), executor).get(0);
+    }
+
+    /**
+     * Sends out the e-mails for all the given tasks via the same SMTP connection, then registers the outcome of
+     * each task.
+     *
+     * @param tasks notification tasks
+     * @param executor executor
+     * @return task executions, in the same order of the given tasks
+     */
+    protected List<TaskExec> executeBatch(final List<NotificationTask> tasks, final String executor) {
+        Map<NotificationTask, TaskExec> executions = new LinkedHashMap<>();
+        Set<NotificationTask> retryPossible = new HashSet<>();
+        List<Triple<NotificationTask, String, MimeMessage>> messages = new ArrayList<>();
+        Map<MimeMessage, Exception> failed = new HashMap<>();
+
+        tasks.forEach(task -> {
+            TaskExec execution = entityFactory.newEntity(TaskExec.class);
+            execution.setTask(task);
+            execution.setStart(new Date());
+            execution.setExecutor(executor);
+            executions.put(task, execution);
+
+            if (StringUtils.isBlank(task.getSubject()) || task.getRecipients().isEmpty()
+                    || StringUtils.isBlank(task.getHtmlBody()) || StringUtils.isBlank(task.getTextBody())) {
+
+                String message = "Could not fetch all required information for sending e-mails:\n"
                         + task.getRecipients() + '\n'
                         + task.getSender() + '\n'
                         + task.getSubject() + '\n'
                         + task.getHtmlBody() + '\n'
-                        + task.getTextBody() + '\n');
-            }
+                        + task.getTextBody();
+                LOG.error(message);
 
-            status.set("Sending notifications to " + task.getRecipients());
+                execution.setStatus(NotificationJob.Status.NOT_SENT.name());
 
-            for (String to : task.getRecipients()) {
-                try {
+                if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
+                    execution.setMessage(message);
+                }
+            } else {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("About to send e-mails:\n"
+                            + task.getRecipients() + '\n'
+                            + task.getSender() + '\n'
+                            + task.getSubject() + '\n'
+                            + task.getHtmlBody() + '\n'
+                            + task.getTextBody() + '\n');
+                }
+
+                retryPossible.add(task);
+
+                for (String to : task.getRecipients()) {
                     MimeMessage message = mailSender.createMimeMessage();
-                    MimeMessageHelper helper = new MimeMessageHelper(message, true);
-                    helper.setTo(to);
-                    helper.setFrom(task.getSender());
-                    helper.setSubject(task.getSubject());
-                    helper.setText(task.getTextBody(), task.getHtmlBody());
-
-                    mailSender.send(message);
-
-                    execution.setStatus(NotificationJob.Status.SENT.name());
-
-                    StringBuilder report = new StringBuilder();
-                    switch (task.getTraceLevel()) {
-                        case ALL:
-                            report.append("FROM: ").append(task.getSender()).append('\n').
-                                    append("TO: ").append(to).append('\n').
-                                    append("SUBJECT: ").append(task.getSubject()).append('\n').append('\n').
-                                    append(task.getTextBody()).append('\n').append('\n').
-                                    append(task.getHtmlBody()).append('\n');
-                            break;
-
-                        case SUMMARY:
-                            report.append("E-mail sent to ").append(to).append('\n');
-                            break;
-
-                        case FAILURES:
-                        case NONE:
-                        default:
-                    }
-                    if (report.length() > 0) {
-                        execution.setMessage(report.toString());
+                    try {
+                        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+                        helper.setTo(to);
+                        helper.setFrom(task.getSender());
+                        helper.setSubject(task.getSubject());
+                        helper.setText(task.getTextBody(), task.getHtmlBody());
+                    } catch (Exception e) {
+                        failed.put(message, e);
                     }
+                    messages.add(Triple.of(task, to, message));
+                }
+            }
+        });
+
+        List<MimeMessage> toSend = messages.stream().map(Triple::getRight).
+                filter(message -> !failed.containsKey(message)).collect(Collectors.toList());
+        if (!toSend.isEmpty()) {
+            status.set("Sending " + toSend.size() + " notification e-mails");
+
+            // messages sent all together share the same connection to the SMTP server
+            try {
+                mailSender.send(toSend.toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                e.getFailedMessages().forEach((message, ex) -> failed.put((MimeMessage) message, ex));
+                if (e.getFailedMessages().isEmpty()) {
+                    toSend.forEach(message -> failed.put(message, e));
+                }
+            } catch (Exception e) {
+                toSend.forEach(message -> failed.put(message, e));
+            }
+        }
 
-                    notificationManager.createTasks(
-                            AuthContextUtils.getUsername(),
-                            AuditElements.EventCategoryType.TASK,
-                            "notification",
-                            null,
-                            "send",
-                            AuditElements.Result.SUCCESS,
-                            null,
-                            null,
-                            task,
-                            "Successfully sent notification to " + to);
-                } catch (Exception e) {
-                    LOG.error("Could not send e-mail", e);
-
-                    execution.setStatus(NotificationJob.Status.NOT_SENT.name());
-                    if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
-                        execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
-                    }
+        messages.forEach(message -> {
+            NotificationTask task = message.getLeft();
+            String to = message.getMiddle();
+            TaskExec execution = executions.get(task);
+
+            Exception e = failed.get(message.getRight());
+            if (e == null) {
+                execution.setStatus(NotificationJob.Status.SENT.name());
+
+                StringBuilder report = new StringBuilder();
+                switch (task.getTraceLevel()) {
+                    case ALL:
+                        report.append("FROM: ").append(task.getSender()).append('\n').
+                                append("TO: ").append(to).append('\n').
+                                append("SUBJECT: ").append(task.getSubject()).append('\n').append('\n').
+                                append(task.getTextBody()).append('\n').append('\n').
+                                append(task.getHtmlBody()).append('\n');
+                        break;
+
+                    case SUMMARY:
+                        report.append("E-mail sent to ").append(to).append('\n');
+                        break;
+
+                    case FAILURES:
+                    case NONE:
+                    default:
+                }
+                if (report.length() > 0) {
+                    execution.setMessage(report.toString());
+                }
 
-                    notificationManager.createTasks(
-                            AuthContextUtils.getUsername(),
-                            AuditElements.EventCategoryType.TASK,
-                            "notification",
-                            null,
-                            "send",
-                            AuditElements.Result.FAILURE,
-                            null,
-                            null,
-                            task,
-                            "Could not send notification to " + to, e);
+                notificationManager.createTasks(
+                        AuthContextUtils.getUsername(),
+                        AuditElements.EventCategoryType.TASK,
+                        "notification",
+                        null,
+                        "send",
+                        AuditElements.Result.SUCCESS,
+                        null,
+                        null,
+                        task,
+                        "Successfully sent notification to " + to);
+            } else {
+                LOG.error("Could not send e-mail", e);
+
+                execution.setStatus(NotificationJob.Status.NOT_SENT.name());
+                if (task.getTraceLevel().ordinal() >= TraceLevel.FAILURES.ordinal()) {
+                    execution.setMessage(ExceptionUtils2.getFullStackTrace(e));
                 }
 
-                execution.setEnd(new Date());
+                notificationManager.createTasks(
+                        AuthContextUtils.getUsername(),
+                        AuditElements.EventCategoryType.TASK,
+                        "notification",
+                        null,
+                        "send",
+                        AuditElements.Result.FAILURE,
+                        null,
+                        null,
+                        task,
+                        "Could not send notification to " + to, e);
             }
-        }
 
-        if (hasToBeRegistered(execution)) {
-            execution = notificationManager.storeExec(execution);
-            if (retryPossible
-                    && (NotificationJob.Status.valueOf(execution.getStatus()) == NotificationJob.Status.NOT_SENT)) {
+            execution.setEnd(new Date());
+        });
 
-                handleRetries(execution);
-            }
-        } else {
-            notificationManager.setTaskExecuted(execution.getTask().getKey(), true);
-        }
+        return executions.entrySet().stream().map(entry -> {
+            TaskExec execution = entry.getValue();
+            if (hasToBeRegistered(execution)) {
+                execution = notificationManager.storeExec(execution);
+                if (retryPossible.contains(entry.getKey())
+                        && (NotificationJob.Status.valueOf(execution.getStatus())
+                        == NotificationJob.Status.NOT_SENT)) {
 
-        return execution;
+                    handleRetries(execution);
+                }
+            } else {
+                notificationManager.setTaskExecuted(execution.getTask().getKey(), true);
+            }
+            return execution;
+        }).collect(Collectors.toList());
     }
 
     @Transactional
@@ -255,17 +317,31 @@ public class DefaultNotificationJobDelegate implements InitializingBean, Notific
 
         status.set("Sending out " + tasks.size() + " notifications");
 
+        List<NotificationTask> batch = new ArrayList<>();
         for (int i = 0; i < tasks.size() && !interrupt; i++) {
-            LOG.debug("Found notification task {} to be executed: starting...", tasks.get(i));
-            executeSingle(tasks.get(i), executor);
-            LOG.debug("Notification task {} executed", tasks.get(i));
+            LOG.debug("Found notification task {} to be executed", tasks.get(i));
+            batch.add(tasks.get(i));
+            if (batch.size() >= batchSize) {
+                sendBatch(batch, executor);
+            }
         }
+        // tasks found before interruption are sent out anyway
+        sendBatch(batch, executor);
         if (interrupt) {
             LOG.debug("Notification job interrupted");
             interrupted = true;
         }
     }
 
+    private void sendBatch(final List<NotificationTask> batch, final String executor) {
+        if (!batch.isEmpty()) {
+            LOG.debug("Sending out {} notification tasks: starting...", batch.size());
+            executeBatch(batch, executor);
+            LOG.debug("{} notification tasks executed", batch.size());
+            batch.clear();
+        }
+    }
+
     private static boolean hasToBeRegistered(final TaskExec execution) {
         NotificationTask task = (NotificationTask) execution.getTask();
 
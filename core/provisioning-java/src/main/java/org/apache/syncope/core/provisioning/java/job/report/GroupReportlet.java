@@ -18,10 +18,13 @@
  */
 package org.apache.syncope.core.provisioning.java.job.report;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.syncope.common.lib.EntityTOUtils;
 import org.apache.syncope.common.lib.SyncopeConstants;
@@ -38,6 +41,7 @@ import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.ReportletConfClass;
+import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.user.UMembership;
 import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.provisioning.api.data.GroupDataBinder;
@@ -306,30 +310,31 @@ public class GroupReportlet extends AbstractReportlet {
 
         doExtractConf(handler);
 
+        SearchCond cond = StringUtils.isBlank(this.conf.getMatchingCond())
+                ? groupDAO.getAllMatchingCond()
+                : SearchCondConverter.convert(searchCondVisitor, this.conf.getMatchingCond());
+
         int total = count();
-        int pages = (total / AnyDAO.DEFAULT_PAGE_SIZE) + 1;
-
-        status.set("Processing " + total + " groups in " + pages + " pages");
-
-        for (int page = 1; page <= pages; page++) {
-            status.set("Processing " + total + " groups: page " + page + " of " + pages);
-
-            List<Group> groups;
-            if (StringUtils.isBlank(this.conf.getMatchingCond())) {
-                groups = groupDAO.findAll(page, AnyDAO.DEFAULT_PAGE_SIZE);
-            } else {
-                groups = searchDAO.search(
-                        SyncopeConstants.FULL_ADMIN_REALMS,
-                        SearchCondConverter.convert(searchCondVisitor, this.conf.getMatchingCond()),
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        AnyTypeKind.USER);
-            }
 
-            doExtract(handler, groups);
+        status.set("Processing " + total + " groups");
+
+        int processed = 0;
+        List<String> chunk = new ArrayList<>();
+        try (Stream<String> keys = searchDAO.streamKeys(
+                SyncopeConstants.FULL_ADMIN_REALMS, cond, AnyTypeKind.GROUP)) {
+
+            for (Iterator<String> itor = keys.iterator(); itor.hasNext();) {
+                chunk.add(itor.next());
 
-            status.set("Processed " + total + " groups: page " + page + " of " + pages);
+                if (chunk.size() == AnyDAO.DEFAULT_PAGE_SIZE || !itor.hasNext()) {
+                    doExtract(handler, groupDAO.findByKeys(chunk));
+
+                    processed += chunk.size();
+                    status.set("Processed " + processed + " of " + total + " groups");
+
+                    chunk.clear();
+                }
+            }
         }
     }
 }
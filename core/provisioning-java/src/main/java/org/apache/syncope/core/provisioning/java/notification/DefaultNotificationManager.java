@@ -27,6 +27,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import org.apache.commons.jexl3.JxltEngine;
 import org.apache.commons.jexl3.MapContext;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
@@ -40,6 +41,7 @@ import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.common.lib.types.AuditElements;
 import org.apache.syncope.common.lib.types.AuditElements.Result;
 import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
 import org.apache.syncope.core.persistence.api.dao.AnyMatchDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
@@ -72,9 +74,9 @@ import org.apache.syncope.core.provisioning.api.data.GroupDataBinder;
 import org.apache.syncope.core.provisioning.api.data.UserDataBinder;
 import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.provisioning.java.EventRoutingTable;
 import org.apache.syncope.core.provisioning.api.notification.RecipientsProvider;
 import org.apache.syncope.core.provisioning.api.IntAttrNameParser;
-import org.apache.syncope.core.provisioning.api.jexl.JexlUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -125,6 +127,12 @@ public class DefaultNotificationManager implements NotificationManager {
     @Autowired
     private AnyMatchDAO anyMatchDAO;
 
+    @Autowired
+    private EventRoutingTable eventRoutingTable;
+
+    @Autowired
+    private MailTemplateCache mailTemplateCache;
+
     /**
      * Task DAO.
      */
@@ -165,48 +173,23 @@ public class DefaultNotificationManager implements NotificationManager {
     }
 
     /**
-     * Create a notification task.
+     * Resolves the recipients of the given notification which do not depend on the event being notified: users
+     * matching the recipients' FIQL, static recipients and recipients provided by the configured provider.
      *
      * @param notification notification to take as model
-     * @param any the any object this task is about
-     * @param jexlVars JEXL variables
-     * @return notification task, fully populated
+     * @return recipient e-mail addresses and users
      */
-    private NotificationTask getNotificationTask(
-            final Notification notification,
-            final Any<?> any,
-            final Map<String, Object> jexlVars) {
-
-        if (any != null) {
-            virAttrHander.getValues(any);
-        }
-
-        List<User> recipients = new ArrayList<>();
+    private Pair<Set<String>, List<UserTO>> resolveRecipients(final Notification notification) {
+        Set<String> recipientEmails = new HashSet<>();
+        List<UserTO> recipientTOs = new ArrayList<>();
 
         if (notification.getRecipientsFIQL() != null) {
-            recipients.addAll(searchDAO.<User>search(
+            searchDAO.<User>search(
                     SearchCondConverter.convert(searchCondVisitor, notification.getRecipientsFIQL()),
-                    List.of(), AnyTypeKind.USER));
-        }
-
-        if (notification.isSelfAsRecipient() && any instanceof User) {
-            recipients.add((User) any);
+                    List.of(), AnyTypeKind.USER).
+                    forEach(recipient -> addRecipient(notification, recipient, recipientEmails, recipientTOs));
         }
 
-        Set<String> recipientEmails = new HashSet<>();
-        List<UserTO> recipientTOs = new ArrayList<>(recipients.size());
-        recipients.forEach(recipient -> {
-            virAttrHander.getValues(recipient);
-
-            String email = getRecipientEmail(notification.getRecipientAttrName(), recipient);
-            if (email == null) {
-                LOG.warn("{} cannot be notified: {} not found", recipient, notification.getRecipientAttrName());
-            } else {
-                recipientEmails.add(email);
-                recipientTOs.add(userDataBinder.getUserTO(recipient, true));
-            }
-        });
-
         if (notification.getStaticRecipients() != null) {
             recipientEmails.addAll(notification.getStaticRecipients());
         }
@@ -221,6 +204,54 @@ public class DefaultNotificationManager implements NotificationManager {
             }
         }
 
+        return Pair.of(recipientEmails, recipientTOs);
+    }
+
+    private void addRecipient(
+            final Notification notification,
+            final User recipient,
+            final Set<String> recipientEmails,
+            final List<UserTO> recipientTOs) {
+
+        virAttrHander.getValues(recipient);
+
+        String email = getRecipientEmail(notification.getRecipientAttrName(), recipient);
+        if (email == null) {
+            LOG.warn("{} cannot be notified: {} not found", recipient, notification.getRecipientAttrName());
+        } else {
+            recipientEmails.add(email);
+            recipientTOs.add(userDataBinder.getUserTO(recipient, true));
+        }
+    }
+
+    /**
+     * Create a notification task.
+     *
+     * @param notification notification to take as model
+     * @param any the any object this task is about
+     * @param jexlVars JEXL variables
+     * @param recipients recipients already resolved for each notification, updated with the given notification's
+     * @return notification task, fully populated
+     */
+    private NotificationTask getNotificationTask(
+            final Notification notification,
+            final Any<?> any,
+            final Map<String, Object> jexlVars,
+            final Map<String, Pair<Set<String>, List<UserTO>>> recipients) {
+
+        if (any != null) {
+            virAttrHander.getValues(any);
+        }
+
+        Pair<Set<String>, List<UserTO>> resolved =
+                recipients.computeIfAbsent(notification.getKey(), k -> resolveRecipients(notification));
+        Set<String> recipientEmails = new HashSet<>(resolved.getLeft());
+        List<UserTO> recipientTOs = new ArrayList<>(resolved.getRight());
+
+        if (notification.isSelfAsRecipient() && any instanceof User) {
+            addRecipient(notification, (User) any, recipientEmails, recipientTOs);
+        }
+
         jexlVars.put("recipients", recipientTOs);
         jexlVars.put("syncopeConf", confParamOps.list(SyncopeConstants.MASTER_DOMAIN));
         jexlVars.put("events", notification.getEvents());
@@ -237,20 +268,20 @@ public class DefaultNotificationManager implements NotificationManager {
         task.setSubject(notification.getSubject());
 
         if (StringUtils.isNotBlank(notification.getTemplate().getTextTemplate())) {
-            task.setTextBody(evaluate(notification.getTemplate().getTextTemplate(), jexlVars));
+            task.setTextBody(evaluate(
+                    mailTemplateCache.get(notification.getTemplate(), MailTemplateFormat.TEXT), jexlVars));
         }
         if (StringUtils.isNotBlank(notification.getTemplate().getHTMLTemplate())) {
-            task.setHtmlBody(evaluate(notification.getTemplate().getHTMLTemplate(), jexlVars));
+            task.setHtmlBody(evaluate(
+                    mailTemplateCache.get(notification.getTemplate(), MailTemplateFormat.HTML), jexlVars));
         }
 
         return task;
     }
 
-    private static String evaluate(final String template, final Map<String, Object> jexlVars) {
+    private static String evaluate(final JxltEngine.Template template, final Map<String, Object> jexlVars) {
         StringWriter writer = new StringWriter();
-        JexlUtils.newJxltEngine().
-                createTemplate(template).
-                evaluate(new MapContext(jexlVars), writer);
+        template.evaluate(new MapContext(jexlVars), writer);
         return writer.toString();
     }
 
@@ -261,12 +292,7 @@ public class DefaultNotificationManager implements NotificationManager {
             final String subcategory,
             final String event) {
 
-        final String successEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.SUCCESS);
-        final String failureEvent = AuditLoggerName.buildEvent(type, category, subcategory, event, Result.FAILURE);
-        return notificationDAO.findAll().stream().
-                anyMatch(notification -> notification.isActive()
-                && (notification.getEvents().contains(successEvent)
-                || notification.getEvents().contains(failureEvent)));
+        return eventRoutingTable.isNotified(type, category, subcategory, event);
     }
 
     @Override
@@ -283,6 +309,25 @@ public class DefaultNotificationManager implements NotificationManager {
                 event.getInput());
     }
 
+    @Override
+    public void createTasks(final List<AfterHandlingEvent> events) {
+        List<Notification> notifications = notificationDAO.findAll();
+        Map<String, Pair<Set<String>, List<UserTO>>> recipients = new HashMap<>();
+
+        events.forEach(event -> createTasks(
+                notifications,
+                recipients,
+                event.getWho(),
+                event.getType(),
+                event.getCategory(),
+                event.getSubcategory(),
+                event.getEvent(),
+                event.getCondition(),
+                event.getBefore(),
+                event.getOutput(),
+                event.getInput()));
+    }
+
     @Override
     public List<NotificationTask> createTasks(
             final String who,
@@ -295,6 +340,34 @@ public class DefaultNotificationManager implements NotificationManager {
             final Object output,
             final Object... input) {
 
+        return createTasks(
+                notificationDAO.findAll(),
+                new HashMap<>(),
+                who,
+                type,
+                category,
+                subcategory,
+                event,
+                condition,
+                before,
+                output,
+                input);
+    }
+
+    @SuppressWarnings("squid:S00107")
+    private List<NotificationTask> createTasks(
+            final List<Notification> notifications,
+            final Map<String, Pair<Set<String>, List<UserTO>>> recipients,
+            final String who,
+            final AuditElements.EventCategoryType type,
+            final String category,
+            final String subcategory,
+            final String event,
+            final Result condition,
+            final Object before,
+            final Object output,
+            final Object... input) {
+
         Any<?> any = null;
 
         if (before instanceof UserTO) {
@@ -330,8 +403,8 @@ public class DefaultNotificationManager implements NotificationManager {
         AnyType anyType = Optional.ofNullable(any).map(Any::getType).orElse(null);
         LOG.debug("Search notification for [{}]{}", anyType, any);
 
-        List<NotificationTask> notifications = new ArrayList<>();
-        for (Notification notification : notificationDAO.findAll()) {
+        List<NotificationTask> tasks = new ArrayList<>();
+        for (Notification notification : notifications) {
             if (LOG.isDebugEnabled()) {
                 notification.getAbouts().forEach(
                         about -> LOG.debug("Notification about {} defined: {}", about.getAnyType(), about.get()));
@@ -367,15 +440,15 @@ public class DefaultNotificationManager implements NotificationManager {
                         model.put("anyObject", anyObjectDataBinder.getAnyObjectTO((AnyObject) any, true));
                     }
 
-                    NotificationTask notificationTask = getNotificationTask(notification, any, model);
+                    NotificationTask notificationTask = getNotificationTask(notification, any, model, recipients);
                     notificationTask = taskDAO.save(notificationTask);
-                    notifications.add(notificationTask);
+                    tasks.add(notificationTask);
                 }
             } else {
                 LOG.debug("Notification {} is not active, task will not be created", notification.getKey());
             }
         }
-        return notifications;
+        return tasks;
     }
 
     private String getRecipientEmail(final String recipientAttrName, final User user) {
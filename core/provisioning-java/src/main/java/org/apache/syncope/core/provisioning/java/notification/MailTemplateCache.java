@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
+import org.apache.syncope.core.persistence.api.entity.MailTemplate;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.apache.syncope.core.provisioning.api.jexl.JexlUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps the parsed JXLT templates of each mail template, so that notification tasks generated from the same mail
+ * template do not need to parse it again.
+ * Each parsed template is kept together with the content it was parsed from, and parsed again as soon as the
+ * mail template's content is found changed; parsed templates are also removed whenever the mail template is updated
+ * or deleted.
+ */
+@Component
+@ManagedResource(description = "Mail template cache")
+public class MailTemplateCache {
+
+    private final Map<Triple<String, String, MailTemplateFormat>, Pair<String, JxltEngine.Template>> templates =
+            new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Returns the parsed template for the given mail template and format, in the current domain.
+     *
+     * @param mailTemplate mail template
+     * @param format mail template format
+     * @return parsed template, or null if the mail template has no content for the given format
+     */
+    public JxltEngine.Template get(final MailTemplate mailTemplate, final MailTemplateFormat format) {
+        String content = format == MailTemplateFormat.HTML
+                ? mailTemplate.getHTMLTemplate()
+                : mailTemplate.getTextTemplate();
+        if (content == null) {
+            return null;
+        }
+
+        Triple<String, String, MailTemplateFormat> key =
+                Triple.of(AuthContextUtils.getDomain(), mailTemplate.getKey(), format);
+
+        Pair<String, JxltEngine.Template> cached = templates.get(key);
+        if (cached != null && cached.getLeft().equals(content)) {
+            hits.incrementAndGet();
+            return cached.getRight();
+        }
+
+        misses.incrementAndGet();
+        JxltEngine.Template template = JexlUtils.newJxltEngine().createTemplate(content);
+        templates.put(key, Pair.of(content, template));
+        return template;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final EntityChangedEvent event) {
+        if (MailTemplate.class.equals(event.getReference())) {
+            templates.keySet().removeIf(key -> key.getLeft().equals(event.getDomain())
+                    && key.getMiddle().equals(event.getKey()));
+        }
+    }
+
+    @ManagedOperation(description = "Removes all parsed templates")
+    public void clear() {
+        templates.clear();
+    }
+
+    @ManagedAttribute(description = "Number of parsed templates")
+    public int getSize() {
+        return templates.size();
+    }
+
+    @ManagedAttribute(description = "Number of lookups finding the parsed template")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of lookups requiring to parse the template")
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.function.Function;
@@ -69,8 +70,11 @@ import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.apache.syncope.core.spring.ImplementationManager;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.identityconnectors.framework.common.exceptions.UnknownUidException;
 import org.identityconnectors.framework.common.objects.Attribute;
 import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.AttributeDelta;
+import org.identityconnectors.framework.common.objects.AttributeDeltaBuilder;
 import org.identityconnectors.framework.common.objects.AttributeUtil;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
@@ -80,6 +84,7 @@ import org.identityconnectors.framework.common.objects.Uid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.transaction.annotation.Transactional;
 
 @Transactional(rollbackFor = { Throwable.class })
@@ -156,6 +161,15 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     @Autowired
     protected OutboundMatcher outboundMatcher;
 
+    @Autowired
+    protected ShadowObjectStore shadowObjectStore;
+
+    @Autowired
+    protected PropagationBulkheads bulkheads;
+
+    @Value("${provisioning.propagation.updateDelta:false}")
+    protected boolean updateDelta;
+
     protected List<PropagationActions> getPropagationActions(final ExternalResource resource) {
         List<PropagationActions> result = new ArrayList<>();
 
@@ -234,11 +248,14 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                     collect(Collectors.toMap(attr -> attr.getName().toUpperCase(), Function.identity()));
 
             // Only compare attribute from beforeObj that are also being updated
-            Set<String> skipAttrNames = originalAttrMap.keySet();
+            Set<String> skipAttrNames = new HashSet<>(originalAttrMap.keySet());
             skipAttrNames.removeAll(updateAttrMap.keySet());
-            new HashSet<>(skipAttrNames).forEach(originalAttrMap::remove);
+            skipAttrNames.forEach(originalAttrMap::remove);
 
-            Set<Attribute> originalAttrs = new HashSet<>(originalAttrMap.values());
+            // unless changes only are to be sent, all attributes are propagated so that any change occurred on the
+            // remote object since last propagation is overwritten
+            boolean sendDelta = updateDelta && connector.isUpdateDeltaSupported();
+            Set<Attribute> originalAttrs = sendDelta ? new HashSet<>(originalAttrMap.values()) : Set.of();
 
             if (originalAttrs.equals(attributes)) {
                 LOG.debug("Don't need to propagate anything: {} is equal to {}", originalAttrs, attributes);
@@ -250,20 +267,75 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 attributes.stream().filter(attr -> (!originalAttrs.contains(attr))).forEach(strictlyModified::add);
 
                 // 3. provision entry
-                LOG.debug("Update {} on {}", strictlyModified, task.getResource().getKey());
-
-                result = connector.update(
-                        beforeObj.getObjectClass(),
-                        new Uid(beforeObj.getUid().getUidValue()),
-                        strictlyModified,
-                        null,
-                        propagationAttempted);
+                if (sendDelta) {
+                    Set<AttributeDelta> modifications = strictlyModified.stream().
+                            map(attr -> attributeDelta(attr, originalAttrMap.get(attr.getName().toUpperCase()))).
+                            filter(Objects::nonNull).
+                            collect(Collectors.toSet());
+                    if (modifications.isEmpty()) {
+                        LOG.debug("Don't need to propagate anything: only ordering of values differs in {}",
+                                strictlyModified);
+                        result = beforeObj.getUid();
+                    } else {
+                        LOG.debug("Update {} on {}", modifications, task.getResource().getKey());
+
+                        result = connector.updateDelta(
+                                beforeObj.getObjectClass(),
+                                new Uid(beforeObj.getUid().getUidValue()),
+                                modifications,
+                                null,
+                                propagationAttempted);
+                    }
+                } else {
+                    LOG.debug("Update {} on {}", strictlyModified, task.getResource().getKey());
+
+                    result = connector.update(
+                            beforeObj.getObjectClass(),
+                            new Uid(beforeObj.getUid().getUidValue()),
+                            strictlyModified,
+                            null,
+                            propagationAttempted);
+                }
             }
         }
 
         return result;
     }
 
+    /**
+     * Builds the change to send for the given attribute: values to add and to remove for multivalued attributes,
+     * values to replace otherwise.
+     *
+     * @param attr attribute to propagate
+     * @param original same attribute, as found on the remote object; can be null
+     * @return change to send, or null if only ordering of values differs
+     */
+    protected static AttributeDelta attributeDelta(final Attribute attr, final Attribute original) {
+        List<Object> values = Optional.ofNullable(attr.getValue()).orElse(List.of());
+        List<Object> originalValues = original == null
+                ? List.of()
+                : Optional.ofNullable(original.getValue()).orElse(List.of());
+
+        if (AttributeUtil.isSpecial(attr)
+                || (values.size() <= 1 && originalValues.size() <= 1)
+                || values.stream().anyMatch(byte[].class::isInstance)
+                || originalValues.stream().anyMatch(byte[].class::isInstance)) {
+
+            return AttributeDeltaBuilder.build(attr.getName(), values);
+        }
+
+        List<Object> toAdd = values.stream().filter(value -> !originalValues.contains(value)).
+                collect(Collectors.toList());
+        List<Object> toRemove = originalValues.stream().filter(value -> !values.contains(value)).
+                collect(Collectors.toList());
+        if (toAdd.isEmpty() && toRemove.isEmpty()) {
+            return null;
+        }
+
+        return AttributeDeltaBuilder.build(
+                attr.getName(), toAdd.isEmpty() ? null : toAdd, toRemove.isEmpty() ? null : toRemove);
+    }
+
     protected Uid delete(
             final PropagationTask task,
             final ConnectorObject beforeObj,
@@ -333,8 +405,8 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
     }
 
     protected PropagationTask buildTask(final PropagationTaskInfo taskInfo) {
-        PropagationTask task;
-        if (taskInfo.getKey() == null) {
+        PropagationTask task = taskInfo.getKey() == null ? null : taskDAO.find(taskInfo.getKey());
+        if (task == null) {
             // double-checks that provided External Resource is valid, for further actions
             ExternalResource resource = resourceDAO.find(taskInfo.getResource());
             if (resource == null) {
@@ -350,8 +422,6 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             task.setOperation(taskInfo.getOperation());
             task.setConnObjectKey(taskInfo.getConnObjectKey());
             task.setOldConnObjectKey(taskInfo.getOldConnObjectKey());
-        } else {
-            task = taskDAO.find(taskInfo.getKey());
         }
         Set<Attribute> attributes = new HashSet<>();
         if (StringUtils.isNotBlank(taskInfo.getAttributes())) {
@@ -368,6 +438,15 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             final PropagationReporter reporter,
             final String executor) {
 
+        if (!bulkheads.allowRequest(AuthContextUtils.getDomain(), taskInfo.getResource())) {
+            LOG.debug("Circuit open for {}, not attempting {}", taskInfo.getResource(), taskInfo);
+            return rejected(
+                    taskInfo,
+                    "External resource " + taskInfo.getResource() + " considered unavailable, not attempted",
+                    reporter,
+                    executor);
+        }
+
         PropagationTask task = buildTask(taskInfo);
 
         Connector connector = taskInfo.getConnector() == null
@@ -390,6 +469,8 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
 
         ConnectorObject beforeObj = null;
         ConnectorObject afterObj = null;
+        boolean shadowed = false;
+        boolean beforeFromShadow = false;
 
         Provision provision = null;
         OrgUnit orgUnit = null;
@@ -399,7 +480,20 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             provision = task.getResource().getProvision(new ObjectClass(task.getObjectClassName())).orElse(null);
             orgUnit = task.getResource().getOrgUnit();
 
-            if (taskInfo.getBeforeObj() == null) {
+            shadowed = provision != null && orgUnit == null && shadowObjectStore.isEnabled(task.getResource());
+
+            if (taskInfo.getBeforeObj() == null && shadowed) {
+                // Try to use the last known state of remote object, if recent enough
+                beforeObj = shadowObjectStore.read(
+                        task.getResource(),
+                        task.getObjectClassName(),
+                        task.getOldConnObjectKey() == null ? task.getConnObjectKey() : task.getOldConnObjectKey()).
+                        orElse(null);
+                beforeFromShadow = beforeObj != null;
+            }
+            if (beforeFromShadow) {
+                LOG.debug("Using shadow object as before object: {}", beforeObj);
+            } else if (taskInfo.getBeforeObj() == null) {
                 // Try to read remote object BEFORE any actual operation
                 beforeObj = provision == null && orgUnit == null
                         ? null
@@ -414,29 +508,41 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 action.before(task, beforeObj);
             }
 
-            switch (task.getOperation()) {
-                case CREATE:
-                case UPDATE:
-                    uid = createOrUpdate(task, beforeObj, connector, propagationAttempted);
-                    break;
+            try {
+                uid = propagate(task, beforeObj, connector, propagationAttempted);
+            } catch (UnknownUidException e) {
+                if (!beforeFromShadow) {
+                    throw e;
+                }
 
-                case DELETE:
-                    uid = delete(task, beforeObj, connector, propagationAttempted);
-                    break;
+                // the remote object was removed or renamed since the shadow object was stored
+                LOG.debug("Shadow object for {} not matching any remote object, reading it", beforeObj.getUid());
+                removeShadow(task);
+                beforeFromShadow = false;
+                propagationAttempted.set(false);
 
-                default:
+                beforeObj = getRemoteObject(task, connector, provision, actions, false);
+                uid = propagate(task, beforeObj, connector, propagationAttempted);
             }
 
             execution.setStatus(propagationAttempted.get()
                     ? ExecStatus.SUCCESS.name()
                     : ExecStatus.NOT_ATTEMPTED.name());
 
+            if (shadowed) {
+                afterObj = updateShadow(task, beforeObj, uid, !beforeFromShadow || propagationAttempted.get());
+            }
+
+            bulkheads.onSuccess(AuthContextUtils.getDomain(), task.getResource().getKey());
+
             LOG.debug("Successfully propagated to {}", task.getResource());
             result = Result.SUCCESS;
         } catch (Exception e) {
             result = Result.FAILURE;
             LOG.error("Exception during provision on resource " + task.getResource().getKey(), e);
 
+            bulkheads.onFailure(AuthContextUtils.getDomain(), task.getResource().getKey(), e);
+
             if (e instanceof ConnectorException && e.getCause() != null) {
                 taskExecutionMessage = e.getCause().getMessage();
                 if (e.getCause().getMessage() == null) {
@@ -461,13 +567,19 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
 
             propagationAttempted.set(true);
 
+            if (shadowed) {
+                // last known state might not match the remote object anymore
+                removeShadow(task);
+            }
+
             actions.forEach(action -> action.onError(task, execution, e));
         } finally {
-            // Try to read remote object AFTER any actual operation
-            if (connector != null) {
-                if (uid != null) {
-                    task.setConnObjectKey(uid.getUidValue());
-                }
+            if (uid != null) {
+                task.setConnObjectKey(uid.getUidValue());
+            }
+
+            // Try to read remote object AFTER any actual operation, unless already known
+            if (connector != null && afterObj == null) {
                 try {
                     afterObj = provision == null && orgUnit == null
                             ? null
@@ -501,6 +613,9 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
                 task.add(execution);
 
                 taskDAO.save(task);
+            } else if (taskInfo.isPending() && task.getExecs().isEmpty()) {
+                // stored before execution by PendingPropagationTaskStore: not needed anymore
+                taskDAO.delete(taskInfo.getKey());
             }
 
             reporter.onSuccessOrNonPriorityResourceFailures(taskInfo,
@@ -553,11 +668,83 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
         return execution;
     }
 
+    protected Uid propagate(
+            final PropagationTask task,
+            final ConnectorObject beforeObj,
+            final Connector connector,
+            final AtomicReference<Boolean> propagationAttempted) {
+
+        Uid uid = null;
+        switch (task.getOperation()) {
+            case CREATE:
+            case UPDATE:
+                uid = createOrUpdate(task, beforeObj, connector, propagationAttempted);
+                break;
+
+            case DELETE:
+                uid = delete(task, beforeObj, connector, propagationAttempted);
+                break;
+
+            default:
+        }
+        return uid;
+    }
+
+    /**
+     * Stores the state of the remote object after successful propagation, as computed from the state before and the
+     * propagated attributes.
+     *
+     * @param task current propagation task
+     * @param beforeObj state before propagation
+     * @param uid uid returned by propagation
+     * @param verified whether beforeObj was read from the remote object or propagation actually occurred
+     * @return state after propagation, or null if not computed
+     */
+    protected ConnectorObject updateShadow(
+            final PropagationTask task,
+            final ConnectorObject beforeObj,
+            final Uid uid,
+            final boolean verified) {
+
+        if (task.getOperation() == ResourceOperation.DELETE) {
+            removeShadow(task);
+            return null;
+        }
+
+        Uid afterUid = uid == null && beforeObj != null ? beforeObj.getUid() : uid;
+        if (afterUid == null) {
+            return null;
+        }
+
+        ConnectorObject afterObj = shadowObjectStore.apply(
+                task.getObjectClassName(), beforeObj, task.getAttributes(), afterUid);
+        try {
+            shadowObjectStore.store(task.getResource(), task.getConnObjectKey(), afterObj, verified);
+            if (task.getOldConnObjectKey() != null && !task.getOldConnObjectKey().equals(task.getConnObjectKey())) {
+                shadowObjectStore.remove(task.getResource(), task.getObjectClassName(), task.getOldConnObjectKey());
+            }
+        } catch (Exception e) {
+            LOG.error("While storing shadow object for {}", task.getConnObjectKey(), e);
+            removeShadow(task);
+        }
+        return afterObj;
+    }
+
+    protected void removeShadow(final PropagationTask task) {
+        try {
+            shadowObjectStore.remove(
+                    task.getResource(), task.getObjectClassName(), task.getConnObjectKey(), task.getOldConnObjectKey());
+        } catch (Exception e) {
+            LOG.error("While removing shadow object for {}", task.getConnObjectKey(), e);
+        }
+    }
+
     protected abstract void doExecute(
             Collection<PropagationTaskInfo> taskInfos, PropagationReporter reporter, boolean nullPriorityAsync,
             String executor);
 
-    protected TaskExec rejected(
+    @Override
+    public TaskExec rejected(
             final PropagationTaskInfo taskInfo,
             final String rejectReason,
             final PropagationReporter reporter,
@@ -579,6 +766,9 @@ public abstract class AbstractPropagationTaskExecutor implements PropagationTask
             task.add(execution);
 
             taskDAO.save(task);
+        } else if (taskInfo.isPending() && task.getExecs().isEmpty()) {
+            // stored before execution by PendingPropagationTaskStore: not needed anymore
+            taskDAO.delete(taskInfo.getKey());
         }
 
         reporter.onSuccessOrNonPriorityResourceFailures(
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.persistence.api.dao.ExternalResourceDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Stores the tasks held back by {@link PropagationTaskCoalescer} as propagation tasks without executions, committed
+ * regardless of the caller's transaction: coalescing updates the stored task in place, and the executor removes it
+ * once executed, unless its execution is to be registered.
+ * Tasks still held back when the JVM stops abruptly are then found among the propagation tasks not yet executed.
+ */
+@Component
+public class PendingPropagationTaskStore {
+
+    @Autowired
+    private ExternalResourceDAO resourceDAO;
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    /**
+     * Stores the given task.
+     *
+     * @param taskInfo task held back
+     * @param key key of the propagation task previously stored for the same connector object, if any
+     * @return key of the stored propagation task, or null if the external resource was not found
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW, rollbackFor = { Throwable.class })
+    public String save(final PropagationTaskInfo taskInfo, final String key) {
+        PropagationTask task = key == null ? null : taskDAO.find(key);
+        if (task == null) {
+            ExternalResource resource = resourceDAO.find(taskInfo.getResource());
+            if (resource == null) {
+                return null;
+            }
+
+            task = entityFactory.newEntity(PropagationTask.class);
+            task.setResource(resource);
+        }
+        task.setObjectClassName(taskInfo.getObjectClassName());
+        task.setAnyTypeKind(taskInfo.getAnyTypeKind());
+        task.setAnyType(taskInfo.getAnyType());
+        task.setEntityKey(taskInfo.getEntityKey());
+        task.setOperation(taskInfo.getOperation());
+        task.setConnObjectKey(taskInfo.getConnObjectKey());
+        task.setOldConnObjectKey(taskInfo.getOldConnObjectKey());
+
+        Set<Attribute> attributes = new HashSet<>();
+        if (StringUtils.isNotBlank(taskInfo.getAttributes())) {
+            attributes.addAll(List.of(POJOHelper.deserialize(taskInfo.getAttributes(), Attribute[].class)));
+        }
+        task.setAttributes(attributes);
+
+        return taskDAO.save(task).getKey();
+    }
+}
@@ -23,11 +23,8 @@ import java.util.Collection;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
-import java.util.concurrent.CompletionService;
-import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
-import javax.annotation.Resource;
 import org.apache.syncope.common.lib.types.ExecStatus;
 import org.apache.syncope.core.persistence.api.entity.Exec;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -35,9 +32,11 @@ import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationException;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 /**
  * Sorts the tasks to be executed according to related
@@ -45,11 +44,14 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
  * Tasks related to resources with NULL priority are executed after other tasks, concurrently.
  * Failure during execution of a task related to resource with non-NULL priority are treated as fatal and will interrupt
  * the whole process, resulting in a global failure.
+ * When asynchronous execution is requested for tasks related to resources with NULL priority, these can be held back
+ * by {@link PropagationTaskCoalescer}, if enabled, which is otherwise flushed before execution of any task for the same
+ * connector object; tasks are executed concurrently via {@link PropagationBulkheads}.
  */
 public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExecutor {
 
-    @Resource(name = "propagationTaskExecutorAsyncExecutor")
-    protected ThreadPoolTaskExecutor taskExecutor;
+    @Autowired
+    protected PropagationTaskCoalescer coalescer;
 
     /**
      * Creates new instances of {@link PropagationTaskCallable} for usage with
@@ -97,6 +99,7 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
             ExecStatus execStatus;
             String errorMessage = null;
             try {
+                coalescer.flush(task);
                 execution = newPropagationTaskCallable(task, reporter, executor).call();
                 execStatus = ExecStatus.valueOf(execution.getStatus());
             } catch (Exception e) {
@@ -113,12 +116,22 @@ public class PriorityPropagationTaskExecutor extends AbstractPropagationTaskExec
 
         // then process non-priority resources concurrently...
         if (!concurrentTasks.isEmpty()) {
-            CompletionService<TaskExec> completionService = new ExecutorCompletionService<>(taskExecutor);
             List<Future<TaskExec>> futures = new ArrayList<>();
 
             concurrentTasks.forEach(taskInfo -> {
                 try {
-                    futures.add(completionService.submit(newPropagationTaskCallable(taskInfo, reporter, executor)));
+                    PropagationTaskCallable callable = newPropagationTaskCallable(taskInfo, reporter, executor);
+                    if (nullPriorityAsync && coalescer.accepts(taskInfo)) {
+                        // once the window expires, no transaction is available in the current context
+                        String domain = AuthContextUtils.getDomain();
+                        coalescer.offer(taskInfo, callable, (notAttempted, rejectReason) ->
+                                AuthContextUtils.callAsAdmin(domain, () -> ApplicationContextProvider.getBeanFactory().
+                                        getBean(PropagationTaskExecutor.class).
+                                        rejected(notAttempted, rejectReason, reporter, executor)));
+                    } else {
+                        coalescer.flush(taskInfo);
+                        futures.add(bulkheads.submit(AuthContextUtils.getDomain(), taskInfo.getResource(), callable));
+                    }
 
                     if (nullPriorityAsync) {
                         reporter.onSuccessOrNonPriorityResourceFailures(
@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Resource;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.identityconnectors.framework.common.exceptions.ConnectorIOException;
+import org.identityconnectors.framework.common.exceptions.OperationTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Isolates concurrent propagation to each external resource of each domain, so that a slow or unavailable resource
+ * cannot starve propagation to the others.
+ * <ul>
+ * <li>Bulkheads: when concurrency is set, each resource gets its own bounded executor, instead of sharing
+ * {@code propagationTaskExecutorAsyncExecutor}; both concurrency and queue capacity can be overridden per resource, via
+ * {@code provisioning.propagation.bulkhead.<resource>.concurrency} and
+ * {@code provisioning.propagation.bulkhead.<resource>.queueCapacity}.</li>
+ * <li>Circuit breakers: when the failure threshold is set, after as many consecutive failures due to the resource being
+ * unreachable or not responding, propagation to that resource is not attempted until the open timeout expires; then a
+ * single attempt is allowed per open timeout, until one succeeds.</li>
+ * </ul>
+ */
+@Component
+@ManagedResource(description = "Propagation bulkheads and circuit breakers, per domain and external resource")
+public class PropagationBulkheads implements DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropagationBulkheads.class);
+
+    private static final String PREFIX = "provisioning.propagation.bulkhead.";
+
+    private static final class Partition {
+
+        private final ThreadPoolExecutor executor;
+
+        private final AtomicLong rejected = new AtomicLong();
+
+        private final AtomicLong completed = new AtomicLong();
+
+        private final AtomicLong latency = new AtomicLong();
+
+        Partition(final String domain, final String resource, final int concurrency, final int queueCapacity) {
+            executor = new ThreadPoolExecutor(
+                    concurrency,
+                    concurrency,
+                    60L,
+                    TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    new CustomizableThreadFactory("Propagation-" + domain + "-" + resource + "-"),
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        Future<TaskExec> submit(final PropagationTaskCallable callable) {
+            try {
+                return executor.submit(() -> {
+                    long start = System.nanoTime();
+                    try {
+                        return callable.call();
+                    } finally {
+                        latency.addAndGet(System.nanoTime() - start);
+                        completed.incrementAndGet();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                rejected.incrementAndGet();
+                throw e;
+            }
+        }
+
+        @Override
+        public String toString() {
+            long count = completed.get();
+            return "active=" + executor.getActiveCount()
+                    + ", queued=" + executor.getQueue().size()
+                    + ", rejected=" + rejected.get()
+                    + ", completed=" + count
+                    + ", averageLatency=" + (count == 0 ? 0 : latency.get() / count / 1_000_000) + "ms";
+        }
+    }
+
+    private static final class CircuitBreaker {
+
+        private int failures;
+
+        private long openedAt = -1;
+
+        private long shortCircuited;
+
+        synchronized boolean allowRequest(final long now, final long openTimeout) {
+            if (openedAt < 0) {
+                return true;
+            }
+            if (now - openedAt < openTimeout) {
+                shortCircuited++;
+                return false;
+            }
+
+            // half open: let this request through, keep others out for another open timeout
+            openedAt = now;
+            return true;
+        }
+
+        synchronized void success() {
+            failures = 0;
+            openedAt = -1;
+        }
+
+        synchronized boolean failure(final long now, final int threshold) {
+            failures++;
+            if (failures >= threshold && openedAt < 0) {
+                openedAt = now;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public synchronized String toString() {
+            return "circuit=" + (openedAt < 0 ? "CLOSED" : "OPEN")
+                    + ", failures=" + failures
+                    + ", shortCircuited=" + shortCircuited;
+        }
+    }
+
+    @Value("${provisioning.propagation.bulkhead.concurrency:0}")
+    private int concurrency;
+
+    @Value("${provisioning.propagation.bulkhead.queueCapacity:100}")
+    private int queueCapacity;
+
+    @Value("${provisioning.propagation.circuitBreaker.failureThreshold:0}")
+    private int failureThreshold;
+
+    @Value("${provisioning.propagation.circuitBreaker.openTimeout:60}")
+    private long openTimeout;
+
+    @Autowired
+    private Environment env;
+
+    @Resource(name = "propagationTaskExecutorAsyncExecutor")
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    private final Map<List<String>, Partition> partitions = new ConcurrentHashMap<>();
+
+    private final Map<List<String>, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Submits the given callable for execution on the executor dedicated to the given resource, or on the shared
+     * executor if bulkheads are not enabled.
+     *
+     * @param domain domain
+     * @param resource external resource key
+     * @param callable propagation task callable
+     * @return future for task execution
+     * @throws RejectedExecutionException if the executor is saturated
+     */
+    public Future<TaskExec> submit(final String domain, final String resource, final PropagationTaskCallable callable) {
+        int resourceConcurrency = env.getProperty(PREFIX + resource + ".concurrency", Integer.class, concurrency);
+        if (resourceConcurrency <= 0) {
+            return taskExecutor.submit(callable);
+        }
+
+        return partitions.computeIfAbsent(List.of(domain, resource), k -> new Partition(
+                domain,
+                resource,
+                resourceConcurrency,
+                env.getProperty(PREFIX + resource + ".queueCapacity", Integer.class, queueCapacity))).
+                submit(callable);
+    }
+
+    /**
+     * Whether propagation to the given resource can be attempted, according to its circuit breaker.
+     *
+     * @param domain domain
+     * @param resource external resource key
+     * @return whether propagation to the given resource can be attempted
+     */
+    public boolean allowRequest(final String domain, final String resource) {
+        if (failureThreshold <= 0) {
+            return true;
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakers.get(List.of(domain, resource));
+        return circuitBreaker == null
+                || circuitBreaker.allowRequest(System.currentTimeMillis(), TimeUnit.SECONDS.toMillis(openTimeout));
+    }
+
+    /**
+     * Reports the given resource as available.
+     *
+     * @param domain domain
+     * @param resource external resource key
+     */
+    public void onSuccess(final String domain, final String resource) {
+        if (failureThreshold > 0) {
+            CircuitBreaker circuitBreaker = circuitBreakers.get(List.of(domain, resource));
+            if (circuitBreaker != null) {
+                circuitBreaker.success();
+            }
+        }
+    }
+
+    /**
+     * Reports propagation failure on the given resource: only failures due to the resource being unreachable or not
+     * responding count towards opening the circuit, others reveal the resource as available.
+     *
+     * @param domain domain
+     * @param resource external resource key
+     * @param error propagation failure
+     */
+    public void onFailure(final String domain, final String resource, final Throwable error) {
+        if (failureThreshold <= 0) {
+            return;
+        }
+
+        if (ExceptionUtils.indexOfType(error, TimeoutException.class) == -1
+                && ExceptionUtils.indexOfType(error, ConnectorIOException.class) == -1
+                && ExceptionUtils.indexOfType(error, OperationTimeoutException.class) == -1) {
+
+            onSuccess(domain, resource);
+        } else if (circuitBreakers.computeIfAbsent(List.of(domain, resource), k -> new CircuitBreaker()).
+                failure(System.currentTimeMillis(), failureThreshold)) {
+
+            LOG.warn("Circuit open for {} on domain {}: propagation will not be attempted for {} seconds",
+                    resource, domain, openTimeout);
+        }
+    }
+
+    @ManagedOperation(description = "Closes the circuit for the given domain and resource")
+    public void closeCircuit(final String domain, final String resource) {
+        circuitBreakers.remove(List.of(domain, resource));
+    }
+
+    @ManagedAttribute(description = "Status of dedicated executor and circuit breaker, per domain and resource")
+    public Map<String, String> getStatus() {
+        Map<String, String> status = new TreeMap<>();
+        partitions.forEach((key, partition) -> status.put(String.join("/", key), partition.toString()));
+        circuitBreakers.forEach((key, circuitBreaker) -> status.merge(
+                String.join("/", key), circuitBreaker.toString(), (partition, circuit) -> partition + ", " + circuit));
+        return status;
+    }
+
+    @Override
+    public void destroy() {
+        partitions.values().forEach(partition -> partition.executor.shutdown());
+    }
+}
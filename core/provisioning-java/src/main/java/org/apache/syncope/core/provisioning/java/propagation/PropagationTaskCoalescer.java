@@ -0,0 +1,327 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds back asynchronous propagation tasks for non-priority resources during the configured window, so that tasks
+ * for the same connector object on the same resource, queued meanwhile, are coalesced into a single task carrying the
+ * latest state: only such task is then executed - and possibly stored - once the window expires.
+ * Delete tasks are never coalesced with tasks following them, and rename tasks are never coalesced at all.
+ * Tasks held back are also stored via {@link PendingPropagationTaskStore}, so that they are not lost if the JVM stops
+ * abruptly; tasks for the same connector object which are not held back must be preceded by {@link #flush}, to
+ * preserve execution order.
+ */
+@Component
+@ManagedResource(description = "Propagation task coalescer")
+public class PropagationTaskCoalescer implements InitializingBean, DisposableBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PropagationTaskCoalescer.class);
+
+    private static final class Pending {
+
+        private final PropagationTaskInfo taskInfo;
+
+        private final PropagationTaskCallable callable;
+
+        private final BiConsumer<PropagationTaskInfo, String> rejection;
+
+        private final String domain;
+
+        Pending(
+                final PropagationTaskInfo taskInfo,
+                final PropagationTaskCallable callable,
+                final BiConsumer<PropagationTaskInfo, String> rejection,
+                final String domain) {
+
+            this.taskInfo = taskInfo;
+            this.callable = callable;
+            this.rejection = rejection;
+            this.domain = domain;
+        }
+    }
+
+    @Value("${provisioning.propagation.coalesce.window:0}")
+    private long window;
+
+    @Autowired
+    private PropagationBulkheads bulkheads;
+
+    @Autowired
+    private PendingPropagationTaskStore store;
+
+    private final Map<List<String>, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong queued = new AtomicLong();
+
+    private final AtomicLong merged = new AtomicLong();
+
+    private final AtomicLong executed = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+
+    @Override
+    public void afterPropertiesSet() {
+        if (isEnabled()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("PropagationTaskCoalescer-"));
+        }
+    }
+
+    public boolean isEnabled() {
+        return window > 0;
+    }
+
+    /**
+     * Whether the given task can be held back for coalescing: only new tasks not involving rename.
+     *
+     * @param taskInfo propagation task
+     * @return whether the given task can be held back for coalescing
+     */
+    public boolean accepts(final PropagationTaskInfo taskInfo) {
+        return isEnabled()
+                && taskInfo.getKey() == null
+                && taskInfo.getConnObjectKey() != null
+                && (taskInfo.getOldConnObjectKey() == null
+                || taskInfo.getOldConnObjectKey().equals(taskInfo.getConnObjectKey()));
+    }
+
+    private static List<String> key(final PropagationTaskInfo taskInfo, final String connObjectKey) {
+        return List.of(
+                AuthContextUtils.getDomain(),
+                taskInfo.getResource(),
+                taskInfo.getObjectClassName(),
+                connObjectKey);
+    }
+
+    /**
+     * Holds back the given task, coalescing with the one already pending for the same connector object, if any.
+     *
+     * @param taskInfo propagation task
+     * @param callable callable for execution of the given task, as created in the caller's context
+     * @param rejection to report the given task as not attempted, if the executor is saturated once the window expires
+     */
+    public void offer(
+            final PropagationTaskInfo taskInfo,
+            final PropagationTaskCallable callable,
+            final BiConsumer<PropagationTaskInfo, String> rejection) {
+
+        queued.incrementAndGet();
+
+        AtomicReference<Pending> flushed = new AtomicReference<>();
+        pending.compute(key(taskInfo, taskInfo.getConnObjectKey()), (k, previous) -> {
+            if (previous == null) {
+                scheduler.schedule(() -> flush(k), window, TimeUnit.MILLISECONDS);
+                return pending(taskInfo, callable, rejection, null);
+            }
+
+            if (previous.taskInfo.getOperation() == ResourceOperation.DELETE) {
+                // cannot coalesce anything after delete: execute now and start holding back the given task
+                flushed.set(previous);
+                scheduler.schedule(() -> flush(k), window, TimeUnit.MILLISECONDS);
+                return pending(taskInfo, callable, rejection, null);
+            }
+
+            merged.incrementAndGet();
+            return pending(merge(previous.taskInfo, taskInfo), callable, rejection, previous.taskInfo.getKey());
+        });
+
+        Optional.ofNullable(flushed.get()).ifPresent(this::submit);
+    }
+
+    private Pending pending(
+            final PropagationTaskInfo taskInfo,
+            final PropagationTaskCallable callable,
+            final BiConsumer<PropagationTaskInfo, String> rejection,
+            final String taskKey) {
+
+        try {
+            taskInfo.setKey(store.save(taskInfo, taskKey));
+        } catch (Exception e) {
+            LOG.error("While storing {}, only kept in memory", taskInfo, e);
+            taskInfo.setKey(taskKey);
+        }
+        taskInfo.setPending(taskInfo.getKey() != null);
+        return new Pending(taskInfo, callable, rejection, AuthContextUtils.getDomain());
+    }
+
+    /**
+     * Executes the tasks held back for the same connector object as the given task, if any, and waits for their
+     * completion: to be invoked before executing any task not held back.
+     *
+     * @param taskInfo propagation task about to be executed
+     */
+    public void flush(final PropagationTaskInfo taskInfo) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        Stream.of(taskInfo.getConnObjectKey(), taskInfo.getOldConnObjectKey()).
+                filter(Objects::nonNull).
+                distinct().
+                map(connObjectKey -> pending.remove(key(taskInfo, connObjectKey))).
+                filter(Objects::nonNull).
+                // no need to execute the stored task which is about to be executed anyway
+                filter(toFlush -> taskInfo.getKey() == null || !taskInfo.getKey().equals(toFlush.taskInfo.getKey())).
+                map(this::submit).
+                flatMap(Optional::stream).
+                forEach(future -> {
+                    try {
+                        future.get();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException e) {
+                        LOG.error("While executing task held back before {}", taskInfo, e);
+                    }
+                });
+    }
+
+    /**
+     * Builds the task carrying the latest state: attributes from the latest task, plus the ones only available in the
+     * previous task, e.g. password values; the remote object as read before the previous task is retained.
+     *
+     * @param previous task pending
+     * @param latest task just queued
+     * @return coalesced task
+     */
+    protected static PropagationTaskInfo merge(final PropagationTaskInfo previous, final PropagationTaskInfo latest) {
+        Map<String, Attribute> attrs = new LinkedHashMap<>();
+        if (StringUtils.isNotBlank(previous.getAttributes())) {
+            for (Attribute attr : POJOHelper.deserialize(previous.getAttributes(), Attribute[].class)) {
+                if (!PropagationTaskExecutor.MANDATORY_MISSING_ATTR_NAME.equals(attr.getName())
+                        && !PropagationTaskExecutor.MANDATORY_NULL_OR_EMPTY_ATTR_NAME.equals(attr.getName())) {
+
+                    attrs.put(attr.getName().toUpperCase(), attr);
+                }
+            }
+        }
+        if (StringUtils.isNotBlank(latest.getAttributes())) {
+            for (Attribute attr : POJOHelper.deserialize(latest.getAttributes(), Attribute[].class)) {
+                attrs.put(attr.getName().toUpperCase(), attr);
+            }
+        }
+        if (latest.getOperation() != ResourceOperation.DELETE) {
+            latest.setAttributes(POJOHelper.serialize(attrs.values()));
+        }
+
+        if (previous.getBeforeObj() != null) {
+            latest.setBeforeObj(previous.getBeforeObj());
+        }
+        if (latest.getConnector() == null) {
+            latest.setConnector(previous.getConnector());
+        }
+
+        return latest;
+    }
+
+    private void flush(final List<String> key) {
+        Optional.ofNullable(pending.remove(key)).ifPresent(this::submit);
+    }
+
+    private Optional<Future<TaskExec>> submit(final Pending toSubmit) {
+        toSubmit.callable.setTaskInfo(toSubmit.taskInfo);
+        executed.incrementAndGet();
+        try {
+            return Optional.of(bulkheads.submit(toSubmit.domain, toSubmit.taskInfo.getResource(), toSubmit.callable));
+        } catch (RejectedExecutionException e) {
+            LOG.error("While submitting {} for async execution", toSubmit.taskInfo, e);
+            try {
+                toSubmit.rejection.accept(toSubmit.taskInfo, e.getMessage());
+            } catch (Exception re) {
+                LOG.error("While reporting {} as not attempted", toSubmit.taskInfo, re);
+            }
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+
+            // executors might be shutting down as well: execute the tasks still held back in the current thread
+            new ArrayList<>(pending.keySet()).forEach(key -> Optional.ofNullable(pending.remove(key)).
+                    ifPresent(toExecute -> {
+                        toExecute.callable.setTaskInfo(toExecute.taskInfo);
+                        executed.incrementAndGet();
+                        try {
+                            toExecute.callable.call();
+                        } catch (Exception e) {
+                            LOG.error("While executing {}", toExecute.taskInfo, e);
+                        }
+                    }));
+        }
+    }
+
+    @ManagedAttribute(description = "Number of tasks currently held back")
+    public int getPending() {
+        return pending.size();
+    }
+
+    @ManagedAttribute(description = "Number of tasks queued for coalescing")
+    public long getQueued() {
+        return queued.get();
+    }
+
+    @ManagedAttribute(description = "Number of tasks merged into a task queued later")
+    public long getMerged() {
+        return merged.get();
+    }
+
+    @ManagedAttribute(description = "Number of coalesced tasks submitted for execution")
+    public long getExecuted() {
+        return executed.get();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.syncope.core.persistence.api.dao.ShadowObjectDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.resource.MappingItem;
+import org.apache.syncope.core.persistence.api.entity.resource.Provision;
+import org.apache.syncope.core.persistence.api.entity.resource.ShadowObject;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskExecutor;
+import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeUtil;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.OperationalAttributes;
+import org.identityconnectors.framework.common.objects.SyncDelta;
+import org.identityconnectors.framework.common.objects.SyncDeltaType;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Keeps track of the last known state of connector objects on the configured external resources, as left by the
+ * latest successful propagation or pull, so that propagation can do without reading the remote object first.
+ * Shadow objects are only trusted when younger than the configured maximum age: a remote read is performed otherwise,
+ * as well as when no shadow object is found; shadow objects are dropped whenever propagation fails.
+ * Passwords are never stored.
+ * The external resources to consider can be set for each domain, and the maximum age for each external resource.
+ */
+@Component
+public class ShadowObjectStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ShadowObjectStore.class);
+
+    private static final Set<String> NOT_STORED_ATTR_NAMES = Set.of(
+            Uid.NAME,
+            OperationalAttributes.PASSWORD_NAME,
+            PropagationTaskExecutor.MANDATORY_MISSING_ATTR_NAME,
+            PropagationTaskExecutor.MANDATORY_NULL_OR_EMPTY_ATTR_NAME);
+
+    private static final String PREFIX = "provisioning.shadow.";
+
+    @Value("${provisioning.shadow.resources:}")
+    private String resources;
+
+    @Value("${provisioning.shadow.maxAge:3600}")
+    private long maxAge;
+
+    @Autowired
+    private Environment env;
+
+    @Autowired
+    private ShadowObjectDAO shadowObjectDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    private final Map<String, Set<String>> enabled = new ConcurrentHashMap<>();
+
+    public boolean isEnabled(final ExternalResource resource) {
+        return enabled.computeIfAbsent(
+                AuthContextUtils.getDomain(),
+                domain -> Stream.of(StringUtils.split(env.getProperty(PREFIX + domain + ".resources", resources), ',')).
+                        map(String::trim).
+                        filter(StringUtils::isNotBlank).
+                        collect(Collectors.toSet())).
+                contains(resource.getKey());
+    }
+
+    private long maxAge(final ExternalResource resource) {
+        return env.getProperty(PREFIX + resource.getKey() + ".maxAge", Long.class, maxAge);
+    }
+
+    /**
+     * Returns the shadow object for the given connector object key, if available and not stale.
+     *
+     * @param resource external resource
+     * @param objectClass object class
+     * @param connObjectKey connector object key value
+     * @return shadow object as {@link ConnectorObject}, or empty if a remote read is needed
+     */
+    @Transactional(readOnly = true)
+    public Optional<ConnectorObject> read(
+            final ExternalResource resource,
+            final String objectClass,
+            final String connObjectKey) {
+
+        if (!isEnabled(resource) || connObjectKey == null) {
+            return Optional.empty();
+        }
+
+        ShadowObject shadow = shadowObjectDAO.find(resource.getKey(), objectClass, connObjectKey);
+        if (shadow == null || shadow.getUid() == null) {
+            LOG.debug("No shadow object found on {} for {}", resource.getKey(), connObjectKey);
+            return Optional.empty();
+        }
+        long resourceMaxAge = maxAge(resource);
+        if (resourceMaxAge >= 0
+                && System.currentTimeMillis() - shadow.getLastUpdate().getTime() > resourceMaxAge * 1000L) {
+            LOG.debug("Shadow object on {} for {} is stale", resource.getKey(), connObjectKey);
+            return Optional.empty();
+        }
+
+        ConnectorObjectBuilder builder = new ConnectorObjectBuilder().
+                setObjectClass(new ObjectClass(objectClass)).
+                setUid(shadow.getUid()).
+                addAttributes(shadow.getAttributes());
+        if (shadow.getAttributes().stream().noneMatch(attr -> Name.NAME.equals(attr.getName()))) {
+            builder.setName(shadow.getUid());
+        }
+        return Optional.of(builder.build());
+    }
+
+    /**
+     * Builds the state of the connector object after propagation, by applying the propagated attributes to the
+     * state before propagation.
+     *
+     * @param objectClass object class
+     * @param beforeObj state before propagation, null if the connector object was created
+     * @param attributes propagated attributes
+     * @param uid connector object uid after propagation
+     * @return state after propagation
+     */
+    public ConnectorObject apply(
+            final String objectClass,
+            final ConnectorObject beforeObj,
+            final Set<Attribute> attributes,
+            final Uid uid) {
+
+        Map<String, Attribute> after = new LinkedHashMap<>();
+        Optional.ofNullable(beforeObj).ifPresent(obj -> obj.getAttributes().
+                forEach(attr -> after.put(attr.getName().toUpperCase(), attr)));
+        attributes.forEach(attr -> after.put(attr.getName().toUpperCase(), attr));
+        after.keySet().removeIf(name -> NOT_STORED_ATTR_NAMES.stream().anyMatch(name::equalsIgnoreCase));
+
+        ConnectorObjectBuilder builder = new ConnectorObjectBuilder().
+                setObjectClass(new ObjectClass(objectClass)).
+                setUid(uid).
+                addAttributes(after.values());
+        if (after.values().stream().noneMatch(attr -> Name.NAME.equals(attr.getName()))) {
+            builder.setName(uid.getUidValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Stores the given connector object as last known state for the given connector object key.
+     *
+     * @param resource external resource
+     * @param connObjectKey connector object key value
+     * @param obj connector object
+     * @param verified whether the given connector object is based on a remote read, rather than on the shadow
+     * object itself: if not, the shadow object does not become any younger
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(
+            final ExternalResource resource,
+            final String connObjectKey,
+            final ConnectorObject obj,
+            final boolean verified) {
+
+        if (!isEnabled(resource) || connObjectKey == null) {
+            return;
+        }
+
+        ShadowObject shadow = shadowObjectDAO.find(
+                resource.getKey(), obj.getObjectClass().getObjectClassValue(), connObjectKey);
+        if (shadow == null) {
+            shadow = entityFactory.newEntity(ShadowObject.class);
+            shadow.setResource(resource.getKey());
+            shadow.setObjectClass(obj.getObjectClass().getObjectClassValue());
+            shadow.setConnObjectKey(connObjectKey);
+        }
+        shadow.setUid(obj.getUid().getUidValue());
+        shadow.setAttributes(obj.getAttributes().stream().
+                filter(attr -> NOT_STORED_ATTR_NAMES.stream().noneMatch(attr.getName()::equalsIgnoreCase)).
+                collect(Collectors.toCollection(HashSet::new)));
+        if (verified || shadow.getLastUpdate() == null) {
+            shadow.setLastUpdate(new Date());
+        }
+
+        shadowObjectDAO.save(shadow);
+    }
+
+    /**
+     * Stores the given connector object, as just pulled, as last known state - or removes it, if deleted.
+     *
+     * @param provision provision
+     * @param delta pulled delta
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void pulled(final Provision provision, final SyncDelta delta) {
+        if (!isEnabled(provision.getResource()) || delta.getObject() == null) {
+            return;
+        }
+
+        Optional<? extends MappingItem> connObjectKeyItem = MappingUtils.getConnObjectKeyItem(provision);
+        Optional.ofNullable(connObjectKeyItem.map(item -> delta.getObject().getAttributeByName(item.getExtAttrName())).
+                orElse(null)).
+                map(AttributeUtil::getSingleValue).
+                map(Object::toString).
+                filter(StringUtils::isNotBlank).
+                ifPresent(connObjectKey -> {
+                    if (delta.getDeltaType() == SyncDeltaType.DELETE) {
+                        shadowObjectDAO.delete(provision.getResource().getKey(),
+                                delta.getObject().getObjectClass().getObjectClassValue(), connObjectKey);
+                    } else {
+                        store(provision.getResource(), connObjectKey, delta.getObject(), true);
+                    }
+                });
+    }
+
+    /**
+     * Removes the shadow objects for the given connector object keys, to force a remote read when propagating next.
+     *
+     * @param resource external resource
+     * @param objectClass object class
+     * @param connObjectKeys connector object key values
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void remove(final ExternalResource resource, final String objectClass, final String... connObjectKeys) {
+        if (!isEnabled(resource)) {
+            return;
+        }
+
+        Stream.of(connObjectKeys).filter(StringUtils::isNotBlank).distinct().
+                forEach(connObjectKey -> shadowObjectDAO.delete(resource.getKey(), objectClass, connObjectKey));
+    }
+}
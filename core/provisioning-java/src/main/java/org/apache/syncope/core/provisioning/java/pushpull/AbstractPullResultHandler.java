@@ -53,6 +53,7 @@ import org.apache.syncope.core.provisioning.api.AuditManager;
 import org.apache.syncope.core.provisioning.api.ProvisioningManager;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCache;
 import org.apache.syncope.core.provisioning.api.cache.VirAttrCacheValue;
+import org.apache.syncope.core.provisioning.java.propagation.ShadowObjectStore;
 import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
 import org.apache.syncope.common.lib.to.ProvisioningReport;
@@ -100,6 +101,9 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
     @Autowired
     protected EntityFactory entityFactory;
 
+    @Autowired
+    protected ShadowObjectStore shadowObjectStore;
+
     protected SyncopePullExecutor executor;
 
     protected Result latestResult;
@@ -133,6 +137,12 @@ public abstract class AbstractPullResultHandler extends AbstractSyncopeResultHan
 
             LOG.debug("Successfully handled {}", delta);
 
+            try {
+                shadowObjectStore.pulled(provision, delta);
+            } catch (Exception e) {
+                LOG.error("While updating shadow object for {}", delta.getUid(), e);
+            }
+
             if (profile.getTask().getPullMode() != PullMode.INCREMENTAL) {
                 if (executor.wasInterruptRequested()) {
                     LOG.debug("Pull interrupted");
@@ -19,10 +19,8 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -54,13 +52,12 @@ import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
 import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
 import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionException;
 import org.apache.syncope.core.provisioning.api.pushpull.SyncopePushResultHandler;
-import org.apache.syncope.core.provisioning.java.job.AfterHandlingJob;
+import org.apache.syncope.core.provisioning.java.job.AfterHandlingDispatcher;
 import org.apache.syncope.core.provisioning.java.propagation.DefaultPropagationReporter;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
 import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -86,7 +83,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
     protected MappingManager mappingManager;
 
     @Autowired
-    protected SchedulerFactoryBean scheduler;
+    protected AfterHandlingDispatcher afterHandlingDispatcher;
 
     protected abstract String getName(Any<?> any);
 
@@ -476,8 +473,7 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                 throw new JobExecutionException(e);
             } finally {
                 if (notificationsAvailable || auditRequested) {
-                    Map<String, Object> jobMap = new HashMap<>();
-                    jobMap.put(AfterHandlingEvent.JOBMAP_KEY, new AfterHandlingEvent(
+                    afterHandlingDispatcher.dispatch(new AfterHandlingEvent(
                             AuthContextUtils.getUsername(),
                             AuditElements.EventCategoryType.PUSH,
                             any.getType().getKind().name().toLowerCase(),
@@ -487,7 +483,6 @@ public abstract class AbstractPushResultHandler extends AbstractSyncopeResultHan
                             beforeObj,
                             output,
                             any));
-                    AfterHandlingJob.schedule(scheduler, jobMap);
                 }
             }
         }
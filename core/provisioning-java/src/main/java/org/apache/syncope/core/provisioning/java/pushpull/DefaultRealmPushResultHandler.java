@@ -19,9 +19,7 @@
 package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.exception.ExceptionUtils;
@@ -48,7 +46,7 @@ import org.apache.syncope.core.provisioning.api.pushpull.IgnoreProvisionExceptio
 import org.apache.syncope.common.lib.to.ProvisioningReport;
 import org.apache.syncope.core.provisioning.api.pushpull.PushActions;
 import org.apache.syncope.core.provisioning.api.pushpull.RealmPushResultHandler;
-import org.apache.syncope.core.provisioning.java.job.AfterHandlingJob;
+import org.apache.syncope.core.provisioning.java.job.AfterHandlingDispatcher;
 import org.apache.syncope.core.provisioning.java.propagation.DefaultPropagationReporter;
 import org.apache.syncope.core.provisioning.java.utils.MappingUtils;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
@@ -57,7 +55,6 @@ import org.identityconnectors.framework.common.objects.ConnectorObject;
 import org.identityconnectors.framework.common.objects.ObjectClass;
 import org.quartz.JobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.scheduling.quartz.SchedulerFactoryBean;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -69,7 +66,7 @@ public class DefaultRealmPushResultHandler
     private MappingManager mappingManager;
 
     @Autowired
-    private SchedulerFactoryBean scheduler;
+    private AfterHandlingDispatcher afterHandlingDispatcher;
 
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     @Override
@@ -425,8 +422,7 @@ public class DefaultRealmPushResultHandler
                 throw new JobExecutionException(e);
             } finally {
                 if (notificationsAvailable || auditRequested) {
-                    Map<String, Object> jobMap = new HashMap<>();
-                    jobMap.put(AfterHandlingEvent.JOBMAP_KEY, new AfterHandlingEvent(
+                    afterHandlingDispatcher.dispatch(new AfterHandlingEvent(
                             AuthContextUtils.getUsername(),
                             AuditElements.EventCategoryType.PUSH,
                             SyncopeConstants.REALM_ANYTYPE.toLowerCase(),
@@ -436,7 +432,6 @@ public class DefaultRealmPushResultHandler
                             beforeObj,
                             output,
                             realm));
-                    AfterHandlingJob.schedule(scheduler, jobMap);
                 }
             }
         }
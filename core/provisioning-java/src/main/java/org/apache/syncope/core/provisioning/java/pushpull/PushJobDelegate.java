@@ -20,14 +20,18 @@ package org.apache.syncope.core.provisioning.java.pushpull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.MutablePair;
 import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.to.ProvisioningReport;
 import org.apache.syncope.common.lib.types.ConflictResolutionAction;
 import org.apache.syncope.core.persistence.api.search.SearchCondConverter;
 import org.apache.syncope.core.spring.ApplicationContextProvider;
@@ -35,16 +39,12 @@ import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnySearchDAO;
 import org.apache.syncope.core.persistence.api.dao.RealmDAO;
 import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
-import org.apache.syncope.core.persistence.api.entity.Any;
 import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.persistence.api.entity.Realm;
-import org.apache.syncope.core.persistence.api.entity.anyobject.AnyObject;
-import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.resource.Provision;
 import org.apache.syncope.core.persistence.api.entity.task.PushTask;
 import org.apache.syncope.core.persistence.api.entity.task.PushTaskAnyFilter;
-import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.persistence.api.search.SearchCondVisitor;
 import org.apache.syncope.core.provisioning.api.Connector;
 import org.apache.syncope.core.provisioning.api.ProvisionSorter;
@@ -107,25 +107,39 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
         return status.get();
     }
 
+    /**
+     * Returns the name reported by the push result handler for the given key, or the key itself when no report
+     * carrying a name is available.
+     *
+     * @param key key of the entity just handled
+     * @return name of the entity just handled
+     */
+    protected String handledName(final String key) {
+        List<ProvisioningReport> results = profile.getResults();
+        for (ListIterator<ProvisioningReport> itor = results.listIterator(results.size()); itor.hasPrevious();) {
+            ProvisioningReport result = itor.previous();
+            if (key.equals(result.getKey())) {
+                return Optional.ofNullable(result.getName()).orElse(key);
+            }
+        }
+        return key;
+    }
+
     protected void doHandle(
-            final List<? extends Any<?>> anys,
+            final Stream<String> keys,
+            final String anyType,
             final SyncopePushResultHandler handler,
             final ExternalResource resource)
             throws JobExecutionException {
 
-        for (int i = 0; i < anys.size() && !interrupt; i++) {
+        for (Iterator<String> itor = keys.iterator(); itor.hasNext() && !interrupt;) {
+            String key = itor.next();
             try {
-                handler.handle(anys.get(i).getKey());
-                reportHandled(
-                        anys.get(i).getType().getKey(),
-                        (anys.get(i) instanceof User
-                        ? ((User) anys.get(i)).getUsername()
-                        : anys.get(i) instanceof Group
-                        ? ((Group) anys.get(i)).getName()
-                        : ((AnyObject) anys.get(i)).getName()));
+                handler.handle(key);
+                reportHandled(anyType, handledName(key));
             } catch (Exception e) {
-                LOG.warn("Failure pushing '{}' on '{}'", anys.get(i), resource, e);
-                throw new JobExecutionException("While pushing " + anys.get(i) + " on " + resource, e);
+                LOG.warn("Failure pushing '{}' on '{}'", key, resource, e);
+                throw new JobExecutionException("While pushing " + key + " on " + resource, e);
             }
         }
     }
@@ -244,19 +258,12 @@ public class PushJobDelegate extends AbstractProvisioningJobDelegate<PushTask> {
             SearchCond cond = StringUtils.isBlank(filter)
                     ? anyDAO.getAllMatchingCond()
                     : SearchCondConverter.convert(searchCondVisitor, filter);
-            int count = searchDAO.count(
+            try (Stream<String> keys = searchDAO.streamKeys(
                     Set.of(profile.getTask().getSourceRealm().getFullPath()),
                     cond,
-                    provision.getAnyType().getKind());
-            for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1 && !interrupt; page++) {
-                List<? extends Any<?>> anys = searchDAO.search(
-                        Set.of(profile.getTask().getSourceRealm().getFullPath()),
-                        cond,
-                        page,
-                        AnyDAO.DEFAULT_PAGE_SIZE,
-                        List.of(),
-                        provision.getAnyType().getKind());
-                doHandle(anys, handler, pushTask.getResource());
+                    provision.getAnyType().getKind())) {
+
+                doHandle(keys, provision.getAnyType().getKey(), handler, pushTask.getResource());
             }
         }
 
@@ -196,7 +196,7 @@ public class StreamPushJobDelegate extends PushJobDelegate implements SyncopeStr
             }
             handler.setProfile(profile);
 
-            doHandle(anys, handler, provision.getResource());
+            doHandle(anys.stream().map(Any::getKey), anyType.getKey(), handler, provision.getResource());
 
             for (PushActions action : pushActions) {
                 action.afterAll(profile);
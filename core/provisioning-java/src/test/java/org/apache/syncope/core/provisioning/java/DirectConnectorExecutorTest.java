@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.identityconnectors.framework.common.exceptions.ConnectorException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class DirectConnectorExecutorTest {
+
+    private DirectConnectorExecutor executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = new DirectConnectorExecutor();
+        ReflectionTestUtils.setField(executor, "enabled", true);
+        executor.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.destroy();
+    }
+
+    @Test
+    public void execute() throws Exception {
+        Thread caller = Thread.currentThread();
+        assertEquals(caller, executor.execute(Thread::currentThread, 1));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void failure() {
+        ConnectorException error = new ConnectorException("failure");
+        assertSame(error, assertThrows(ConnectorException.class, () -> executor.execute(() -> {
+            throw error;
+        }, 1)));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void timeout() {
+        assertThrows(TimeoutException.class, () -> executor.execute(() -> {
+            TimeUnit.SECONDS.sleep(10);
+            return null;
+        }, 1));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void interruptedElsewhere() throws Exception {
+        try {
+            assertEquals("done", executor.execute(() -> {
+                // interrupted as by Quartz, not responding until the deadline expired
+                Thread.currentThread().interrupt();
+                long end = System.currentTimeMillis() + 1500;
+                while (System.currentTimeMillis() < end) {
+                    Thread.yield();
+                }
+                return "done";
+            }, 1));
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.syncope.common.lib.types.AuditElements.EventCategoryType;
+import org.apache.syncope.common.lib.types.AuditElements.Result;
+import org.apache.syncope.common.lib.types.AuditLoggerName;
+import org.apache.syncope.common.lib.types.LoggerLevel;
+import org.apache.syncope.common.lib.types.LoggerType;
+import org.apache.syncope.core.persistence.api.dao.LoggerDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.Logger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Transactional("Master")
+public class EventRoutingTableTest extends AbstractTest {
+
+    @Autowired
+    private EventRoutingTable eventRoutingTable;
+
+    @Autowired
+    private LoggerDAO loggerDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    @Autowired
+    @Qualifier("Master")
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void route() {
+        assertTrue(eventRoutingTable.isNotified(EventCategoryType.CUSTOM, null, null, "requestPasswordReset"));
+        assertTrue(eventRoutingTable.isNotified(EventCategoryType.CUSTOM, "", " ", "unexisting1"));
+        assertFalse(eventRoutingTable.isNotified(EventCategoryType.CUSTOM, null, null, "unexisting3"));
+        assertFalse(eventRoutingTable.isNotified(EventCategoryType.LOGIC, null, null, "requestPasswordReset"));
+
+        assertTrue(eventRoutingTable.isAudited(EventCategoryType.LOGIC, "ConnectorLogic", null, "create"));
+        assertTrue(eventRoutingTable.isAudited(
+                EventCategoryType.LOGIC, "ConnectorLogic", null, "create", Result.SUCCESS));
+        assertFalse(eventRoutingTable.isAudited(
+                EventCategoryType.LOGIC, "ConnectorLogic", null, "create", Result.FAILURE));
+        assertFalse(eventRoutingTable.isAudited(EventCategoryType.LOGIC, "ConnectorLogic", null, "unexisting"));
+        assertFalse(eventRoutingTable.isNotified(EventCategoryType.LOGIC, "ConnectorLogic", null, "create"));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuildOnChange() {
+        assertFalse(eventRoutingTable.isAudited(EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting"));
+
+        String loggerKey = new AuditLoggerName(
+                EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting", Result.FAILURE).toLoggerName();
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        try {
+            tx.execute(status -> {
+                Logger logger = entityFactory.newEntity(Logger.class);
+                logger.setKey(loggerKey);
+                logger.setType(LoggerType.AUDIT);
+                logger.setLevel(LoggerLevel.DEBUG);
+                loggerDAO.save(logger);
+
+                // routes are only rebuilt once the change is committed
+                assertFalse(eventRoutingTable.isAudited(
+                        EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting"));
+                return null;
+            });
+
+            assertTrue(eventRoutingTable.isAudited(EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting"));
+            assertTrue(eventRoutingTable.isAudited(
+                    EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting", Result.FAILURE));
+            assertFalse(eventRoutingTable.isAudited(
+                    EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting", Result.SUCCESS));
+        } finally {
+            tx.execute(status -> {
+                loggerDAO.delete(loggerKey);
+                return null;
+            });
+        }
+
+        assertFalse(eventRoutingTable.isAudited(EventCategoryType.LOGIC, "ResourceLogic", null, "unexisting"));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AuditElements;
+import org.apache.syncope.core.provisioning.api.AuditManager;
+import org.apache.syncope.core.provisioning.api.event.AfterHandlingEvent;
+import org.apache.syncope.core.provisioning.api.notification.NotificationManager;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.quartz.JobDetail;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.Trigger;
+import org.springframework.scheduling.quartz.SchedulerFactoryBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AfterHandlingDispatcherTest extends AbstractTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private NotificationManager notificationManager;
+
+    private AuditManager auditManager;
+
+    private Scheduler scheduler;
+
+    private AfterHandlingDispatcher dispatcher;
+
+    private static AfterHandlingEvent event(final String name) {
+        return new AfterHandlingEvent(
+                "admin",
+                AuditElements.EventCategoryType.LOGIC,
+                "UserLogic",
+                null,
+                name,
+                AuditElements.Result.SUCCESS,
+                null,
+                null);
+    }
+
+    @BeforeEach
+    public void setUp() throws SchedulerException {
+        notificationManager = mock(NotificationManager.class);
+        auditManager = mock(AuditManager.class);
+
+        scheduler = mock(Scheduler.class);
+        SchedulerFactoryBean schedulerFactoryBean = mock(SchedulerFactoryBean.class);
+        when(schedulerFactoryBean.getScheduler()).thenReturn(scheduler);
+
+        dispatcher = new AfterHandlingDispatcher();
+        ReflectionTestUtils.setField(dispatcher, "durable", false);
+        ReflectionTestUtils.setField(dispatcher, "workers", 1);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 1);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "offerTimeout", 10L);
+        ReflectionTestUtils.setField(dispatcher, "notificationManager", notificationManager);
+        ReflectionTestUtils.setField(dispatcher, "auditManager", auditManager);
+        ReflectionTestUtils.setField(dispatcher, "scheduler", schedulerFactoryBean);
+        dispatcher.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        release.countDown();
+        dispatcher.destroy();
+    }
+
+    private void dispatch(final String name) {
+        AuthContextUtils.callAsAdmin(SyncopeConstants.MASTER_DOMAIN, () -> {
+            dispatcher.dispatch(event(name));
+            return null;
+        });
+    }
+
+    private void blockWorker() throws InterruptedException {
+        CountDownLatch busy = new CountDownLatch(1);
+        doAnswer(ic -> {
+            List<AfterHandlingEvent> events = ic.getArgument(0);
+            if ("handling".equals(events.get(0).getEvent())) {
+                busy.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return null;
+        }).when(notificationManager).createTasks(anyList());
+
+        dispatch("handling");
+        assertTrue(busy.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void queueFull() throws Exception {
+        blockWorker();
+
+        // queued...
+        dispatch("queued");
+        verify(scheduler, never()).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        // ...then scheduled, as the queue is full
+        dispatch("scheduled");
+        verify(scheduler).scheduleJob(any(JobDetail.class), any(Trigger.class));
+
+        release.countDown();
+        verify(auditManager, timeout(5000).times(2)).audit(any(AfterHandlingEvent.class));
+    }
+
+    @Test
+    public void fallback() throws Exception {
+        when(scheduler.isShutdown()).thenReturn(true);
+        blockWorker();
+
+        dispatch("queued");
+        // queue is full and scheduler is shut down: handled in the calling thread
+        dispatch("inline");
+        verify(notificationManager).createTasks(
+                argThat((List<AfterHandlingEvent> events) -> "inline".equals(events.get(0).getEvent())));
+        verify(auditManager).audit(argThat((AfterHandlingEvent event) -> "inline".equals(event.getEvent())));
+        verify(scheduler, never()).scheduleJob(any(JobDetail.class), any(Trigger.class));
+    }
+
+    @Test
+    public void shutdown() throws Exception {
+        blockWorker();
+        dispatch("queued");
+
+        // the worker completes the batch being handled as soon as the queued event is scheduled
+        doAnswer(ic -> {
+            release.countDown();
+            return null;
+        }).when(scheduler).scheduleJob(any(JobDetail.class), any(Trigger.class));
+        dispatcher.destroy();
+
+        verify(scheduler, times(1)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+        verify(auditManager, times(1)).audit(any(AfterHandlingEvent.class));
+
+        // no longer running: scheduled right away
+        dispatch("after");
+        verify(scheduler, times(2)).scheduleJob(any(JobDetail.class), any(Trigger.class));
+        assertEquals(0, ((BlockingQueue<?>) ReflectionTestUtils.getField(dispatcher, "queue")).size());
+    }
+
+    @Test
+    public void durable() throws Exception {
+        dispatcher.destroy();
+
+        ReflectionTestUtils.setField(dispatcher, "durable", true);
+        ReflectionTestUtils.setField(dispatcher, "executor", null);
+        dispatcher.afterPropertiesSet();
+        assertNull(ReflectionTestUtils.getField(dispatcher, "executor"));
+
+        // no worker started: scheduled right away
+        dispatch("durable");
+        verify(scheduler).scheduleJob(any(JobDetail.class), any(Trigger.class));
+        verify(notificationManager, never()).createTasks(anyList());
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.job.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mockingDetails;
+import static org.mockito.Mockito.spy;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.TaskType;
+import org.apache.syncope.common.lib.types.TraceLevel;
+import org.apache.syncope.core.persistence.api.dao.NotificationDAO;
+import org.apache.syncope.core.persistence.api.dao.TaskDAO;
+import org.apache.syncope.core.persistence.api.entity.EntityFactory;
+import org.apache.syncope.core.persistence.api.entity.task.NotificationTask;
+import org.apache.syncope.core.provisioning.api.notification.NotificationJobDelegate;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional("Master")
+public class DefaultNotificationJobDelegateTest extends AbstractTest {
+
+    @Autowired
+    private NotificationJobDelegate delegate;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private NotificationDAO notificationDAO;
+
+    @Autowired
+    private TaskDAO taskDAO;
+
+    @Autowired
+    private EntityFactory entityFactory;
+
+    @Test
+    public void execute() throws Exception {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            NotificationTask task = entityFactory.newEntity(NotificationTask.class);
+            task.setNotification(notificationDAO.find("9e2b911c-25de-4c77-bcea-b86ed9451050"));
+            task.setSender("syncope@syncope.apache.org");
+            task.getRecipients().add("recipient" + i + "@syncope.apache.org");
+            task.getRecipients().add("other" + i + "@syncope.apache.org");
+            task.setSubject("Test subject");
+            task.setTextBody("Test body " + i);
+            task.setHtmlBody("<p>Test body " + i + "</p>");
+            task.setTraceLevel(TraceLevel.ALL);
+            keys.add(taskDAO.save(task).getKey());
+        }
+        int toExec = taskDAO.findToExec(TaskType.NOTIFICATION).size();
+
+        Object target = AopTestUtils.getUltimateTargetObject(delegate);
+        JavaMailSenderImpl javaMailSender = spy((JavaMailSenderImpl) mailSender);
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP);
+        greenMail.start();
+        try {
+            javaMailSender.setHost("localhost");
+            javaMailSender.setPort(greenMail.getSmtp().getPort());
+            ReflectionTestUtils.setField(target, "mailSender", javaMailSender);
+            ReflectionTestUtils.setField(target, "batchSize", 20);
+
+            AuthContextUtils.callAsAdmin(SyncopeConstants.MASTER_DOMAIN, () -> {
+                delegate.execute("test");
+                return null;
+            });
+
+            assertTrue(greenMail.getReceivedMessages().length >= 100);
+            // one connection for each batch of tasks
+            assertEquals((toExec + 19) / 20, mockingDetails(javaMailSender).getInvocations().stream().
+                    filter(invocation -> "connectTransport".equals(invocation.getMethod().getName())).count());
+        } finally {
+            ReflectionTestUtils.setField(target, "mailSender", mailSender);
+            ReflectionTestUtils.setField(target, "batchSize", 100);
+            greenMail.stop();
+        }
+
+        keys.forEach(key -> {
+            NotificationTask task = taskDAO.find(key);
+            assertTrue(task.isExecuted());
+            assertEquals(NotificationJob.Status.SENT.name(), task.getExecs().get(0).getStatus());
+        });
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.notification;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.io.StringWriter;
+import java.util.Map;
+import org.apache.commons.jexl3.JxltEngine;
+import org.apache.commons.jexl3.MapContext;
+import org.apache.syncope.common.lib.types.MailTemplateFormat;
+import org.apache.syncope.core.persistence.api.dao.MailTemplateDAO;
+import org.apache.syncope.core.persistence.api.entity.MailTemplate;
+import org.apache.syncope.core.provisioning.java.AbstractTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Transactional("Master")
+public class MailTemplateCacheTest extends AbstractTest {
+
+    @Autowired
+    private MailTemplateCache mailTemplateCache;
+
+    @Autowired
+    private MailTemplateDAO mailTemplateDAO;
+
+    @Autowired
+    @Qualifier("Master")
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void get() {
+        MailTemplate mailTemplate = mailTemplateDAO.find("requestPasswordReset");
+        assertNotNull(mailTemplate);
+
+        JxltEngine.Template template = mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT);
+        assertNotNull(template);
+        assertSame(template, mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT));
+        assertNotSame(template, mailTemplateCache.get(mailTemplate, MailTemplateFormat.HTML));
+
+        mailTemplate.setTextTemplate("Hi ${user.username}");
+        JxltEngine.Template changed = mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT);
+        assertNotSame(template, changed);
+        assertSame(changed, mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT));
+
+        StringWriter writer = new StringWriter();
+        changed.evaluate(new MapContext(Map.of("user", Map.of("username", "rossini"))), writer);
+        assertEquals("Hi rossini", writer.toString());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void evictOnChange() {
+        MailTemplate mailTemplate = mailTemplateDAO.find("requestPasswordReset");
+        mailTemplateCache.get(mailTemplate, MailTemplateFormat.TEXT);
+        mailTemplateCache.get(mailTemplate, MailTemplateFormat.HTML);
+        int size = mailTemplateCache.getSize();
+
+        new TransactionTemplate(transactionManager).execute(status -> {
+            mailTemplateDAO.save(mailTemplateDAO.find("requestPasswordReset"));
+
+            // parsed templates are only removed once the change is committed
+            assertEquals(size, mailTemplateCache.getSize());
+            return null;
+        });
+
+        assertEquals(size - 2, mailTemplateCache.getSize());
+    }
+}
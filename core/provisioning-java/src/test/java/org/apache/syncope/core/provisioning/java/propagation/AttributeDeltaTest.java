@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.PropagationTask;
+import org.apache.syncope.core.provisioning.api.Connector;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.AttributeDelta;
+import org.identityconnectors.framework.common.objects.AttributeDeltaBuilder;
+import org.identityconnectors.framework.common.objects.ConnectorObject;
+import org.identityconnectors.framework.common.objects.ConnectorObjectBuilder;
+import org.identityconnectors.framework.common.objects.Name;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.identityconnectors.framework.common.objects.PredefinedAttributes;
+import org.identityconnectors.framework.common.objects.Uid;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AttributeDeltaTest {
+
+    private static final Attribute SURNAME = AttributeBuilder.build("surname", "Rossini");
+
+    private static final Attribute EMAIL = AttributeBuilder.build("email", "rossini@apache.org");
+
+    private static ConnectorObject beforeObj() {
+        return new ConnectorObjectBuilder().
+                setObjectClass(ObjectClass.ACCOUNT).
+                setUid("1234").
+                setName("rossini").
+                addAttribute(SURNAME).
+                addAttribute(AttributeBuilder.build("email", "gioacchino@apache.org")).
+                build();
+    }
+
+    private static PropagationTask task() {
+        ExternalResource resource = mock(ExternalResource.class);
+        when(resource.getKey()).thenReturn("resource-ldap");
+
+        PropagationTask task = mock(PropagationTask.class);
+        when(task.getResource()).thenReturn(resource);
+        when(task.getAttributes()).thenReturn(Set.of(new Name("rossini"), SURNAME, EMAIL));
+        return task;
+    }
+
+    private static Connector connector(final boolean updateDeltaSupported) {
+        Connector connector = mock(Connector.class);
+        when(connector.isUpdateDeltaSupported()).thenReturn(updateDeltaSupported);
+        return connector;
+    }
+
+    @Test
+    public void fullUpdateByDefault() {
+        PriorityPropagationTaskExecutor executor = new PriorityPropagationTaskExecutor();
+        Connector connector = connector(true);
+
+        executor.createOrUpdate(task(), beforeObj(), connector, new AtomicReference<>(false));
+
+        // unchanged attributes are sent anyway, to overwrite any change occurred on the remote object
+        verify(connector).update(
+                eq(ObjectClass.ACCOUNT), eq(new Uid("1234")), eq(Set.of(SURNAME, EMAIL)), any(), any());
+        verify(connector, never()).updateDelta(any(), any(), anySet(), any(), any());
+    }
+
+    @Test
+    public void deltaUpdate() {
+        PriorityPropagationTaskExecutor executor = new PriorityPropagationTaskExecutor();
+        ReflectionTestUtils.setField(executor, "updateDelta", true);
+
+        Connector connector = connector(true);
+        executor.createOrUpdate(task(), beforeObj(), connector, new AtomicReference<>(false));
+        verify(connector).updateDelta(
+                eq(ObjectClass.ACCOUNT),
+                eq(new Uid("1234")),
+                eq(Set.of(AttributeDeltaBuilder.build("email", List.of("rossini@apache.org")))),
+                any(),
+                any());
+        verify(connector, never()).update(any(), any(), anySet(), any(), any());
+
+        // not supported by the connector: all attributes are sent
+        connector = connector(false);
+        executor.createOrUpdate(task(), beforeObj(), connector, new AtomicReference<>(false));
+        verify(connector).update(
+                eq(ObjectClass.ACCOUNT), eq(new Uid("1234")), eq(Set.of(SURNAME, EMAIL)), any(), any());
+    }
+
+    @Test
+    public void singleValued() {
+        AttributeDelta delta = AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build("surname", "Verdi"), AttributeBuilder.build("surname", "Rossini"));
+        assertEquals(List.of("Verdi"), delta.getValuesToReplace());
+        assertNull(delta.getValuesToAdd());
+        assertNull(delta.getValuesToRemove());
+
+        delta = AbstractPropagationTaskExecutor.attributeDelta(AttributeBuilder.build("surname"), null);
+        assertEquals(List.of(), delta.getValuesToReplace());
+    }
+
+    @Test
+    public void multiValued() {
+        AttributeDelta delta = AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build("member", "uid=rossini", "uid=verdi", "uid=bellini"),
+                AttributeBuilder.build("MEMBER", "uid=rossini", "uid=puccini", "uid=verdi"));
+        assertEquals("member", delta.getName());
+        assertEquals(List.of("uid=bellini"), delta.getValuesToAdd());
+        assertEquals(List.of("uid=puccini"), delta.getValuesToRemove());
+        assertNull(delta.getValuesToReplace());
+
+        delta = AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build("member", "uid=rossini", "uid=verdi"), null);
+        assertEquals(List.of("uid=rossini", "uid=verdi"), delta.getValuesToAdd());
+        assertNull(delta.getValuesToRemove());
+
+        delta = AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build("member"),
+                AttributeBuilder.build("member", "uid=rossini", "uid=verdi"));
+        assertNull(delta.getValuesToAdd());
+        assertEquals(List.of("uid=rossini", "uid=verdi"), delta.getValuesToRemove());
+
+        // only ordering differs
+        assertNull(AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build("member", "uid=verdi", "uid=rossini"),
+                AttributeBuilder.build("member", "uid=rossini", "uid=verdi")));
+    }
+
+    @Test
+    public void special() {
+        AttributeDelta delta = AbstractPropagationTaskExecutor.attributeDelta(
+                AttributeBuilder.build(PredefinedAttributes.GROUPS_NAME, "root", "child"),
+                AttributeBuilder.build(PredefinedAttributes.GROUPS_NAME, "root"));
+        assertEquals(List.of("root", "child"), delta.getValuesToReplace());
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.TimeoutException;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.identityconnectors.framework.common.exceptions.ConnectionFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PropagationBulkheadsTest {
+
+    private static final String DOMAIN = SyncopeConstants.MASTER_DOMAIN;
+
+    private static class BlockingCallable implements PropagationTaskCallable {
+
+        private final CountDownLatch latch;
+
+        BlockingCallable(final CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void setTaskInfo(final PropagationTaskInfo taskInfo) {
+            // not needed
+        }
+
+        @Override
+        public void setReporter(final PropagationReporter reporter) {
+            // not needed
+        }
+
+        @Override
+        public void setExecutor(final String executor) {
+            // not needed
+        }
+
+        @Override
+        public TaskExec call() throws InterruptedException {
+            latch.await(10, TimeUnit.SECONDS);
+            return null;
+        }
+    }
+
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    private PropagationBulkheads bulkheads;
+
+    @BeforeEach
+    public void setUp() {
+        taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.initialize();
+
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "provisioning.propagation.bulkhead.resource-csv.concurrency", 2)));
+
+        bulkheads = new PropagationBulkheads();
+        ReflectionTestUtils.setField(bulkheads, "env", env);
+        ReflectionTestUtils.setField(bulkheads, "taskExecutor", taskExecutor);
+        ReflectionTestUtils.setField(bulkheads, "concurrency", 1);
+        ReflectionTestUtils.setField(bulkheads, "queueCapacity", 1);
+        ReflectionTestUtils.setField(bulkheads, "failureThreshold", 2);
+        ReflectionTestUtils.setField(bulkheads, "openTimeout", 1L);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        bulkheads.destroy();
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    public void bulkhead() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+
+        // resource-ldap: 1 running + 1 queued, then saturated
+        bulkheads.submit(DOMAIN, "resource-ldap", new BlockingCallable(latch));
+        bulkheads.submit(DOMAIN, "resource-ldap", new BlockingCallable(latch));
+        assertThrows(RejectedExecutionException.class,
+                () -> bulkheads.submit(DOMAIN, "resource-ldap", new BlockingCallable(latch)));
+
+        // other resources are not affected
+        Future<TaskExec> other = bulkheads.submit(DOMAIN, "resource-db", new BlockingCallable(new CountDownLatch(0)));
+        other.get(5, TimeUnit.SECONDS);
+
+        // same resource on other domains is not affected
+        other = bulkheads.submit("Two", "resource-ldap", new BlockingCallable(new CountDownLatch(0)));
+        other.get(5, TimeUnit.SECONDS);
+
+        // resource-csv: 2 running + 1 queued, as overridden
+        bulkheads.submit(DOMAIN, "resource-csv", new BlockingCallable(latch));
+        bulkheads.submit(DOMAIN, "resource-csv", new BlockingCallable(latch));
+        bulkheads.submit(DOMAIN, "resource-csv", new BlockingCallable(latch));
+
+        assertTrue(bulkheads.getStatus().get(DOMAIN + "/resource-ldap").contains("rejected=1"));
+        assertTrue(bulkheads.getStatus().get(DOMAIN + "/resource-db").contains("completed=1"));
+
+        latch.countDown();
+    }
+
+    @Test
+    public void circuitBreaker() throws InterruptedException {
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+
+        // failures not related to availability do not count
+        bulkheads.onFailure(DOMAIN, "resource-ldap", new IllegalArgumentException());
+        bulkheads.onFailure(DOMAIN, "resource-ldap", new IllegalArgumentException());
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+
+        bulkheads.onFailure(DOMAIN, "resource-ldap", new TimeoutException("Request timeout"));
+        bulkheads.onSuccess(DOMAIN, "resource-ldap");
+        bulkheads.onFailure(DOMAIN, "resource-ldap", new TimeoutException("Request timeout"));
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+
+        bulkheads.onFailure(DOMAIN, "resource-ldap", new RuntimeException(new ConnectionFailedException("down")));
+        assertFalse(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-db"));
+        assertTrue(bulkheads.allowRequest("Two", "resource-ldap"));
+
+        // half open: only one attempt allowed
+        TimeUnit.MILLISECONDS.sleep(1100);
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+        assertFalse(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+
+        bulkheads.onSuccess(DOMAIN, "resource-ldap");
+        assertTrue(bulkheads.allowRequest(DOMAIN, "resource-ldap"));
+    }
+}
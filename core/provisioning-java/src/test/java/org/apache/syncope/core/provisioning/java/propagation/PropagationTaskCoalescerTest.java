@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.syncope.common.lib.types.ResourceOperation;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.persistence.api.entity.task.TaskExec;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationReporter;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskCallable;
+import org.apache.syncope.core.provisioning.api.propagation.PropagationTaskInfo;
+import org.apache.syncope.core.provisioning.api.serialization.POJOHelper;
+import org.identityconnectors.framework.common.objects.Attribute;
+import org.identityconnectors.framework.common.objects.AttributeBuilder;
+import org.identityconnectors.framework.common.objects.ObjectClass;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class PropagationTaskCoalescerTest {
+
+    private final Map<String, PropagationTaskInfo> executed = new ConcurrentHashMap<>();
+
+    private final Map<String, PropagationTaskInfo> rejected = new ConcurrentHashMap<>();
+
+    private ExternalResource resource;
+
+    private ThreadPoolTaskExecutor taskExecutor;
+
+    private PendingPropagationTaskStore store;
+
+    private PropagationTaskCoalescer coalescer;
+
+    private class TestCallable implements PropagationTaskCallable {
+
+        private PropagationTaskInfo taskInfo;
+
+        @Override
+        public void setTaskInfo(final PropagationTaskInfo taskInfo) {
+            this.taskInfo = taskInfo;
+        }
+
+        @Override
+        public void setReporter(final PropagationReporter reporter) {
+            // not needed
+        }
+
+        @Override
+        public void setExecutor(final String executor) {
+            // not needed
+        }
+
+        @Override
+        public TaskExec call() {
+            executed.put(taskInfo.getConnObjectKey() + "/" + taskInfo.getOperation(), taskInfo);
+            return null;
+        }
+    }
+
+    private PropagationTaskInfo taskInfo(
+            final ResourceOperation operation, final String connObjectKey, final Attribute... attrs) {
+
+        PropagationTaskInfo taskInfo = new PropagationTaskInfo(resource);
+        taskInfo.setOperation(operation);
+        taskInfo.setObjectClassName(ObjectClass.ACCOUNT_NAME);
+        taskInfo.setConnObjectKey(connObjectKey);
+        taskInfo.setAttributes(POJOHelper.serialize(List.of(attrs)));
+        return taskInfo;
+    }
+
+    private static Map<String, Attribute> attrs(final PropagationTaskInfo taskInfo) {
+        return Stream.of(POJOHelper.deserialize(taskInfo.getAttributes(), Attribute[].class)).
+                collect(Collectors.toMap(Attribute::getName, attr -> attr));
+    }
+
+    private void offer(final PropagationTaskInfo taskInfo) {
+        PropagationTaskCallable callable = new TestCallable();
+        callable.setTaskInfo(taskInfo);
+        coalescer.offer(taskInfo, callable, (notAttempted, reason) -> rejected.put(
+                notAttempted.getConnObjectKey() + "/" + notAttempted.getOperation(), notAttempted));
+    }
+
+    private void await(final int count) throws InterruptedException {
+        for (int i = 0; i < 100 && executed.size() < count; i++) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        resource = mock(ExternalResource.class);
+        when(resource.getKey()).thenReturn("resource-ldap");
+
+        taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.initialize();
+
+        PropagationBulkheads bulkheads = new PropagationBulkheads();
+        ReflectionTestUtils.setField(bulkheads, "env", new StandardEnvironment());
+        ReflectionTestUtils.setField(bulkheads, "taskExecutor", taskExecutor);
+
+        store = mock(PendingPropagationTaskStore.class);
+        when(store.save(any(), any())).thenAnswer(ic -> ic.getArgument(1) == null
+                ? UUID.randomUUID().toString()
+                : ic.getArgument(1));
+
+        coalescer = new PropagationTaskCoalescer();
+        ReflectionTestUtils.setField(coalescer, "window", 1000L);
+        ReflectionTestUtils.setField(coalescer, "bulkheads", bulkheads);
+        ReflectionTestUtils.setField(coalescer, "store", store);
+        coalescer.afterPropertiesSet();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        coalescer.destroy();
+        taskExecutor.shutdown();
+    }
+
+    @Test
+    public void coalesce() throws InterruptedException {
+        offer(taskInfo(ResourceOperation.CREATE, "rossini",
+                AttributeBuilder.build("surname", "Rossini"),
+                AttributeBuilder.buildPassword("password123".toCharArray())));
+        offer(taskInfo(ResourceOperation.UPDATE, "rossini", AttributeBuilder.build("surname", "Verdi")));
+        offer(taskInfo(ResourceOperation.UPDATE, "rossini", AttributeBuilder.build("surname", "Puccini")));
+        offer(taskInfo(ResourceOperation.UPDATE, "bellini", AttributeBuilder.build("surname", "Bellini")));
+
+        assertEquals(2, coalescer.getPending());
+        assertEquals(2, coalescer.getMerged());
+
+        await(2);
+        assertEquals(2, executed.size());
+        assertEquals(4, coalescer.getQueued());
+        assertEquals(2, coalescer.getExecuted());
+
+        Map<String, Attribute> rossini = attrs(executed.get("rossini/UPDATE"));
+        assertEquals(List.of("Puccini"), rossini.get("surname").getValue());
+        assertTrue(rossini.containsKey("__PASSWORD__"));
+
+        assertEquals(List.of("Bellini"), attrs(executed.get("bellini/UPDATE")).get("surname").getValue());
+
+        // stored once for each connector object, then updated in place
+        verify(store, times(2)).save(any(), isNull());
+        verify(store, times(2)).save(any(), eq(executed.get("rossini/UPDATE").getKey()));
+        assertNotNull(executed.get("rossini/UPDATE").getKey());
+        // hence removed once executed
+        assertTrue(executed.get("rossini/UPDATE").isPending());
+    }
+
+    @Test
+    public void flush() {
+        offer(taskInfo(ResourceOperation.UPDATE, "rossini", AttributeBuilder.build("surname", "Verdi")));
+        assertEquals(1, coalescer.getPending());
+
+        // renamed: the task held back is executed right away
+        PropagationTaskInfo rename = taskInfo(ResourceOperation.UPDATE, "verdi");
+        rename.setOldConnObjectKey("rossini");
+        coalescer.flush(rename);
+
+        assertEquals(0, coalescer.getPending());
+        assertEquals(1, executed.size());
+        assertTrue(executed.containsKey("rossini/UPDATE"));
+
+        // re-execution of the stored task: not executed twice
+        PropagationTaskInfo bellini = taskInfo(
+                ResourceOperation.UPDATE, "bellini", AttributeBuilder.build("surname", "Bellini"));
+        offer(bellini);
+        PropagationTaskInfo stored = taskInfo(ResourceOperation.UPDATE, "bellini");
+        stored.setKey(bellini.getKey());
+        assertFalse(stored.isPending());
+        coalescer.flush(stored);
+        assertEquals(0, coalescer.getPending());
+        assertNull(executed.get("bellini/UPDATE"));
+    }
+
+    @Test
+    public void rejected() {
+        offer(taskInfo(ResourceOperation.UPDATE, "rossini", AttributeBuilder.build("surname", "Verdi")));
+        taskExecutor.shutdown();
+
+        // executor saturated: reported as not attempted, not executed in the current thread
+        coalescer.flush(taskInfo(ResourceOperation.UPDATE, "rossini"));
+        assertTrue(rejected.containsKey("rossini/UPDATE"));
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    public void destroy() {
+        offer(taskInfo(ResourceOperation.UPDATE, "rossini", AttributeBuilder.build("surname", "Verdi")));
+        taskExecutor.shutdown();
+
+        coalescer.destroy();
+        assertEquals(0, coalescer.getPending());
+        assertTrue(executed.containsKey("rossini/UPDATE"));
+    }
+
+    @Test
+    public void notAfterDelete() throws InterruptedException {
+        offer(taskInfo(ResourceOperation.DELETE, "rossini"));
+        offer(taskInfo(ResourceOperation.CREATE, "rossini", AttributeBuilder.build("surname", "Rossini")));
+
+        assertEquals(1, coalescer.getPending());
+        assertEquals(0, coalescer.getMerged());
+
+        await(2);
+        assertEquals(2, executed.size());
+        assertTrue(executed.containsKey("rossini/DELETE"));
+        assertTrue(executed.containsKey("rossini/CREATE"));
+    }
+
+    @Test
+    public void rename() {
+        PropagationTaskInfo taskInfo = taskInfo(ResourceOperation.UPDATE, "rossini");
+        assertTrue(coalescer.accepts(taskInfo));
+
+        taskInfo.setOldConnObjectKey("verdi");
+        assertFalse(coalescer.accepts(taskInfo));
+    }
+}
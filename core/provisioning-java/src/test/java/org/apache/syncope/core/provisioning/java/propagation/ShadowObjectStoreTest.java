@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.provisioning.java.propagation;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
+import org.apache.syncope.core.spring.security.AuthContextUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ShadowObjectStoreTest {
+
+    private static ExternalResource resource(final String key) {
+        ExternalResource resource = mock(ExternalResource.class);
+        when(resource.getKey()).thenReturn(key);
+        return resource;
+    }
+
+    @Test
+    public void isEnabled() {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "provisioning.shadow.Two.resources", "resource-ldap")));
+
+        ShadowObjectStore store = new ShadowObjectStore();
+        ReflectionTestUtils.setField(store, "env", env);
+        ReflectionTestUtils.setField(store, "resources", " resource-testdb , resource-ldap,");
+
+        assertTrue(store.isEnabled(resource("resource-testdb")));
+        assertTrue(store.isEnabled(resource("resource-ldap")));
+        assertFalse(store.isEnabled(resource("resource-csv")));
+        assertFalse(store.isEnabled(resource("")));
+
+        assertTrue(AuthContextUtils.callAs(
+                "Two", "admin", List.of(), () -> store.isEnabled(resource("resource-ldap"))));
+        assertFalse(AuthContextUtils.callAs(
+                "Two", "admin", List.of(), () -> store.isEnabled(resource("resource-testdb"))));
+        assertTrue(AuthContextUtils.callAs(
+                SyncopeConstants.MASTER_DOMAIN, "admin", List.of(), () -> store.isEnabled(resource("resource-testdb"))));
+    }
+}
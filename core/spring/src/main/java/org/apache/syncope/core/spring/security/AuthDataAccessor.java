@@ -53,6 +53,7 @@ import org.apache.syncope.core.persistence.api.dao.search.SearchCond;
 import org.apache.syncope.core.persistence.api.entity.AccessToken;
 import org.apache.syncope.core.persistence.api.entity.Entity;
 import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
 import org.apache.syncope.core.persistence.api.entity.resource.ExternalResource;
 import org.apache.syncope.core.persistence.api.entity.user.User;
 import org.apache.syncope.core.provisioning.api.AuditManager;
@@ -96,6 +97,9 @@ public class AuthDataAccessor {
     @Resource(name = "anonymousUser")
     protected String anonymousUser;
 
+    @Resource(name = "jwtIssuer")
+    protected String jwtIssuer;
+
     @Autowired
     protected RealmDAO realmDAO;
 
@@ -129,6 +133,15 @@ public class AuthDataAccessor {
     @Autowired
     protected ImplementationLookup implementationLookup;
 
+    @Autowired
+    protected JWTAuthorityCache jwtAuthorityCache;
+
+    @Autowired
+    protected UserAuthorityCache userAuthorityCache;
+
+    @Autowired
+    protected PasswordVerificationCache passwordVerificationCache;
+
     private Map<String, JWTSSOProvider> jwtSSOProviders;
 
     public JWTSSOProvider getJWTSSOProvider(final String issuer) {
@@ -214,6 +227,8 @@ public class AuthDataAccessor {
                 }
 
             } else {
+                passwordVerificationCache.failed(user.getKey());
+
                 user.setFailedLogins(user.getFailedLogins() + 1);
                 userModified = true;
             }
@@ -227,7 +242,8 @@ public class AuthDataAccessor {
     }
 
     protected boolean authenticate(final User user, final String password) {
-        boolean authenticated = ENCRYPTOR.verify(password, user.getCipherAlgorithm(), user.getPassword());
+        boolean authenticated = passwordVerificationCache.verify(
+                user, password, () -> ENCRYPTOR.verify(password, user.getCipherAlgorithm(), user.getPassword()));
         LOG.debug("{} authenticated on internal storage: {}", user.getUsername(), authenticated);
 
         for (Iterator<? extends ExternalResource> itor = getPassthroughResources(user).iterator();
@@ -296,52 +312,66 @@ public class AuthDataAccessor {
     }
 
     protected Set<SyncopeGrantedAuthority> getUserAuthorities(final User user) {
-        Set<SyncopeGrantedAuthority> authorities = new HashSet<>();
-
         if (user.isMustChangePassword()) {
-            authorities.add(new SyncopeGrantedAuthority(IdRepoEntitlement.MUST_CHANGE_PASSWORD));
-        } else {
-            Map<String, Set<String>> entForRealms = new HashMap<>();
+            return Set.of(new SyncopeGrantedAuthority(IdRepoEntitlement.MUST_CHANGE_PASSWORD));
+        }
+
+        String domain = AuthContextUtils.getDomain();
+        Set<SyncopeGrantedAuthority> cached = userAuthorityCache.get(domain, user);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = userAuthorityCache.generation();
+
+        Map<String, Set<String>> entForRealms = new HashMap<>();
+
+        // Give entitlements as assigned by roles (with static or dynamic realms, where applicable) - assigned
+        // either statically and dynamically
+        userDAO.findAllRoles(user).forEach(role -> role.getEntitlements().forEach(entitlement -> {
+            Set<String> realms = entForRealms.get(entitlement);
+            if (realms == null) {
+                realms = new HashSet<>();
+                entForRealms.put(entitlement, realms);
+            }
+            realms.addAll(role.getRealms().stream().
+                    map(Realm::getFullPath).collect(Collectors.toSet()));
+            if (!entitlement.endsWith("_CREATE") && !entitlement.endsWith("_DELETE")) {
+                realms.addAll(role.getDynRealms().stream().map(Entity::getKey).collect(Collectors.toList()));
+            }
+        }));
 
-            // Give entitlements as assigned by roles (with static or dynamic realms, where applicable) - assigned
-            // either statically and dynamically
-            userDAO.findAllRoles(user).forEach(role -> role.getEntitlements().forEach(entitlement -> {
+        // Give group entitlements for owned groups
+        List<Group> owned = groupDAO.findOwnedByUser(user.getKey());
+        owned.forEach((group) -> {
+            for (String entitlement : GROUP_OWNER_ENTITLEMENTS) {
                 Set<String> realms = entForRealms.get(entitlement);
                 if (realms == null) {
                     realms = new HashSet<>();
                     entForRealms.put(entitlement, realms);
                 }
-                realms.addAll(role.getRealms().stream().
-                        map(Realm::getFullPath).collect(Collectors.toSet()));
-                if (!entitlement.endsWith("_CREATE") && !entitlement.endsWith("_DELETE")) {
-                    realms.addAll(role.getDynRealms().stream().map(Entity::getKey).collect(Collectors.toList()));
-                }
-            }));
-
-            // Give group entitlements for owned groups
-            groupDAO.findOwnedByUser(user.getKey()).forEach((group) -> {
-                for (String entitlement : GROUP_OWNER_ENTITLEMENTS) {
-                    Set<String> realms = entForRealms.get(entitlement);
-                    if (realms == null) {
-                        realms = new HashSet<>();
-                        entForRealms.put(entitlement, realms);
-                    }
-
-                    realms.add(RealmUtils.getGroupOwnerRealm(group.getRealm().getFullPath(), group.getKey()));
-                }
-            });
-
-            // Finally normalize realms for each given entitlement and generate authorities
-            entForRealms.entrySet().stream().map(entry -> {
-                SyncopeGrantedAuthority authority = new SyncopeGrantedAuthority(entry.getKey());
-                authority.addRealms(RealmUtils.normalize(entry.getValue()));
-                return authority;
-            }).forEachOrdered(authorities::add);
-        }
 
+                realms.add(RealmUtils.getGroupOwnerRealm(group.getRealm().getFullPath(), group.getKey()));
+            }
+        });
+
+        // Finally normalize realms for each given entitlement and generate authorities
+        Set<SyncopeGrantedAuthority> authorities = new HashSet<>();
+        entForRealms.entrySet().stream().map(entry -> {
+            SyncopeGrantedAuthority authority = new SyncopeGrantedAuthority(entry.getKey());
+            authority.addRealms(RealmUtils.normalize(entry.getValue()));
+            return authority;
+        }).forEachOrdered(authorities::add);
+
+        userAuthorityCache.put(domain, user, authorities, getGroupOwnership(user, owned), generation);
         return authorities;
     }
 
+    protected GroupOwnership getGroupOwnership(final User user, final List<Group> owned) {
+        return new GroupOwnership(
+                userDAO.findAllGroupKeys(user),
+                owned.stream().map(Entity::getKey).collect(Collectors.toSet()));
+    }
+
     @Transactional
     public Set<SyncopeGrantedAuthority> getAuthorities(final String username) {
         Set<SyncopeGrantedAuthority> authorities;
@@ -364,7 +394,25 @@ public class AuthDataAccessor {
 
     @Transactional
     public Pair<String, Set<SyncopeGrantedAuthority>> authenticate(final JWTAuthentication authentication) {
+        String domain = authentication.getDetails().getDomain();
+        Pair<String, Set<SyncopeGrantedAuthority>> cached = jwtAuthorityCache.get(domain, authentication.getClaims());
+        if (cached != null) {
+            // JWTs issued by Syncope are only valid as long as the related access token exists, possibly
+            // removed on another node
+            if ((adminUser.equals(authentication.getClaims().getSubject())
+                    || jwtIssuer.equals(authentication.getClaims().getIssuer()))
+                    && accessTokenDAO.find(authentication.getClaims().getTokenId()) == null) {
+
+                jwtAuthorityCache.invalidate(domain, authentication.getClaims().getTokenId());
+            } else {
+                return cached;
+            }
+        }
+        long generation = jwtAuthorityCache.generation();
+
         String username;
+        String userKey = null;
+        GroupOwnership ownership = GroupOwnership.NONE;
         Set<SyncopeGrantedAuthority> authorities;
 
         if (adminUser.equals(authentication.getClaims().getSubject())) {
@@ -387,6 +435,8 @@ public class AuthDataAccessor {
 
             User user = resolved.getLeft();
             username = user.getUsername();
+            userKey = user.getKey();
+            ownership = getGroupOwnership(user, groupDAO.findOwnedByUser(userKey));
             authorities = resolved.getRight() == null ? Set.of() : resolved.getRight();
             LOG.debug("JWT {} issued by {} resolved to User {} with authorities {}",
                     authentication.getClaims().getTokenId(),
@@ -397,7 +447,7 @@ public class AuthDataAccessor {
                 throw new DisabledException("User " + username + " is suspended");
             }
 
-            List<String> authStatuses = List.of(confParamOps.get(authentication.getDetails().getDomain(),
+            List<String> authStatuses = List.of(confParamOps.get(domain,
                     "authentication.statuses", new String[] {}, String[].class));
             if (!authStatuses.contains(user.getStatus())) {
                 throw new DisabledException("User " + username + " not allowed to authenticate");
@@ -410,7 +460,9 @@ public class AuthDataAccessor {
             }
         }
 
-        return Pair.of(username, authorities);
+        Pair<String, Set<SyncopeGrantedAuthority>> authenticated = Pair.of(username, authorities);
+        jwtAuthorityCache.put(domain, authentication.getClaims(), userKey, ownership, authenticated, generation);
+        return authenticated;
     }
 
     @Transactional
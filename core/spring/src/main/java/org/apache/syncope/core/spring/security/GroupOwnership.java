@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.util.Collection;
+import java.util.Set;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+
+/**
+ * Groups which the entitlements granted to a given user on owned groups depend upon: the groups the user is member
+ * of, as any of these might own other groups, and the groups owned by the user, either directly or via membership.
+ */
+public final class GroupOwnership {
+
+    /**
+     * For users not owning any group via membership or directly.
+     */
+    public static final GroupOwnership NONE = new GroupOwnership(Set.of(), Set.of());
+
+    private final Set<String> memberOf;
+
+    private final Set<String> owned;
+
+    /**
+     * @param memberOf keys of the groups the user is member of, either statically or dynamically
+     * @param owned keys of the groups owned by the user, either directly or via membership
+     */
+    public GroupOwnership(final Collection<String> memberOf, final Collection<String> owned) {
+        this.memberOf = Set.copyOf(memberOf);
+        this.owned = Set.copyOf(owned);
+    }
+
+    /**
+     * Tells whether the given group, just created or updated, might grant or revoke entitlements to the user, i.e.
+     * if it was owned by the user or is now owned by the user, either directly or via membership.
+     *
+     * @param userKey user key
+     * @param group group created or updated
+     * @return whether the entitlements granted to the user might have changed
+     */
+    public boolean isAffectedBy(final String userKey, final Group group) {
+        return owned.contains(group.getKey())
+                || (group.getUserOwner() != null && userKey.equals(group.getUserOwner().getKey()))
+                || (group.getGroupOwner() != null && memberOf.contains(group.getGroupOwner().getKey()));
+    }
+
+    /**
+     * Tells whether the given group, deleted or updated without further details, might revoke entitlements to the
+     * user, i.e. if it was owned by the user or might own other groups on behalf of the user.
+     *
+     * @param groupKey group key
+     * @return whether the entitlements granted to the user might have changed
+     */
+    public boolean isAffectedBy(final String groupKey) {
+        return owned.contains(groupKey) || memberOf.contains(groupKey);
+    }
+}
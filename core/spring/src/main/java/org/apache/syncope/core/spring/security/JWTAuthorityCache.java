@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.cxf.rs.security.jose.jwt.JwtClaims;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.AccessToken;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps, for each JWT, the username and authorities resolved by {@link AuthDataAccessor}, so that further requests
+ * bearing the same JWT do not need to read and decrypt the stored authorities again.
+ * Entries are identified by domain, issuer, subject and JWT id: JWTs lacking any of these are never cached.
+ * Entries are kept at most until the JWT expires or the configured maximum age elapses, and removed as soon as the
+ * related access token, the user or any role or realm is changed on the local node, or any group affecting the
+ * ownership of groups by the user - see {@link GroupOwnership}; as changes on other nodes are not notified, the
+ * maximum age bounds the time such changes take to be effective.
+ */
+@ManagedResource(description = "JWT authority cache")
+public class JWTAuthorityCache {
+
+    private static final class Value {
+
+        private final Pair<String, Set<SyncopeGrantedAuthority>> authenticated;
+
+        private final String userKey;
+
+        private final GroupOwnership ownership;
+
+        private final long expiry;
+
+        private Value(
+                final Pair<String, Set<SyncopeGrantedAuthority>> authenticated,
+                final String userKey,
+                final GroupOwnership ownership,
+                final long expiry) {
+
+            this.authenticated = authenticated;
+            this.userKey = userKey;
+            this.ownership = ownership;
+            this.expiry = expiry;
+        }
+    }
+
+    private final int maxSize;
+
+    private final long maxAge;
+
+    private final Map<List<String>, Value> values;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries, 0 to disable
+     * @param maxAge maximum time (in seconds) to keep each entry, -1 to keep it until the JWT expires
+     */
+    public JWTAuthorityCache(final int maxSize, final long maxAge) {
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.values = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 5922706442562950573L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<String>, Value> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * To be invoked before resolving the authorities to cache, then passed to
+     * {@link #put(String, JwtClaims, String, GroupOwnership, Pair, long)}.
+     *
+     * @return current generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    private static List<String> key(final String domain, final JwtClaims claims) {
+        return domain == null
+                || claims.getIssuer() == null
+                || claims.getSubject() == null
+                || claims.getTokenId() == null
+                ? null
+                : List.of(domain, claims.getIssuer(), claims.getSubject(), claims.getTokenId());
+    }
+
+    /**
+     * Returns the cached username and authorities for the given JWT, if any.
+     *
+     * @param domain domain
+     * @param claims JWT claims
+     * @return username and authorities, or null if not found
+     */
+    public Pair<String, Set<SyncopeGrantedAuthority>> get(final String domain, final JwtClaims claims) {
+        List<String> key = key(domain, claims);
+        Value value = key == null ? null : values.get(key);
+        if (value != null && value.expiry < System.currentTimeMillis()) {
+            values.remove(key);
+            value = null;
+        }
+
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return value.authenticated;
+    }
+
+    /**
+     * Caches the given username and authorities for the given JWT, unless any change occurred since the given
+     * generation was read.
+     *
+     * @param domain domain
+     * @param claims JWT claims: nothing is cached if expiry time, issuer, subject or JWT id are missing
+     * @param userKey key of the user owning the JWT, null for admin
+     * @param ownership groups the entitlements granted to the user on owned groups depend upon
+     * @param authenticated username and authorities
+     * @param generation generation read before resolving authorities
+     */
+    public void put(
+            final String domain,
+            final JwtClaims claims,
+            final String userKey,
+            final GroupOwnership ownership,
+            final Pair<String, Set<SyncopeGrantedAuthority>> authenticated,
+            final long generation) {
+
+        List<String> key = key(domain, claims);
+        if (maxSize <= 0 || key == null || claims.getExpiryTime() == null) {
+            return;
+        }
+
+        long expiry = claims.getExpiryTime() * 1000L;
+        if (maxAge >= 0) {
+            expiry = Math.min(expiry, System.currentTimeMillis() + maxAge * 1000L);
+        }
+
+        synchronized (values) {
+            if (this.generation.get() == generation) {
+                values.put(
+                        key,
+                        new Value(Pair.of(authenticated.getLeft(), Set.copyOf(authenticated.getRight())),
+                                userKey, ownership, expiry));
+            }
+        }
+    }
+
+    private void invalidate(final String domain, final BiPredicate<String, Value> affected) {
+        synchronized (values) {
+            generation.incrementAndGet();
+            values.entrySet().removeIf(entry -> entry.getKey().get(0).equals(domain)
+                    && affected.test(entry.getKey().get(3), entry.getValue()));
+        }
+    }
+
+    private void invalidate(final String domain, final String tokenId, final String userKey) {
+        invalidate(domain, (entryTokenId, value) -> (tokenId == null || tokenId.equals(entryTokenId))
+                && (userKey == null || userKey.equals(value.userKey)));
+    }
+
+    /**
+     * Removes the cached entry for the given JWT, if any.
+     *
+     * @param domain domain
+     * @param tokenId JWT id
+     */
+    public void invalidate(final String domain, final String tokenId) {
+        invalidate(domain, tokenId, null);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final EntityChangedEvent event) {
+        if (AccessToken.class.equals(event.getReference())) {
+            invalidate(event.getDomain(), event.getKey(), null);
+        } else if (Role.class.equals(event.getReference()) || Realm.class.equals(event.getReference())) {
+            invalidate(event.getDomain(), null, null);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final AnyCreatedUpdatedEvent<?> event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            invalidate(event.getDomain(), null, event.getAnyKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            // group owners are granted entitlements on owned groups
+            if (event.getAny() == null) {
+                invalidate(event.getDomain(), (tokenId, value) -> value.ownership.isAffectedBy(event.getAnyKey()));
+            } else {
+                Group group = (Group) event.getAny();
+                invalidate(event.getDomain(), (tokenId, value) -> value.userKey != null
+                        && value.ownership.isAffectedBy(value.userKey, group));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void deleted(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            invalidate(event.getDomain(), null, event.getAnyKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            invalidate(event.getDomain(), (tokenId, value) -> value.ownership.isAffectedBy(event.getAnyKey()));
+        }
+    }
+
+    @ManagedOperation(description = "Removes all cached authorities")
+    public void clear() {
+        synchronized (values) {
+            generation.incrementAndGet();
+            values.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of cached JWTs")
+    public int getSize() {
+        return values.size();
+    }
+
+    @ManagedAttribute(description = "Number of lookups finding the requested JWT")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of lookups not finding the requested JWT")
+    public long getMisses() {
+        return misses.get();
+    }
+}
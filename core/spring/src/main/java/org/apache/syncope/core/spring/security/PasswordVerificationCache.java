@@ -0,0 +1,231 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.apache.commons.lang3.BooleanUtils;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps, for a short time, the outcome of verifying a given password against the one stored for a given user, so
+ * that clients sending credentials with every request do not pay for a full BCrypt or salted digest verification
+ * each time.
+ * Entries are looked up by an HMAC of user key and password, computed with a random key generated at startup and
+ * never stored: clear passwords are never kept. Each entry is only valid for the stored password it was verified
+ * against, and is removed as soon as the user is suspended, changes password or is deleted; successful verifications
+ * are also removed when the user fails to authenticate.
+ */
+@ManagedResource(description = "Password verification cache")
+public class PasswordVerificationCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PasswordVerificationCache.class);
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private static final class Value {
+
+        private final String userKey;
+
+        private final String encoded;
+
+        private final boolean verified;
+
+        private final long expiry;
+
+        private Value(final String userKey, final String encoded, final boolean verified, final long expiry) {
+            this.userKey = userKey;
+            this.encoded = encoded;
+            this.verified = verified;
+            this.expiry = expiry;
+        }
+    }
+
+    private final int maxSize;
+
+    private final long ttl;
+
+    private final SecretKeySpec hmacKey;
+
+    private final Map<String, Value> values;
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong verifyTime = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries, 0 to disable
+     * @param ttl time (in seconds) to keep each entry
+     */
+    public PasswordVerificationCache(final int maxSize, final long ttl) {
+        this.maxSize = maxSize;
+        this.ttl = ttl;
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
+
+        this.values = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 2387203599460436529L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Value> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    private String hmac(final String userKey, final String password) throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(hmacKey);
+        mac.update(userKey.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return Base64.getEncoder().encodeToString(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Returns the cached outcome of verifying the given password for the given user, if available; otherwise
+     * performs the actual verification and caches its outcome.
+     *
+     * @param user user
+     * @param password password to verify
+     * @param verifier actual verification
+     * @return whether the given password matches the stored one
+     */
+    public boolean verify(final User user, final String password, final BooleanSupplier verifier) {
+        if (maxSize <= 0 || password == null || user.getPassword() == null) {
+            return verifier.getAsBoolean();
+        }
+
+        String key;
+        try {
+            key = hmac(user.getKey(), password);
+        } catch (GeneralSecurityException e) {
+            LOG.error("Could not compute {}, skipping cache", HMAC_ALGORITHM, e);
+            return verifier.getAsBoolean();
+        }
+
+        Value value = values.get(key);
+        if (value != null
+                && value.expiry >= System.currentTimeMillis()
+                && value.userKey.equals(user.getKey())
+                && value.encoded.equals(user.getPassword())) {
+
+            hits.incrementAndGet();
+            return value.verified;
+        }
+
+        misses.incrementAndGet();
+        long start = System.nanoTime();
+        boolean verified = verifier.getAsBoolean();
+        verifyTime.addAndGet(System.nanoTime() - start);
+
+        values.put(key, new Value(
+                user.getKey(), user.getPassword(), verified, System.currentTimeMillis() + ttl * 1000L));
+        return verified;
+    }
+
+    /**
+     * Removes the successful verifications cached for the given user, to be invoked when authentication failed: the
+     * next attempt with the correct password will go through full verification again.
+     *
+     * @param userKey user key
+     */
+    public void failed(final String userKey) {
+        synchronized (values) {
+            values.values().removeIf(value -> value.verified && value.userKey.equals(userKey));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final AnyCreatedUpdatedEvent<?> event) {
+        if (event.getAny() instanceof User) {
+            User user = (User) event.getAny();
+            boolean suspended = BooleanUtils.isTrue(user.isSuspended());
+            synchronized (values) {
+                values.values().removeIf(value -> value.userKey.equals(user.getKey())
+                        && (suspended || !Objects.equals(value.encoded, user.getPassword())));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void deleted(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            synchronized (values) {
+                values.values().removeIf(value -> value.userKey.equals(event.getAnyKey()));
+            }
+        }
+    }
+
+    @ManagedOperation(description = "Removes all cached verifications")
+    public void clear() {
+        values.clear();
+    }
+
+    @ManagedAttribute(description = "Number of cached verifications")
+    public int getSize() {
+        return values.size();
+    }
+
+    @ManagedAttribute(description = "Number of verifications served from cache")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of verifications actually performed")
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @ManagedAttribute(description = "Average time (in microseconds) spent in each verification actually performed")
+    public long getAverageVerifyTime() {
+        long performed = misses.get();
+        return performed == 0 ? 0 : verifyTime.get() / performed / 1000L;
+    }
+
+    @ManagedAttribute(description = "Estimated time (in milliseconds) saved by verifications served from cache")
+    public long getSavedTime() {
+        long performed = misses.get();
+        return performed == 0 ? 0 : hits.get() * (verifyTime.get() / performed) / 1_000_000L;
+    }
+}
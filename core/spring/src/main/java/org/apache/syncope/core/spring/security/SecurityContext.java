@@ -77,6 +77,27 @@ public class SecurityContext implements EnvironmentAware {
         return env.getProperty("jwsKey");
     }
 
+    @Bean
+    public JWTAuthorityCache jwtAuthorityCache() {
+        return new JWTAuthorityCache(
+                env.getProperty("jwtAuthorityCache.size", Integer.class, 10000),
+                env.getProperty("jwtAuthorityCache.maxAge", Long.class, 60L));
+    }
+
+    @Bean
+    public UserAuthorityCache userAuthorityCache() {
+        return new UserAuthorityCache(
+                env.getProperty("userAuthorityCache.size", Integer.class, 10000),
+                env.getProperty("userAuthorityCache.maxAge", Long.class, 60L));
+    }
+
+    @Bean
+    public PasswordVerificationCache passwordVerificationCache() {
+        return new PasswordVerificationCache(
+                env.getProperty("passwordVerificationCache.size", Integer.class, 0),
+                env.getProperty("passwordVerificationCache.ttl", Long.class, 60L));
+    }
+
     @ConditionalOnMissingBean
     @Bean
     public DefaultCredentialChecker credentialChecker() {
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.core.persistence.api.entity.Realm;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Keeps, for each user, the effective authorities computed by {@link AuthDataAccessor} from assigned and dynamic
+ * roles and from owned groups, so that logins do not need to look up and merge all of them again.
+ * Each entry is bound to the last change date of the user it was computed for, so that it is ignored once the user is
+ * updated; all entries are removed as soon as any role or realm is changed on the local node, while entries are
+ * removed upon group changes only for the users whose ownership of groups might be affected - see
+ * {@link GroupOwnership}.
+ * As changes on other nodes are not notified, entries are also kept at most for the configured maximum age.
+ */
+@ManagedResource(description = "User authority cache")
+public class UserAuthorityCache {
+
+    private static final class Value {
+
+        private final Set<SyncopeGrantedAuthority> authorities;
+
+        private final GroupOwnership ownership;
+
+        private final Date version;
+
+        private final long expiry;
+
+        private Value(
+                final Set<SyncopeGrantedAuthority> authorities,
+                final GroupOwnership ownership,
+                final Date version,
+                final long expiry) {
+
+            this.authorities = authorities;
+            this.ownership = ownership;
+            this.version = version;
+            this.expiry = expiry;
+        }
+    }
+
+    private final int maxSize;
+
+    private final long maxAge;
+
+    private final Map<Pair<String, String>, Value> values;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize maximum number of entries, 0 to disable
+     * @param maxAge maximum time (in seconds) to keep each entry, -1 to keep it until invalidated
+     */
+    public UserAuthorityCache(final int maxSize, final long maxAge) {
+        this.maxSize = maxSize;
+        this.maxAge = maxAge;
+        this.values = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = -3018370941580519532L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Pair<String, String>, Value> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * To be invoked before computing the authorities to cache, then passed to
+     * {@link #put(String, User, Set, GroupOwnership, long)}.
+     *
+     * @return current generation
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Returns the cached authorities for the given user, if any and computed for the current version of the user.
+     *
+     * @param domain domain
+     * @param user user
+     * @return authorities, or null if not found
+     */
+    public Set<SyncopeGrantedAuthority> get(final String domain, final User user) {
+        Value value = values.get(Pair.of(domain, user.getKey()));
+        if (value != null && (!Objects.equals(value.version, user.getLastChangeDate())
+                || value.expiry < System.currentTimeMillis())) {
+            values.remove(Pair.of(domain, user.getKey()));
+            value = null;
+        }
+
+        if (value == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return value.authorities;
+    }
+
+    /**
+     * Caches the given authorities for the given user, unless any change occurred since the given generation was
+     * read.
+     *
+     * @param domain domain
+     * @param user user
+     * @param authorities authorities
+     * @param ownership groups the entitlements granted on owned groups depend upon
+     * @param generation generation read before computing authorities
+     */
+    public void put(
+            final String domain,
+            final User user,
+            final Set<SyncopeGrantedAuthority> authorities,
+            final GroupOwnership ownership,
+            final long generation) {
+
+        if (maxSize <= 0) {
+            return;
+        }
+
+        long expiry = maxAge < 0 ? Long.MAX_VALUE : System.currentTimeMillis() + maxAge * 1000L;
+
+        synchronized (values) {
+            if (this.generation.get() == generation) {
+                values.put(
+                        Pair.of(domain, user.getKey()),
+                        new Value(Set.copyOf(authorities), ownership, user.getLastChangeDate(), expiry));
+            }
+        }
+    }
+
+    private void invalidate(final String domain, final BiPredicate<String, GroupOwnership> affected) {
+        synchronized (values) {
+            generation.incrementAndGet();
+            values.entrySet().removeIf(entry -> entry.getKey().getLeft().equals(domain)
+                    && affected.test(entry.getKey().getRight(), entry.getValue().ownership));
+        }
+    }
+
+    private void invalidate(final String domain, final String userKey) {
+        invalidate(domain, (key, ownership) -> userKey.equals(key));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final EntityChangedEvent event) {
+        if (Role.class.equals(event.getReference()) || Realm.class.equals(event.getReference())) {
+            invalidate(event.getDomain(), (key, ownership) -> true);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void changed(final AnyCreatedUpdatedEvent<?> event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            if (event.getAny() == null) {
+                // published by key, e.g. upon dynamic membership changes
+                invalidate(event.getDomain(), event.getAnyKey());
+            } else {
+                // users are also saved upon login, to keep track of last login date or failed logins: unless a
+                // proper update occurred, the cached authorities are still valid
+                values.computeIfPresent(Pair.of(event.getDomain(), event.getAnyKey()),
+                        (key, value) -> Objects.equals(value.version, event.getAny().getLastChangeDate())
+                        ? value : null);
+            }
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            // group owners are granted entitlements on owned groups
+            if (event.getAny() == null) {
+                invalidate(event.getDomain(), (key, ownership) -> ownership.isAffectedBy(event.getAnyKey()));
+            } else {
+                Group group = (Group) event.getAny();
+                invalidate(event.getDomain(), (key, ownership) -> ownership.isAffectedBy(key, group));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void deleted(final AnyDeletedEvent event) {
+        if (event.getAnyTypeKind() == AnyTypeKind.USER) {
+            invalidate(event.getDomain(), event.getAnyKey());
+        } else if (event.getAnyTypeKind() == AnyTypeKind.GROUP) {
+            invalidate(event.getDomain(), (key, ownership) -> ownership.isAffectedBy(event.getAnyKey()));
+        }
+    }
+
+    @ManagedOperation(description = "Removes all cached authorities")
+    public void clear() {
+        synchronized (values) {
+            generation.incrementAndGet();
+            values.clear();
+        }
+    }
+
+    @ManagedAttribute(description = "Number of cached users")
+    public int getSize() {
+        return values.size();
+    }
+
+    @ManagedAttribute(description = "Number of lookups finding the requested user")
+    public long getHits() {
+        return hits.get();
+    }
+
+    @ManagedAttribute(description = "Number of lookups not finding the requested user")
+    public long getMisses() {
+        return misses.get();
+    }
+}
@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.apache.syncope.core.spring.security.TestEntities.group;
+import static org.apache.syncope.core.spring.security.TestEntities.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Set;
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.cxf.rs.security.jose.jwt.JwtClaims;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.IdRepoEntitlement;
+import org.apache.syncope.core.persistence.api.entity.AccessToken;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.junit.jupiter.api.Test;
+
+public class JWTAuthorityCacheTest {
+
+    private static final String DOMAIN = SyncopeConstants.MASTER_DOMAIN;
+
+    private static final Pair<String, Set<SyncopeGrantedAuthority>> AUTHENTICATED =
+            Pair.of("rossini", Set.of(new SyncopeGrantedAuthority(IdRepoEntitlement.USER_READ, "/")));
+
+    private static JwtClaims claims(
+            final String issuer, final String subject, final String tokenId, final Long expirySeconds) {
+
+        JwtClaims claims = new JwtClaims();
+        claims.setIssuer(issuer);
+        claims.setSubject(subject);
+        claims.setTokenId(tokenId);
+        if (expirySeconds != null) {
+            claims.setExpiryTime(System.currentTimeMillis() / 1000L + expirySeconds);
+        }
+        return claims;
+    }
+
+    private static JwtClaims claims(final String tokenId, final Long expirySeconds) {
+        return claims("ApacheSyncope", "rossini", tokenId, expirySeconds);
+    }
+
+    @Test
+    public void cache() {
+        JWTAuthorityCache cache = new JWTAuthorityCache(10, -1);
+
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+        cache.put(DOMAIN, claims("token1", 60L), "userKey1", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        cache.put(DOMAIN, claims("token2", 60L), "userKey2", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertEquals(AUTHENTICATED, cache.get(DOMAIN, claims("token1", 60L)));
+        assertNull(cache.get("Two", claims("token1", 60L)));
+        assertEquals(1, cache.getHits());
+
+        // expired
+        cache.put(DOMAIN, claims("token3", -1L), "userKey3", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNull(cache.get(DOMAIN, claims("token3", -1L)));
+        // no expiry
+        cache.put(DOMAIN, claims("token3", null), "userKey3", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNull(cache.get(DOMAIN, claims("token3", null)));
+
+        // token changed or removed
+        cache.changed(new EntityChangedEvent(this, AccessToken.class, "token1", DOMAIN));
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+        assertNotNull(cache.get(DOMAIN, claims("token2", 60L)));
+
+        // user deleted
+        cache.deleted(new AnyDeletedEvent(this, AnyTypeKind.USER, "userKey2", "rossini", DOMAIN));
+        assertNull(cache.get(DOMAIN, claims("token2", 60L)));
+
+        // role changed
+        cache.put(DOMAIN, claims("token1", 60L), "userKey1", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        cache.changed(new EntityChangedEvent(this, Role.class, "role", DOMAIN));
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+
+        // changes occurred while resolving authorities
+        long generation = cache.generation();
+        cache.changed(new EntityChangedEvent(this, Role.class, "role", DOMAIN));
+        cache.put(DOMAIN, claims("token1", 60L), "userKey1", GroupOwnership.NONE, AUTHENTICATED, generation);
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+
+        // explicit invalidation
+        cache.put(DOMAIN, claims("token1", 60L), "userKey1", GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        cache.invalidate(DOMAIN, "token1");
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+    }
+
+    @Test
+    public void groupChanged() {
+        JWTAuthorityCache cache = new JWTAuthorityCache(10, -1);
+
+        cache.put(DOMAIN, claims("token1", 60L), "userKey1",
+                new GroupOwnership(Set.of("member"), Set.of("owned")), AUTHENTICATED, cache.generation());
+        cache.put(DOMAIN, claims("token2", 60L), "userKey2",
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        cache.put(DOMAIN, claims("ApacheSyncope", "admin", "token3", 60L), null,
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+
+        // unrelated group
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("other", null, null), DOMAIN));
+        assertEquals(3, cache.getSize());
+
+        // group now owned by user
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("other", user("userKey2", null), null), DOMAIN));
+        assertNull(cache.get(DOMAIN, claims("token2", 60L)));
+        assertEquals(2, cache.getSize());
+
+        // owned group deleted
+        cache.deleted(new AnyDeletedEvent(this, AnyTypeKind.GROUP, "owned", "owned", DOMAIN));
+        assertNull(cache.get(DOMAIN, claims("token1", 60L)));
+        assertNotNull(cache.get(DOMAIN, claims("ApacheSyncope", "admin", "token3", 60L)));
+    }
+
+    @Test
+    public void identity() {
+        JWTAuthorityCache cache = new JWTAuthorityCache(10, 60);
+
+        // same JWT id, different issuer or subject
+        cache.put(DOMAIN, claims("ApacheSyncope", "rossini", "token1", 60L), "userKey1",
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNotNull(cache.get(DOMAIN, claims("ApacheSyncope", "rossini", "token1", 60L)));
+        assertNull(cache.get(DOMAIN, claims("external", "rossini", "token1", 60L)));
+        assertNull(cache.get(DOMAIN, claims("ApacheSyncope", "admin", "token1", 60L)));
+
+        // no JWT id, issuer or subject
+        cache.put(DOMAIN, claims("external", "bellini", null, 60L), "userKey2",
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNull(cache.get(DOMAIN, claims("external", "bellini", null, 60L)));
+        cache.put(DOMAIN, claims(null, "bellini", "token2", 60L), "userKey2",
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNull(cache.get(DOMAIN, claims(null, "bellini", "token2", 60L)));
+        cache.put(DOMAIN, claims("external", null, "token2", 60L), "userKey2",
+                GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        assertNull(cache.get(DOMAIN, claims("external", null, "token2", 60L)));
+        assertEquals(1, cache.getSize());
+    }
+
+    @Test
+    public void bounded() {
+        JWTAuthorityCache cache = new JWTAuthorityCache(2, 60);
+        for (int i = 0; i < 5; i++) {
+            cache.put(DOMAIN, claims("token" + i, 3600L), "userKey" + i,
+                    GroupOwnership.NONE, AUTHENTICATED, cache.generation());
+        }
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get(DOMAIN, claims("token4", 3600L)));
+
+        JWTAuthorityCache disabled = new JWTAuthorityCache(0, -1);
+        disabled.put(DOMAIN, claims("token1", 60L), "userKey1",
+                GroupOwnership.NONE, AUTHENTICATED, disabled.generation());
+        assertNull(disabled.get(DOMAIN, claims("token1", 60L)));
+    }
+}
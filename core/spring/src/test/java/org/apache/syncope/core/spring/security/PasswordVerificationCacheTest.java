@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.apache.syncope.core.spring.security.TestEntities.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.CipherAlgorithm;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.junit.jupiter.api.Test;
+
+public class PasswordVerificationCacheTest {
+
+    private static final Encryptor ENCRYPTOR = Encryptor.getInstance();
+
+    private static boolean verify(
+            final PasswordVerificationCache cache,
+            final User user,
+            final String password,
+            final AtomicInteger verifications) {
+
+        return cache.verify(user, password, () -> {
+            verifications.incrementAndGet();
+            return ENCRYPTOR.verify(password, user.getCipherAlgorithm(), user.getPassword());
+        });
+    }
+
+    @Test
+    public void cache() throws Exception {
+        PasswordVerificationCache cache = new PasswordVerificationCache(10, 60);
+        AtomicInteger verifications = new AtomicInteger();
+
+        User user = user("userKey1", ENCRYPTOR.encode("password123", CipherAlgorithm.BCRYPT), false);
+
+        assertTrue(verify(cache, user, "password123", verifications));
+        assertTrue(verify(cache, user, "password123", verifications));
+        assertFalse(verify(cache, user, "wrong", verifications));
+        assertFalse(verify(cache, user, "wrong", verifications));
+        assertEquals(2, verifications.get());
+        assertEquals(2, cache.getHits());
+        assertEquals(2, cache.getMisses());
+
+        // same password, other user
+        User other = user("userKey2", ENCRYPTOR.encode("password123", CipherAlgorithm.BCRYPT), false);
+        assertTrue(verify(cache, other, "password123", verifications));
+        assertEquals(3, verifications.get());
+
+        // failed authentication: only successful verifications are removed
+        cache.failed(user.getKey());
+        assertTrue(verify(cache, user, "password123", verifications));
+        assertFalse(verify(cache, user, "wrong", verifications));
+        assertEquals(4, verifications.get());
+
+        // password changed, on this node or elsewhere
+        User changed = user("userKey1", ENCRYPTOR.encode("password321", CipherAlgorithm.BCRYPT), false);
+        assertFalse(verify(cache, changed, "password123", verifications));
+        assertEquals(5, verifications.get());
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, changed, SyncopeConstants.MASTER_DOMAIN));
+        assertTrue(verify(cache, changed, "password321", verifications));
+        assertEquals(6, verifications.get());
+
+        // suspended
+        cache.changed(new AnyCreatedUpdatedEvent<>(
+                this, user("userKey1", changed.getPassword(), true), SyncopeConstants.MASTER_DOMAIN));
+        assertTrue(verify(cache, changed, "password321", verifications));
+        assertEquals(7, verifications.get());
+
+        // deleted
+        cache.deleted(new AnyDeletedEvent(
+                this, AnyTypeKind.USER, "userKey2", "rossini", SyncopeConstants.MASTER_DOMAIN));
+        assertTrue(verify(cache, other, "password123", verifications));
+        assertEquals(8, verifications.get());
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        PasswordVerificationCache cache = new PasswordVerificationCache(0, 60);
+        AtomicInteger verifications = new AtomicInteger();
+
+        User user = user("userKey1", ENCRYPTOR.encode("password123", CipherAlgorithm.BCRYPT), false);
+        assertTrue(verify(cache, user, "password123", verifications));
+        assertTrue(verify(cache, user, "password123", verifications));
+        assertEquals(2, verifications.get());
+        assertEquals(0, cache.getSize());
+    }
+}
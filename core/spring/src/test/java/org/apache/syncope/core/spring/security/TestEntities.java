@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import java.lang.reflect.Proxy;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.syncope.common.lib.types.CipherAlgorithm;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+
+/**
+ * Entity stubs for cache tests: only the given getters are answered, any other method call fails.
+ */
+public final class TestEntities {
+
+    private static <E> E stub(final Class<E> reference, final Map<String, Object> getters) {
+        return reference.cast(Proxy.newProxyInstance(
+                reference.getClassLoader(),
+                new Class<?>[] { reference },
+                (proxy, method, args) -> {
+                    if (!getters.containsKey(method.getName())) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    return getters.get(method.getName());
+                }));
+    }
+
+    public static User user(final String key, final Date lastChangeDate) {
+        Map<String, Object> getters = new HashMap<>();
+        getters.put("getKey", key);
+        getters.put("getLastChangeDate", lastChangeDate);
+        return stub(User.class, getters);
+    }
+
+    public static User user(final String key, final String encodedPassword, final boolean suspended) {
+        Map<String, Object> getters = new HashMap<>();
+        getters.put("getKey", key);
+        getters.put("getPassword", encodedPassword);
+        getters.put("getCipherAlgorithm", CipherAlgorithm.BCRYPT);
+        getters.put("isSuspended", suspended);
+        return stub(User.class, getters);
+    }
+
+    public static Group group(final String key, final User userOwner, final Group groupOwner) {
+        Map<String, Object> getters = new HashMap<>();
+        getters.put("getKey", key);
+        getters.put("getUserOwner", userOwner);
+        getters.put("getGroupOwner", groupOwner);
+        return stub(Group.class, getters);
+    }
+
+    private TestEntities() {
+        // private constructor for static utility class
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.syncope.core.spring.security;
+
+import static org.apache.syncope.core.spring.security.TestEntities.group;
+import static org.apache.syncope.core.spring.security.TestEntities.user;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+import java.util.Set;
+import org.apache.syncope.common.lib.SyncopeConstants;
+import org.apache.syncope.common.lib.types.AnyTypeKind;
+import org.apache.syncope.common.lib.types.IdRepoEntitlement;
+import org.apache.syncope.core.persistence.api.entity.Role;
+import org.apache.syncope.core.persistence.api.entity.group.Group;
+import org.apache.syncope.core.persistence.api.entity.user.User;
+import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
+import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
+import org.apache.syncope.core.provisioning.api.event.EntityChangedEvent;
+import org.junit.jupiter.api.Test;
+
+public class UserAuthorityCacheTest {
+
+    private static final String DOMAIN = SyncopeConstants.MASTER_DOMAIN;
+
+    private static final Set<SyncopeGrantedAuthority> AUTHORITIES =
+            Set.of(new SyncopeGrantedAuthority(IdRepoEntitlement.USER_READ, "/"));
+
+    @Test
+    public void cache() {
+        UserAuthorityCache cache = new UserAuthorityCache(10, -1);
+
+        User user1 = user("userKey1", new Date(1000L));
+        User user2 = user("userKey2", null);
+
+        assertNull(cache.get(DOMAIN, user1));
+        cache.put(DOMAIN, user1, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        cache.put(DOMAIN, user2, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        assertEquals(AUTHORITIES, cache.get(DOMAIN, user1));
+        assertEquals(AUTHORITIES, cache.get(DOMAIN, user2));
+        assertNull(cache.get("Two", user1));
+        assertEquals(2, cache.getHits());
+
+        // user saved without changes, as upon login
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, user("userKey1", new Date(1000L)), DOMAIN));
+        assertNotNull(cache.get(DOMAIN, user1));
+
+        // user updated
+        User updated = user("userKey1", new Date(2000L));
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, updated, DOMAIN));
+        assertNull(cache.get(DOMAIN, user1));
+
+        // user updated elsewhere
+        cache.put(DOMAIN, user1, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        assertNull(cache.get(DOMAIN, updated));
+
+        // dynamic memberships changed
+        cache.put(DOMAIN, updated, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, AnyTypeKind.USER, "userKey1", DOMAIN));
+        assertNull(cache.get(DOMAIN, updated));
+
+        // user deleted
+        cache.deleted(new AnyDeletedEvent(this, AnyTypeKind.USER, "userKey2", "rossini", DOMAIN));
+        assertNull(cache.get(DOMAIN, user2));
+
+        // role changed
+        cache.put(DOMAIN, updated, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        cache.changed(new EntityChangedEvent(this, Role.class, "role", DOMAIN));
+        assertNull(cache.get(DOMAIN, updated));
+
+        // changes occurred while computing authorities
+        long generation = cache.generation();
+        cache.changed(new EntityChangedEvent(this, Role.class, "role", DOMAIN));
+        cache.put(DOMAIN, updated, AUTHORITIES, GroupOwnership.NONE, generation);
+        assertNull(cache.get(DOMAIN, updated));
+    }
+
+    @Test
+    public void groupChanged() {
+        UserAuthorityCache cache = new UserAuthorityCache(10, -1);
+
+        User owner = user("owner", null);
+        User member = user("member", null);
+        User other = user("other", null);
+        Group ownerGroup = group("ownerGroup", null, null);
+
+        Runnable fill = () -> {
+            cache.put(DOMAIN, owner, AUTHORITIES,
+                    new GroupOwnership(Set.of(), Set.of("ownedByUser")), cache.generation());
+            cache.put(DOMAIN, member, AUTHORITIES,
+                    new GroupOwnership(Set.of("ownerGroup"), Set.of("ownedByGroup")), cache.generation());
+            cache.put(DOMAIN, other, AUTHORITIES,
+                    new GroupOwnership(Set.of("plain"), Set.of()), cache.generation());
+        };
+        fill.run();
+
+        // group not owned by anyone updated
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("plain", null, null), DOMAIN));
+        assertEquals(3, cache.getSize());
+
+        // group now owned by user
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("plain", owner, null), DOMAIN));
+        assertNull(cache.get(DOMAIN, owner));
+        assertNotNull(cache.get(DOMAIN, member));
+        assertNotNull(cache.get(DOMAIN, other));
+        fill.run();
+
+        // group now owned via membership
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("plain", null, ownerGroup), DOMAIN));
+        assertNotNull(cache.get(DOMAIN, owner));
+        assertNull(cache.get(DOMAIN, member));
+        assertNotNull(cache.get(DOMAIN, other));
+        fill.run();
+
+        // owned group no longer owned, or moved to another realm
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, group("ownedByUser", null, null), DOMAIN));
+        assertNull(cache.get(DOMAIN, owner));
+        assertEquals(2, cache.getSize());
+        fill.run();
+
+        // owning group deleted
+        cache.deleted(new AnyDeletedEvent(this, AnyTypeKind.GROUP, "ownerGroup", "ownerGroup", DOMAIN));
+        assertNull(cache.get(DOMAIN, member));
+        assertEquals(2, cache.getSize());
+        fill.run();
+
+        // group updated by key
+        cache.changed(new AnyCreatedUpdatedEvent<>(this, AnyTypeKind.GROUP, "ownedByGroup", DOMAIN));
+        assertNull(cache.get(DOMAIN, member));
+        assertEquals(2, cache.getSize());
+    }
+
+    @Test
+    public void expiring() throws InterruptedException {
+        UserAuthorityCache cache = new UserAuthorityCache(10, 0);
+
+        User user = user("userKey1", new Date(1000L));
+        cache.put(DOMAIN, user, AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        Thread.sleep(10);
+        assertNull(cache.get(DOMAIN, user));
+        assertEquals(0, cache.getSize());
+    }
+
+    @Test
+    public void bounded() {
+        UserAuthorityCache cache = new UserAuthorityCache(2, 60);
+        for (int i = 0; i < 5; i++) {
+            cache.put(DOMAIN, user("userKey" + i, null), AUTHORITIES, GroupOwnership.NONE, cache.generation());
+        }
+        assertEquals(2, cache.getSize());
+        assertNotNull(cache.get(DOMAIN, user("userKey4", null)));
+
+        UserAuthorityCache disabled = new UserAuthorityCache(0, -1);
+        disabled.put(DOMAIN, user("userKey1", null), AUTHORITIES, GroupOwnership.NONE, disabled.generation());
+        assertNull(disabled.get(DOMAIN, user("userKey1", null)));
+    }
+}
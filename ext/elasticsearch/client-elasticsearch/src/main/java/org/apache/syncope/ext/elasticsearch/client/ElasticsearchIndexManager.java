@@ -22,6 +22,7 @@ import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
 import org.apache.syncope.core.persistence.api.entity.Any;
+import org.apache.syncope.core.persistence.api.entity.AnyUtilsFactory;
 import org.apache.syncope.core.provisioning.api.event.AnyCreatedUpdatedEvent;
 import org.apache.syncope.core.provisioning.api.event.AnyDeletedEvent;
 import org.apache.syncope.core.spring.security.AuthContextUtils;
@@ -60,6 +61,9 @@ public class ElasticsearchIndexManager {
     @Autowired
     private ElasticsearchUtils elasticsearchUtils;
 
+    @Autowired
+    private AnyUtilsFactory anyUtilsFactory;
+
     public boolean existsIndex(final String domain, final AnyTypeKind kind) throws IOException {
         return client.indices().exists(
                 new GetIndexRequest(ElasticsearchUtils.getContextDomainName(domain, kind)), RequestOptions.DEFAULT);
@@ -120,32 +124,37 @@ public class ElasticsearchIndexManager {
 
     @TransactionalEventListener
     public void after(final AnyCreatedUpdatedEvent<Any<?>> event) throws IOException {
+        Any<?> any = event.getAny() == null
+                ? anyUtilsFactory.getInstance(event.getAnyTypeKind()).dao().find(event.getAnyKey())
+                : event.getAny();
+        if (any == null) {
+            LOG.debug("{}[{}] not found, nothing to index", event.getAnyTypeKind(), event.getAnyKey());
+            return;
+        }
+
         GetRequest getRequest = new GetRequest(
-                ElasticsearchUtils.getContextDomainName(
-                        AuthContextUtils.getDomain(), event.getAny().getType().getKind()),
-                event.getAny().getKey());
+                ElasticsearchUtils.getContextDomainName(AuthContextUtils.getDomain(), event.getAnyTypeKind()),
+                any.getKey());
         GetResponse getResponse = client.get(getRequest, RequestOptions.DEFAULT);
         if (getResponse.isExists()) {
-            LOG.debug("About to update index for {}", event.getAny());
+            LOG.debug("About to update index for {}", any);
 
             UpdateRequest request = new UpdateRequest(
-                    ElasticsearchUtils.getContextDomainName(
-                            AuthContextUtils.getDomain(), event.getAny().getType().getKind()),
-                    event.getAny().getKey()).
+                    ElasticsearchUtils.getContextDomainName(AuthContextUtils.getDomain(), event.getAnyTypeKind()),
+                    any.getKey()).
                     retryOnConflict(elasticsearchUtils.getRetryOnConflict()).
-                    doc(elasticsearchUtils.builder(event.getAny()));
+                    doc(elasticsearchUtils.builder(any));
             UpdateResponse response = client.update(request, RequestOptions.DEFAULT);
-            LOG.debug("Index successfully updated for {}: {}", event.getAny(), response);
+            LOG.debug("Index successfully updated for {}: {}", any, response);
         } else {
-            LOG.debug("About to create index for {}", event.getAny());
+            LOG.debug("About to create index for {}", any);
 
             IndexRequest request = new IndexRequest(
-                    ElasticsearchUtils.getContextDomainName(
-                            AuthContextUtils.getDomain(), event.getAny().getType().getKind())).
-                    id(event.getAny().getKey()).
-                    source(elasticsearchUtils.builder(event.getAny()));
+                    ElasticsearchUtils.getContextDomainName(AuthContextUtils.getDomain(), event.getAnyTypeKind())).
+                    id(any.getKey()).
+                    source(elasticsearchUtils.builder(any));
             IndexResponse response = client.index(request, RequestOptions.DEFAULT);
-            LOG.debug("Index successfully created for {}: {}", event.getAny(), response);
+            LOG.debug("Index successfully created for {}: {}", any, response);
         }
     }
 
@@ -29,6 +29,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.ArrayUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 import org.apache.syncope.common.lib.SyncopeClientException;
@@ -99,8 +100,9 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
                     noRealm.getElements().add("Invalid realm specified: " + realmPath);
                     throw noRealm;
                 } else {
-                    realmDAO.findDescendants(realm).forEach(
-                            descendant -> builder.add(QueryBuilders.termQuery("realm", descendant.getFullPath())));
+                    builder.add(QueryBuilders.termQuery("realm", realm.getFullPath()));
+                    builder.add(QueryBuilders.prefixQuery(
+                            "realm", StringUtils.appendIfMissing(realm.getFullPath(), "/")));
                 }
             } else {
                 DynRealm dynRealm = dynRealmDAO.find(realmPath);
@@ -113,8 +115,7 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
             }
         });
         if (!dynRealmKeys.isEmpty()) {
-            realmDAO.findAll().forEach(
-                    descendant -> builder.add(QueryBuilders.termQuery("realm", descendant.getFullPath())));
+            builder.add(QueryBuilders.prefixQuery("realm", SyncopeConstants.ROOT_REALM));
         }
 
         return Pair.of(builder, dynRealmKeys);
@@ -191,8 +192,8 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
     protected <T extends Any<?>> List<T> doSearch(
             final Set<String> adminRealms,
             final SearchCond cond,
-            final int page,
-            final int itemsPerPage,
+            final int firstResult,
+            final int maxResults,
             final List<OrderByClause> orderBy,
             final AnyTypeKind kind) {
 
@@ -200,10 +201,56 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
                 adminRealms,
                 cond,
                 kind,
-                (itemsPerPage * (page <= 0 ? 0 : page - 1)),
-                (itemsPerPage < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : itemsPerPage),
+                firstResult,
+                (maxResults < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : maxResults),
                 sortBuilders(kind, orderBy));
 
+        return doSearch(request, kind);
+    }
+
+    @Override
+    protected <T extends Any<?>> List<T> doSearch(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        return doSearch(searchAfterRequest(adminRealms, cond, afterKey, itemsPerPage, kind), kind);
+    }
+
+    @Override
+    protected List<String> doSearchKeys(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        return search(searchAfterRequest(adminRealms, cond, afterKey, itemsPerPage, kind));
+    }
+
+    private SearchRequest searchAfterRequest(
+            final Set<String> adminRealms,
+            final SearchCond cond,
+            final String afterKey,
+            final int itemsPerPage,
+            final AnyTypeKind kind) {
+
+        SearchRequest request = searchRequest(
+                adminRealms,
+                cond,
+                kind,
+                0,
+                (itemsPerPage < 0 ? elasticsearchUtils.getIndexMaxResultWindow() : itemsPerPage),
+                List.of(new FieldSortBuilder("id").order(SortOrder.ASC)));
+        if (afterKey != null) {
+            request.source().searchAfter(new Object[] { afterKey });
+        }
+        return request;
+    }
+
+    private List<String> search(final SearchRequest request) {
         SearchHit[] esResult = null;
         try {
             esResult = client.search(request, RequestOptions.DEFAULT).getHits().getHits();
@@ -213,8 +260,12 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
 
         return ArrayUtils.isEmpty(esResult)
                 ? List.of()
-                : buildResult(Stream.of(Objects.requireNonNull(esResult))
-                        .map(SearchHit::getId).collect(Collectors.toList()), kind);
+                : Stream.of(Objects.requireNonNull(esResult)).map(SearchHit::getId).collect(Collectors.toList());
+    }
+
+    private <T extends Any<?>> List<T> doSearch(final SearchRequest request, final AnyTypeKind kind) {
+        List<String> keys = search(request);
+        return keys.isEmpty() ? List.of() : buildResult(keys, kind);
     }
 
     private QueryBuilder getQueryBuilder(final SearchCond cond, final AnyTypeKind kind) {
@@ -369,8 +420,8 @@ public class ElasticsearchAnySearchDAO extends AbstractAnySearchDAO {
 
         DisMaxQueryBuilder builder = QueryBuilders.disMaxQuery();
         if (cond.isFromGroup()) {
-            realmDAO.findDescendants(realm).forEach(
-                    current -> builder.add(QueryBuilders.termQuery("realm", current.getFullPath())));
+            builder.add(QueryBuilders.termQuery("realm", realm.getFullPath()));
+            builder.add(QueryBuilders.prefixQuery("realm", StringUtils.appendIfMissing(realm.getFullPath(), "/")));
         } else {
             for (Realm current = realm; current.getParent() != null; current = current.getParent()) {
                 builder.add(QueryBuilders.termQuery("realm", current.getFullPath()));
@@ -18,8 +18,9 @@
  */
 package org.apache.syncope.core.provisioning.java.job;
 
+import java.util.Iterator;
+import java.util.stream.Stream;
 import org.apache.syncope.common.lib.types.AnyTypeKind;
-import org.apache.syncope.core.persistence.api.dao.AnyDAO;
 import org.apache.syncope.core.persistence.api.dao.AnyObjectDAO;
 import org.apache.syncope.core.persistence.api.dao.GroupDAO;
 import org.apache.syncope.core.persistence.api.dao.UserDAO;
@@ -79,8 +80,9 @@ public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
                 indexManager.createIndex(AuthContextUtils.getDomain(), AnyTypeKind.ANY_OBJECT);
 
                 LOG.debug("Indexing users...");
-                for (int page = 1; page <= (userDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (String user : userDAO.findAllKeys(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
+                try (Stream<String> keys = userDAO.streamAllKeys()) {
+                    for (Iterator<String> itor = keys.iterator(); itor.hasNext();) {
+                        String user = itor.next();
                         IndexRequest request = new IndexRequest(
                                 ElasticsearchUtils.getContextDomainName(
                                         AuthContextUtils.getDomain(), AnyTypeKind.USER)).
@@ -92,8 +94,9 @@ public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
                 }
 
                 LOG.debug("Indexing groups...");
-                for (int page = 1; page <= (groupDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (String group : groupDAO.findAllKeys(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
+                try (Stream<String> keys = groupDAO.streamAllKeys()) {
+                    for (Iterator<String> itor = keys.iterator(); itor.hasNext();) {
+                        String group = itor.next();
                         IndexRequest request = new IndexRequest(
                                 ElasticsearchUtils.getContextDomainName(
                                         AuthContextUtils.getDomain(), AnyTypeKind.GROUP)).
@@ -105,8 +108,9 @@ public class ElasticsearchReindex extends AbstractSchedTaskJobDelegate {
                 }
 
                 LOG.debug("Indexing any objects...");
-                for (int page = 1; page <= (anyObjectDAO.count() / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
-                    for (String anyObject : anyObjectDAO.findAllKeys(page, AnyDAO.DEFAULT_PAGE_SIZE)) {
+                try (Stream<String> keys = anyObjectDAO.streamAllKeys()) {
+                    for (Iterator<String> itor = keys.iterator(); itor.hasNext();) {
+                        String anyObject = itor.next();
                         IndexRequest request = new IndexRequest(
                                 ElasticsearchUtils.getContextDomainName(
                                         AuthContextUtils.getDomain(), AnyTypeKind.ANY_OBJECT)).
@@ -636,7 +636,7 @@ public class SCIMDataBinder {
         if (output(attributes, excludedAttributes, "members")) {
             int count = userLogic.search(searchCond,
                     1, 1, List.of(),
-                    SyncopeConstants.ROOT_REALM, false).getLeft();
+                    SyncopeConstants.ROOT_REALM, false, true).getLeft();
 
             for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
                 List<UserTO> users = userLogic.search(
@@ -645,6 +645,7 @@ public class SCIMDataBinder {
                         AnyDAO.DEFAULT_PAGE_SIZE,
                         List.of(),
                         SyncopeConstants.ROOT_REALM,
+                        false,
                         false).
                         getRight();
                 users.forEach(userTO -> group.getMembers().add(new Member(
@@ -220,7 +220,8 @@ abstract class AbstractService<R extends SCIMResource> {
                 itemsPerPage,
                 sort,
                 SyncopeConstants.ROOT_REALM,
-                false);
+                false,
+                true);
 
         if (result.getLeft() > confManager().get().getGeneralConf().getFilterMaxResults()) {
             throw new BadRequestException(ErrorType.tooMany, "Too many results found");
@@ -112,7 +112,7 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
         SearchCond searchCond = SearchCond.getLeaf(membCond);
         int count = userLogic().search(searchCond,
                 1, 1, List.of(),
-                SyncopeConstants.ROOT_REALM, false).getLeft();
+                SyncopeConstants.ROOT_REALM, false, true).getLeft();
         for (int page = 1; page <= (count / AnyDAO.DEFAULT_PAGE_SIZE) + 1; page++) {
             beforeMembers.addAll(userLogic().search(
                     searchCond,
@@ -120,6 +120,7 @@ public class GroupServiceImpl extends AbstractService<SCIMGroup> implements Grou
                     AnyDAO.DEFAULT_PAGE_SIZE,
                     List.of(),
                     SyncopeConstants.ROOT_REALM,
+                    false,
                     false).
                     getRight().stream().map(EntityTO::getKey).collect(Collectors.toSet()));
         }
@@ -24,6 +24,8 @@ import java.util.List;
 
 import org.apache.cxf.ext.logging.LoggingFeature;
 import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.syncope.common.keymaster.client.api.CachingConfParamOps;
+import org.apache.syncope.common.keymaster.client.api.CachingServiceOps;
 import org.apache.syncope.common.keymaster.client.api.ConfParamOps;
 import org.apache.syncope.common.keymaster.client.api.DomainOps;
 import org.apache.syncope.common.keymaster.client.api.ServiceOps;
@@ -48,6 +50,12 @@ public class SelfKeymasterClientContext {
     @Value("${keymaster.password}")
     private String password;
 
+    @Value("${keymaster.confParamCache.maxAge:60}")
+    private long confParamCacheMaxAge;
+
+    @Value("${keymaster.serviceCache.maxAge:30}")
+    private long serviceCacheMaxAge;
+
     @ConditionalOnExpression("#{'${keymaster.address}' matches '^http.+'}")
     @Bean
     @ConditionalOnMissingBean(name = "selfKeymasterRESTClientFactoryBean")
@@ -68,14 +76,16 @@ public class SelfKeymasterClientContext {
     @Bean
     @ConditionalOnMissingBean(name = "selfConfParamOps")
     public ConfParamOps selfConfParamOps() {
-        return new SelfKeymasterConfParamOps(selfKeymasterRESTClientFactoryBean());
+        return new CachingConfParamOps(
+                new SelfKeymasterConfParamOps(selfKeymasterRESTClientFactoryBean()), confParamCacheMaxAge);
     }
 
     @ConditionalOnExpression("#{'${keymaster.address}' matches '^http.+'}")
     @Bean
     @ConditionalOnMissingBean(name = "selfServiceOps")
     public ServiceOps selfServiceOps() {
-        return new SelfKeymasterServiceOps(selfKeymasterRESTClientFactoryBean(), 5);
+        return new CachingServiceOps(
+                new SelfKeymasterServiceOps(selfKeymasterRESTClientFactoryBean(), 5), serviceCacheMaxAge);
     }
 
     @ConditionalOnExpression("#{'${keymaster.address}' matches '^http.+'}")
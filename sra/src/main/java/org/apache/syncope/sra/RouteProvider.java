@@ -20,7 +20,10 @@ package org.apache.syncope.sra;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.lang3.BooleanUtils;
@@ -107,7 +110,7 @@ public class RouteProvider {
     @Value("${useGZIPCompression}")
     private boolean useGZIPCompression;
 
-    private SyncopeClient client;
+    private final Map<String, SyncopeClient> clients = new ConcurrentHashMap<>();
 
     @SuppressWarnings("unchecked")
     private GatewayFilter toFilter(final String routeId, final GatewayRouteFilter gwfilter)
@@ -451,22 +454,41 @@ public class RouteProvider {
         return builder;
     }
 
+    // one client per Core instance, as ServiceOps selects a different one at each invocation
+    private SyncopeClient client(final String address) {
+        return clients.computeIfAbsent(address, a -> new SyncopeClientFactoryBean().
+                setAddress(a).
+                setUseCompression(useGZIPCompression).
+                create(new AnonymousAuthenticationHandler(anonymousUser, anonymousKey)));
+    }
+
     public List<Route.AsyncBuilder> fetch() {
-        synchronized (this) {
-            if (client == null) {
+        List<GatewayRouteTO> gwroutes = null;
+        try {
+            Set<String> addresses = serviceOps.list(NetworkService.Type.CORE).stream().
+                    map(NetworkService::getAddress).collect(Collectors.toSet());
+            // drop clients for Core instances no longer registered
+            clients.keySet().retainAll(addresses);
+
+            // try each Core instance at most once, moving to the next one when unreachable
+            for (int i = 0; i < addresses.size() && gwroutes == null; i++) {
+                String address = serviceOps.get(NetworkService.Type.CORE).getAddress();
                 try {
-                    client = new SyncopeClientFactoryBean().
-                            setAddress(serviceOps.get(NetworkService.Type.CORE).getAddress()).
-                            setUseCompression(useGZIPCompression).
-                            create(new AnonymousAuthenticationHandler(anonymousUser, anonymousKey));
+                    gwroutes = client(address).getService(GatewayRouteService.class).list();
                 } catch (Exception e) {
-                    LOG.error("Could not init SyncopeClient", e);
-                    return List.of();
+                    LOG.warn("Could not fetch routes from {}, trying next Core instance", address, e);
+                    clients.remove(address);
                 }
             }
+        } catch (Exception e) {
+            LOG.error("Could not look up Core instances", e);
+        }
+        if (gwroutes == null) {
+            LOG.error("Could not fetch routes from any Core instance");
+            return List.of();
         }
 
-        return client.getService(GatewayRouteService.class).list().stream().
+        return gwroutes.stream().
                 filter(gwroute -> gwroute.getStatus() == GatewayRouteStatus.PUBLISHED).
                 map(this::toRoute).
                 collect(Collectors.toList());